@@ -40,9 +40,22 @@ CREATE TABLE crawler_tasks (
   source VARCHAR(100) NOT NULL,
   frequency VARCHAR(50) NOT NULL,
   last_run DATETIME NULL,
-  next_run VARCHAR(50) NOT NULL, -- Display string like "Pending" or date
-  status VARCHAR(20) NOT NULL DEFAULT 'Active',
-  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+  next_run DATETIME NULL, -- 下一次计划运行时间；只执行一次的任务为 NULL
+  status VARCHAR(20) NOT NULL DEFAULT 'Active', -- 启用状态 Active / Paused
+  last_status VARCHAR(20) NULL, -- 最近一次执行结果 Completed / Failed
+  priority INT NOT NULL DEFAULT 0,
+  run_state VARCHAR(20) NOT NULL DEFAULT 'Idle', -- Idle / Queued / Running
+  queued_at DATETIME(3) NULL,
+  started_at DATETIME NULL,
+  owner VARCHAR(128) NULL, -- 运行中任务的持有实例
+  lease_expires_at DATETIME(3) NULL, -- 持有实例定期续约，过期后可由其他实例重新排队
+  last_inserted INT NOT NULL DEFAULT 0,
+  last_updated INT NOT NULL DEFAULT 0,
+  last_skipped INT NOT NULL DEFAULT 0,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  KEY idx_run_state_priority (run_state, priority, queued_at),
+  KEY idx_run_state_lease (run_state, lease_expires_at),
+  KEY idx_status_next_run (status, next_run)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- resumes (ResumeRepository)
@@ -55,6 +68,8 @@ CREATE TABLE resumes (
   created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
   updated_at DATETIME NULL DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP,
   KEY idx_user_id (user_id),
+  KEY idx_user_updated (user_id, updated_at),
+  KEY idx_updated_at (updated_at),
   CONSTRAINT fk_resumes_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -68,9 +83,61 @@ CREATE TABLE job_positions (
   salary VARCHAR(50) NULL,
   source_url VARCHAR(255) NULL,
   crawl_time DATETIME NOT NULL,
+  url_hash CHAR(64) NULL, -- 归一化来源 URL 的 SHA-256，见 JobFingerprint
+  content_hash CHAR(64) NULL,
+  UNIQUE KEY uk_url_hash (url_hash),
   KEY idx_crawl_time (crawl_time),
   KEY idx_job_title (job_title),
   KEY idx_company_name (company_name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- ai_response_cache (AiCacheRepository)
+CREATE TABLE ai_response_cache (
+  cache_key CHAR(64) PRIMARY KEY,
+  operation VARCHAR(32) NOT NULL,
+  payload MEDIUMTEXT NOT NULL,
+  created_at DATETIME NOT NULL,
+  expires_at DATETIME NOT NULL,
+  KEY idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- stats_counters (StatsRepository)
+CREATE TABLE stats_counters (
+  name VARCHAR(32) PRIMARY KEY,
+  total BIGINT NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- stats_job_daily (StatsRepository)
+CREATE TABLE stats_job_daily (
+  stat_date DATE NOT NULL,
+  source VARCHAR(100) NOT NULL,
+  jobs INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (stat_date, source)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- stats_job_source (StatsRepository)
+CREATE TABLE stats_job_source (
+  source VARCHAR(100) PRIMARY KEY,
+  jobs INT NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- rate_limit_counters (RateLimitRepository)
+CREATE TABLE rate_limit_counters (
+  bucket_key VARCHAR(255) NOT NULL,
+  window_start BIGINT NOT NULL,
+  hits INT NOT NULL DEFAULT 0,
+  expires_at BIGINT NOT NULL,
+  PRIMARY KEY (bucket_key, window_start),
+  KEY idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ai_usage (AiUsageRepository)
+CREATE TABLE ai_usage (
+  user_id BIGINT NOT NULL,
+  usage_date DATE NOT NULL,
+  requests INT NOT NULL DEFAULT 0,
+  tokens BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (user_id, usage_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 SET FOREIGN_KEY_CHECKS = 1;
\ No newline at end of file
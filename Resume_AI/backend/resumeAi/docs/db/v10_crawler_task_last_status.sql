@@ -0,0 +1,6 @@
+-- 数据库迁移脚本：爬虫任务执行结果
+-- 说明：执行结果（Completed / Failed）改为写入 last_status，status 只保存启用状态（Active / Paused）；
+-- 此前被执行结果覆盖的任务恢复为 Active，否则调度器不会再认领它们
+
+ALTER TABLE crawler_tasks ADD COLUMN last_status VARCHAR(20) NULL AFTER status;
+UPDATE crawler_tasks SET last_status = status, status = 'Active' WHERE status IN ('Completed', 'Failed');
@@ -0,0 +1,11 @@
+-- 数据库迁移脚本：AI 响应缓存持久化（ai.cache.persist=true 时使用）
+-- 说明：已有库请运行此脚本新增表，新库直接使用 schema.sql
+
+CREATE TABLE IF NOT EXISTS ai_response_cache (
+  cache_key CHAR(64) PRIMARY KEY,
+  operation VARCHAR(32) NOT NULL,
+  payload MEDIUMTEXT NOT NULL,
+  created_at DATETIME NOT NULL,
+  expires_at DATETIME NOT NULL,
+  KEY idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,8 @@
+-- 数据库迁移脚本：爬虫任务持久化队列
+-- 说明：crawler_tasks 兼作爬虫执行队列，run_state 记录排队/运行状态，重启后 Queued 与中断的 Running 任务会被重新调度
+
+ALTER TABLE crawler_tasks ADD COLUMN priority INT NOT NULL DEFAULT 0;
+ALTER TABLE crawler_tasks ADD COLUMN run_state VARCHAR(20) NOT NULL DEFAULT 'Idle';
+ALTER TABLE crawler_tasks ADD COLUMN queued_at DATETIME(3) NULL;
+ALTER TABLE crawler_tasks ADD COLUMN started_at DATETIME NULL;
+CREATE INDEX idx_run_state_priority ON crawler_tasks (run_state, priority, queued_at);
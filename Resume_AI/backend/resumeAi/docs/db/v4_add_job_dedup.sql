@@ -0,0 +1,11 @@
+-- 数据库迁移脚本：职位去重与 upsert
+-- 说明：url_hash 为归一化来源 URL 的 SHA-256，作为 job_positions 的唯一键；content_hash 用于判断内容是否变化。
+-- 历史数据的指纹由应用启动时补写（JobDeduplicator），URL 重复的旧记录只保留最新一条。
+
+ALTER TABLE job_positions ADD COLUMN url_hash CHAR(64) NULL;
+ALTER TABLE job_positions ADD COLUMN content_hash CHAR(64) NULL;
+CREATE UNIQUE INDEX uk_url_hash ON job_positions (url_hash);
+
+ALTER TABLE crawler_tasks ADD COLUMN last_inserted INT NOT NULL DEFAULT 0;
+ALTER TABLE crawler_tasks ADD COLUMN last_updated INT NOT NULL DEFAULT 0;
+ALTER TABLE crawler_tasks ADD COLUMN last_skipped INT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- 数据库迁移脚本：爬虫任务定时调度
+-- 说明：next_run 改为 DATETIME，由 CrawlerScheduler 按 (status, next_run) 轮询到期任务；
+-- 原先的 "Pending" 等非时间值置为 NULL，应用启动时会按运行周期重新排定
+
+UPDATE crawler_tasks SET next_run = NULL WHERE next_run NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}';
+UPDATE crawler_tasks SET next_run = REPLACE(next_run, 'T', ' ') WHERE next_run IS NOT NULL;
+ALTER TABLE crawler_tasks MODIFY COLUMN next_run DATETIME NULL;
+CREATE INDEX idx_status_next_run ON crawler_tasks (status, next_run);
@@ -0,0 +1,6 @@
+-- 数据库迁移脚本：列表接口键集分页
+-- 说明：简历列表按 (updated_at, id) 倒序键集分页；InnoDB 二级索引隐含主键，索引即覆盖 (updated_at, id) 排序。
+-- 职位列表使用已有的 idx_crawl_time，用户列表使用主键
+
+CREATE INDEX idx_user_updated ON resumes (user_id, updated_at);
+CREATE INDEX idx_updated_at ON resumes (updated_at);
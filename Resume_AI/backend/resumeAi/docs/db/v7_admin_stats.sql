@@ -0,0 +1,23 @@
+-- 数据库迁移脚本：管理后台统计聚合表
+-- 说明：仪表盘计数、近 7 天抓取趋势与来源分布改为读取增量维护的聚合表；
+-- 表为空时应用启动后自动全量重算，也可调用 POST /api/admin/stats/rebuild 手动重算
+
+-- stats_counters (StatsRepository)
+CREATE TABLE stats_counters (
+  name VARCHAR(32) PRIMARY KEY,
+  total BIGINT NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- stats_job_daily (StatsRepository)
+CREATE TABLE stats_job_daily (
+  stat_date DATE NOT NULL,
+  source VARCHAR(100) NOT NULL,
+  jobs INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (stat_date, source)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- stats_job_source (StatsRepository)
+CREATE TABLE stats_job_source (
+  source VARCHAR(100) PRIMARY KEY,
+  jobs INT NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
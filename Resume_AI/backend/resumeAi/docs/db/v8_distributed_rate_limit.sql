@@ -0,0 +1,22 @@
+-- 数据库迁移脚本：多实例共享限流与 AI 每日配额
+-- 说明：rate_limit_counters 仅在 ratelimit.store=database 时使用，按固定窗口记录已发放的请求额度，过期行由应用定期删除；
+-- ai_usage 按用户、按天累计 AI 请求次数与 token 用量
+
+-- rate_limit_counters (RateLimitRepository)
+CREATE TABLE rate_limit_counters (
+  bucket_key VARCHAR(255) NOT NULL,
+  window_start BIGINT NOT NULL,
+  hits INT NOT NULL DEFAULT 0,
+  expires_at BIGINT NOT NULL,
+  PRIMARY KEY (bucket_key, window_start),
+  KEY idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ai_usage (AiUsageRepository)
+CREATE TABLE ai_usage (
+  user_id BIGINT NOT NULL,
+  usage_date DATE NOT NULL,
+  requests INT NOT NULL DEFAULT 0,
+  tokens BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (user_id, usage_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
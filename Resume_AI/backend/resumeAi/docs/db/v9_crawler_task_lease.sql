@@ -0,0 +1,7 @@
+-- 数据库迁移脚本：爬虫任务租约
+-- 说明：多实例部署时，认领任务的实例写入 owner 与 lease_expires_at 并定期续约；
+-- 重启或巡检时只把租约已过期（或由本实例持有）的运行中任务重新排队，不会抢走其他存活实例正在执行的任务
+
+ALTER TABLE crawler_tasks ADD COLUMN owner VARCHAR(128) NULL;
+ALTER TABLE crawler_tasks ADD COLUMN lease_expires_at DATETIME(3) NULL;
+CREATE INDEX idx_run_state_lease ON crawler_tasks (run_state, lease_expires_at);
@@ -0,0 +1,66 @@
+package com.resume.resumeai.bench;
+
+import com.resume.resumeai.domain.JobPosition;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试用的合成数据：固定随机种子，保证多次运行、不同版本之间输入一致
+ */
+public final class SyntheticData {
+    private static final String[] LATIN = {
+            "java", "spring", "boot", "mysql", "redis", "kafka", "docker", "kubernetes", "linux", "python",
+            "golang", "react", "vue", "typescript", "microservice", "backend", "frontend", "api", "sql", "git",
+            "c++", "c#", "rust", "aws", "jvm", "netty", "elasticsearch", "hadoop", "spark", "flink"
+    };
+    private static final String[] CJK = {
+            "后端开发", "前端开发", "数据分析", "产品经理", "算法工程师", "测试工程师", "运维", "微服务",
+            "分布式", "高并发", "数据库", "缓存", "消息队列", "机器学习", "深度学习", "推荐系统",
+            "实习生", "本科", "硕士", "沟通能力", "团队合作", "责任心", "熟悉", "精通", "负责", "参与"
+    };
+    private static final String[] CITIES = {"北京", "上海", "深圳", "杭州", "广州", "成都", "南京", "武汉"};
+
+    public enum Script { LATIN, CJK, MIXED }
+
+    private SyntheticData() {}
+
+    /**
+     * 生成由 words 个词组成的文本，词之间以空格分隔
+     */
+    public static String text(Script script, int words, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        StringBuilder sb = new StringBuilder(words * 6);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            boolean cjk = script == Script.CJK || (script == Script.MIXED && rnd.nextBoolean());
+            String[] pool = cjk ? CJK : LATIN;
+            sb.append(pool[rnd.nextInt(pool.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 生成 n 个职位，id 从 1 开始连续递增
+     */
+    public static List<JobPosition> jobs(int n, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<JobPosition> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            JobPosition j = new JobPosition();
+            j.setId((long) i + 1);
+            j.setJobTitle(text(Script.MIXED, 3, rnd.nextLong()));
+            j.setCompanyName("公司" + rnd.nextInt(5000));
+            j.setJobDescription(text(Script.MIXED, 24, rnd.nextLong()));
+            j.setLocation(CITIES[rnd.nextInt(CITIES.length)]);
+            j.setSalary((10 + rnd.nextInt(30)) + "k");
+            j.setSourceUrl("https://example.com/job/" + (i + 1));
+            j.setCrawlTime(base.plusMinutes(i));
+            out.add(j);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,153 @@
+package com.resume.resumeai.crawler;
+
+import org.apache.fontbox.ttf.CmapSubtable;
+import org.apache.fontbox.ttf.CmapTable;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Inflater;
+
+/**
+ * 实习僧反爬字体解码与描述文本替换：legacy* 为改造前的实现（逐表复制 + DataOutputStream 拼接、FontBox 全量解析、
+ * HashMap&lt;Integer, Character&gt; 查表），用于对比。分配量用 -Djmh.args="FontDecodeBenchmark -prof gc" 查看 gc.alloc.rate.norm。
+ * 字体默认读取 src/test/resources/fixtures/fonts/pua-sample.woff，可用 -Dbench.font=... 换成抓取到的真实字体。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FontDecodeBenchmark {
+
+    @Param({"512", "8192"})
+    public int descriptionChars;
+
+    private byte[] font;
+    private String description;
+    private FontMap fontMap;
+    private Map<Integer, Character> legacyMap;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        font = Files.readAllBytes(Path.of(System.getProperty("bench.font",
+                "src/test/resources/fixtures/fonts/pua-sample.woff")));
+        fontMap = FontDecoder.decode(font, ShixisengCrawler.PLAIN_TEXTS);
+        legacyMap = legacyDecodeFont();
+        char[] codes = new char[fontMap.size()];
+        int n = 0;
+        for (int c = FontMap.FIRST; c <= FontMap.LAST; c++) {
+            if (fontMap.map((char) c) != c) codes[n++] = (char) c;
+        }
+        // 约三分之一为私用区字符，与详情页中数字、常用字被替换的比例相近
+        String plain = "负责后端服务开发 java spring ";
+        SplittableRandom rnd = new SplittableRandom(42);
+        StringBuilder sb = new StringBuilder(descriptionChars);
+        while (sb.length() < descriptionChars) {
+            sb.append(rnd.nextInt(3) == 0 ? codes[rnd.nextInt(n)] : plain.charAt(rnd.nextInt(plain.length())));
+        }
+        description = sb.toString();
+    }
+
+    @Benchmark
+    public FontMap decodeFont() throws IOException {
+        return FontDecoder.decode(font, ShixisengCrawler.PLAIN_TEXTS);
+    }
+
+    @Benchmark
+    public Map<Integer, Character> legacyDecodeFont() throws Exception {
+        Map<Integer, Character> map = new HashMap<>();
+        try (TrueTypeFont ttf = new TTFParser().parse(new ByteArrayInputStream(legacyWoffToTtf(font)))) {
+            CmapSubtable cmap = ttf.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_1_0);
+            if (cmap == null) cmap = ttf.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_2_0_BMP);
+            for (int code = FontMap.FIRST; code <= FontMap.LAST; code++) {
+                int glyphId = cmap.getGlyphId(code);
+                if (glyphId > 1 && glyphId - 2 < ShixisengCrawler.PLAIN_TEXTS.length()) {
+                    map.put(code, ShixisengCrawler.PLAIN_TEXTS.charAt(glyphId - 2));
+                }
+            }
+        }
+        return map;
+    }
+
+    @Benchmark
+    public String decodeText() {
+        return fontMap.decode(description);
+    }
+
+    @Benchmark
+    public String legacyDecodeText() {
+        StringBuilder sb = new StringBuilder();
+        for (char c : description.toCharArray()) {
+            int code = c;
+            if (legacyMap.containsKey(code)) {
+                sb.append(legacyMap.get(code));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static byte[] legacyWoffToTtf(byte[] woff) throws Exception {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(woff));
+        in.readInt();
+        int flavor = in.readInt();
+        in.readInt();
+        int numTables = in.readShort();
+        in.readShort();
+        int totalSfntSize = in.readInt();
+        in.skipBytes(24);
+        int[][] dir = new int[numTables][5];
+        byte[][] data = new byte[numTables][];
+        for (int i = 0; i < numTables; i++) {
+            for (int j = 0; j < 5; j++) dir[i][j] = in.readInt();
+        }
+        for (int i = 0; i < numTables; i++) {
+            byte[] tableData = new byte[dir[i][2]];
+            System.arraycopy(woff, dir[i][1], tableData, 0, dir[i][2]);
+            if (dir[i][2] < dir[i][3]) {
+                Inflater inflater = new Inflater();
+                inflater.setInput(tableData);
+                byte[] decompressed = new byte[dir[i][3]];
+                inflater.inflate(decompressed);
+                inflater.end();
+                data[i] = decompressed;
+            } else {
+                data[i] = tableData;
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(totalSfntSize);
+        DataOutputStream out = new DataOutputStream(bytes);
+        int entrySelector = 31 - Integer.numberOfLeadingZeros(numTables);
+        int searchRange = (1 << entrySelector) * 16;
+        out.writeInt(flavor);
+        out.writeShort(numTables);
+        out.writeShort(searchRange);
+        out.writeShort(entrySelector);
+        out.writeShort(numTables * 16 - searchRange);
+        int offset = 12 + numTables * 16;
+        for (int i = 0; i < numTables; i++) {
+            offset = (offset + 3) & ~3;
+            out.writeInt(dir[i][0]);
+            out.writeInt(dir[i][4]);
+            out.writeInt(offset);
+            out.writeInt(dir[i][3]);
+            offset += dir[i][3];
+        }
+        for (int i = 0; i < numTables; i++) {
+            while (out.size() % 4 != 0) out.writeByte(0);
+            out.write(data[i]);
+        }
+        while (out.size() % 4 != 0) out.writeByte(0);
+        return bytes.toByteArray();
+    }
+}
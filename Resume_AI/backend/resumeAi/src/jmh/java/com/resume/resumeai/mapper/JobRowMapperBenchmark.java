@@ -0,0 +1,66 @@
+package com.resume.resumeai.mapper;
+
+import com.resume.resumeai.bench.SyntheticData;
+import com.resume.resumeai.domain.JobPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JobRowMapper 逐行映射的耗时；以 JDK 自带的 CachedRowSet 作为内存结果集，排除数据库与网络开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobRowMapperBenchmark {
+    private static final String[] COLUMNS = {
+            "id", "job_title", "company_name", "job_description", "location", "salary", "source_url", "crawl_time"
+    };
+
+    @Param({"50", "2000"})
+    public int rows;
+
+    private CachedRowSet rs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        RowSetMetaDataImpl meta = new RowSetMetaDataImpl();
+        meta.setColumnCount(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            meta.setColumnName(i + 1, COLUMNS[i]);
+            meta.setColumnType(i + 1, i == 0 ? Types.BIGINT : i == COLUMNS.length - 1 ? Types.TIMESTAMP : Types.VARCHAR);
+        }
+        rs = RowSetProvider.newFactory().createCachedRowSet();
+        rs.setMetaData(meta);
+        for (JobPosition j : SyntheticData.jobs(rows, 3L)) {
+            rs.moveToInsertRow();
+            rs.updateLong(1, j.getId());
+            rs.updateString(2, j.getJobTitle());
+            rs.updateString(3, j.getCompanyName());
+            rs.updateString(4, j.getJobDescription());
+            rs.updateString(5, j.getLocation());
+            rs.updateString(6, j.getSalary());
+            rs.updateString(7, j.getSourceUrl());
+            rs.updateTimestamp(8, Timestamp.valueOf(j.getCrawlTime()));
+            rs.insertRow();
+            rs.moveToCurrentRow();
+        }
+    }
+
+    @Benchmark
+    public void mapAll(Blackhole bh) throws SQLException {
+        rs.beforeFirst();
+        int n = 0;
+        while (rs.next()) bh.consume(JobRowMapper.INSTANCE.mapRow(rs, n++));
+    }
+}
@@ -0,0 +1,46 @@
+package com.resume.resumeai.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil.verify 在合法令牌与签名被篡改令牌上的耗时（每个受保护请求都会走这条路径）；
+ * verifyValid 命中已校验令牌缓存，verifyValidUncached 为关闭缓存时的完整校验
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncached;
+    private String token;
+    private String tampered;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil("bench_secret", 30);
+        uncached = new JwtUtil("bench_secret", 30, 0);
+        token = jwtUtil.issueToken(123L, "user@example.com");
+        tampered = token.substring(0, token.length() - 2) + "__";
+    }
+
+    @Benchmark
+    public JwtUtil.Claims verifyValid() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.Claims verifyValidUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.Claims verifyTampered() {
+        return jwtUtil.verify(tampered);
+    }
+}
@@ -0,0 +1,60 @@
+package com.resume.resumeai.security;
+
+import com.resume.resumeai.domain.User;
+import com.resume.resumeai.domain.dto.LoginRequest;
+import com.resume.resumeai.repository.UserRepository;
+import com.resume.resumeai.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 16 个并发调用方持续登录时 AuthService.login 的吞吐（次/秒），按口令哈希线程数对比；
+ * 仓库为内存桩，结果只反映 BCrypt（strength=10）与线程池的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(16)
+@Fork(1)
+public class LoginThroughputBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int hashThreads;
+
+    private PasswordHasher passwordHasher;
+    private AuthService authService;
+    private LoginRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+        user.setPasswordHash(new BCryptPasswordEncoder(10).encode("password"));
+        UserRepository users = new UserRepository(null, null, null) {
+            @Override
+            public User findByEmail(String email) { return user; }
+        };
+        passwordHasher = new PasswordHasher(new SimpleMeterRegistry(), 10, hashThreads, 1024, 60_000);
+        authService = new AuthService(users, new JwtUtil("bench_secret", 30), passwordHasher);
+        request = new LoginRequest();
+        request.setEmail("user@example.com");
+        request.setPassword("password");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Benchmark
+    public Map<String, Object> login() {
+        return authService.login(request);
+    }
+}
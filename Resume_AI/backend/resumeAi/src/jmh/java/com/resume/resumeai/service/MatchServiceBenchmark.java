@@ -0,0 +1,81 @@
+package com.resume.resumeai.service;
+
+import com.resume.resumeai.bench.SyntheticData;
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.search.JobSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MatchService.recommend 在合成职位库上的耗时；仓储以内存实现替代数据库，仅衡量打分与取 Top-K 的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class MatchServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int corpus;
+
+    private MatchService matchService;
+    private Map<String, Object> resumePayload;
+    private Map<String, Object> keywordPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JobRepository repo = new InMemoryJobRepository(SyntheticData.jobs(corpus, 42L));
+        JobSearchIndex index = new JobSearchIndex(repo, true);
+        index.rebuild();
+        matchService = new MatchService(repo, index);
+        resumePayload = Map.of("resumeText", SyntheticData.text(SyntheticData.Script.MIXED, 300, 7L));
+        keywordPayload = Map.of("keywords", "java spring 后端开发 北京");
+    }
+
+    @Benchmark
+    public Object recommendByResume() {
+        return matchService.recommend(resumePayload);
+    }
+
+    @Benchmark
+    public Object recommendByKeywords() {
+        return matchService.recommend(keywordPayload);
+    }
+
+    /**
+     * 只读内存仓储，覆盖索引加载与回表用到的查询
+     */
+    static class InMemoryJobRepository extends JobRepository {
+        private final List<JobPosition> jobs;
+
+        InMemoryJobRepository(List<JobPosition> jobs) {
+            super(null, event -> {}, null, null);
+            this.jobs = jobs;
+        }
+
+        @Override
+        public List<JobPosition> findBatchAfterId(long afterId, int limit) {
+            int from = (int) Math.min(afterId, jobs.size());
+            return jobs.subList(from, Math.min(from + limit, jobs.size()));
+        }
+
+        @Override
+        public List<JobPosition> findByIds(List<Long> ids) {
+            List<JobPosition> out = new ArrayList<>(ids.size());
+            for (Long id : ids) out.add(jobs.get((int) (id - 1)));
+            return out;
+        }
+
+        @Override
+        public List<JobPosition> search(String keywords, String city, int offset, int limit) {
+            return jobs.subList(Math.min(offset, jobs.size()), Math.min(offset + limit, jobs.size()));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.resume.resumeai.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AiService.sanitizeJson 对常见模型输出形态的清洗耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SanitizeJsonBenchmark {
+
+    @Param({"FENCED", "PREFIXED", "PLAIN"})
+    public String shape;
+
+    @Param({"64", "8192"})
+    public int bodyChars;
+
+    private String input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder body = new StringBuilder("{\"polished_text\":\"");
+        while (body.length() < bodyChars) body.append("负责后端服务开发 java spring ");
+        body.append("\"}");
+        input = switch (shape) {
+            case "FENCED" -> "```json\n" + body + "\n```";
+            case "PREFIXED" -> "json\n" + body;
+            default -> body.toString();
+        };
+    }
+
+    @Benchmark
+    public String sanitize() {
+        return AiService.sanitizeJson(input);
+    }
+}
@@ -0,0 +1,41 @@
+package com.resume.resumeai.util;
+
+import com.resume.resumeai.bench.SyntheticData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TextMatcher 两种打分模式在不同输入规模、中英文文本下的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextMatcherBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int words;
+
+    @Param({"LATIN", "CJK"})
+    public SyntheticData.Script script;
+
+    @Param({"WHITESPACE", "HASHED"})
+    public TextMatcher.Mode mode;
+
+    private String resume;
+    private String job;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        resume = SyntheticData.text(script, words, 1L);
+        job = SyntheticData.text(script, words, 2L);
+    }
+
+    @Benchmark
+    public double score() {
+        return TextMatcher.score(resume, job, mode);
+    }
+}
@@ -1,34 +1,45 @@
 package com.resume.resumeai.advice;
 
-import java.util.UUID;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.resume.resumeai.util.TraceIds;
 
 public class ApiResponse<T> {
     private String code;
     private String message;
     private T data;
     private String traceId;
+    /** 键集分页的下一页游标，仅游标模式的列表接口返回；为空表示没有下一页 */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
     public static <T> ApiResponse<T> ok(T data) {
         ApiResponse<T> r = new ApiResponse<>();
         r.code = "OK";
         r.message = "success";
         r.data = data;
-        r.traceId = UUID.randomUUID().toString();
+        r.traceId = TraceIds.current();
+        return r;
+    }
+    public static <T> ApiResponse<T> ok(T data, String nextCursor) {
+        ApiResponse<T> r = ok(data);
+        r.nextCursor = nextCursor;
         return r;
     }
     public static <T> ApiResponse<T> error(String code, String message) {
         ApiResponse<T> r = new ApiResponse<>();
         r.code = code;
         r.message = message;
-        r.traceId = UUID.randomUUID().toString();
+        r.traceId = TraceIds.current();
         return r;
     }
     public String getCode() { return code; }
     public String getMessage() { return message; }
     public T getData() { return data; }
     public String getTraceId() { return traceId; }
+    public String getNextCursor() { return nextCursor; }
     public void setCode(String code) { this.code = code; }
     public void setMessage(String message) { this.message = message; }
     public void setData(T data) { this.data = data; }
     public void setTraceId(String traceId) { this.traceId = traceId; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.resume.resumeai.advice;
 
+import com.resume.resumeai.crawler.CrawlerQueueFullException;
+import com.resume.resumeai.security.PasswordHasherBusyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
@@ -32,6 +34,20 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<Object>> forbidden(SecurityException ex) {
         return ResponseEntity.status(403).body(ApiResponse.error("FORBIDDEN", ex.getMessage()));
     }
+    /**
+     * 爬虫队列已满：返回 429 并提示稍后重试
+     */
+    @ExceptionHandler(CrawlerQueueFullException.class)
+    public ResponseEntity<ApiResponse<Object>> crawlerBusy(CrawlerQueueFullException ex) {
+        return ResponseEntity.status(429).header("Retry-After", "60").body(ApiResponse.error("CRAWLER_QUEUE_FULL", ex.getMessage()));
+    }
+    /**
+     * 口令哈希线程池已满：返回 503，登录/注册可在 1 秒后重试
+     */
+    @ExceptionHandler(PasswordHasherBusyException.class)
+    public ResponseEntity<ApiResponse<Object>> authBusy(PasswordHasherBusyException ex) {
+        return ResponseEntity.status(503).header("Retry-After", "1").body(ApiResponse.error("AUTH_BUSY", ex.getMessage()));
+    }
     /**
      * 处理数据库访问相关异常，统一返回 500，并记录详细错误日志
      */
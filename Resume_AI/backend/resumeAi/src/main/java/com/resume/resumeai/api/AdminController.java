@@ -18,8 +18,10 @@ import com.resume.resumeai.domain.CrawlerTask;
 import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.domain.User;
 import com.resume.resumeai.service.AdminService;
+import com.resume.resumeai.util.CursorPage;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 @RestController
@@ -37,10 +39,23 @@ public class AdminController {
         return ApiResponse.ok(adminService.getStats());
     }
 
+    @PostMapping("/stats/rebuild")
+    @Operation(summary = "重算统计", description = "清空并从业务表全量重算仪表盘统计聚合数据")
+    public ApiResponse<Boolean> rebuildStats() {
+        adminService.rebuildStats();
+        return ApiResponse.ok(true);
+    }
+
     @GetMapping("/users")
     @Operation(summary = "用户列表", description = "分页获取用户列表")
     public ApiResponse<List<User>> listUsers(@RequestParam(defaultValue="1") int page,
-                                             @RequestParam(defaultValue="20") int pageSize) {
+                                             @RequestParam(defaultValue="20") int pageSize,
+                                             @Parameter(description = "游标分页：首页传空串，之后传响应中的 next_cursor")
+                                             @RequestParam(required=false) String cursor) {
+        if (cursor != null) {
+            CursorPage<User> result = adminService.listUsersAfter(cursor, pageSize);
+            return ApiResponse.ok(result.items(), result.nextCursor());
+        }
         return ApiResponse.ok(adminService.listUsers(page, pageSize));
     }
 
@@ -65,7 +80,13 @@ public class AdminController {
     @GetMapping("/jobs")
     @Operation(summary = "职位列表", description = "获取所有职位列表（分页）")
     public ApiResponse<Map<String, Object>> listJobs(@RequestParam(defaultValue="1") int page,
-                                                   @RequestParam(defaultValue="20") int pageSize) {
+                                                   @RequestParam(defaultValue="20") int pageSize,
+                                                   @Parameter(description = "游标分页：首页传空串，之后传响应中的 next_cursor；游标模式不返回 total")
+                                                   @RequestParam(required=false) String cursor) {
+        if (cursor != null) {
+            CursorPage<JobPosition> result = adminService.listJobsAfter(cursor, pageSize);
+            return ApiResponse.ok(Map.of("items", result.items()), result.nextCursor());
+        }
         return ApiResponse.ok(adminService.listJobs(page, pageSize));
     }
 
@@ -83,11 +104,23 @@ public class AdminController {
     }
 
     @PostMapping("/crawler/tasks")
-    @Operation(summary = "创建爬虫任务", description = "新建一个爬虫调度任务")
+    @Operation(summary = "创建爬虫任务", description = "新建一个爬虫调度任务并放入执行队列；队列已满时返回 429")
     public ApiResponse<CrawlerTask> createCrawlerTask(@RequestBody CrawlerTask task) {
         return ApiResponse.ok(adminService.createCrawlerTask(task));
     }
 
+    @PostMapping("/crawler/tasks/{id}/run")
+    @Operation(summary = "立即执行爬虫任务", description = "将已有任务放入执行队列；队列已满时返回 429")
+    public ApiResponse<CrawlerTask> runCrawlerTask(@PathVariable String id) {
+        return ApiResponse.ok(adminService.runCrawlerTask(id));
+    }
+
+    @GetMapping("/crawler/queue")
+    @Operation(summary = "爬虫队列状态", description = "并发上限、运行中与排队任务数、各站点运行数")
+    public ApiResponse<Map<String, Object>> getCrawlerQueue() {
+        return ApiResponse.ok(adminService.getCrawlerQueue());
+    }
+
     @DeleteMapping("/crawler/tasks/{id}")
     @Operation(summary = "删除爬虫任务", description = "移除一个爬虫调度任务")
     public ApiResponse<Boolean> deleteCrawlerTask(@PathVariable String id) {
@@ -7,7 +7,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -26,6 +29,15 @@ public class AiController {
         return ApiResponse.ok(aiService.polish(req));
     }
 
+    /**
+     * 简历润色（SSE 流式）
+     */
+    @PostMapping(value = "/polish/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "简历润色（流式）", description = "以 text/event-stream 逐段推送模型输出（delta 事件），结束时推送解析后的 ResumePolishResponse（result 事件），失败时推送 error 事件")
+    public Flux<ServerSentEvent<AiStreamEvent>> polishStream(@Valid @RequestBody ResumePolishRequest req) {
+        return aiService.polishStream(req).map(AiController::toSse);
+    }
+
     /**
      * 岗位推荐
      */
@@ -46,5 +58,18 @@ public class AiController {
     public ApiResponse<MatchReportResponse> matchReport(@Valid @RequestBody MatchReportRequest req) {
         return ApiResponse.ok(aiService.matchReport(req));
     }
+
+    /**
+     * 岗位匹配度评估（SSE 流式）
+     */
+    @PostMapping(value = "/match-report/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "岗位匹配度评估（流式）", description = "以 text/event-stream 逐段推送模型输出（delta 事件），结束时推送解析后的 MatchReportResponse（result 事件），失败时推送 error 事件")
+    public Flux<ServerSentEvent<AiStreamEvent>> matchReportStream(@Valid @RequestBody MatchReportRequest req) {
+        return aiService.matchReportStream(req).map(AiController::toSse);
+    }
+
+    private static ServerSentEvent<AiStreamEvent> toSse(AiStreamEvent e) {
+        return ServerSentEvent.builder(e).event(e.getType()).build();
+    }
 }
 
@@ -3,12 +3,12 @@ package com.resume.resumeai.api;
 import com.resume.resumeai.advice.ApiResponse;
 import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.service.JobService;
+import com.resume.resumeai.util.CursorPage;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,13 +20,19 @@ public class JobController {
     public JobController(JobService jobService) { this.jobService = jobService; }
 
     @GetMapping("/search")
-    @Operation(summary = "搜索职位", description = "根据关键字与城市进行分页搜索")
+    @Operation(summary = "搜索职位", description = "根据关键字与城市进行分页搜索；数据量大时 total 可能为估算值（totalEstimated=true）")
     public ApiResponse<Map<String, Object>> search(@RequestParam(required=false) String keywords,
                                                    @RequestParam(required=false) String city,
                                                    @RequestParam(defaultValue="1") int page,
-                                                   @RequestParam(defaultValue="10") int pageSize) {
-        List<JobPosition> items = jobService.search(keywords, city, page, pageSize);
-        int total = jobService.count(keywords, city);
-        return ApiResponse.ok(Map.of("items", items, "page", page, "pageSize", pageSize, "total", total));
+                                                   @RequestParam(defaultValue="10") int pageSize,
+                                                   @Parameter(description = "游标分页：首页传空串，之后传响应中的 next_cursor；游标模式不返回 total")
+                                                   @RequestParam(required=false) String cursor) {
+        if (cursor != null) {
+            CursorPage<JobPosition> result = jobService.searchAfter(keywords, city, cursor, pageSize);
+            return ApiResponse.ok(Map.of("items", result.items(), "pageSize", pageSize), result.nextCursor());
+        }
+        Map<String, Object> result = jobService.searchPage(keywords, city, page, pageSize);
+        return ApiResponse.ok(Map.of("items", result.get("items"), "page", page, "pageSize", pageSize,
+                "total", result.get("total"), "totalEstimated", result.get("totalEstimated")));
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import com.resume.resumeai.service.ResumeService;
+import com.resume.resumeai.util.CursorPage;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -50,7 +51,13 @@ public class ResumeController {
     @Operation(summary = "简历列表", description = "分页列出当前用户的简历")
     public ApiResponse<Map<String, Object>> list(@RequestParam(defaultValue="1") int page,
                                                  @RequestParam(defaultValue="10") int pageSize,
-                                                 @RequestParam(required=false) String status) {
+                                                 @RequestParam(required=false) String status,
+                                                 @Parameter(description = "游标分页：首页传空串，之后传响应中的 next_cursor；游标模式不返回 total")
+                                                 @RequestParam(required=false) String cursor) {
+        if (cursor != null) {
+            CursorPage<Resume> result = resumeService.listAfter(cursor, pageSize, status);
+            return ApiResponse.ok(Map.of("items", result.items(), "pageSize", pageSize), result.nextCursor());
+        }
         List<Resume> items = resumeService.list(page, pageSize, status);
         int total = resumeService.count(status);
         return ApiResponse.ok(Map.of("items", items, "page", page, "pageSize", pageSize, "total", total));
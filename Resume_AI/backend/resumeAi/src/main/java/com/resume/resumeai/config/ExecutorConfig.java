@@ -0,0 +1,22 @@
+package com.resume.resumeai.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 爬虫任务执行器：每个任务一个线程；开启 spring.threads.virtual.enabled 时使用虚拟线程，
+     * 爬虫大部分时间阻塞在 WebDriver 的 HTTP 调用与 JDBC 写入上，无需占用平台线程
+     */
+    @Bean
+    public TaskExecutor crawlerTaskExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("crawler-");
+        executor.setVirtualThreads(virtualThreads);
+        return executor;
+    }
+}
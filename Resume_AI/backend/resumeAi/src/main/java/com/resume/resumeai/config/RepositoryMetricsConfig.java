@@ -0,0 +1,104 @@
+package com.resume.resumeai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Repository;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class RepositoryMetricsConfig {
+
+    /**
+     * 为 @Repository Bean 的公开方法记录 JDBC 耗时（repository.invocations，标签 repository、method、exception）。
+     * 以 ProxyFactory 代理实现，不依赖 AspectJ 织入；已被其他后处理器（如异常转换）代理的 Bean 只追加一个 Advisor
+     */
+    @Bean
+    public static AbstractBeanFactoryAwareAdvisingPostProcessor repositoryMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${metrics.repository.enabled:true}") boolean enabled) {
+        RepositoryMetricsPostProcessor processor = new RepositoryMetricsPostProcessor(meterRegistry);
+        if (!enabled) processor.disable();
+        return processor;
+    }
+
+    static class RepositoryMetricsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+        private boolean enabled = true;
+
+        RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Repository.class, true),
+                    new TimingInterceptor(meterRegistry));
+            this.beforeExistingAdvisors = true;
+            setProxyTargetClass(true);
+        }
+
+        void disable() { this.enabled = false; }
+
+        @Override
+        protected boolean isEligible(Class<?> targetClass) {
+            return enabled && super.isEligible(targetClass);
+        }
+    }
+
+    /**
+     * 计时拦截器；MeterRegistry 在首次调用时才解析，避免后处理器过早初始化注册表。
+     * 成功调用的 Timer 按方法缓存，失败时按异常类型单独注册
+     */
+    static class TimingInterceptor implements MethodInterceptor {
+        private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+        private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+        private volatile MeterRegistry meterRegistry;
+
+        TimingInterceptor(ObjectProvider<MeterRegistry> meterRegistry) { this.meterRegistryProvider = meterRegistry; }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            if (method.getDeclaringClass() == Object.class) return invocation.proceed();
+            long start = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                timers.computeIfAbsent(method, m -> timer(invocation, "none"))
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (Throwable e) {
+                timer(invocation, e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+
+        private Timer timer(MethodInvocation invocation, String exception) {
+            Class<?> target = invocation.getThis() == null ? invocation.getMethod().getDeclaringClass()
+                    : AopUtils.getTargetClass(invocation.getThis());
+            return Timer.builder("repository.invocations")
+                    .description("Repository 方法（JDBC）耗时")
+                    .tag("repository", target.getSimpleName())
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("exception", exception)
+                    .register(registry());
+        }
+
+        private MeterRegistry registry() {
+            MeterRegistry r = meterRegistry;
+            if (r == null) {
+                r = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+                meterRegistry = r;
+            }
+            return r;
+        }
+    }
+}
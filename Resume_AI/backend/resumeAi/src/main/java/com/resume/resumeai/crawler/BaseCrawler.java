@@ -1,8 +1,23 @@
 package com.resume.resumeai.crawler;
 
 import com.resume.resumeai.domain.JobPosition;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public interface BaseCrawler {
-    List<JobPosition> crawl(String keyword, String city);
+    /**
+     * 流式抓取：每得到一条或一批职位即回调 sink，实现不在内存中保留整次抓取的结果
+     */
+    void crawl(String keyword, String city, JobSink sink);
+
+    /**
+     * 抓取并收集全部结果，仅用于结果规模很小的场景（如测试）
+     */
+    default List<JobPosition> crawl(String keyword, String city) {
+        List<JobPosition> jobs = Collections.synchronizedList(new ArrayList<>());
+        crawl(keyword, city, jobs::addAll);
+        return jobs;
+    }
 }
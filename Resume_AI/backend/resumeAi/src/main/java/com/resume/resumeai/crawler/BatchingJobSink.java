@@ -0,0 +1,68 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.JobPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 按固定条数分批的 sink：爬虫逐条回调，攒满 batchSize 条，或距本批第一条超过 maxDelay 时交给下游写库，
+ * 内存中最多缓存一批。下游按顺序串行调用。抓取结束（包括异常结束）后须调用 {@link #flush()} 写出剩余部分。
+ */
+class BatchingJobSink implements JobSink {
+    private final JobSink downstream;
+    private final int batchSize;
+    private final long maxDelayMillis;
+    private final LongSupplier clock;
+    private final Object writeLock = new Object();
+
+    /** 由 this 保护 */
+    private List<JobPosition> buffer;
+    private long firstBufferedAt;
+
+    BatchingJobSink(JobSink downstream, int batchSize, long maxDelayMillis, LongSupplier clock) {
+        this.downstream = downstream;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxDelayMillis = maxDelayMillis;
+        this.clock = clock;
+        this.buffer = new ArrayList<>(this.batchSize);
+    }
+
+    @Override
+    public void accept(List<JobPosition> jobs) {
+        for (JobPosition job : jobs) {
+            List<JobPosition> full = null;
+            synchronized (this) {
+                long now = clock.getAsLong();
+                if (buffer.isEmpty()) firstBufferedAt = now;
+                buffer.add(job);
+                if (buffer.size() >= batchSize || (maxDelayMillis > 0 && now - firstBufferedAt >= maxDelayMillis)) {
+                    full = take();
+                }
+            }
+            if (full != null) write(full);
+        }
+    }
+
+    /**
+     * 写出缓存中剩余的职位
+     */
+    void flush() {
+        List<JobPosition> rest;
+        synchronized (this) { rest = take(); }
+        if (!rest.isEmpty()) write(rest);
+    }
+
+    private List<JobPosition> take() {
+        List<JobPosition> out = buffer;
+        buffer = new ArrayList<>(batchSize);
+        return out;
+    }
+
+    private void write(List<JobPosition> batch) {
+        synchronized (writeLock) {
+            downstream.accept(batch);
+        }
+    }
+}
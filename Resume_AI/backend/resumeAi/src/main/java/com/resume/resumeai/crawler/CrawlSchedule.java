@@ -0,0 +1,122 @@
+package com.resume.resumeai.crawler;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 爬虫任务的运行周期。支持 "Every 6 Hours"、"Daily"、"每 12 小时"、"每周" 等写法与 Spring 六段式 cron 表达式；
+ * "Instant" 表示只执行一次。固定间隔按从 1970-01-01 00:00 起的整点网格对齐（每 6 小时即 0/6/12/18 点），
+ * 因此从任意时刻计算下一次都落在同一组时间点上，错过的多次只补跑一次。
+ */
+public final class CrawlSchedule {
+    private static final Pattern EVERY = Pattern.compile("every\\s+(\\d+)\\s*(minute|hour|day)s?");
+    private static final Pattern EVERY_ZH = Pattern.compile("每\\s*(\\d*)\\s*(分钟|小时|天)");
+    private static final CrawlSchedule ONCE = new CrawlSchedule("Instant", null, null);
+
+    private final String expression;
+    private final Duration interval;
+    private final CronExpression cron;
+
+    private CrawlSchedule(String expression, Duration interval, CronExpression cron) {
+        this.expression = expression;
+        this.interval = interval;
+        this.cron = cron;
+    }
+
+    /**
+     * 解析运行周期
+     *
+     * @throws IllegalArgumentException 无法识别的周期
+     */
+    public static CrawlSchedule parse(String frequency) {
+        if (frequency == null || frequency.isBlank()) {
+            throw new IllegalArgumentException("Crawler task frequency is required");
+        }
+        String f = frequency.trim();
+        String key = f.toLowerCase(Locale.ROOT);
+        switch (key) {
+            case "instant", "once", "一次", "立即" -> { return ONCE; }
+            case "hourly", "每小时" -> { return every(f, Duration.ofHours(1)); }
+            case "daily", "每天", "每日" -> { return every(f, Duration.ofDays(1)); }
+            case "weekly", "每周" -> { return new CrawlSchedule(f, null, CronExpression.parse("0 0 0 * * MON")); }
+            default -> { }
+        }
+        Matcher m = EVERY.matcher(key);
+        if (m.matches()) {
+            return every(f, unit(m.group(2)).multipliedBy(Long.parseLong(m.group(1))));
+        }
+        m = EVERY_ZH.matcher(key);
+        if (m.matches()) {
+            long n = m.group(1).isEmpty() ? 1 : Long.parseLong(m.group(1));
+            return every(f, unit(m.group(2)).multipliedBy(n));
+        }
+        if (CronExpression.isValidExpression(f)) {
+            return new CrawlSchedule(f, null, CronExpression.parse(f));
+        }
+        throw new IllegalArgumentException("Unsupported crawler task frequency: " + frequency);
+    }
+
+    private static CrawlSchedule every(String expression, Duration interval) {
+        if (interval.isZero()) throw new IllegalArgumentException("Crawler task interval must be positive: " + expression);
+        return new CrawlSchedule(expression, interval, null);
+    }
+
+    private static Duration unit(String unit) {
+        return switch (unit) {
+            case "minute", "分钟" -> Duration.ofMinutes(1);
+            case "hour", "小时" -> Duration.ofHours(1);
+            default -> Duration.ofDays(1);
+        };
+    }
+
+    /**
+     * 是否周期执行；只执行一次的任务没有下一次
+     */
+    public boolean isRecurring() {
+        return interval != null || cron != null;
+    }
+
+    /**
+     * 严格晚于 from 的下一个计划时间点；只执行一次的任务返回 null
+     */
+    public LocalDateTime next(LocalDateTime from) {
+        if (interval != null) {
+            long step = interval.toSeconds();
+            long s = from.toEpochSecond(ZoneOffset.UTC);
+            return LocalDateTime.ofEpochSecond((Math.floorDiv(s, step) + 1) * step, 0, ZoneOffset.UTC);
+        }
+        return cron == null ? null : cron.next(from);
+    }
+
+    /**
+     * 加上任务自身抖动后的下一次运行时间。抖动由任务 ID 决定，同一任务每次偏移相同，
+     * 不超过 maxJitter 与周期的一半；先减去抖动再求下一个时间点，偏移不会逐次累积
+     */
+    public LocalDateTime next(LocalDateTime from, String taskId, Duration maxJitter) {
+        LocalDateTime probe = next(from);
+        if (probe == null) return null;
+        Duration jitter = jitter(taskId, maxJitter, probe);
+        LocalDateTime next = next(from.minus(jitter));
+        return next.plus(jitter);
+    }
+
+    Duration jitter(String taskId, Duration maxJitter, LocalDateTime probe) {
+        if (taskId == null || maxJitter == null || maxJitter.isNegative() || maxJitter.isZero()) return Duration.ZERO;
+        Duration period = interval != null ? interval : Duration.between(probe, cron.next(probe));
+        long bound = Math.min(maxJitter.toSeconds(), period.toSeconds() / 2);
+        if (bound <= 0) return Duration.ZERO;
+        long h = taskId.hashCode() * 0x9E3779B97F4A7C15L;
+        return Duration.ofSeconds(Math.floorMod(h ^ (h >>> 32), bound + 1));
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,309 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.CrawlerTask;
+import com.resume.resumeai.repository.CrawlerTaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 爬虫执行器：以 crawler_tasks 表为持久化队列，按优先级调度，限制全局并发（每个任务独占一个 headless Chrome）
+ * 与单站点并发。队列满时拒绝入队，由管理端接口返回 429。
+ * 认领的任务记录本实例标识与租约，运行期间每 lease-seconds/3 续约一次；同时把租约已过期（持有实例已停止）的运行中任务重新排队，
+ * 多实例部署时不会抢走其他存活实例正在执行的任务。
+ */
+@Component
+public class CrawlerExecutor implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(CrawlerExecutor.class);
+    /** 每次从队列中取出的候选数，用于跳过已达站点并发上限的任务 */
+    private static final int SCAN_WINDOW = 100;
+
+    private final CrawlerTaskRepository taskRepository;
+    private final CrawlerService crawlerService;
+    private final TaskExecutor workerExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int maxWorkers;
+    private final int maxQueue;
+    private final int defaultSourceLimit;
+    private final Map<String, Integer> sourceLimits;
+    private final String instanceId;
+    private final long leaseSeconds;
+    private ScheduledExecutorService leaseKeeper;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Integer> runningBySource = new HashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejected;
+
+    public CrawlerExecutor(CrawlerTaskRepository taskRepository,
+                           CrawlerService crawlerService,
+                           @Qualifier("crawlerTaskExecutor") TaskExecutor workerExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${crawler.executor.max-workers:0}") int maxWorkers,
+                           @Value("${crawler.executor.driver-memory-mb:512}") int driverMemoryMb,
+                           @Value("${crawler.executor.max-queue:50}") int maxQueue,
+                           @Value("${crawler.executor.per-source-limit:1}") int defaultSourceLimit,
+                           @Value("${crawler.executor.source-limits:}") String sourceLimits,
+                           @Value("${crawler.executor.instance-id:}") String instanceId,
+                           @Value("${crawler.executor.lease-seconds:120}") long leaseSeconds) {
+        this.taskRepository = taskRepository;
+        this.crawlerService = crawlerService;
+        this.workerExecutor = workerExecutor;
+        this.meterRegistry = meterRegistry;
+        this.maxWorkers = maxWorkers > 0 ? maxWorkers : autoWorkers(driverMemoryMb);
+        this.maxQueue = maxQueue;
+        this.defaultSourceLimit = Math.max(1, defaultSourceLimit);
+        this.sourceLimits = parseSourceLimits(sourceLimits);
+        this.instanceId = instanceId == null || instanceId.isBlank() ? defaultInstanceId() : instanceId.trim();
+        this.leaseSeconds = Math.max(3, leaseSeconds);
+        Gauge.builder("crawler.queue.depth", queued, AtomicInteger::get)
+                .description("排队中的爬虫任务数")
+                .register(meterRegistry);
+        Gauge.builder("crawler.workers.active", running, AtomicInteger::get)
+                .description("运行中的爬虫任务数")
+                .register(meterRegistry);
+        Gauge.builder("crawler.workers.max", this, e -> e.maxWorkers)
+                .description("爬虫全局并发上限")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("crawler.tasks.rejected")
+                .description("因队列已满被拒绝的爬虫任务数")
+                .register(meterRegistry);
+        log.info("crawler executor: instance={}, maxWorkers={}, maxQueue={}, perSource={}, sourceLimits={}, lease={}s",
+                this.instanceId, this.maxWorkers, maxQueue, this.defaultSourceLimit, this.sourceLimits, this.leaseSeconds);
+    }
+
+    /**
+     * 启动后恢复队列并开始调度，随后定期续约与巡检
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recover();
+        long period = Math.max(1, leaseSeconds / 3);
+        leaseKeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "crawler-lease");
+            t.setDaemon(true);
+            return t;
+        });
+        leaseKeeper.scheduleWithFixedDelay(() -> {
+            try {
+                taskRepository.renewLeases(instanceId, leaseSeconds);
+                recover();
+            } catch (Exception e) {
+                log.error("crawler lease renewal failed", e);
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 将租约已过期或由本实例标识持有（重启前未完成）的运行中任务重新排队，然后调度
+     */
+    public void recover() {
+        int n = taskRepository.requeueAbandoned(instanceId);
+        if (n > 0) log.info("requeued {} abandoned crawler tasks", n);
+        dispatch();
+    }
+
+    @Override
+    public void destroy() {
+        if (leaseKeeper != null) leaseKeeper.shutdownNow();
+    }
+
+    /**
+     * 将任务放入队列；若处于事务中，提交后再触发调度，保证工作线程能读到任务
+     *
+     * @return 入队后的队列深度
+     * @throws CrawlerQueueFullException 队列已满
+     */
+    public int enqueue(CrawlerTask task) {
+        int depth = taskRepository.countByRunState(CrawlerTaskRepository.QUEUED);
+        if (depth >= maxQueue) {
+            rejected.increment();
+            throw new CrawlerQueueFullException(depth, maxQueue);
+        }
+        int priority = task.getPriority() == null ? 0 : task.getPriority();
+        if (taskRepository.markQueued(task.getId(), priority) == 0) {
+            throw new IllegalArgumentException("Crawler task is already queued or running");
+        }
+        task.setRunState(CrawlerTaskRepository.QUEUED);
+        queued.set(depth + 1);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { dispatch(); }
+            });
+        } else {
+            dispatch();
+        }
+        return depth + 1;
+    }
+
+    /**
+     * 在并发上限内认领排队任务并提交到工作线程
+     */
+    public void dispatch() {
+        lock.lock();
+        try {
+            while (running.get() < maxWorkers) {
+                CrawlerTask next = null;
+                for (CrawlerTask t : taskRepository.findQueued(SCAN_WINDOW)) {
+                    if (runningBySource.getOrDefault(sourceKey(t.getSource()), 0) < limitFor(t.getSource())) {
+                        next = t;
+                        break;
+                    }
+                }
+                if (next == null) break;
+                if (!taskRepository.claim(next.getId(), instanceId, leaseSeconds)) continue;
+                start(next);
+            }
+            queued.set(taskRepository.countByRunState(CrawlerTaskRepository.QUEUED));
+        } catch (Exception e) {
+            log.error("crawler dispatch failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 执行器状态快照，供管理端展示背压情况
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            m.put("instanceId", instanceId);
+            m.put("maxWorkers", maxWorkers);
+            m.put("running", running.get());
+            m.put("queued", queued.get());
+            m.put("maxQueue", maxQueue);
+            m.put("runningBySource", new HashMap<>(runningBySource));
+        } finally {
+            lock.unlock();
+        }
+        m.put("perSourceLimit", defaultSourceLimit);
+        m.put("sourceLimits", sourceLimits);
+        return m;
+    }
+
+    public int getMaxWorkers() { return maxWorkers; }
+
+    public String getInstanceId() { return instanceId; }
+
+    private void start(CrawlerTask task) {
+        String source = sourceKey(task.getSource());
+        running.incrementAndGet();
+        runningBySource.merge(source, 1, Integer::sum);
+        try {
+            workerExecutor.execute(() -> run(task, source));
+        } catch (RuntimeException e) {
+            log.error("failed to start crawler task {}", task.getId(), e);
+            release(source);
+            taskRepository.markIdle(task.getId(), instanceId);
+        }
+    }
+
+    private void run(CrawlerTask task, String source) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            crawlerService.runCrawler(task.getId(), task.getSource(), task.getQuery(), "全国"); // City hardcoded or add to task
+        } catch (Exception e) {
+            log.error("crawler task {} failed", task.getId(), e);
+        } finally {
+            sample.stop(Timer.builder("crawler.run.duration")
+                    .description("单个爬虫任务的运行耗时")
+                    .tag("source", source)
+                    .register(meterRegistry));
+            try {
+                taskRepository.markIdle(task.getId(), instanceId);
+            } catch (Exception e) {
+                log.error("failed to release crawler task {}", task.getId(), e);
+            }
+            lock.lock();
+            try {
+                release(source);
+            } finally {
+                lock.unlock();
+            }
+            dispatch();
+        }
+    }
+
+    private void release(String source) {
+        running.decrementAndGet();
+        runningBySource.computeIfPresent(source, (k, v) -> v <= 1 ? null : v - 1);
+    }
+
+    private int limitFor(String source) {
+        return sourceLimits.getOrDefault(sourceKey(source), defaultSourceLimit);
+    }
+
+    /**
+     * 统一站点标识："lagou.com" 与 "lagou" 视为同一站点
+     */
+    static String sourceKey(String source) {
+        if (source == null) return "";
+        String s = source.trim().toLowerCase(Locale.ROOT);
+        return s.endsWith(".com") ? s.substring(0, s.length() - 4) : s;
+    }
+
+    /**
+     * 解析形如 "lagou:1,shixiseng:2" 的站点并发配置
+     */
+    static Map<String, Integer> parseSourceLimits(String spec) {
+        Map<String, Integer> m = new HashMap<>();
+        if (spec == null || spec.isBlank()) return m;
+        for (String part : spec.split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("Invalid crawler.executor.source-limits entry: " + part);
+            m.put(sourceKey(kv[0]), Math.max(1, Integer.parseInt(kv[1].trim())));
+        }
+        return m;
+    }
+
+    /**
+     * 未配置 instance-id 时使用 主机名:进程号；重启后标识改变，上次未完成的任务在租约过期后才会重新排队
+     */
+    static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * 按 CPU 核数与 JVM 堆外可用物理内存（每个 Chrome 约 driverMemoryMb）估算并发上限
+     */
+    static int autoWorkers(int driverMemoryMb) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int byMemory = cpus;
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            long spare = os.getTotalMemorySize() - Runtime.getRuntime().maxMemory();
+            byMemory = (int) Math.max(1, spare / (Math.max(1, driverMemoryMb) * 1024L * 1024L));
+        }
+        return Math.max(1, Math.min(cpus, byMemory));
+    }
+}
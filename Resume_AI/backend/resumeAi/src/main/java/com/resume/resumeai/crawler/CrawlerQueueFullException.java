@@ -0,0 +1,18 @@
+package com.resume.resumeai.crawler;
+
+/**
+ * 爬虫执行队列已满，调用方应稍后重试
+ */
+public class CrawlerQueueFullException extends RuntimeException {
+    private final int queued;
+    private final int capacity;
+
+    public CrawlerQueueFullException(int queued, int capacity) {
+        super("Crawler queue is full (" + queued + "/" + capacity + "), please retry later");
+        this.queued = queued;
+        this.capacity = capacity;
+    }
+
+    public int getQueued() { return queued; }
+    public int getCapacity() { return capacity; }
+}
@@ -0,0 +1,147 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.CrawlerTask;
+import com.resume.resumeai.repository.CrawlerTaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 爬虫定时调度：按运行周期（{@link CrawlSchedule}）定时轮询 crawler_tasks 中到期的任务并放入执行队列。
+ * 到期任务在事务中以 SELECT ... FOR UPDATE SKIP LOCKED 锁定，多个后端实例可同时轮询而不会重复执行同一任务；
+ * 认领时按当前时间推进 next_run，停机期间错过的多次只补跑一次。每个任务带有固定的启动抖动，避免同周期任务同时启动。
+ */
+@Component
+public class CrawlerScheduler implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(CrawlerScheduler.class);
+
+    private final CrawlerTaskRepository taskRepository;
+    private final CrawlerExecutor crawlerExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long pollSeconds;
+    private final int batchSize;
+    private final Duration maxJitter;
+    private ScheduledExecutorService poller;
+
+    public CrawlerScheduler(CrawlerTaskRepository taskRepository,
+                            CrawlerExecutor crawlerExecutor,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${crawler.scheduler.enabled:true}") boolean enabled,
+                            @Value("${crawler.scheduler.poll-seconds:30}") long pollSeconds,
+                            @Value("${crawler.scheduler.batch-size:20}") int batchSize,
+                            @Value("${crawler.scheduler.max-jitter-minutes:30}") long maxJitterMinutes) {
+        this.taskRepository = taskRepository;
+        this.crawlerExecutor = crawlerExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.pollSeconds = Math.max(1, pollSeconds);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxJitter = Duration.ofMinutes(Math.max(0, maxJitterMinutes));
+    }
+
+    /**
+     * 启动后为尚未排定时间的任务补算 next_run，然后开始轮询
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        scheduleUnscheduled(LocalDateTime.now());
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "crawler-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                poll(LocalDateTime.now());
+            } catch (Exception e) {
+                log.error("crawler schedule poll failed", e);
+            }
+        }, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        log.info("crawler scheduler: poll={}s, batch={}, maxJitter={}", pollSeconds, batchSize, maxJitter);
+    }
+
+    /**
+     * 认领 now 之前到期的任务：推进 next_run，空闲的任务放入执行队列，已在排队或运行中的任务本轮跳过。
+     * 队列已满时停止认领，剩余任务保持到期状态留待下一轮
+     *
+     * @return 放入队列的任务数
+     */
+    public int poll(LocalDateTime now) {
+        Integer queued = transactionTemplate.execute(status -> {
+            int n = 0;
+            for (CrawlerTask task : taskRepository.lockDue(now, batchSize)) {
+                if (CrawlerTaskRepository.IDLE.equals(task.getRunState())) {
+                    try {
+                        crawlerExecutor.enqueue(task);
+                    } catch (CrawlerQueueFullException e) {
+                        count("rejected");
+                        break;
+                    }
+                    n++;
+                    count("queued");
+                } else {
+                    count("busy");
+                }
+                taskRepository.updateNextRun(task.getId(), nextRunOrNull(task, now));
+            }
+            return n;
+        });
+        return queued == null ? 0 : queued;
+    }
+
+    /**
+     * 为启用中但 next_run 为空的周期任务排定下一次运行时间
+     */
+    public void scheduleUnscheduled(LocalDateTime now) {
+        for (CrawlerTask task : taskRepository.findUnscheduled()) {
+            LocalDateTime next = nextRunOrNull(task, now);
+            if (next != null) taskRepository.updateNextRun(task.getId(), next);
+        }
+    }
+
+    /**
+     * 计算任务在 from 之后的下一次运行时间（含抖动）；只执行一次的任务返回 null
+     *
+     * @throws IllegalArgumentException 无法识别的运行周期
+     */
+    public LocalDateTime nextRun(CrawlerTask task, LocalDateTime from) {
+        return CrawlSchedule.parse(task.getFrequency()).next(from, task.getId(), maxJitter);
+    }
+
+    private LocalDateTime nextRunOrNull(CrawlerTask task, LocalDateTime from) {
+        try {
+            return nextRun(task, from);
+        } catch (IllegalArgumentException e) {
+            log.warn("crawler task {} has unsupported frequency '{}', no longer scheduled", task.getId(), task.getFrequency());
+            return null;
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("crawler.scheduler.triggered", "result", result).increment();
+    }
+
+    @Override
+    public void destroy() {
+        if (poller != null) poller.shutdownNow();
+    }
+}
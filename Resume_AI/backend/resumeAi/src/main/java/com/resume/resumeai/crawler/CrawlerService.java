@@ -2,28 +2,42 @@ package com.resume.resumeai.crawler;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.resume.resumeai.domain.CrawlerTask;
-import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.repository.CrawlerTaskRepository;
-import com.resume.resumeai.repository.JobRepository;
 
 @Service
 public class CrawlerService {
+    private static final Logger log = LoggerFactory.getLogger(CrawlerService.class);
 
-    private final JobRepository jobRepository;
+    private final JobDeduplicator deduplicator;
     private final CrawlerTaskRepository taskRepository;
     private final Map<String, BaseCrawler> crawlers;
+    private final int batchSize;
+    private final long maxBatchDelayMillis;
 
-    public CrawlerService(JobRepository jobRepository, CrawlerTaskRepository taskRepository, Map<String, BaseCrawler> crawlers) {
-        this.jobRepository = jobRepository;
+    @Autowired
+    public CrawlerService(JobDeduplicator deduplicator, CrawlerTaskRepository taskRepository, Map<String, BaseCrawler> crawlers,
+                          @Value("${crawler.ingest.batch-size:50}") int batchSize,
+                          @Value("${crawler.ingest.max-batch-delay-ms:5000}") long maxBatchDelayMillis) {
+        this.deduplicator = deduplicator;
         this.taskRepository = taskRepository;
         this.crawlers = crawlers;
+        this.batchSize = batchSize;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+    }
+
+    CrawlerService(JobDeduplicator deduplicator, CrawlerTaskRepository taskRepository, Map<String, BaseCrawler> crawlers) {
+        this(deduplicator, taskRepository, crawlers, 50, 5000);
     }
 
     public void runCrawler(String source, String keyword, String city) {
@@ -38,41 +52,59 @@ public class CrawlerService {
             crawler = crawlers.get("lagouCrawler");
         } else {
             // Default or throw error
-            System.out.println("Unknown source: " + source);
+            log.warn("unknown crawler source: {}", source);
             return;
         }
 
         if (crawler != null) {
+            // 爬虫逐条回调，按 batch-size 分批去重落库并写入任务进度；写库失败记下第一个异常，抓取结束后按失败处理。
+            // 无论抓取是否异常结束，已抓到的部分都会写出
+            AtomicReference<IngestResult> result = new AtomicReference<>(IngestResult.EMPTY);
             try {
-                List<JobPosition> jobs = crawler.crawl(keyword, city);
-                if (!jobs.isEmpty()) {
-                    jobRepository.saveAll(jobs);
-                    System.out.println("Saved " + jobs.size() + " jobs from " + source);
+                AtomicReference<RuntimeException> saveError = new AtomicReference<>();
+                if (taskId != null) taskRepository.updateProgress(taskId, 0, 0, 0);
+                BatchingJobSink sink = new BatchingJobSink(batch -> {
+                    try {
+                        IngestResult total = result.accumulateAndGet(deduplicator.ingest(batch), IngestResult::plus);
+                        if (taskId != null) {
+                            taskRepository.updateProgress(taskId, total.inserted(), total.updated(), total.skipped());
+                        }
+                    } catch (RuntimeException e) {
+                        saveError.compareAndSet(null, e);
+                    }
+                }, batchSize, maxBatchDelayMillis, System::currentTimeMillis);
+                try {
+                    crawler.crawl(keyword, city, sink);
+                } finally {
+                    sink.flush();
                 }
+                if (saveError.get() != null) throw saveError.get();
+                IngestResult total = result.get();
+                log.info("crawled {}: {} new, {} updated, {} unchanged",
+                        source, total.inserted(), total.updated(), total.skipped());
                 
                 // Update task status if taskId is provided
                 if (taskId != null) {
-                    updateTaskStatus(taskId, "Completed", jobs.size());
+                    updateTaskStatus(taskId, "Completed", total);
                 }
             } catch (Exception e) {
-                e.printStackTrace();
+                log.error("crawl failed for {}", source, e);
                 if (taskId != null) {
-                    updateTaskStatus(taskId, "Failed", 0);
+                    updateTaskStatus(taskId, "Failed", result.get());
                 }
             }
         }
     }
 
-    private void updateTaskStatus(String taskId, String status, int count) {
+    private void updateTaskStatus(String taskId, String status, IngestResult result) {
         Optional<CrawlerTask> taskOpt = taskRepository.findById(taskId);
         if (taskOpt.isPresent()) {
             CrawlerTask task = taskOpt.get();
             String lastRun = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            // Simple next run logic: assume daily if not specified, logic can be enhanced based on frequency
-            String nextRun = LocalDateTime.now().plusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            
-            taskRepository.updateExecutionState(taskId, status, lastRun, nextRun);
-            System.out.println("Updated task " + taskId + " to " + status);
+            // 执行结果写入 last_status，启用状态不变；next_run 由 CrawlerScheduler 在认领到期任务时按运行周期推进
+            taskRepository.updateExecutionState(taskId, status, lastRun,
+                    result.inserted(), result.updated(), result.skipped());
+            log.info("task {} finished: {}", taskId, status);
         }
     }
 }
@@ -0,0 +1,208 @@
+package com.resume.resumeai.crawler;
+
+import org.apache.fontbox.ttf.CmapSubtable;
+import org.apache.fontbox.ttf.CmapTable;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 反爬字体解码：WOFF 1.0 一次性解压到预分配的 sfnt 缓冲区（每张表直接写入最终偏移，各表共用一个 Inflater，解码结束即释放其本地内存），
+ * 再直接读取 cmap 子表（format 4 / 12），只遍历与私用区相交的分段，把码位经字形序号映射到明文字符。
+ * 遇到不支持的 cmap 格式时回退到 FontBox 解析。
+ */
+public final class FontDecoder {
+    private static final int WOFF_SIGNATURE = 0x774F4646; // "wOFF"
+    private static final int TAG_CMAP = 0x636D6170;       // "cmap"
+    /** sfnt 大小上限，防止伪造的表长度导致超大分配 */
+    private static final int MAX_SFNT_SIZE = 16 * 1024 * 1024;
+
+    private FontDecoder() {}
+
+    /**
+     * 解码字体为私用区映射：字形序号 g（g >= 2）对应 glyphChars 的第 g - 2 个字符
+     */
+    public static FontMap decode(byte[] fontData, String glyphChars) throws IOException {
+        ByteBuffer sfnt = toSfnt(fontData);
+        char[] table = new char[FontMap.RANGE];
+        if (!readCmap(sfnt, glyphChars, table)) {
+            Arrays.fill(table, '\0');
+            readCmapWithFontBox(sfnt, glyphChars, table);
+        }
+        return FontMap.of(table);
+    }
+
+    /**
+     * WOFF 1.0 转 sfnt（TTF/OTF）；不是 WOFF 时直接包装原数组返回，不复制。
+     * 先按目录计算每张表在输出中的 4 字节对齐偏移，再把压缩表直接 inflate 到该偏移，未压缩表只复制一次。
+     */
+    public static ByteBuffer toSfnt(byte[] woff) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(woff);
+        if (woff.length < 44 || in.getInt(0) != WOFF_SIGNATURE) return in;
+        int numTables = in.getShort(12) & 0xFFFF;
+        if (44 + 20L * numTables > woff.length) throw new IOException("Truncated WOFF table directory");
+
+        int[] outOffsets = new int[numTables];
+        long pos = 12 + 16L * numTables;
+        for (int i = 0; i < numTables; i++) {
+            pos = (pos + 3) & ~3L;
+            outOffsets[i] = (int) pos;
+            pos += in.getInt(44 + 20 * i + 12) & 0xFFFFFFFFL;
+            if (pos > MAX_SFNT_SIZE) throw new IOException("WOFF declares an oversized font");
+        }
+        byte[] out = new byte[(int) ((pos + 3) & ~3L)];
+        ByteBuffer sfnt = ByteBuffer.wrap(out);
+
+        int entrySelector = 31 - Integer.numberOfLeadingZeros(Math.max(1, numTables));
+        int searchRange = (1 << entrySelector) * 16;
+        sfnt.putInt(0, in.getInt(4));
+        sfnt.putShort(4, (short) numTables);
+        sfnt.putShort(6, (short) searchRange);
+        sfnt.putShort(8, (short) entrySelector);
+        sfnt.putShort(10, (short) (numTables * 16 - searchRange));
+
+        Inflater inflater = new Inflater();
+        try {
+            for (int i = 0; i < numTables; i++) {
+                int e = 44 + 20 * i;
+                int offset = in.getInt(e + 4);
+                int compLength = in.getInt(e + 8);
+                int origLength = in.getInt(e + 12);
+                if (offset < 0 || compLength < 0 || (long) offset + compLength > woff.length) {
+                    throw new IOException("WOFF table " + i + " is out of bounds");
+                }
+                int d = 12 + 16 * i;
+                sfnt.putInt(d, in.getInt(e));
+                sfnt.putInt(d + 4, in.getInt(e + 16));
+                sfnt.putInt(d + 8, outOffsets[i]);
+                sfnt.putInt(d + 12, origLength);
+                if (compLength < origLength) {
+                    inflater.reset();
+                    inflater.setInput(woff, offset, compLength);
+                    try {
+                        int n = inflater.inflate(out, outOffsets[i], origLength);
+                        if (n != origLength) throw new IOException("WOFF table " + i + " inflated to " + n + " of " + origLength + " bytes");
+                    } catch (DataFormatException ex) {
+                        throw new IOException("Corrupt WOFF table " + i, ex);
+                    }
+                } else {
+                    System.arraycopy(woff, offset, out, outOffsets[i], origLength);
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return sfnt;
+    }
+
+    /**
+     * 直接读取 cmap：按 (0,0)、(0,3)、(3,1)、(0,4)、(3,10) 的顺序选用第一个 format 4 或 12 子表
+     *
+     * @return 找到可用子表时返回 true
+     */
+    static boolean readCmap(ByteBuffer sfnt, String glyphChars, char[] table) {
+        try {
+            int numTables = sfnt.getShort(4) & 0xFFFF;
+            int cmap = -1;
+            for (int i = 0; i < numTables; i++) {
+                int d = 12 + 16 * i;
+                if (sfnt.getInt(d) == TAG_CMAP) {
+                    cmap = sfnt.getInt(d + 8);
+                    break;
+                }
+            }
+            if (cmap < 0) return false;
+            int count = sfnt.getShort(cmap + 2) & 0xFFFF;
+            int[][] preferred = {{0, 0}, {0, 3}, {3, 1}, {0, 4}, {3, 10}};
+            for (int[] pe : preferred) {
+                for (int i = 0; i < count; i++) {
+                    int rec = cmap + 4 + 8 * i;
+                    if ((sfnt.getShort(rec) & 0xFFFF) != pe[0] || (sfnt.getShort(rec + 2) & 0xFFFF) != pe[1]) continue;
+                    int sub = cmap + sfnt.getInt(rec + 4);
+                    int format = sfnt.getShort(sub) & 0xFFFF;
+                    if (format == 4) {
+                        readFormat4(sfnt, sub, glyphChars, table);
+                        return true;
+                    }
+                    if (format == 12) {
+                        readFormat12(sfnt, sub, glyphChars, table);
+                        return true;
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // 表结构损坏，交给 FontBox 处理
+        }
+        return false;
+    }
+
+    private static void readFormat4(ByteBuffer b, int sub, String glyphChars, char[] table) {
+        int segCount = (b.getShort(sub + 6) & 0xFFFF) / 2;
+        int ends = sub + 14;
+        int starts = ends + 2 * segCount + 2;
+        int deltas = starts + 2 * segCount;
+        int rangeOffsets = deltas + 2 * segCount;
+        for (int i = 0; i < segCount; i++) {
+            int start = b.getShort(starts + 2 * i) & 0xFFFF;
+            int end = b.getShort(ends + 2 * i) & 0xFFFF;
+            int from = Math.max(start, FontMap.FIRST);
+            int to = Math.min(end, FontMap.LAST);
+            if (from > to) continue;
+            int delta = b.getShort(deltas + 2 * i);
+            int roPos = rangeOffsets + 2 * i;
+            int ro = b.getShort(roPos) & 0xFFFF;
+            for (int code = from; code <= to; code++) {
+                int glyph;
+                if (ro == 0) {
+                    glyph = (code + delta) & 0xFFFF;
+                } else {
+                    glyph = b.getShort(roPos + ro + 2 * (code - start)) & 0xFFFF;
+                    if (glyph != 0) glyph = (glyph + delta) & 0xFFFF;
+                }
+                put(table, code, glyph, glyphChars);
+            }
+        }
+    }
+
+    private static void readFormat12(ByteBuffer b, int sub, String glyphChars, char[] table) {
+        long groups = b.getInt(sub + 12) & 0xFFFFFFFFL;
+        for (int i = 0; i < groups; i++) {
+            int g = sub + 16 + 12 * i;
+            long start = b.getInt(g) & 0xFFFFFFFFL;
+            long end = b.getInt(g + 4) & 0xFFFFFFFFL;
+            long glyph0 = b.getInt(g + 8) & 0xFFFFFFFFL;
+            long from = Math.max(start, FontMap.FIRST);
+            long to = Math.min(end, FontMap.LAST);
+            for (long code = from; code <= to; code++) {
+                put(table, (int) code, (int) (glyph0 + code - start), glyphChars);
+            }
+        }
+    }
+
+    private static void put(char[] table, int code, int glyph, String glyphChars) {
+        // glyphId 0 (.notdef) 与 1 (.null) 跳过，实习僧字体中 glyphId - 2 对应字典索引
+        if (glyph > 1 && glyph - 2 < glyphChars.length()) {
+            table[code - FontMap.FIRST] = glyphChars.charAt(glyph - 2);
+        }
+    }
+
+    private static void readCmapWithFontBox(ByteBuffer sfnt, String glyphChars, char[] table) throws IOException {
+        try (TrueTypeFont font = new TTFParser().parse(
+                new ByteArrayInputStream(sfnt.array(), sfnt.arrayOffset(), sfnt.limit()))) {
+            CmapSubtable cmap = font.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_1_0);
+            if (cmap == null) {
+                cmap = font.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_2_0_BMP);
+            }
+            if (cmap == null) return;
+            for (int code = FontMap.FIRST; code <= FontMap.LAST; code++) {
+                put(table, code, cmap.getGlyphId(code), glyphChars);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.resume.resumeai.crawler;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 反爬字体的码位映射：以 char[] 覆盖私用区 U+E000–U+F8FF（6400 个码位，约 12.5KB），0 表示未映射。
+ * 查表为一次数组下标访问，无装箱；实例不可变，可在线程间共享。
+ */
+public final class FontMap {
+    public static final int FIRST = 0xE000;
+    public static final int LAST = 0xF8FF;
+    public static final int RANGE = LAST - FIRST + 1;
+    public static final FontMap EMPTY = new FontMap(new char[RANGE]);
+
+    private final char[] table;
+    private final int size;
+
+    private FontMap(char[] table) {
+        this.table = table;
+        int n = 0;
+        for (char c : table) if (c != 0) n++;
+        this.size = n;
+    }
+
+    /**
+     * @param table 长度为 {@link #RANGE} 的映射表，下标为码位 - {@link #FIRST}；调用后不应再修改
+     */
+    public static FontMap of(char[] table) {
+        if (table.length != RANGE) throw new IllegalArgumentException("font map table must cover U+E000-U+F8FF");
+        return new FontMap(table);
+    }
+
+    public char map(char c) {
+        if (c < FIRST || c > LAST) return c;
+        char m = table[c - FIRST];
+        return m == 0 ? c : m;
+    }
+
+    /**
+     * 替换文本中已映射的私用区字符；没有需要替换的字符时返回原字符串
+     */
+    public String decode(String text) {
+        if (text == null || size == 0) return text;
+        char[] out = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char m = map(c);
+            if (m != c) {
+                if (out == null) out = text.toCharArray();
+                out[i] = m;
+            }
+        }
+        return out == null ? text : new String(out);
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * 以 (码位偏移, 字符) 对的形式写出已映射的条目
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < RANGE; i++) {
+            if (table[i] != 0) {
+                out.writeShort(i);
+                out.writeChar(table[i]);
+            }
+        }
+    }
+
+    static FontMap readFrom(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > RANGE) throw new IOException("corrupt font map: " + n + " entries");
+        char[] table = new char[RANGE];
+        for (int i = 0; i < n; i++) {
+            int offset = in.readUnsignedShort();
+            if (offset >= RANGE) throw new IOException("corrupt font map offset: " + offset);
+            table[offset] = in.readChar();
+        }
+        return new FontMap(table);
+    }
+}
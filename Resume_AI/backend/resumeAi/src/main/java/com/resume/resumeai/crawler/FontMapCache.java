@@ -0,0 +1,178 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * 反爬字体映射缓存。字体 URL 带 rand 参数几乎每页都变，但字形表只是偶尔轮换，因此以内容指纹为主键：
+ * 解码结果只取决于 cmap 表（码位 -> 字形序号），指纹取 cmap 表原始字节的 SHA-256，
+ * 只要 cmap 不变，无论 URL 与其它表如何变化都会命中，无需再解压、解析字体与遍历私用区。
+ * 内存中按 LRU 淘汰；配置 dir 后结果同时写入磁盘，重启后仍可命中。
+ */
+@Component
+public class FontMapCache {
+    private static final Logger log = LoggerFactory.getLogger(FontMapCache.class);
+    private static final int FILE_MAGIC = 0x464D4150; // "FMAP"
+    private static final int FILE_VERSION = 1;
+    private static final int TAG_CMAP = 0x636D6170; // "cmap"
+
+    private final LruCache<String, FontMap> byFingerprint;
+    private final LruCache<String, FontMap> byUrl;
+    private final Path dir;
+    private final MeterRegistry meterRegistry;
+
+    public FontMapCache(MeterRegistry meterRegistry,
+                        @Value("${crawler.font-cache.max-entries:64}") int maxEntries,
+                        @Value("${crawler.font-cache.dir:}") String dir) {
+        this.meterRegistry = meterRegistry;
+        this.byFingerprint = new LruCache<>(Math.max(1, maxEntries), null);
+        this.byUrl = new LruCache<>(Math.max(1, maxEntries) * 4, null);
+        this.dir = dir == null || dir.isBlank() ? null : Path.of(dir);
+        if (this.dir != null) {
+            try {
+                Files.createDirectories(this.dir);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot create font cache dir " + dir, e);
+            }
+        }
+    }
+
+    /**
+     * 依次按 URL、内容指纹、磁盘查找映射；都未命中时调用 decoder 解码并缓存。
+     * 下载失败返回 {@link FontMap#EMPTY}，空映射不缓存。
+     */
+    public FontMap resolve(String fontUrl, Function<String, byte[]> downloader, Function<byte[], FontMap> decoder) {
+        if (fontUrl == null || fontUrl.isEmpty()) return FontMap.EMPTY;
+        FontMap map = byUrl.get(fontUrl);
+        if (map != null) {
+            count("url_hit");
+            return map;
+        }
+        byte[] data = downloader.apply(fontUrl);
+        if (data == null) return FontMap.EMPTY;
+
+        String fp = fingerprint(data);
+        map = byFingerprint.get(fp);
+        if (map != null) {
+            count("fingerprint_hit");
+        } else if ((map = load(fp)) != null) {
+            count("disk_hit");
+            byFingerprint.put(fp, map);
+        } else {
+            count("miss");
+            Timer.Sample sample = Timer.start(meterRegistry);
+            map = decoder.apply(data);
+            sample.stop(Timer.builder("crawler.font.decode")
+                    .description("反爬字体解码耗时")
+                    .register(meterRegistry));
+            if (map == null || map.isEmpty()) return FontMap.EMPTY;
+            byFingerprint.put(fp, map);
+            store(fp, map);
+        }
+        byUrl.put(fontUrl, map);
+        return map;
+    }
+
+    public int size() { return byFingerprint.size(); }
+
+    /**
+     * 字体内容指纹：WOFF 或 TTF/OTF 中 cmap 表原始字节的 SHA-256；找不到 cmap 时对整个文件取摘要
+     */
+    static String fingerprint(byte[] font) {
+        MessageDigest md = sha256();
+        ByteBuffer buf = ByteBuffer.wrap(font);
+        int[] cmap = locateCmap(buf);
+        if (cmap != null) {
+            md.update((byte) 'c');
+            md.update(font, cmap[0], cmap[1]);
+        } else {
+            md.update((byte) 'f');
+            md.update(font);
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /**
+     * 在表目录中查找 cmap 表，返回 {偏移, 长度}（WOFF 中为压缩后的长度）
+     */
+    private static int[] locateCmap(ByteBuffer buf) {
+        try {
+            boolean woff = buf.getInt(0) == 0x774F4646; // "wOFF"
+            int numTables = buf.getShort(woff ? 12 : 4) & 0xFFFF;
+            int dirStart = woff ? 44 : 12;
+            int entrySize = woff ? 20 : 16;
+            for (int i = 0; i < numTables; i++) {
+                int e = dirStart + i * entrySize;
+                if (buf.getInt(e) != TAG_CMAP) continue;
+                int offset = woff ? buf.getInt(e + 4) : buf.getInt(e + 8);
+                int length = woff ? buf.getInt(e + 8) : buf.getInt(e + 12);
+                if (offset < 0 || length < 0 || (long) offset + length > buf.capacity()) return null;
+                return new int[]{offset, length};
+            }
+        } catch (IndexOutOfBoundsException ignored) {
+            // 不是字体文件，回退为整文件摘要
+        }
+        return null;
+    }
+
+    private FontMap load(String fp) {
+        if (dir == null) return null;
+        Path file = dir.resolve(fp + ".fmap");
+        if (!Files.isRegularFile(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) return null;
+            return FontMap.readFrom(in);
+        } catch (IOException e) {
+            log.warn("ignoring unreadable font map {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String fp, FontMap map) {
+        if (dir == null) return;
+        Path file = dir.resolve(fp + ".fmap");
+        try {
+            Path tmp = Files.createTempFile(dir, fp, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                map.writeTo(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("failed to persist font map {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("crawler.fontmap.requests")
+                .description("字体映射缓存查询次数")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
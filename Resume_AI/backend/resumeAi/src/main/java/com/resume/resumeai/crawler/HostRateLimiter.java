@@ -0,0 +1,117 @@
+package com.resume.resumeai.crawler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 按站点的令牌桶限速器：所有爬虫任务、所有浏览器会话共享同一站点的请求预算，
+ * 抓取吞吐只取决于配置的礼貌速率（rate-per-host、burst），与结果条数无关。
+ * 采用预约方式：令牌不足时预支并返回需等待的时长，睡眠在锁外进行。
+ * 每次抓取页面都经过这里，因此同时按站点记录页面数（crawler.pages）与限速等待时长（crawler.politeness.wait）。
+ */
+@Component
+public class HostRateLimiter {
+
+    /** 便于测试替换的睡眠函数 */
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HostRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${crawler.politeness.rate-per-host:1.0}") double permitsPerSecond,
+                           @Value("${crawler.politeness.burst:2}") int burst) {
+        this(meterRegistry, permitsPerSecond, burst, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    HostRateLimiter(MeterRegistry meterRegistry, double permitsPerSecond, int burst, LongSupplier nanoClock, Sleeper sleeper) {
+        this.meterRegistry = meterRegistry;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * 在访问 url 前调用，必要时阻塞直到该站点有可用令牌；rate-per-host<=0 时不限速
+     *
+     * @return 实际等待的纳秒数
+     */
+    public long acquire(String url) throws InterruptedException {
+        Bucket bucket = buckets.computeIfAbsent(hostOf(url), this::newBucket);
+        bucket.pages.increment();
+        if (permitsPerSecond <= 0) return 0;
+        long wait = bucket.reserve(nanoClock.getAsLong(), permitsPerSecond, burst);
+        bucket.waits.record(wait, TimeUnit.NANOSECONDS);
+        if (wait > 0) sleeper.sleep(wait);
+        return wait;
+    }
+
+    private Bucket newBucket(String host) {
+        Counter pages = Counter.builder("crawler.pages")
+                .description("抓取的页面数（含列表页与详情页）")
+                .tag("host", host)
+                .register(meterRegistry);
+        Timer waits = Timer.builder("crawler.politeness.wait")
+                .description("抓取前等待站点令牌的时长")
+                .tag("host", host)
+                .register(meterRegistry);
+        return new Bucket(burst, nanoClock.getAsLong(), pages, waits);
+    }
+
+    static String hostOf(String url) {
+        if (url == null) return "";
+        try {
+            String host = URI.create(url.trim()).getHost();
+            if (host != null) return host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException ignored) {
+            // 非法 URL 按原文归桶
+        }
+        return url;
+    }
+
+    private static final class Bucket {
+        final Counter pages;
+        final Timer waits;
+        private double tokens;
+        private long lastNanos;
+
+        Bucket(int burst, long now, Counter pages, Timer waits) {
+            this.tokens = burst;
+            this.lastNanos = now;
+            this.pages = pages;
+            this.waits = waits;
+        }
+
+        /**
+         * 按流逝时间补充令牌（不超过 burst），取走一个；令牌为负表示已被预支，返回还清所需的等待时长
+         */
+        synchronized long reserve(long now, double rate, int burst) {
+            if (now > lastNanos) {
+                tokens = Math.min(burst, tokens + (now - lastNanos) * rate / 1e9);
+                lastNanos = now;
+            }
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / rate * 1e9);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.resume.resumeai.crawler;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 纯 HTTP 页面抓取：共享一个 HttpClient（优先 HTTP/2，连接复用），请求 gzip 压缩并按响应头解压，
+ * 以 Reader 形式返回响应体，交给流式 HTML 解析器边下载边解析。
+ */
+@Component
+public class HtmlFetcher implements DisposableBean {
+    private static final String USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    public HtmlFetcher(@Value("${crawler.http.connect-timeout-seconds:5}") long connectTimeoutSeconds,
+                       @Value("${crawler.http.request-timeout-seconds:15}") long requestTimeoutSeconds) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
+                .build();
+        this.requestTimeout = Duration.ofSeconds(requestTimeoutSeconds);
+    }
+
+    /**
+     * GET 页面并返回解压后的响应体，调用方负责关闭
+     *
+     * @throws IOException 网络错误或非 2xx 响应
+     */
+    public Reader open(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .header("Accept-Language", "zh-CN,zh;q=0.9")
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        InputStream body = response.body();
+        if (response.statusCode() / 100 != 2) {
+            body.close();
+            throw new IOException("HTTP " + response.statusCode() + " for " + url);
+        }
+        if (response.headers().firstValue("Content-Encoding").map(v -> v.toLowerCase(Locale.ROOT).contains("gzip")).orElse(false)) {
+            body = new GZIPInputStream(body, 8192);
+        }
+        return new InputStreamReader(body, charsetOf(response.headers().firstValue("Content-Type").orElse(null)));
+    }
+
+    static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String part : contentType.split(";")) {
+                String p = part.trim();
+                if (p.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(p.substring(8).replace("\"", "").trim());
+                    } catch (IllegalArgumentException ignored) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public void destroy() {
+        client.close();
+    }
+}
@@ -0,0 +1,15 @@
+package com.resume.resumeai.crawler;
+
+/**
+ * 一批职位入库的结果：新增、内容变化而更新、重复而跳过的条数
+ */
+public record IngestResult(int inserted, int updated, int skipped) {
+    public static final IngestResult EMPTY = new IngestResult(0, 0, 0);
+
+    public IngestResult plus(IngestResult other) {
+        return new IngestResult(inserted + other.inserted, updated + other.updated, skipped + other.skipped);
+    }
+
+    /** 实际写入数据库的条数 */
+    public int written() { return inserted + updated; }
+}
@@ -0,0 +1,218 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.JobFingerprint;
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.repository.JobRepository.StoredFingerprint;
+import com.resume.resumeai.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 爬虫结果入库前的去重：按 {@link JobFingerprint} 识别同一职位，内容未变化的跳过，变化的更新，其余新增。
+ * 布隆过滤器由 job_positions 中已有的 url_hash 预热，判定为“一定不存在”的职位直接写入，
+ * 只有可能已存在的才按 url_hash 批量查询内容指纹。过滤器只用于省去查询，url_hash 唯一键才是最终保证：
+ * 预热完成前或过滤器漏记时，写入仍走 ON DUPLICATE KEY UPDATE，不会产生重复行。
+ * 过滤器超出容量后在后台线程重建，入库线程不等待全表加载。
+ */
+@Component
+public class JobDeduplicator implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(JobDeduplicator.class);
+    private static final int LOAD_BATCH = 5000;
+    private static final int BACKFILL_BATCH = 500;
+
+    private final JobRepository jobRepository;
+    private final MeterRegistry meterRegistry;
+    private final long expectedJobs;
+    private final double falsePositiveRate;
+
+    /** 已预热的过滤器；为 null 时所有职位都需查库 */
+    private volatile BloomFilter filter;
+    /** 重建中的过滤器，重建期间新增的职位同时记入 */
+    private volatile BloomFilter warming;
+    private final AtomicLong filterEntries = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "job-dedup-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public JobDeduplicator(JobRepository jobRepository, MeterRegistry meterRegistry,
+                           @Value("${crawler.dedup.expected-jobs:100000}") long expectedJobs,
+                           @Value("${crawler.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jobRepository = jobRepository;
+        this.meterRegistry = meterRegistry;
+        this.expectedJobs = Math.max(1, expectedJobs);
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            backfill();
+            warmUp();
+        } catch (Exception e) {
+            log.warn("job dedup filter warm-up failed, every crawled job will be looked up: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 去重并写入一批职位，返回新增、更新与跳过的条数；同一批内 URL 重复的只保留最后一条
+     */
+    public IngestResult ingest(List<JobPosition> jobs) {
+        if (jobs == null || jobs.isEmpty()) return IngestResult.EMPTY;
+        Map<String, JobPosition> byHash = new LinkedHashMap<>();
+        Map<String, JobFingerprint> fingerprints = new HashMap<>();
+        for (JobPosition job : jobs) {
+            JobFingerprint fp = JobFingerprint.of(job);
+            byHash.remove(fp.urlHash());
+            byHash.put(fp.urlHash(), job);
+            fingerprints.put(fp.urlHash(), fp);
+        }
+        int skipped = jobs.size() - byHash.size();
+
+        BloomFilter f = filter;
+        List<String> maybeStored = new ArrayList<>();
+        for (String hash : byHash.keySet()) {
+            if (f == null || f.mightContain(JobFingerprint.hashHigh(hash), JobFingerprint.hashLow(hash))) {
+                maybeStored.add(hash);
+            }
+        }
+        Map<String, StoredFingerprint> stored = jobRepository.findFingerprints(maybeStored);
+        if (f != null) {
+            count("crawler.dedup.bloom", "negative", byHash.size() - maybeStored.size());
+            count("crawler.dedup.bloom", "false_positive", maybeStored.size() - stored.size());
+        }
+
+        int inserted = 0, updated = 0;
+        List<JobPosition> writes = new ArrayList<>();
+        List<JobFingerprint> writeFingerprints = new ArrayList<>();
+        List<String> newHashes = new ArrayList<>();
+        for (Map.Entry<String, JobPosition> e : byHash.entrySet()) {
+            JobFingerprint fp = fingerprints.get(e.getKey());
+            StoredFingerprint s = stored.get(e.getKey());
+            if (s == null) {
+                inserted++;
+                newHashes.add(e.getKey());
+            } else if (fp.contentHash().equals(s.contentHash())) {
+                skipped++;
+                e.getValue().setId(s.id());
+                continue;
+            } else {
+                updated++;
+            }
+            writes.add(e.getValue());
+            writeFingerprints.add(fp);
+        }
+        jobRepository.upsertAll(writes, writeFingerprints, inserted);
+        for (String hash : newHashes) remember(hash);
+
+        count("crawler.dedup.jobs", "inserted", inserted);
+        count("crawler.dedup.jobs", "updated", updated);
+        count("crawler.dedup.jobs", "skipped", skipped);
+        return new IngestResult(inserted, updated, skipped);
+    }
+
+    /**
+     * 为尚未计算指纹的历史职位补写 url_hash/content_hash；按 id 从新到旧处理，URL 重复的旧记录被删除
+     */
+    public void backfill() {
+        int filled = 0, removed = 0;
+        while (true) {
+            List<JobPosition> batch = jobRepository.findWithoutFingerprint(BACKFILL_BATCH);
+            if (batch.isEmpty()) break;
+            for (JobPosition j : batch) {
+                try {
+                    jobRepository.updateFingerprint(j.getId(), JobFingerprint.of(j));
+                    filled++;
+                } catch (DuplicateKeyException e) {
+                    jobRepository.deleteById(j.getId());
+                    removed++;
+                }
+            }
+        }
+        if (filled + removed > 0) log.info("job fingerprints backfilled: {} updated, {} duplicates removed", filled, removed);
+    }
+
+    /**
+     * 从数据库重建布隆过滤器，容量取配置值与现有职位数两倍中的较大者
+     */
+    public synchronized void warmUp() {
+        long start = System.currentTimeMillis();
+        BloomFilter next = new BloomFilter(Math.max(expectedJobs, jobRepository.countAll() * 2), falsePositiveRate);
+        warming = next;
+        try {
+            long afterId = 0, loaded = 0;
+            while (true) {
+                List<StoredFingerprint> batch = jobRepository.findFingerprintsAfterId(afterId, LOAD_BATCH);
+                for (StoredFingerprint s : batch) {
+                    next.put(JobFingerprint.hashHigh(s.urlHash()), JobFingerprint.hashLow(s.urlHash()));
+                }
+                loaded += batch.size();
+                if (batch.size() < LOAD_BATCH) break;
+                afterId = batch.get(batch.size() - 1).id();
+            }
+            filterEntries.set(loaded);
+            filter = next;
+            log.info("job dedup filter loaded: {} urls, capacity {} in {}ms",
+                    loaded, next.expectedInsertions(), System.currentTimeMillis() - start);
+        } finally {
+            warming = null;
+        }
+    }
+
+    boolean isWarm() { return filter != null; }
+
+    private void remember(String hash) {
+        long h1 = JobFingerprint.hashHigh(hash), h2 = JobFingerprint.hashLow(hash);
+        BloomFilter w = warming;
+        if (w != null) w.put(h1, h2);
+        BloomFilter f = filter;
+        if (f == null) return;
+        f.put(h1, h2);
+        // 超出容量后误判率上升，按新的职位数在后台重建一次；重建期间新增的职位由 warming 同时记入
+        if (filterEntries.incrementAndGet() > f.expectedInsertions() && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuilder.execute(this::rebuild);
+            } catch (RejectedExecutionException e) {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    private void rebuild() {
+        try {
+            warmUp();
+        } catch (Exception e) {
+            log.warn("job dedup filter rebuild failed: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    private void count(String name, String result, int n) {
+        if (n <= 0) return;
+        Counter.builder(name).tag("result", result).register(meterRegistry).increment(n);
+    }
+}
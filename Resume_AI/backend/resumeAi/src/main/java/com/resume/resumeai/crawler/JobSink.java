@@ -0,0 +1,14 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.JobPosition;
+
+import java.util.List;
+
+/**
+ * 爬虫结果的增量接收方：爬虫每完成一批职位即回调，调用方可立即落库，无需等待整次抓取结束。
+ * 实现需线程安全，爬虫可能在多个工作线程中并发回调。
+ */
+@FunctionalInterface
+public interface JobSink {
+    void accept(List<JobPosition> jobs);
+}
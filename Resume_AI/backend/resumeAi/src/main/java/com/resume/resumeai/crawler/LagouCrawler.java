@@ -10,7 +10,6 @@ import org.springframework.stereotype.Component;
 import io.github.bonigarcia.wdm.WebDriverManager;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 @Component("lagouCrawler")
@@ -19,10 +18,12 @@ public class LagouCrawler implements BaseCrawler {
     private final WebDriverProvider driverProvider;
     public LagouCrawler(WebDriverProvider driverProvider) { this.driverProvider = driverProvider; }
 
+    /**
+     * 逐条解析列表页条目，每解析出一条即回调 sink
+     */
     @Override
-    public List<JobPosition> crawl(String keyword, String city) {
-        List<JobPosition> jobs = new ArrayList<>();
-        WebDriver driver = driverProvider.createDriver();
+    public void crawl(String keyword, String city, JobSink sink) {
+        WebDriver driver = driverProvider.acquire();
         try {
             // 拉勾搜索URL (拉勾反爬较严，可能需要登录Cookie，这里尝试公开搜索页)
             String url = "https://www.lagou.com/jobs/list_" + keyword + "?city=" + city;
@@ -50,7 +51,7 @@ public class LagouCrawler implements BaseCrawler {
                     job.setJobDescription("详见链接");
                     job.setCrawlTime(LocalDateTime.now());
                     
-                    jobs.add(job);
+                    sink.accept(List.of(job));
                 } catch (Exception e) {
                     continue;
                 }
@@ -58,8 +59,7 @@ public class LagouCrawler implements BaseCrawler {
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
-            driver.quit();
+            driverProvider.release(driver);
         }
-        return jobs;
     }
 }
@@ -0,0 +1,296 @@
+package com.resume.resumeai.crawler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 浏览器会话池：复用已启动的 headless Chrome，避免每次爬取都冷启动浏览器。
+ * 借出前做健康检查，归还时清理 Cookie 与 Web Storage 并回到空白页；空闲超时或借出次数过多的会话会被关闭。
+ * max-size=0 时退化为每次新建、用完即关。
+ */
+@Primary
+@Component
+public class PooledWebDriverProvider implements WebDriverProvider, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(PooledWebDriverProvider.class);
+    private static final String CLEAR_STORAGE_JS =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    private final WebDriverProvider factory;
+    private final MeterRegistry meterRegistry;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final int maxLeases;
+    private final LongSupplier clock;
+
+    private final Semaphore permits;
+    /** 空闲会话，队首为最近归还的（最“热”的）会话；由 this 保护 */
+    private final Deque<Session> idle = new ArrayDeque<>();
+    /** 借出中的会话；由 this 保护 */
+    private final Map<WebDriver, Session> leased = new IdentityHashMap<>();
+    private final Counter created;
+    private final Counter exhausted;
+    private volatile boolean closed;
+    private ScheduledExecutorService evictor;
+
+    @Autowired
+    public PooledWebDriverProvider(@Qualifier("defaultWebDriverProvider") WebDriverProvider factory,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${crawler.webdriver.pool.max-size:-1}") int maxSize,
+                                   @Value("${crawler.executor.max-workers:0}") int maxWorkers,
+                                   @Value("${crawler.executor.driver-memory-mb:512}") int driverMemoryMb,
+                                   @Value("${crawler.webdriver.pool.idle-timeout-seconds:300}") long idleTimeoutSeconds,
+                                   @Value("${crawler.webdriver.pool.borrow-timeout-seconds:120}") long borrowTimeoutSeconds,
+                                   @Value("${crawler.webdriver.pool.max-leases:50}") int maxLeases) {
+        this(factory, meterRegistry,
+                maxSize >= 0 ? maxSize : (maxWorkers > 0 ? maxWorkers : CrawlerExecutor.autoWorkers(driverMemoryMb)),
+                idleTimeoutSeconds * 1000, borrowTimeoutSeconds * 1000, maxLeases, System::currentTimeMillis);
+        if (this.maxSize > 0 && idleTimeoutMillis > 0) {
+            long period = Math.max(1000, idleTimeoutMillis / 2);
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "webdriver-evictor");
+                t.setDaemon(true);
+                return t;
+            });
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+        log.info("webdriver pool: maxSize={}, idleTimeout={}s, maxLeases={}", this.maxSize, idleTimeoutSeconds, maxLeases);
+    }
+
+    PooledWebDriverProvider(WebDriverProvider factory, MeterRegistry meterRegistry, int maxSize,
+                            long idleTimeoutMillis, long borrowTimeoutMillis, int maxLeases, LongSupplier clock) {
+        this.factory = factory;
+        this.meterRegistry = meterRegistry;
+        this.maxSize = Math.max(0, maxSize);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.maxLeases = maxLeases;
+        this.clock = clock;
+        this.permits = new Semaphore(this.maxSize, true);
+        Gauge.builder("webdriver.pool.idle", this, p -> p.idleCount())
+                .description("空闲的浏览器会话数")
+                .register(meterRegistry);
+        Gauge.builder("webdriver.pool.leased", this, p -> p.leasedCount())
+                .description("借出中的浏览器会话数")
+                .register(meterRegistry);
+        this.created = Counter.builder("webdriver.pool.created")
+                .description("新启动的浏览器会话数")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("webdriver.pool.exhausted")
+                .description("等待超时未借到会话的次数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebDriver createDriver() {
+        return factory.createDriver();
+    }
+
+    /**
+     * 借出会话：优先复用最近归还的空闲会话，跳过超时或已失效的会话；池满时最多等待 borrow-timeout
+     *
+     * @throws IllegalStateException 等待超时或池已关闭
+     */
+    @Override
+    public WebDriver acquire() {
+        if (maxSize == 0) return factory.createDriver();
+        if (closed) throw new IllegalStateException("WebDriver pool is closed");
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                exhausted.increment();
+                throw new IllegalStateException("No browser session available within " + borrowTimeoutMillis + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+        }
+        return lease();
+    }
+
+    /**
+     * 池中无空余名额时立即返回 null，不等待
+     */
+    @Override
+    public WebDriver tryAcquire() {
+        if (maxSize == 0) return factory.createDriver();
+        if (closed || !permits.tryAcquire()) return null;
+        return lease();
+    }
+
+    /**
+     * 在已取得名额的前提下取出或新建会话；失败时归还名额
+     */
+    private WebDriver lease() {
+        try {
+            while (true) {
+                Session s;
+                synchronized (this) { s = idle.pollFirst(); }
+                if (s == null) {
+                    s = new Session(factory.createDriver());
+                    created.increment();
+                } else if (isIdleExpired(s)) {
+                    destroy(s, "idle");
+                    continue;
+                } else if (!isHealthy(s.driver)) {
+                    destroy(s, "unhealthy");
+                    continue;
+                }
+                s.leases++;
+                synchronized (this) { leased.put(s.driver, s); }
+                return s.driver;
+            }
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还会话：清理浏览器状态后放回空闲队列；清理失败、借出次数达到上限或池已关闭时直接关闭
+     */
+    @Override
+    public void release(WebDriver driver) {
+        if (driver == null) return;
+        if (maxSize == 0) {
+            quit(driver);
+            return;
+        }
+        Session s;
+        synchronized (this) { s = leased.remove(driver); }
+        if (s == null) {
+            quit(driver);
+            return;
+        }
+        try {
+            if (closed) {
+                destroy(s, "closed");
+            } else if (s.leases >= maxLeases) {
+                destroy(s, "max-leases");
+            } else if (!reset(driver)) {
+                destroy(s, "unhealthy");
+            } else {
+                s.lastUsed = clock.getAsLong();
+                synchronized (this) { idle.addFirst(s); }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 关闭空闲超时的会话
+     *
+     * @return 关闭的会话数
+     */
+    int evictIdle() {
+        List<Session> expired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Session> it = idle.iterator();
+            while (it.hasNext()) {
+                Session s = it.next();
+                if (isIdleExpired(s)) {
+                    it.remove();
+                    expired.add(s);
+                }
+            }
+        }
+        for (Session s : expired) destroy(s, "idle");
+        return expired.size();
+    }
+
+    synchronized int idleCount() { return idle.size(); }
+
+    synchronized int leasedCount() { return leased.size(); }
+
+    public int getMaxSize() { return maxSize; }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        if (evictor != null) evictor.shutdownNow();
+        List<Session> drained;
+        synchronized (this) {
+            drained = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (Session s : drained) destroy(s, "closed");
+    }
+
+    private boolean isIdleExpired(Session s) {
+        return idleTimeoutMillis > 0 && clock.getAsLong() - s.lastUsed >= idleTimeoutMillis;
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 清除当前页的 Web Storage 与全部 Cookie（Chromium 通过 CDP 清除所有域），再回到空白页
+     */
+    private static boolean reset(WebDriver driver) {
+        try {
+            if (driver instanceof JavascriptExecutor js) js.executeScript(CLEAR_STORAGE_JS);
+            driver.manage().deleteAllCookies();
+            if (driver instanceof ChromiumDriver chromium) {
+                chromium.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("webdriver reset failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void destroy(Session s, String reason) {
+        Counter.builder("webdriver.pool.evicted")
+                .description("被关闭的浏览器会话数")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        quit(s.driver);
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            log.debug("webdriver quit failed: {}", e.getMessage());
+        }
+    }
+
+    private final class Session {
+        final WebDriver driver;
+        int leases;
+        long lastUsed;
+
+        Session(WebDriver driver) {
+            this.driver = driver;
+            this.lastUsed = clock.getAsLong();
+        }
+    }
+}
@@ -1,66 +1,262 @@
 package com.resume.resumeai.crawler;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.zip.Inflater;
 
-import org.apache.fontbox.ttf.CmapSubtable;
-import org.apache.fontbox.ttf.CmapTable;
-import org.apache.fontbox.ttf.TTFParser;
-import org.apache.fontbox.ttf.TrueTypeFont;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.resume.resumeai.domain.JobPosition;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
-
 @Component("shixisengCrawler")
 public class ShixisengCrawler implements BaseCrawler {
 
+    private static final Logger log = LoggerFactory.getLogger(ShixisengCrawler.class);
+    private static final String LISTING_SELECTOR = ".intern-list";
+    private static final String ITEM_SELECTOR = ".intern-wrap.intern-item";
+
     private final WebDriverProvider driverProvider;
     private final FontLoader fontLoader;
-    private static final String PLAIN_TEXTS = "0123456789一师X会四计财场DHLPT聘招工d周|端p年hx设程二五天tCG前KO网SWcgkosw广市月个BF告NRVZ作bfjnrvz三互生人政AJEI件M行QUYaeim软qU银y联";
+    private final FontMapCache fontMapCache;
+    private final HostRateLimiter rateLimiter;
+    private final HtmlFetcher htmlFetcher;
+    private final int detailConcurrency;
+    private final boolean httpFirst;
+    private final String baseUrl;
+    private final Duration listingWait;
+    static final String PLAIN_TEXTS = "0123456789一师X会四计财场DHLPT聘招工d周|端p年hx设程二五天tCG前KO网SWcgkosw广市月个BF告NRVZ作bfjnrvz三互生人政AJEI件M行QUYaeim软qU银y联";
 
-    public ShixisengCrawler(WebDriverProvider driverProvider, FontLoader fontLoader) {
+    public ShixisengCrawler(WebDriverProvider driverProvider, FontLoader fontLoader, FontMapCache fontMapCache,
+                            HostRateLimiter rateLimiter,
+                            HtmlFetcher htmlFetcher,
+                            @Value("${crawler.detail.concurrency:3}") int detailConcurrency,
+                            @Value("${crawler.shixiseng.mode:http}") String mode,
+                            @Value("${crawler.shixiseng.base-url:https://www.shixiseng.com}") String baseUrl,
+                            @Value("${crawler.shixiseng.listing-wait-ms:10000}") long listingWaitMillis) {
         this.driverProvider = driverProvider;
         this.fontLoader = fontLoader;
+        this.fontMapCache = fontMapCache;
+        this.rateLimiter = rateLimiter;
+        this.htmlFetcher = htmlFetcher;
+        this.detailConcurrency = Math.max(1, detailConcurrency);
+        this.httpFirst = !"browser".equalsIgnoreCase(mode);
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.listingWait = Duration.ofMillis(Math.max(0, listingWaitMillis));
     }
 
+    /**
+     * http 模式（默认）先以纯 HTTP 抓取并流式解析页面，列表页没有列表容器（需要 JS 渲染）或请求失败时整体回退到浏览器，
+     * 容器存在但没有条目的搜索结果视为正常的空结果；
+     * 单个详情页缺少描述节点时只对该页回退。所有页面访问都经过按站点的令牌桶限速，每条职位完成即回调 sink
+     */
     @Override
-    public List<JobPosition> crawl(String keyword, String city) {
+    public void crawl(String keyword, String city, JobSink sink) {
+        if (httpFirst) {
+            try {
+                if (crawlOverHttp(keyword, city, sink)) return;
+                log.info("shixiseng listing is rendered by JavaScript, falling back to browser");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("shixiseng http crawl failed, falling back to browser: {}", e.getMessage());
+            }
+        }
+        crawlWithBrowser(keyword, city, sink);
+    }
+
+    /**
+     * HTTP 模式：列表页与详情页以共享 HttpClient 抓取、jsoup 流式解析，详情页由最多 detail-concurrency 个线程并发抓取
+     *
+     * @return 列表页没有列表容器（需 JS 渲染）时返回 false，此时尚未回调 sink
+     */
+    private boolean crawlOverHttp(String keyword, String city, JobSink sink) throws IOException, InterruptedException {
+        String url = baseUrl + "/interns?keyword=" + encode(keyword) + "&city=" + encode(city);
+        rateLimiter.acquire(url);
+        ListingPage page = parseListing(url);
+        if (!page.hasListing()) return false;
+        if (page.items().isEmpty()) {
+            log.info("shixiseng returned no jobs for {} in {}", keyword, city);
+            return true;
+        }
+
+        FontMap fontMap = buildFontMap(page.fontUrl());
+        List<JobPosition> jobs = new ArrayList<>();
+        for (ListingItem item : page.items()) {
+            JobPosition job = new JobPosition();
+            job.setJobTitle(decodeText(item.title(), fontMap));
+            job.setCompanyName(decodeText(item.company(), fontMap));
+            job.setSalary(decodeText(item.salary(), fontMap));
+            job.setSourceUrl(item.link());
+            job.setLocation(city);
+            job.setCrawlTime(LocalDateTime.now());
+            jobs.add(job);
+        }
+
+        Queue<JobPosition> pending = new ConcurrentLinkedQueue<>(jobs);
+        Queue<JobPosition> needsBrowser = new ConcurrentLinkedQueue<>();
+        int workers = Math.min(detailConcurrency, jobs.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i < workers; i++) {
+                executor.submit(() -> drainDetailsOverHttp(pending, needsBrowser, fontMap, sink));
+            }
+            drainDetailsOverHttp(pending, needsBrowser, fontMap, sink);
+        }
+
+        if (!needsBrowser.isEmpty()) {
+            log.info("{} shixiseng detail pages need JavaScript rendering, using browser", needsBrowser.size());
+            WebDriver driver = null;
+            try {
+                driver = driverProvider.acquire();
+                drainDetails(driver, needsBrowser, fontMap, sink);
+            } catch (RuntimeException e) {
+                log.warn("browser fallback failed: {}", e.getMessage());
+                JobPosition job;
+                while ((job = needsBrowser.poll()) != null) {
+                    job.setJobDescription("描述提取失败或无详情");
+                    sink.accept(List.of(job));
+                }
+            } finally {
+                if (driver != null) driverProvider.release(driver);
+            }
+        }
+        return true;
+    }
+
+    private void drainDetailsOverHttp(Queue<JobPosition> pending, Queue<JobPosition> needsBrowser,
+                                      FontMap fontMap, JobSink sink) {
+        JobPosition job;
+        while (!Thread.currentThread().isInterrupted() && (job = pending.poll()) != null) {
+            if (job.getSourceUrl() != null) {
+                try {
+                    rateLimiter.acquire(job.getSourceUrl());
+                    DetailPage detail = parseDetail(job.getSourceUrl());
+                    if (detail.description() == null) {
+                        needsBrowser.add(job);
+                        continue;
+                    }
+                    FontMap detailFontMap = detail.fontUrl() == null ? fontMap : buildFontMap(detail.fontUrl());
+                    job.setJobDescription(decodeText(detail.description(), detailFontMap));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    job.setJobDescription("描述提取失败或无详情");
+                }
+            }
+            sink.accept(List.of(job));
+        }
+    }
+
+    /**
+     * 边下载边解析列表页：取出字体 URL 与每个职位条目的字段，处理完的条目立即从 DOM 中移除
+     */
+    private ListingPage parseListing(String url) throws IOException, InterruptedException {
+        String fontUrl = null;
+        boolean hasListing = false;
+        List<ListingItem> items = new ArrayList<>();
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(htmlFetcher.open(url), url)) {
+            Iterator<Element> it = parser.iterator();
+            while (it.hasNext()) {
+                Element el = it.next();
+                if (fontUrl == null && (el.nameIs("style") || el.nameIs("script"))) {
+                    fontUrl = extractFontUrl(el.data());
+                } else if (el.is(LISTING_SELECTOR)) {
+                    hasListing = true;
+                } else if (el.is(ITEM_SELECTOR)) {
+                    hasListing = true;
+                    Element link = el.selectFirst(".f-l.intern-detail__job a");
+                    Element company = el.selectFirst(".f-r.intern-detail__company a");
+                    Element salary = el.selectFirst(".f-l.intern-detail__job .day");
+                    if (link != null && company != null && salary != null) {
+                        String href = link.absUrl("href");
+                        items.add(new ListingItem(link.text(), company.text(), salary.text(), href.isEmpty() ? null : href));
+                    }
+                    el.remove();
+                }
+            }
+        }
+        return new ListingPage(fontUrl, hasListing, items);
+    }
+
+    /**
+     * 流式解析详情页，读到职位描述节点即停止下载
+     */
+    private DetailPage parseDetail(String url) throws IOException, InterruptedException {
+        String fontUrl = null;
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(htmlFetcher.open(url), url)) {
+            Iterator<Element> it = parser.iterator();
+            while (it.hasNext()) {
+                Element el = it.next();
+                if (fontUrl == null && (el.nameIs("style") || el.nameIs("script"))) {
+                    fontUrl = extractFontUrl(el.data());
+                } else if (el.is(".job_part")) {
+                    return new DetailPage(fontUrl, el.text());
+                }
+            }
+        }
+        return new DetailPage(fontUrl, null);
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s == null ? "" : s, StandardCharsets.UTF_8);
+    }
+
+    private record ListingItem(String title, String company, String salary, String link) {}
+
+    private record ListingPage(String fontUrl, boolean hasListing, List<ListingItem> items) {}
+
+    private record DetailPage(String fontUrl, String description) {}
+
+    /**
+     * 浏览器模式：先在一个会话上解析列表页，再由最多 detail-concurrency 个会话并发抓取详情页
+     */
+    private void crawlWithBrowser(String keyword, String city, JobSink sink) {
         List<JobPosition> jobs = new ArrayList<>();
-        WebDriver driver = driverProvider.createDriver();
+        WebDriver driver = driverProvider.acquire();
         try {
             // 实习僧搜索URL构造
-            String url = "https://www.shixiseng.com/interns?keyword=" + keyword + "&city=" + city;
+            String url = baseUrl + "/interns?keyword=" + keyword + "&city=" + city;
+            rateLimiter.acquire(url);
             driver.get(url);
-            
-            // 简单等待页面加载
-            Thread.sleep(3000);
+
+            // 等待列表渲染：出现列表容器或职位条目即继续，超时视为没有结果
+            try {
+                new WebDriverWait(driver, listingWait).until(d -> !d.findElements(By.cssSelector(ITEM_SELECTOR)).isEmpty()
+                        || !d.findElements(By.cssSelector(LISTING_SELECTOR)).isEmpty());
+            } catch (TimeoutException e) {
+                log.info("shixiseng listing did not render within {}ms for {} in {}", listingWait.toMillis(), keyword, city);
+                return;
+            }
 
             // 1. 获取当前页面的字体 URL 并构建映射表
             String pageSource = driver.getPageSource();
             String fontUrl = extractFontUrl(pageSource);
-            Map<Integer, Character> fontMap = buildFontMap(fontUrl);
+            FontMap fontMap = buildFontMap(fontUrl);
 
-            List<WebElement> items = driver.findElements(By.cssSelector(".intern-wrap.intern-item"));
+            List<WebElement> items = driver.findElements(By.cssSelector(ITEM_SELECTOR));
             // 第一步：先收集列表页的基本信息和详情页链接
             for (WebElement item : items) {
                 try {
@@ -85,44 +281,76 @@ public class ShixisengCrawler implements BaseCrawler {
                 }
             }
 
-            // 第二步：逐个访问详情页获取职位描述
-            for (JobPosition job : jobs) {
-                try {
-                    if (job.getSourceUrl() != null) {
-                        driver.get(job.getSourceUrl());
-                        // 随机延时 1-2秒，避免被反爬拦截
-                        Thread.sleep(1000 + (long)(Math.random() * 1000));
-                        
-                        try {
-                            // 详情页可能使用不同的字体，理论上应该重新解析
-                            // 但通常同一会话或同一时间段内字体 URL 是固定的或者类似的，这里尝试复用或重新提取
-                            String detailPageSource = driver.getPageSource();
-                            String detailFontUrl = extractFontUrl(detailPageSource);
-                            // 如果详情页字体不同，重新构建映射 (简单判断 URL 是否变化)
-                            Map<Integer, Character> detailFontMap = fontMap;
-                            if (detailFontUrl != null && !detailFontUrl.equals(fontUrl)) {
-                                detailFontMap = buildFontMap(detailFontUrl);
-                            }
-
-                            // 尝试提取职位描述，实习僧通常使用 .job_part 类
-                            WebElement descElement = driver.findElement(By.cssSelector(".job_part"));
-                            String description = decodeText(descElement.getText(), detailFontMap);
-                            job.setJobDescription(description);
-                        } catch (Exception ex) {
-                            job.setJobDescription("描述提取失败或无详情");
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("Failed to crawl detail for: " + job.getJobTitle());
-                }
-            }
+            // 第二步：并发访问详情页获取职位描述
+            fetchDetails(driver, jobs, fontMap, sink);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("shixiseng browser crawl failed for {} in {}", keyword, city, e);
         } finally {
-            driver.quit();
+            driverProvider.release(driver);
+        }
+    }
+
+    /**
+     * 详情页工作队列：当前会话始终参与，另外最多借 detail-concurrency - 1 个空闲会话（借不到则不扩容），
+     * 各会话从共享队列取任务，直到队列为空
+     */
+    private void fetchDetails(WebDriver primary, List<JobPosition> jobs, FontMap fontMap, JobSink sink) {
+        Queue<JobPosition> pending = new ConcurrentLinkedQueue<>(jobs);
+        int extra = Math.min(detailConcurrency, jobs.size()) - 1;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < extra; i++) {
+                workers.submit(() -> {
+                    WebDriver driver;
+                    try {
+                        driver = driverProvider.tryAcquire();
+                    } catch (RuntimeException e) {
+                        return;
+                    }
+                    if (driver == null) return;
+                    try {
+                        drainDetails(driver, pending, fontMap, sink);
+                    } finally {
+                        driverProvider.release(driver);
+                    }
+                });
+            }
+            drainDetails(primary, pending, fontMap, sink);
+        }
+    }
+
+    private void drainDetails(WebDriver driver, Queue<JobPosition> pending, FontMap fontMap, JobSink sink) {
+        JobPosition job;
+        while (!Thread.currentThread().isInterrupted() && (job = pending.poll()) != null) {
+            try {
+                if (job.getSourceUrl() != null) {
+                    rateLimiter.acquire(job.getSourceUrl());
+                    driver.get(job.getSourceUrl());
+                    
+                    try {
+                        // 详情页可能使用不同的字体，由字体映射缓存按 URL / 内容指纹复用
+                        String detailPageSource = driver.getPageSource();
+                        String detailFontUrl = extractFontUrl(detailPageSource);
+                        FontMap detailFontMap = detailFontUrl == null ? fontMap : buildFontMap(detailFontUrl);
+
+                        // 尝试提取职位描述，实习僧通常使用 .job_part 类
+                        WebElement descElement = driver.findElement(By.cssSelector(".job_part"));
+                        String description = decodeText(descElement.getText(), detailFontMap);
+                        job.setJobDescription(description);
+                    } catch (Exception ex) {
+                        job.setJobDescription("描述提取失败或无详情");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("failed to crawl detail for {}: {}", job.getJobTitle(), e.getMessage());
+            }
+            sink.accept(List.of(job));
         }
-        return jobs;
     }
 
     /**
@@ -130,6 +358,7 @@ public class ShixisengCrawler implements BaseCrawler {
      * 改进正则匹配，支持更多格式
      */
     private String extractFontUrl(String pageSource) {
+        if (pageSource == null) return null;
         // 尝试匹配 src: url(...) 格式，兼容引号和不同后缀
         // 常见格式: src: url(https://www.shixiseng.com/interns/iconfonts/file?rand=0.123)
         // 改进：src:\s*url\(['"]?([^'\"()]+file\?[^'\"()]+)['"]?\
@@ -142,7 +371,7 @@ public class ShixisengCrawler implements BaseCrawler {
                 if (url.startsWith("//")) {
                     url = "https:" + url;
                 } else {
-                    url = "https://www.shixiseng.com" + url;
+                    url = baseUrl + url;
                 }
             }
             return url;
@@ -151,219 +380,33 @@ public class ShixisengCrawler implements BaseCrawler {
     }
 
     /**
-     * 构建字体映射表
-     * 改进：添加请求头，模拟浏览器行为，防止 403 Forbidden
-     * 改进：支持 WOFF 格式转换
+     * 构建字体映射表：经 {@link FontMapCache} 按 URL / 字体内容指纹复用，只有字形表真正轮换时才重新解码
      */
-    private Map<Integer, Character> buildFontMap(String fontUrl) {
-        Map<Integer, Character> map = new HashMap<>();
-        if (fontUrl == null || fontUrl.isEmpty()) {
-            return map;
-        }
-
-        try {
-            byte[] fontData = fontLoader.downloadFont(fontUrl);
-            if (fontData == null) {
-                return map;
-            }
-            
-            // 尝试转换 WOFF -> TTF
-            try {
-                fontData = convertWoffToTtf(fontData);
-            } catch (Exception e) {
-                System.err.println("WOFF conversion failed, trying as raw TTF: " + e.getMessage());
-            }
-
-            try (InputStream fontStream = new ByteArrayInputStream(fontData)) {
-                TTFParser parser = new TTFParser();
-                TrueTypeFont font = parser.parse(fontStream);
-                
-                // 获取 Cmap 表
-                CmapSubtable cmap = font.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_1_0);
-                if (cmap == null) {
-                    cmap = font.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_2_0_BMP);
-                }
-
-                if (cmap != null) {
-                    // FontBox 2.0 API 差异，FontBox 没有直接暴露 GlyphID 顺序的简单方法
-                    // 但 CmapTable 存储了 charCode -> glyphId 的映射
-                    // 我们需要遍历所有可能的 charCode，或者直接从 post/glyf 表反向查找
-                    // 这里我们遍历 cmap 中的所有映射
-                    // 实习僧通常使用 Private Use Area (PUA) 范围，通常在 E000 - F8FF
-                    
-                    for (int code = 0xE000; code <= 0xF8FF; code++) {
-                        int glyphId = cmap.getGlyphId(code);
-                        // glyphId 0 (.notdef) 和 1 (.null/nonmarkingreturn) 通常跳过
-                        // 实习僧逻辑通常是 glyphId - 2 对应字典索引
-                        if (glyphId > 1 && (glyphId - 2) < PLAIN_TEXTS.length()) {
-                             char realChar = PLAIN_TEXTS.charAt(glyphId - 2);
-                             map.put(code, realChar);
-                        }
-                    }
-                }
-                font.close();
-                System.out.println("Font map built with " + map.size() + " entries from " + fontUrl);
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to build font map from " + fontUrl + ": " + e.getMessage());
-        }
-        return map;
+    private FontMap buildFontMap(String fontUrl) {
+        return fontMapCache.resolve(fontUrl, fontLoader::downloadFont, this::decodeFont);
     }
-    
+
     /**
-     * 将 WOFF 1.0 格式字节数组转换为 TTF 格式字节数组
+     * 解码字体文件，见 {@link FontDecoder}
      */
-    private byte[] convertWoffToTtf(byte[] woffData) throws Exception {
-        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(woffData))) {
-            // WOFF Header
-            int signature = in.readInt();
-            if (signature != 0x774F4646) { // "wOFF"
-                return woffData; // Not WOFF, return original
-            }
-            int flavor = in.readInt();
-            int length = in.readInt();
-            short numTables = in.readShort();
-            short reserved = in.readShort();
-            int totalSfntSize = in.readInt();
-            short majorVersion = in.readShort();
-            short minorVersion = in.readShort();
-            int metaOffset = in.readInt();
-            int metaLength = in.readInt();
-            int metaOrigLength = in.readInt();
-            int privOffset = in.readInt();
-            int privLength = in.readInt();
-            
-            // Table Directory Entries
-            class TableDirectoryEntry {
-                int tag;
-                int offset;
-                int compLength;
-                int origLength;
-                int origChecksum;
-                byte[] data;
-            }
-            
-            TableDirectoryEntry[] tables = new TableDirectoryEntry[numTables];
-            // Read WOFF directory
-            for (int i = 0; i < numTables; i++) {
-                tables[i] = new TableDirectoryEntry();
-                tables[i].tag = in.readInt();
-                tables[i].offset = in.readInt();
-                tables[i].compLength = in.readInt();
-                tables[i].origLength = in.readInt();
-                tables[i].origChecksum = in.readInt();
-            }
-            
-            // Prepare Output
-            ByteArrayOutputStream ttfOut = new ByteArrayOutputStream(totalSfntSize);
-            DataOutputStream out = new DataOutputStream(ttfOut);
-            
-            // Write TTF Header
-            out.writeInt(flavor);
-            out.writeShort(numTables);
-            // Calculate searchRange, entrySelector, rangeShift
-            int entrySelector = 0;
-            while ((1 << (entrySelector + 1)) <= numTables) {
-                entrySelector++;
-            }
-            int searchRange = (1 << entrySelector) * 16;
-            int rangeShift = numTables * 16 - searchRange;
-            
-            out.writeShort(searchRange);
-            out.writeShort(entrySelector);
-            out.writeShort(rangeShift);
-            
-            // Calculate offsets and prepare table data
-            int currentOffset = 12 + numTables * 16; // Start after TTF header + directory
-            
-            // We must process tables in order to write directory correctly?
-            // No, the directory must list tables. The offset in directory must point to where we write the data.
-            // We will write data sequentially after the directory.
-            
-            for (TableDirectoryEntry table : tables) {
-                // Align to 4 bytes
-                while (currentOffset % 4 != 0) {
-                    currentOffset++;
-                }
-                
-                // Read data from WOFF
-                byte[] tableData = new byte[table.compLength];
-                System.arraycopy(woffData, table.offset, tableData, 0, table.compLength);
-                
-                if (table.compLength < table.origLength) {
-                    // Decompress
-                    Inflater inflater = new Inflater();
-                    inflater.setInput(tableData);
-                    byte[] decompressed = new byte[table.origLength];
-                    int resultLength = inflater.inflate(decompressed);
-                    inflater.end();
-                    if (resultLength != table.origLength) {
-                        // Warning or error?
-                    }
-                    table.data = decompressed;
-                } else {
-                    table.data = tableData;
-                }
-                
-                // Update table offset for TTF directory
-                // We use a temporary field or just write directory now?
-                // We need to write directory first.
-                // But we need to know offsets.
-                // So we calculate offsets in this loop, but write directory later?
-                // Or write directory now and data later?
-                // Wait, we need to iterate twice.
-                // First pass: Read/Decompress data and calculate offsets.
-                // Second pass: Write Directory.
-                // Third pass: Write Data.
-            }
-
-            // Let's recalculate offsets properly
-            int dataOffset = 12 + numTables * 16;
-            for (TableDirectoryEntry table : tables) {
-                 while (dataOffset % 4 != 0) {
-                    dataOffset++;
-                }
-                table.offset = dataOffset; // Reuse offset field for TTF offset
-                dataOffset += table.data.length;
-            }
-            
-            // Write TTF Directory
-            for (TableDirectoryEntry table : tables) {
-                out.writeInt(table.tag);
-                out.writeInt(table.origChecksum);
-                out.writeInt(table.offset);
-                out.writeInt(table.origLength);
-            }
-            
-            // Write Table Data
-            for (TableDirectoryEntry table : tables) {
-                while (ttfOut.size() % 4 != 0) {
-                    out.write(0);
-                }
-                out.write(table.data);
-            }
-            
-            return ttfOut.toByteArray();
+    private FontMap decodeFont(byte[] fontData) {
+        try {
+            FontMap map = FontDecoder.decode(fontData, PLAIN_TEXTS);
+            log.debug("font map built with {} entries", map.size());
+            return map;
+        } catch (Exception e) {
+            log.warn("failed to decode font: {}", e.getMessage());
+            return FontMap.EMPTY;
         }
     }
 
     /**
      * 使用映射表解码文本
      */
-    private String decodeText(String text, Map<Integer, Character> fontMap) {
+    private String decodeText(String text, FontMap fontMap) {
         if (text == null) return "";
-        if (fontMap == null || fontMap.isEmpty()) return cleanText(text);
-
-        StringBuilder sb = new StringBuilder();
-        for (char c : text.toCharArray()) {
-            int code = (int) c;
-            if (fontMap.containsKey(code)) {
-                sb.append(fontMap.get(code));
-            } else {
-                sb.append(c);
-            }
-        }
-        return cleanText(sb.toString());
+        if (fontMap == null) return cleanText(text);
+        return cleanText(fontMap.decode(text));
     }
 
     /**
@@ -3,18 +3,103 @@ package com.resume.resumeai.crawler;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import io.github.bonigarcia.wdm.WebDriverManager;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
 public interface WebDriverProvider {
+    /**
+     * 新建一个浏览器会话，调用方负责 quit
+     */
     WebDriver createDriver();
+
+    /**
+     * 借出一个浏览器会话，用完后必须调用 {@link #release(WebDriver)} 归还
+     */
+    default WebDriver acquire() {
+        return createDriver();
+    }
+
+    /**
+     * 不等待地借出一个会话，无可用会话时返回 null；用于可选的额外并发会话
+     */
+    default WebDriver tryAcquire() {
+        return acquire();
+    }
+
+    /**
+     * 归还 {@link #acquire()} 借出的会话；非池化实现直接关闭
+     */
+    default void release(WebDriver driver) {
+        if (driver != null) driver.quit();
+    }
 }
 
-@Component
+@Component("defaultWebDriverProvider")
 class DefaultWebDriverProvider implements WebDriverProvider {
+    private static final Logger log = LoggerFactory.getLogger(DefaultWebDriverProvider.class);
+
+    private final boolean setupOnStartup;
+    /** 进行中或已完成的 chromedriver 解析；失败后清空，下次使用时重试 */
+    private final AtomicReference<CompletableFuture<Void>> setup = new AtomicReference<>();
+
+    DefaultWebDriverProvider(@Value("${crawler.webdriver.setup-on-startup:true}") boolean setupOnStartup) {
+        this.setupOnStartup = setupOnStartup;
+    }
+
+    /**
+     * 启动后解析并下载 chromedriver，避免每次创建会话都走一遍 WebDriverManager 的版本探测
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void setupOnStartup() {
+        if (!setupOnStartup) return;
+        try {
+            resolve();
+        } catch (Exception e) {
+            log.warn("chromedriver setup failed, will retry on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 只由一个调用方执行下载，其余调用方等待同一结果；不持有监视器锁，等待中的虚拟线程不会钉住载体线程
+     */
+    private void resolve() {
+        while (true) {
+            CompletableFuture<Void> f = setup.get();
+            if (f == null) {
+                CompletableFuture<Void> mine = new CompletableFuture<>();
+                if (!setup.compareAndSet(null, mine)) continue;
+                try {
+                    WebDriverManager.chromedriver().setup();
+                    mine.complete(null);
+                    return;
+                } catch (RuntimeException e) {
+                    setup.compareAndSet(mine, null);
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            try {
+                f.join();
+                return;
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+        }
+    }
+
     @Override
     public WebDriver createDriver() {
-        WebDriverManager.chromedriver().setup();
+        resolve();
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--headless", "--disable-gpu", "--no-sandbox", "--disable-dev-shm-usage", "--lang=zh-CN");
         options.addArguments("user-agent=Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
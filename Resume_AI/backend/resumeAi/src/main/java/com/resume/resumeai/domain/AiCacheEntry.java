@@ -0,0 +1,17 @@
+package com.resume.resumeai.domain;
+
+import java.time.LocalDateTime;
+
+public class AiCacheEntry {
+    private String cacheKey;
+    private String operation;
+    private String payload; // 解析后结果的 JSON
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+
+    public String getCacheKey() { return cacheKey; } public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+    public String getOperation() { return operation; } public void setOperation(String operation) { this.operation = operation; }
+    public String getPayload() { return payload; } public void setPayload(String payload) { this.payload = payload; }
+    public LocalDateTime getCreatedAt() { return createdAt; } public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; } public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
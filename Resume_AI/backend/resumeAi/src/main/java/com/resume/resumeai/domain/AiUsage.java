@@ -0,0 +1,6 @@
+package com.resume.resumeai.domain;
+
+/**
+ * 用户某一天的 AI 调用量：请求次数与消耗的 token 数
+ */
+public record AiUsage(long requests, long tokens) {}
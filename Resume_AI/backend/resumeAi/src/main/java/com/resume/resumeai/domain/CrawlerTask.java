@@ -11,6 +11,12 @@ public class CrawlerTask {
     private String lastRun;
     private String nextRun;
     private String status; // 'Active' or 'Paused'
+    private String lastStatus; // 最近一次执行结果：'Completed' or 'Failed'，未执行过为 null
+    private Integer priority; // 越大越先执行
+    private String runState; // 'Idle', 'Queued' or 'Running'
+    private Integer lastInserted; // 最近一次（或正在进行的）执行新增的职位数
+    private Integer lastUpdated; // 最近一次执行内容有变化而更新的职位数
+    private Integer lastSkipped; // 最近一次执行重复未写入的职位数
 
     public String getId() { return id; } public void setId(String id) { this.id = id; }
     public String getQuery() { return query; } public void setQuery(String query) { this.query = query; }
@@ -19,4 +25,10 @@ public class CrawlerTask {
     public String getLastRun() { return lastRun; } public void setLastRun(String lastRun) { this.lastRun = lastRun; }
     public String getNextRun() { return nextRun; } public void setNextRun(String nextRun) { this.nextRun = nextRun; }
     public String getStatus() { return status; } public void setStatus(String status) { this.status = status; }
+    public String getLastStatus() { return lastStatus; } public void setLastStatus(String lastStatus) { this.lastStatus = lastStatus; }
+    public Integer getPriority() { return priority; } public void setPriority(Integer priority) { this.priority = priority; }
+    public String getRunState() { return runState; } public void setRunState(String runState) { this.runState = runState; }
+    public Integer getLastInserted() { return lastInserted; } public void setLastInserted(Integer lastInserted) { this.lastInserted = lastInserted; }
+    public Integer getLastUpdated() { return lastUpdated; } public void setLastUpdated(Integer lastUpdated) { this.lastUpdated = lastUpdated; }
+    public Integer getLastSkipped() { return lastSkipped; } public void setLastSkipped(Integer lastSkipped) { this.lastSkipped = lastSkipped; }
 }
@@ -0,0 +1,89 @@
+package com.resume.resumeai.domain;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * 职位指纹：urlHash 为归一化来源 URL 的 SHA-256（job_positions 的唯一键），contentHash 为各展示字段的 SHA-256，
+ * 用于判断同一职位再次抓取时内容是否变化。没有来源 URL 时以 公司|职位|城市 代替。
+ */
+public record JobFingerprint(String urlHash, String contentHash) {
+    /** 不影响页面内容的跟踪参数，归一化时去掉 */
+    private static final Set<String> TRACKING_PARAMS = Set.of("pcm", "spm", "from", "ref", "rand", "_t");
+
+    public static JobFingerprint of(JobPosition job) {
+        String url = normalizeUrl(job.getSourceUrl());
+        String identity = url != null ? url
+                : "job:" + normalizeText(job.getCompanyName()) + '|' + normalizeText(job.getJobTitle()) + '|' + normalizeText(job.getLocation());
+        String content = normalizeText(job.getJobTitle()) + '\u0001' + normalizeText(job.getCompanyName()) + '\u0001'
+                + normalizeText(job.getJobDescription()) + '\u0001' + normalizeText(job.getLocation()) + '\u0001'
+                + normalizeText(job.getSalary());
+        return new JobFingerprint(sha256(identity), sha256(content));
+    }
+
+    /**
+     * URL 归一化：协议与主机名小写、去掉默认端口、片段、末尾斜杠和跟踪参数，其余查询参数按名称排序；
+     * 空白 URL 返回 null，无法解析时返回去空白后的原串
+     */
+    public static String normalizeUrl(String url) {
+        if (url == null || url.isBlank()) return null;
+        String s = url.trim();
+        try {
+            URI u = new URI(s);
+            if (u.getScheme() == null || u.getRawAuthority() == null) return s;
+            String scheme = u.getScheme().toLowerCase(Locale.ROOT);
+            String host = u.getHost() == null ? u.getRawAuthority().toLowerCase(Locale.ROOT) : u.getHost().toLowerCase(Locale.ROOT);
+            int port = u.getPort();
+            boolean defaultPort = port == -1 || (port == 80 && scheme.equals("http")) || (port == 443 && scheme.equals("https"));
+            String path = u.getRawPath() == null ? "" : u.getRawPath();
+            while (path.endsWith("/")) path = path.substring(0, path.length() - 1);
+
+            StringBuilder sb = new StringBuilder(s.length()).append(scheme).append("://").append(host);
+            if (!defaultPort) sb.append(':').append(port);
+            sb.append(path);
+            if (u.getRawQuery() != null) {
+                List<String> params = new ArrayList<>();
+                for (String p : u.getRawQuery().split("&")) {
+                    if (p.isEmpty()) continue;
+                    int eq = p.indexOf('=');
+                    String name = (eq < 0 ? p : p.substring(0, eq)).toLowerCase(Locale.ROOT);
+                    if (name.startsWith("utm_") || TRACKING_PARAMS.contains(name)) continue;
+                    params.add(p);
+                }
+                Collections.sort(params);
+                if (!params.isEmpty()) sb.append('?').append(String.join("&", params));
+            }
+            return sb.toString();
+        } catch (URISyntaxException e) {
+            return s;
+        }
+    }
+
+    private static String normalizeText(String s) {
+        return s == null ? "" : s.strip().replaceAll("\\s+", " ");
+    }
+
+    private static String sha256(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 取 urlHash 的前 16 字节作为布隆过滤器的两个 64 位哈希值
+     */
+    public static long hashHigh(String urlHash) {
+        return Long.parseUnsignedLong(urlHash, 0, 16, 16);
+    }
+
+    public static long hashLow(String urlHash) {
+        return Long.parseUnsignedLong(urlHash, 16, 32, 16);
+    }
+}
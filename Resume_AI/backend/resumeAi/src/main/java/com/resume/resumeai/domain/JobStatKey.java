@@ -0,0 +1,30 @@
+package com.resume.resumeai.domain;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * 职位统计维度：抓取日期 + 来源站点（来源 URL 的主机名，去掉 www. 前缀；无法解析时为 unknown）
+ */
+public record JobStatKey(LocalDate day, String source) {
+    public static final String UNKNOWN_SOURCE = "unknown";
+
+    public static JobStatKey of(String sourceUrl, LocalDateTime crawlTime) {
+        return new JobStatKey(crawlTime == null ? null : crawlTime.toLocalDate(), sourceOf(sourceUrl));
+    }
+
+    public static String sourceOf(String sourceUrl) {
+        if (sourceUrl == null || sourceUrl.isBlank()) return UNKNOWN_SOURCE;
+        try {
+            String host = URI.create(sourceUrl.trim()).getHost();
+            if (host == null || host.isEmpty()) return UNKNOWN_SOURCE;
+            host = host.toLowerCase(Locale.ROOT);
+            host = host.startsWith("www.") ? host.substring(4) : host;
+            return host.length() > 100 ? host.substring(0, 100) : host;
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN_SOURCE;
+        }
+    }
+}
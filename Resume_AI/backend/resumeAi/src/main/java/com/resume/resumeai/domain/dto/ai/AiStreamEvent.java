@@ -0,0 +1,50 @@
+package com.resume.resumeai.domain.dto.ai;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 流式接口推送的事件：delta 为模型增量输出，result 为解析后的完整结果，error 为调用失败说明
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AiStreamEvent {
+    public static final String DELTA = "delta";
+    public static final String RESULT = "result";
+    public static final String ERROR = "error";
+
+    private String type;
+    private String delta;
+    private Object result;
+    private String message;
+
+    public static AiStreamEvent delta(String text) {
+        AiStreamEvent e = new AiStreamEvent();
+        e.type = DELTA;
+        e.delta = text;
+        return e;
+    }
+
+    public static AiStreamEvent result(Object result) {
+        AiStreamEvent e = new AiStreamEvent();
+        e.type = RESULT;
+        e.result = result;
+        return e;
+    }
+
+    public static AiStreamEvent error(String message) {
+        AiStreamEvent e = new AiStreamEvent();
+        e.type = ERROR;
+        e.message = message;
+        return e;
+    }
+
+    @JsonIgnore
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getDelta() { return delta; }
+    public void setDelta(String delta) { this.delta = delta; }
+    public Object getResult() { return result; }
+    public void setResult(Object result) { this.result = result; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,12 @@
+package com.resume.resumeai.domain.event;
+
+/**
+ * 职位删除事件
+ */
+public class JobDeletedEvent {
+    private final Long jobId;
+
+    public JobDeletedEvent(Long jobId) { this.jobId = jobId; }
+
+    public Long getJobId() { return jobId; }
+}
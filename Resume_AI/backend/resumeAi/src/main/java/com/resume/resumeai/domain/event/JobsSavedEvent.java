@@ -0,0 +1,25 @@
+package com.resume.resumeai.domain.event;
+
+import com.resume.resumeai.domain.JobPosition;
+
+import java.util.List;
+
+/**
+ * 职位批量写入完成事件（jobs 中的 id 已回填为数据库生成的主键）；
+ * inserted 为其中新插入的条数，写入方不知道时为 -1
+ */
+public class JobsSavedEvent {
+    private final List<JobPosition> jobs;
+    private final int inserted;
+
+    public JobsSavedEvent(List<JobPosition> jobs) { this(jobs, -1); }
+
+    public JobsSavedEvent(List<JobPosition> jobs, int inserted) {
+        this.jobs = jobs;
+        this.inserted = inserted;
+    }
+
+    public List<JobPosition> getJobs() { return jobs; }
+
+    public int getInserted() { return inserted; }
+}
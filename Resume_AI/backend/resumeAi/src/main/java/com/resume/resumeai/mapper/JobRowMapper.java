@@ -0,0 +1,25 @@
+package com.resume.resumeai.mapper;
+
+import com.resume.resumeai.domain.JobPosition;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class JobRowMapper implements RowMapper<JobPosition> {
+    public static final JobRowMapper INSTANCE = new JobRowMapper();
+
+    @Override
+    public JobPosition mapRow(ResultSet rs, int rowNum) throws SQLException {
+        JobPosition j = new JobPosition();
+        j.setId(rs.getLong("id"));
+        j.setJobTitle(rs.getString("job_title"));
+        j.setCompanyName(rs.getString("company_name"));
+        j.setJobDescription(rs.getString("job_description"));
+        j.setLocation(rs.getString("location"));
+        j.setSalary(rs.getString("salary"));
+        j.setSourceUrl(rs.getString("source_url"));
+        j.setCrawlTime(rs.getTimestamp("crawl_time").toLocalDateTime());
+        return j;
+    }
+}
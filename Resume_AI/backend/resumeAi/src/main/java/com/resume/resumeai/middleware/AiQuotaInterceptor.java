@@ -0,0 +1,34 @@
+package com.resume.resumeai.middleware;
+
+import com.resume.resumeai.security.SecurityUtil;
+import com.resume.resumeai.service.AiQuotaService;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * /api/ai/** 的每日配额检查：当天请求次数或 token 用量达到上限时返回 429，Retry-After 为距次日零点的秒数
+ */
+public class AiQuotaInterceptor implements HandlerInterceptor {
+    private final AiQuotaService quotaService;
+
+    public AiQuotaInterceptor(AiQuotaService quotaService) { this.quotaService = quotaService; }
+
+    @Override
+    public boolean preHandle(HttpServletRequest req, HttpServletResponse res, Object handler) throws IOException {
+        // 流式接口的异步派发不是新请求，不重复计数
+        if (!quotaService.isEnabled() || req.getDispatcherType() == DispatcherType.ASYNC) return true;
+        Long userId = SecurityUtil.getCurrentUserIdOrNull();
+        if (userId == null || quotaService.tryAcquire(userId)) return true;
+
+        long retryAfter = quotaService.secondsUntilReset();
+        res.setStatus(429);
+        res.setHeader("Retry-After", String.valueOf(retryAfter));
+        res.setContentType("application/json");
+        res.getWriter().write("{\"code\":\"AI_QUOTA_EXCEEDED\",\"message\":\"Daily AI quota exceeded\"}");
+        return false;
+    }
+}
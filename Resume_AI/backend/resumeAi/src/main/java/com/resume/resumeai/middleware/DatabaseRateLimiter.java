@@ -0,0 +1,163 @@
+package com.resume.resumeai.middleware;
+
+import com.resume.resumeai.repository.RateLimitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 多实例共享的限流：以 rate_limit_counters 表按固定窗口计数，所有实例合计不超过配置的 limit。
+ * 每个实例不逐次访问数据库，而是按 (路由, 调用方) 一次预领一批额度（租约），在本地逐次扣减，用完再领；
+ * 窗口额度已领完时本实例记住这一点，直到窗口结束前的请求都在本地直接拒绝。
+ * <p>
+ * 租约大小为 limit 的 1/10（不超过 lease-size、至少 1），额度紧的路由几乎逐次领取以保证各实例公平，
+ * 宽松的路由每 10% 额度才访问一次数据库。窗口结束时未用完的租约作废。数据库不可用时放行（fail open）。
+ * 过期的本地租约与计数行由后台线程每分钟清理，不占用请求线程。
+ */
+@Component
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "database")
+public class DatabaseRateLimiter implements RateLimitBackend, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseRateLimiter.class);
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    private final RateLimitRules rules;
+    private final RateLimitRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLease;
+    private final LongSupplier clock;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper;
+
+    /** 本实例持有的某个键在当前窗口的租约 */
+    private static final class Lease {
+        final ReentrantLock lock = new ReentrantLock();
+        long windowStart = -1;
+        long windowEnd;
+        int remaining;
+        boolean exhausted;
+        /** 已被清理线程从 leases 中移除；持锁后发现为 true 的请求需重新取租约 */
+        boolean removed;
+    }
+
+    @Autowired
+    public DatabaseRateLimiter(RateLimitRepository repository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${ratelimit.default:100/60}") String defaultRule,
+                               @Value("${ratelimit.routes:}") String routes,
+                               @Value("${ratelimit.store.lease-size:20}") int maxLease) {
+        this(RateLimitRules.parse(defaultRule, routes), repository, new TransactionTemplate(transactionManager),
+                maxLease, System::currentTimeMillis);
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limit-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(() -> sweep(clock.getAsLong()), SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    DatabaseRateLimiter(RateLimitRules rules, RateLimitRepository repository, TransactionTemplate transactionTemplate,
+                        int maxLease, LongSupplier clock) {
+        this.rules = rules;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxLease = Math.max(1, maxLease);
+        this.clock = clock;
+    }
+
+    @Override
+    public Decision tryAcquire(String route, String caller) {
+        Rule rule = rules.ruleFor(route);
+        long now = clock.getAsLong();
+        long window = TimeUnit.SECONDS.toMillis(rule.windowSeconds());
+        long windowStart = Math.floorDiv(now, window) * window;
+        String key = route + '|' + caller;
+        while (true) {
+            Lease lease = leases.computeIfAbsent(key, k -> new Lease());
+            // 同一键的并发请求排队等同一次预领，避免各自访问数据库
+            lease.lock.lock();
+            try {
+                if (lease.removed) continue;
+                return acquire(lease, key, rule, windowStart, window, now);
+            } finally {
+                lease.lock.unlock();
+            }
+        }
+    }
+
+    private Decision acquire(Lease lease, String key, Rule rule, long windowStart, long window, long now) {
+        if (lease.windowStart != windowStart) {
+            lease.windowStart = windowStart;
+            lease.windowEnd = windowStart + window;
+            lease.remaining = 0;
+            lease.exhausted = false;
+        }
+        if (lease.remaining == 0 && !lease.exhausted) {
+            int granted = lease(key, windowStart, leaseSize(rule), rule.limit(), windowStart + window);
+            lease.remaining = granted;
+            lease.exhausted = granted == 0;
+        }
+        if (lease.remaining > 0) {
+            lease.remaining--;
+            return new Decision(true, 0, rule);
+        }
+        return new Decision(false, TimeUnit.MILLISECONDS.toNanos(windowStart + window - now), rule);
+    }
+
+    int leaseSize(Rule rule) {
+        return Math.max(1, Math.min(maxLease, rule.limit() / 10));
+    }
+
+    private int lease(String key, long windowStart, int requested, int limit, long expiresAt) {
+        try {
+            Integer granted = transactionTemplate.execute(status -> repository.lease(key, windowStart, requested, limit, expiresAt));
+            return granted == null ? 0 : granted;
+        } catch (DataAccessException e) {
+            log.warn("rate limit store unavailable, allowing request: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    @Override
+    public int size() { return leases.size(); }
+
+    @Override
+    public void destroy() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    /**
+     * 移除窗口已结束的本地租约，并删除数据库中过期的计数行。
+     * 租约在其锁内复查并以 remove(key, lease) 移除，正在使用的租约跳过留待下次
+     */
+    void sweep(long now) {
+        for (Map.Entry<String, Lease> e : leases.entrySet()) {
+            Lease lease = e.getValue();
+            if (lease.windowEnd > now || !lease.lock.tryLock()) continue;
+            try {
+                if (lease.windowEnd <= now && leases.remove(e.getKey(), lease)) lease.removed = true;
+            } finally {
+                lease.lock.unlock();
+            }
+        }
+        try {
+            repository.deleteExpired(now);
+        } catch (DataAccessException e) {
+            log.warn("failed to delete expired rate limit counters: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.resume.resumeai.middleware;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流计数后端：默认为进程内的 {@link RateLimiter}；ratelimit.store=database 时使用多实例共享的
+ * {@link DatabaseRateLimiter}
+ */
+public interface RateLimitBackend {
+
+    /** 一条限流规则：匹配路由模板的 Ant 风格模式，以及每 windowSeconds 秒允许的请求数 */
+    record Rule(String pattern, int limit, long windowSeconds) {
+        long windowNanos() { return TimeUnit.SECONDS.toNanos(windowSeconds); }
+        long intervalNanos() { return windowNanos() / limit; }
+    }
+
+    /**
+     * 限流结果；未放行时 retryAfterNanos 为距下一次可用的时长
+     */
+    record Decision(boolean allowed, long retryAfterNanos, Rule rule) {}
+
+    /**
+     * 为 caller 在 route 上申请一次请求配额
+     *
+     * @param route  路由模板（如 /api/resumes/{id}），同一模板的不同路径共享配额
+     * @param caller 调用方标识（用户 ID 或 IP）
+     */
+    Decision tryAcquire(String route, String caller);
+
+    /** 当前在内存中跟踪的 (路由, 调用方) 数 */
+    int size();
+}
@@ -1,29 +1,86 @@
 package com.resume.resumeai.middleware;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
-import java.time.Instant;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * 接口限流：已登录请求按用户 ID、匿名请求按客户端 IP 计数，按路由模板区分配额。
+ * 计数后端默认为进程内的 {@link RateLimiter}，容器中存在其他 {@link RateLimitBackend}（如 ratelimit.store=database）时使用之。
+ * 超限时返回 429 与 Retry-After（秒），并记录 http.ratelimit.requests 指标
+ */
+@Component
 public class RateLimitInterceptor implements HandlerInterceptor {
-    private static class Window { int hits; long start; }
-    private final ConcurrentHashMap<String, Window> map = new ConcurrentHashMap<>();
-    private final int limitPerWindow = 100;
-    private final long windowMs = 60_000;
+    private final boolean enabled;
+    private final RateLimitBackend rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RateLimitInterceptor(ObjectProvider<RateLimitBackend> backend,
+                                ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${ratelimit.enabled:true}") boolean enabled,
+                                @Value("${ratelimit.default:100/60}") String defaultRule,
+                                @Value("${ratelimit.routes:}") String routes,
+                                @Value("${ratelimit.max-keys:100000}") int maxKeys) {
+        // 切片测试（@WebMvcTest）中没有 MeterRegistry，退回全局注册表
+        this(enabled,
+                backend.getIfAvailable(() -> new RateLimiter(RateLimitRules.parse(defaultRule, routes), maxKeys)),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    RateLimitInterceptor(boolean enabled, RateLimitBackend rateLimiter, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("http.ratelimit.keys", rateLimiter, RateLimitBackend::size)
+                .description("限流器当前跟踪的 (路由, 调用方) 数")
+                .register(meterRegistry);
+    }
 
     @Override
-    public boolean preHandle(HttpServletRequest req, HttpServletResponse res, Object handler) {
-        String key = (req.getRemoteAddr() + ":" + req.getRequestURI());
-        Window w = map.computeIfAbsent(key, k -> { Window nw = new Window(); nw.hits = 0; nw.start = Instant.now().toEpochMilli(); return nw; });
-        long now = Instant.now().toEpochMilli();
-        if (now - w.start > windowMs) { w.hits = 0; w.start = now; }
-        w.hits++;
-        if (w.hits > limitPerWindow) {
-            res.setStatus(429);
-            return false;
+    public boolean preHandle(HttpServletRequest req, HttpServletResponse res, Object handler) throws IOException {
+        // 流式接口的异步派发不是新请求，不重复计数
+        if (!enabled || req.getDispatcherType() == DispatcherType.ASYNC) return true;
+        String route = routeOf(req);
+        RateLimitBackend.Decision decision = rateLimiter.tryAcquire(route, callerOf(req));
+        meterRegistry.counter("http.ratelimit.requests", "route", route, "result", decision.allowed() ? "allowed" : "rejected").increment();
+        if (decision.allowed()) return true;
+
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1));
+        res.setStatus(429);
+        res.setHeader("Retry-After", String.valueOf(retryAfter));
+        res.setHeader("X-RateLimit-Limit", decision.rule().limit() + "/" + decision.rule().windowSeconds() + "s");
+        res.setContentType("application/json");
+        res.getWriter().write("{\"code\":\"RATE_LIMITED\",\"message\":\"Too many requests, retry after " + retryAfter + "s\"}");
+        return false;
+    }
+
+    /** 路由模板；没有匹配到处理器时按 unmatched 归为一类，避免按原始 URI 无限增长 */
+    static String routeOf(HttpServletRequest req) {
+        Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "unmatched";
+    }
+
+    static String callerOf(HttpServletRequest req) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken) && auth.getPrincipal() != null) {
+            return "user:" + auth.getPrincipal();
         }
-        return true;
+        return "ip:" + req.getRemoteAddr();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.resume.resumeai.middleware;
+
+import com.resume.resumeai.middleware.RateLimitBackend.Rule;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 限流规则表：routes 按配置顺序匹配第一条，没有匹配时使用默认规则；每个路由模板的匹配结果会被缓存
+ */
+public final class RateLimitRules {
+    private final Rule defaultRule;
+    private final List<Rule> rules;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final Map<String, Rule> ruleByRoute = new ConcurrentHashMap<>();
+
+    public RateLimitRules(Rule defaultRule, List<Rule> rules) {
+        this.defaultRule = defaultRule;
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * @param defaultRule 形如 100/60（每 60 秒 100 次）
+     * @param routes      形如 /api/ai/**=10/60,/api/match/**=20/60
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static RateLimitRules parse(String defaultRule, String routes) {
+        return new RateLimitRules(parseRule("/**", defaultRule), parseRules(routes));
+    }
+
+    public Rule ruleFor(String route) {
+        return ruleByRoute.computeIfAbsent(route, r -> {
+            for (Rule rule : rules) {
+                if (matcher.match(rule.pattern(), r)) return rule;
+            }
+            return defaultRule;
+        });
+    }
+
+    static List<Rule> parseRules(String spec) {
+        List<Rule> list = new ArrayList<>();
+        if (spec == null || spec.isBlank()) return list;
+        for (String part : spec.split(",")) {
+            int eq = part.lastIndexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Invalid ratelimit.routes entry: " + part);
+            list.add(parseRule(part.substring(0, eq).trim(), part.substring(eq + 1)));
+        }
+        return list;
+    }
+
+    static Rule parseRule(String pattern, String spec) {
+        String[] kv = spec.trim().split("/");
+        if (kv.length != 2) throw new IllegalArgumentException("Invalid rate limit '" + spec + "', expected <limit>/<window-seconds>");
+        int limit = Integer.parseInt(kv[0].trim());
+        long window = Long.parseLong(kv[1].trim());
+        if (limit <= 0 || window <= 0) throw new IllegalArgumentException("Rate limit must be positive: " + spec);
+        return new Rule(pattern, limit, window);
+    }
+}
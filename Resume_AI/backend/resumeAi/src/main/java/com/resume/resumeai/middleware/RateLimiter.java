@@ -0,0 +1,73 @@
+package com.resume.resumeai.middleware;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程内限流：按 (路由模板, 调用方) 计数，每个计数器是一个 GCRA 令牌桶，只保存一个"理论到达时间"，
+ * 以 CAS 更新，不加锁。每个窗口允许 limit 次请求且可一次性突发 limit 次，之后按 window/limit 的间隔补充。
+ * <p>
+ * 桶在理论到达时间早于当前时间后即与新建的桶等价，定期清扫时移除，内存只与最近一个窗口内活跃的调用方数量相关；
+ * 桶数超过 max-keys 时立即清扫，仍超出则新调用方直接拒绝（按失败关闭处理，避免大量伪造的调用方绕过限流），
+ * 等待一个补充间隔后重试。
+ */
+public class RateLimiter implements RateLimitBackend {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final RateLimitRules rules;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+
+    public RateLimiter(RateLimitRules rules, int maxKeys) {
+        this(rules, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitRules rules, int maxKeys, LongSupplier nanoClock) {
+        this.rules = rules;
+        this.maxKeys = Math.max(1, maxKeys);
+        this.nanoClock = nanoClock;
+        this.lastSweep = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    @Override
+    public Decision tryAcquire(String route, String caller) {
+        Rule rule = rules.ruleFor(route);
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+        String key = route + '|' + caller;
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep(now);
+                if (buckets.size() >= maxKeys) return new Decision(false, rule.intervalNanos(), rule);
+            }
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        long interval = rule.intervalNanos();
+        long burst = rule.windowNanos() - interval;
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            if (base - now > burst) return new Decision(false, base - burst - now, rule);
+            if (tat.compareAndSet(current, base + interval)) return new Decision(true, 0, rule);
+        }
+    }
+
+    @Override
+    public int size() { return buckets.size(); }
+
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) sweep(now);
+    }
+
+    /** 移除已回满的桶；与并发申请竞争时最多让刚被移除的桶多放行一次 */
+    private void sweep(long now) {
+        buckets.values().removeIf(tat -> tat.get() <= now);
+    }
+}
@@ -1,70 +1,174 @@
 package com.resume.resumeai.middleware;
 
+import com.resume.resumeai.util.TraceIds;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.UUID;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * 请求日志：每个请求最多一行摘要，开销尽量不随请求体大小增长。
+ * <ul>
+ *   <li>成功且不慢的请求按 sampleRate 抽样，以 INFO 记录；状态码 &gt;= 400 或耗时超过 slowThresholdMs 的请求总是以 WARN 记录；</li>
+ *   <li>报文只在读写时顺带复制前 maxBodyBytes 字节（不整体缓存，响应直接写出），
+ *       按 bodyCapture 决定是否输出：NONE 不记录、ON_ERROR 仅错误/慢请求、ALWAYS 所有被记录的请求；</li>
+ *   <li>追踪 ID 写入 MDC 与响应头 X-Trace-Id，ApiResponse 中的 traceId 与之一致。</li>
+ * </ul>
+ */
 public class RequestLoggingFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    public static final String TRACE_HEADER = "X-Trace-Id";
+
+    public enum BodyCapture {
+        NONE, ON_ERROR, ALWAYS;
+
+        /**
+         * 解析配置值（none / on-error / always，不区分大小写）
+         */
+        public static BodyCapture parse(String value) {
+            String v = value == null ? "" : value.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+            try {
+                return valueOf(v);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid body capture mode: " + value + " (expected none, on-error or always)");
+            }
+        }
+    }
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdMs;
+    private final BodyCapture bodyCapture;
+    private final int maxBodyBytes;
+    private final Set<String> eventStreamRoutes;
+
+    public RequestLoggingFilter(boolean enabled, double sampleRate, long slowThresholdMs, BodyCapture bodyCapture, int maxBodyBytes) {
+        this(enabled, sampleRate, slowThresholdMs, bodyCapture, maxBodyBytes, List.of());
+    }
+
+    /**
+     * @param eventStreamRoutes SSE 接口路径（不含 context path），这些请求不包装、不记录报文
+     */
+    public RequestLoggingFilter(boolean enabled, double sampleRate, long slowThresholdMs, BodyCapture bodyCapture, int maxBodyBytes,
+                                Collection<String> eventStreamRoutes) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdMs = slowThresholdMs;
+        this.bodyCapture = bodyCapture;
+        this.maxBodyBytes = Math.max(0, maxBodyBytes);
+        this.eventStreamRoutes = Set.copyOf(eventStreamRoutes);
+    }
+
     /**
      * 记录每次请求的耗时与状态码；当发生异常时保留 SecurityException 的类型并记录错误日志
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) {
-        String traceId = UUID.randomUUID().toString().substring(0, 8);
-        MDC.put("traceId", traceId);
-        long start = System.currentTimeMillis();
+        String traceId = TraceIds.next();
+        MDC.put(TraceIds.MDC_KEY, traceId);
+        response.setHeader(TRACE_HEADER, traceId);
+        long start = System.nanoTime();
 
-        ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        // SSE 流式响应不包装、不记录报文；关闭日志时只保留追踪 ID
+        boolean capture = enabled && bodyCapture != BodyCapture.NONE && maxBodyBytes > 0 && !isEventStream(request);
+        CapturingRequest requestWrapper = capture ? new CapturingRequest(request, maxBodyBytes) : null;
+        CapturingResponse responseWrapper = capture ? new CapturingResponse(response, maxBodyBytes) : null;
 
         try {
-            String url = request.getRequestURI();
-            String method = request.getMethod();
-            String ip = getClientIp(request);
-            log.info("[REQ START] {} {} IP={}", method, url, ip);
-
-            chain.doFilter(requestWrapper, responseWrapper);
-
-            long cost = System.currentTimeMillis() - start;
-            int status = response.getStatus();
-
-            // 记录请求与响应报文
-            String reqBody = getPayload(requestWrapper.getContentAsByteArray(), request.getContentType());
-            String respBody = getPayload(responseWrapper.getContentAsByteArray(), response.getContentType());
-            
-            if (reqBody != null && !reqBody.isBlank()) log.info("[BODY REQ] {}", reqBody);
-            if (respBody != null && !respBody.isBlank()) log.info("[BODY RESP] {}", respBody);
-
-            log.info("[REQ END] {} {} -> {} ({}ms)", method, url, status, cost);
-            
-            // 关键：将缓存的内容复制回原始响应流
-            responseWrapper.copyBodyToResponse();
+            if (log.isDebugEnabled()) {
+                log.debug("[REQ START] {} {} IP={}", request.getMethod(), request.getRequestURI(), getClientIp(request));
+            }
+            if (capture) {
+                try {
+                    chain.doFilter(requestWrapper, responseWrapper);
+                } finally {
+                    responseWrapper.flushWriter();
+                }
+            } else {
+                chain.doFilter(request, response);
+            }
+            if (enabled) logCompletion(request, response, (System.nanoTime() - start) / 1_000_000, requestWrapper, responseWrapper);
         } catch (Exception e) {
-            long cost = System.currentTimeMillis() - start;
-            log.error("[REQ ERROR] {} {} -> 500 ({}ms)", request.getMethod(), request.getRequestURI(), cost, e);
+            long cost = (System.nanoTime() - start) / 1_000_000;
+            log.error("[REQ ERROR] {} {} -> 500 ({}ms) IP={}", request.getMethod(), request.getRequestURI(), cost, getClientIp(request), e);
+            if (requestWrapper != null) logBody("[BODY REQ]", requestWrapper.body, request.getContentType(), true);
             if (e instanceof SecurityException) {
                 throw (SecurityException) e;
             }
             throw new RuntimeException(e);
         } finally {
-            MDC.clear();
+            MDC.remove(TraceIds.MDC_KEY);
         }
     }
 
-    private String getPayload(byte[] buf, String contentType) {
-        if (buf == null || buf.length == 0) return null;
+    private void logCompletion(HttpServletRequest request, HttpServletResponse response, long cost,
+                               CapturingRequest requestWrapper, CapturingResponse responseWrapper) {
+        int status = response.getStatus();
+        boolean slow = slowThresholdMs > 0 && cost >= slowThresholdMs;
+        boolean noteworthy = status >= 400 || slow;
+        if (noteworthy) {
+            if (!log.isWarnEnabled()) return;
+            log.warn("[REQ END] {} {} -> {} ({}ms{}) IP={}", request.getMethod(), request.getRequestURI(), status, cost,
+                    slow ? ", slow" : "", getClientIp(request));
+        } else {
+            if (!log.isInfoEnabled() || !sampled()) return;
+            log.info("[REQ END] {} {} -> {} ({}ms)", request.getMethod(), request.getRequestURI(), status, cost);
+        }
+        if (requestWrapper != null && (noteworthy || bodyCapture == BodyCapture.ALWAYS)) {
+            logBody("[BODY REQ]", requestWrapper.body, request.getContentType(), noteworthy);
+            logBody("[BODY RESP]", responseWrapper.body, response.getContentType(), noteworthy);
+        }
+    }
+
+    private boolean sampled() {
+        if (sampleRate >= 1.0) return true;
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void logBody(String label, BoundedBuffer body, String contentType, boolean warn) {
+        String payload = getPayload(body, contentType);
+        if (payload == null || payload.isBlank()) return;
+        if (warn) log.warn("{} {}", label, payload);
+        else log.info("{} {}", label, payload);
+    }
+
+    private boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        if (accept != null && accept.contains("text/event-stream")) return true;
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return eventStreamRoutes.contains(contextPath == null || contextPath.isEmpty() ? uri : uri.substring(contextPath.length()));
+    }
+
+    static String getPayload(BoundedBuffer body, String contentType) {
+        if (body.total() == 0) return null;
         if (contentType != null && (contentType.contains("json") || contentType.contains("text") || contentType.contains("xml"))) {
-            return new String(buf, 0, Math.min(buf.length, 4096), StandardCharsets.UTF_8);
+            String text = new String(body.bytes(), 0, body.size(), StandardCharsets.UTF_8);
+            return body.total() > body.size() ? text + "...(truncated, " + body.total() + " bytes)" : text;
         }
         return "[Binary or Non-Text Content]";
     }
@@ -82,4 +186,176 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         }
         return ip;
     }
-}
\ No newline at end of file
+
+    /**
+     * 只保留前 limit 字节的报文副本，缓冲区在首次写入时按需分配；total 为实际流经的字节数
+     */
+    static final class BoundedBuffer {
+        private final int limit;
+        private byte[] buf = new byte[0];
+        private int size;
+        private long total;
+
+        BoundedBuffer(int limit) { this.limit = limit; }
+
+        void write(int b) {
+            total++;
+            if (size < limit) {
+                ensureCapacity(size + 1);
+                buf[size++] = (byte) b;
+            }
+        }
+
+        void write(byte[] b, int off, int len) {
+            if (len <= 0) return;
+            total += len;
+            int n = Math.min(len, limit - size);
+            if (n > 0) {
+                ensureCapacity(size + n);
+                System.arraycopy(b, off, buf, size, n);
+                size += n;
+            }
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > buf.length) buf = Arrays.copyOf(buf, Math.min(limit, Math.max(needed, Math.max(256, buf.length * 2))));
+        }
+
+        byte[] bytes() { return buf; }
+        int size() { return size; }
+        long total() { return total; }
+    }
+
+    /** 读取请求体时顺带复制前 limit 字节 */
+    static final class CapturingRequest extends HttpServletRequestWrapper {
+        final BoundedBuffer body;
+        private ServletInputStream in;
+        private BufferedReader reader;
+
+        CapturingRequest(HttpServletRequest request, int limit) {
+            super(request);
+            this.body = new BoundedBuffer(limit);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (in == null) in = new TeeInputStream(super.getInputStream(), body);
+            return in;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) reader = new BufferedReader(new InputStreamReader(getInputStream(), charset(getCharacterEncoding())));
+            return reader;
+        }
+    }
+
+    /** 写出响应体时顺带复制前 limit 字节，内容直接写入原始响应，不在内存中整体缓存 */
+    static final class CapturingResponse extends HttpServletResponseWrapper {
+        final BoundedBuffer body;
+        private ServletOutputStream out;
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse response, int limit) {
+            super(response);
+            this.body = new BoundedBuffer(limit);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (out == null) out = new TeeOutputStream(super.getOutputStream(), body);
+            return out;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset(getCharacterEncoding())));
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        void flushWriter() {
+            if (writer != null) writer.flush();
+        }
+    }
+
+    private static Charset charset(String encoding) {
+        try {
+            return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static final class TeeInputStream extends ServletInputStream {
+        private final ServletInputStream delegate;
+        private final BoundedBuffer body;
+
+        TeeInputStream(ServletInputStream delegate, BoundedBuffer body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b >= 0) body.write(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = delegate.read(b, off, len);
+            if (n > 0) body.write(b, off, n);
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() { return delegate.isFinished(); }
+
+        @Override
+        public boolean isReady() { return delegate.isReady(); }
+
+        @Override
+        public void setReadListener(ReadListener listener) { delegate.setReadListener(listener); }
+    }
+
+    private static final class TeeOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final BoundedBuffer body;
+
+        TeeOutputStream(ServletOutputStream delegate, BoundedBuffer body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            body.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException { delegate.flush(); }
+
+        @Override
+        public void close() throws IOException { delegate.close(); }
+
+        @Override
+        public boolean isReady() { return delegate.isReady(); }
+
+        @Override
+        public void setWriteListener(WriteListener listener) { delegate.setWriteListener(listener); }
+    }
+}
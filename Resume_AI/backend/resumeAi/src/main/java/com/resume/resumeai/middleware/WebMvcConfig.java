@@ -1,12 +1,23 @@
 package com.resume.resumeai.middleware;
 
+import com.resume.resumeai.service.AiQuotaService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.*;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final ObjectProvider<AiQuotaService> aiQuotaService;
+    public WebMvcConfig(RateLimitInterceptor rateLimitInterceptor, ObjectProvider<AiQuotaService> aiQuotaService) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.aiQuotaService = aiQuotaService;
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RateLimitInterceptor()).addPathPatterns("/api/**");
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**");
+        // 切片测试中没有 AiQuotaService，此时不做配额检查
+        aiQuotaService.ifAvailable(s -> registry.addInterceptor(new AiQuotaInterceptor(s)).addPathPatterns("/api/ai/**"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.resume.resumeai.repository;
+
+import com.resume.resumeai.domain.AiCacheEntry;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Repository
+public class AiCacheRepository {
+    private final NamedParameterJdbcTemplate jdbc;
+    public AiCacheRepository(NamedParameterJdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    /**
+     * 查询未过期的缓存条目，不存在或已过期返回 null
+     */
+    public AiCacheEntry findValid(String cacheKey, LocalDateTime now) {
+        String sql = """
+            SELECT cache_key, operation, payload, created_at, expires_at
+            FROM ai_response_cache
+            WHERE cache_key=:cacheKey AND expires_at > :now
+        """;
+        List<AiCacheEntry> list = jdbc.query(sql, Map.of("cacheKey", cacheKey, "now", now), (rs, i) -> {
+            AiCacheEntry e = new AiCacheEntry();
+            e.setCacheKey(rs.getString("cache_key"));
+            e.setOperation(rs.getString("operation"));
+            e.setPayload(rs.getString("payload"));
+            e.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            e.setExpiresAt(rs.getTimestamp("expires_at").toLocalDateTime());
+            return e;
+        });
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    public void upsert(AiCacheEntry e) {
+        String sql = """
+            INSERT INTO ai_response_cache(cache_key, operation, payload, created_at, expires_at)
+            VALUES(:cacheKey, :operation, :payload, :createdAt, :expiresAt)
+            ON DUPLICATE KEY UPDATE payload=VALUES(payload), created_at=VALUES(created_at), expires_at=VALUES(expires_at)
+        """;
+        jdbc.update(sql, new MapSqlParameterSource()
+                .addValue("cacheKey", e.getCacheKey())
+                .addValue("operation", e.getOperation())
+                .addValue("payload", e.getPayload())
+                .addValue("createdAt", e.getCreatedAt())
+                .addValue("expiresAt", e.getExpiresAt()));
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbc.update("DELETE FROM ai_response_cache WHERE expires_at <= :now", Map.of("now", now));
+    }
+}
@@ -0,0 +1,54 @@
+package com.resume.resumeai.repository;
+
+import com.resume.resumeai.domain.AiUsage;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按用户、按天累计的 AI 调用量表 ai_usage，多个后端实例共享
+ */
+@Repository
+public class AiUsageRepository {
+    private final NamedParameterJdbcTemplate jdbc;
+    public AiUsageRepository(NamedParameterJdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    /**
+     * 当天请求数与 token 数都未达上限时请求数 +1 并返回 true；上限 <=0 表示不限制。
+     * 判断与累加在同一条 UPDATE 中完成，多实例并发时也不会超出上限
+     */
+    public boolean tryCountRequest(long userId, LocalDate day, long maxRequests, long maxTokens) {
+        Map<String, Object> p = Map.of("userId", userId, "day", Date.valueOf(day),
+                "maxRequests", maxRequests, "maxTokens", maxTokens);
+        jdbc.update("""
+            INSERT INTO ai_usage (user_id, usage_date, requests, tokens) VALUES (:userId, :day, 0, 0)
+            ON DUPLICATE KEY UPDATE requests = requests
+        """, p);
+        int n = jdbc.update("""
+            UPDATE ai_usage SET requests = requests + 1
+            WHERE user_id=:userId AND usage_date=:day
+              AND (:maxRequests <= 0 OR requests < :maxRequests)
+              AND (:maxTokens <= 0 OR tokens < :maxTokens)
+        """, p);
+        return n > 0;
+    }
+
+    public void addTokens(long userId, LocalDate day, long tokens) {
+        if (tokens <= 0) return;
+        jdbc.update("""
+            INSERT INTO ai_usage (user_id, usage_date, requests, tokens) VALUES (:userId, :day, 0, :tokens)
+            ON DUPLICATE KEY UPDATE tokens = tokens + VALUES(tokens)
+        """, Map.of("userId", userId, "day", Date.valueOf(day), "tokens", tokens));
+    }
+
+    public AiUsage find(long userId, LocalDate day) {
+        List<AiUsage> list = jdbc.query("SELECT requests, tokens FROM ai_usage WHERE user_id=:userId AND usage_date=:day",
+                Map.of("userId", userId, "day", Date.valueOf(day)),
+                (rs, i) -> new AiUsage(rs.getLong("requests"), rs.getLong("tokens")));
+        return list.isEmpty() ? new AiUsage(0, 0) : list.get(0);
+    }
+}
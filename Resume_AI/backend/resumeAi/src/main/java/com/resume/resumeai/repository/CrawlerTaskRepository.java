@@ -1,43 +1,62 @@
 package com.resume.resumeai.repository;
 
 import com.resume.resumeai.domain.CrawlerTask;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Repository
 public class CrawlerTaskRepository {
+    public static final String IDLE = "Idle";
+    public static final String QUEUED = "Queued";
+    public static final String RUNNING = "Running";
+
+    private static final String COLUMNS = "id, query, source, frequency, last_run, next_run, status, last_status, priority, run_state, last_inserted, last_updated, last_skipped";
+    private static final RowMapper<CrawlerTask> ROW_MAPPER = (rs, i) -> {
+        CrawlerTask t = new CrawlerTask();
+        t.setId(rs.getString("id"));
+        t.setQuery(rs.getString("query"));
+        t.setSource(rs.getString("source"));
+        t.setFrequency(rs.getString("frequency"));
+        t.setLastRun(rs.getString("last_run")); // Simple String mapping
+        Timestamp nextRun = rs.getTimestamp("next_run");
+        t.setNextRun(nextRun == null ? null : nextRun.toLocalDateTime().toString());
+        t.setStatus(rs.getString("status"));
+        t.setLastStatus(rs.getString("last_status"));
+        t.setPriority(rs.getInt("priority"));
+        t.setRunState(rs.getString("run_state"));
+        t.setLastInserted(rs.getInt("last_inserted"));
+        t.setLastUpdated(rs.getInt("last_updated"));
+        t.setLastSkipped(rs.getInt("last_skipped"));
+        return t;
+    };
+
     private final NamedParameterJdbcTemplate jdbc;
     public CrawlerTaskRepository(NamedParameterJdbcTemplate jdbc) { this.jdbc = jdbc; }
 
     public List<CrawlerTask> list() {
-        String sql = "SELECT id, query, source, frequency, last_run, next_run, status FROM crawler_tasks ORDER BY created_at DESC";
-        return jdbc.query(sql, (rs, i) -> {
-            CrawlerTask t = new CrawlerTask();
-            t.setId(rs.getString("id"));
-            t.setQuery(rs.getString("query"));
-            t.setSource(rs.getString("source"));
-            t.setFrequency(rs.getString("frequency"));
-            t.setLastRun(rs.getString("last_run")); // Simple String mapping
-            t.setNextRun(rs.getString("next_run"));
-            t.setStatus(rs.getString("status"));
-            return t;
-        });
+        String sql = "SELECT " + COLUMNS + " FROM crawler_tasks ORDER BY created_at DESC";
+        return jdbc.query(sql, ROW_MAPPER);
     }
 
     public void create(CrawlerTask t) {
         String sql = """
-            INSERT INTO crawler_tasks(id, query, source, frequency, next_run, status, created_at)
-            VALUES(:id, :query, :source, :frequency, :nextRun, :status, NOW())
+            INSERT INTO crawler_tasks(id, query, source, frequency, next_run, status, priority, run_state, created_at)
+            VALUES(:id, :query, :source, :frequency, :nextRun, :status, :priority, :runState, NOW())
         """;
         Map<String, Object> p = new HashMap<>();
         p.put("id", t.getId());
         p.put("query", t.getQuery());
         p.put("source", t.getSource());
         p.put("frequency", t.getFrequency());
-        p.put("nextRun", t.getNextRun());
+        p.put("nextRun", t.getNextRun() == null ? null : LocalDateTime.parse(t.getNextRun()));
         p.put("status", t.getStatus());
+        p.put("priority", t.getPriority() == null ? 0 : t.getPriority());
+        p.put("runState", t.getRunState() == null ? IDLE : t.getRunState());
         jdbc.update(sql, p);
     }
 
@@ -50,32 +69,135 @@ public class CrawlerTaskRepository {
     }
 
     public Optional<CrawlerTask> findById(String id) {
-        String sql = "SELECT id, query, source, frequency, last_run, next_run, status FROM crawler_tasks WHERE id=:id";
-        List<CrawlerTask> list = jdbc.query(sql, Map.of("id", id), (rs, i) -> {
-            CrawlerTask t = new CrawlerTask();
-            t.setId(rs.getString("id"));
-            t.setQuery(rs.getString("query"));
-            t.setSource(rs.getString("source"));
-            t.setFrequency(rs.getString("frequency"));
-            t.setLastRun(rs.getString("last_run"));
-            t.setNextRun(rs.getString("next_run"));
-            t.setStatus(rs.getString("status"));
-            return t;
-        });
+        String sql = "SELECT " + COLUMNS + " FROM crawler_tasks WHERE id=:id";
+        List<CrawlerTask> list = jdbc.query(sql, Map.of("id", id), ROW_MAPPER);
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
 
-    public void updateExecutionState(String id, String status, String lastRun, String nextRun) {
+    /**
+     * 更新执行结果（Completed / Failed，写入 last_status），同时记录本次新增、更新与因重复跳过的职位数；
+     * 启用状态 status 不受影响，下一次运行时间由调度器维护
+     */
+    public void updateExecutionState(String id, String outcome, String lastRun,
+                                     int inserted, int updated, int skipped) {
         String sql = """
-            UPDATE crawler_tasks 
-            SET status=:status, last_run=:lastRun, next_run=:nextRun 
+            UPDATE crawler_tasks
+            SET last_status=:outcome, last_run=:lastRun,
+                last_inserted=:inserted, last_updated=:updated, last_skipped=:skipped
             WHERE id=:id
         """;
         Map<String, Object> params = new HashMap<>();
         params.put("id", id);
-        params.put("status", status);
+        params.put("outcome", outcome);
         params.put("lastRun", lastRun);
-        params.put("nextRun", nextRun);
+        params.put("inserted", inserted);
+        params.put("updated", updated);
+        params.put("skipped", skipped);
         jdbc.update(sql, params);
     }
+
+    /**
+     * 执行过程中写入进度：本次执行到目前为止新增、更新与跳过的职位数
+     */
+    public void updateProgress(String id, int inserted, int updated, int skipped) {
+        jdbc.update("UPDATE crawler_tasks SET last_inserted=:inserted, last_updated=:updated, last_skipped=:skipped WHERE id=:id",
+                Map.of("id", id, "inserted", inserted, "updated", updated, "skipped", skipped));
+    }
+
+    /**
+     * 锁定到期的启用任务（按 next_run 先后，走 (status, next_run) 索引）。须在事务中调用；
+     * SKIP LOCKED 跳过其他实例已锁定的行，多个实例同时轮询时每个到期任务只会被一个实例取到
+     */
+    public List<CrawlerTask> lockDue(LocalDateTime now, int limit) {
+        String sql = "SELECT " + COLUMNS + " FROM crawler_tasks WHERE status='Active' AND next_run <= :now"
+                + " ORDER BY next_run LIMIT :limit FOR UPDATE SKIP LOCKED";
+        return jdbc.query(sql, Map.of("now", now, "limit", limit), ROW_MAPPER);
+    }
+
+    /**
+     * 设置下一次运行时间；null 表示不再自动运行
+     */
+    public void updateNextRun(String id, LocalDateTime nextRun) {
+        Map<String, Object> p = new HashMap<>();
+        p.put("id", id);
+        p.put("nextRun", nextRun);
+        jdbc.update("UPDATE crawler_tasks SET next_run=:nextRun WHERE id=:id", p);
+    }
+
+    /**
+     * 启用中但尚未排定下一次运行时间的任务（历史数据迁移后 next_run 为空）
+     */
+    public List<CrawlerTask> findUnscheduled() {
+        String sql = "SELECT " + COLUMNS + " FROM crawler_tasks WHERE status='Active' AND next_run IS NULL";
+        return jdbc.query(sql, ROW_MAPPER);
+    }
+
+    /**
+     * 将空闲任务放入执行队列，返回受影响行数（已在排队或运行中的任务返回 0）
+     */
+    public int markQueued(String id, int priority) {
+        String sql = """
+            UPDATE crawler_tasks
+            SET run_state='Queued', priority=:priority, queued_at=NOW(3)
+            WHERE id=:id AND run_state='Idle'
+        """;
+        return jdbc.update(sql, Map.of("id", id, "priority", priority));
+    }
+
+    /**
+     * 按优先级从高到低、入队时间从早到晚取排队中的任务
+     */
+    public List<CrawlerTask> findQueued(int limit) {
+        String sql = "SELECT " + COLUMNS + " FROM crawler_tasks WHERE run_state='Queued' ORDER BY priority DESC, queued_at, id LIMIT :limit";
+        return jdbc.query(sql, Map.of("limit", limit), ROW_MAPPER);
+    }
+
+    /**
+     * 认领排队中的任务并置为运行中，记录认领实例与租约到期时间（数据库时钟）；条件更新保证同一任务只会被认领一次
+     */
+    public boolean claim(String id, String owner, long leaseSeconds) {
+        String sql = """
+            UPDATE crawler_tasks
+            SET run_state='Running', started_at=NOW(), owner=:owner, lease_expires_at=TIMESTAMPADD(SECOND, :lease, NOW(3))
+            WHERE id=:id AND run_state='Queued'
+        """;
+        return jdbc.update(sql, Map.of("id", id, "owner", owner, "lease", leaseSeconds)) == 1;
+    }
+
+    /**
+     * 续约 owner 正在运行的全部任务，返回续约的任务数
+     */
+    public int renewLeases(String owner, long leaseSeconds) {
+        String sql = "UPDATE crawler_tasks SET lease_expires_at=TIMESTAMPADD(SECOND, :lease, NOW(3))"
+                + " WHERE run_state='Running' AND owner=:owner";
+        return jdbc.update(sql, Map.of("owner", owner, "lease", leaseSeconds));
+    }
+
+    /**
+     * 运行结束后释放任务；只释放仍由 owner 持有的任务，租约过期后已被其他实例重新认领的不受影响
+     */
+    public void markIdle(String id, String owner) {
+        jdbc.update("""
+            UPDATE crawler_tasks SET run_state='Idle', queued_at=NULL, started_at=NULL, owner=NULL, lease_expires_at=NULL
+            WHERE id=:id AND run_state='Running' AND owner=:owner
+        """, Map.of("id", id, "owner", owner));
+    }
+
+    /**
+     * 将无人执行的运行中任务重新放回队列：租约已过期（持有实例已停止续约）、没有租约（迁移前的旧数据），
+     * 或由 owner 自己持有（同一实例标识重启前未完成的任务）。其他存活实例持有的任务不受影响
+     */
+    public int requeueAbandoned(String owner) {
+        String sql = """
+            UPDATE crawler_tasks SET run_state='Queued', owner=NULL, lease_expires_at=NULL
+            WHERE run_state='Running' AND (owner=:owner OR lease_expires_at IS NULL OR lease_expires_at < NOW(3))
+        """;
+        return jdbc.update(sql, Map.of("owner", owner));
+    }
+
+    public int countByRunState(String runState) {
+        Integer n = jdbc.queryForObject("SELECT COUNT(*) FROM crawler_tasks WHERE run_state=:runState",
+                Map.of("runState", runState), Integer.class);
+        return n == null ? 0 : n;
+    }
 }
@@ -1,39 +1,94 @@
 package com.resume.resumeai.repository;
 
+import com.resume.resumeai.domain.JobFingerprint;
 import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.domain.JobStatKey;
+import com.resume.resumeai.domain.event.JobDeletedEvent;
+import com.resume.resumeai.domain.event.JobsSavedEvent;
+import com.resume.resumeai.mapper.JobRowMapper;
+import com.resume.resumeai.util.PageCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Repository
 public class JobRepository {
     private final NamedParameterJdbcTemplate jdbc;
-    public JobRepository(NamedParameterJdbcTemplate jdbc) { this.jdbc = jdbc; }
+    private final ApplicationEventPublisher events;
+    private final StatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    public JobRepository(NamedParameterJdbcTemplate jdbc, ApplicationEventPublisher events, StatsRepository statsRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.events = events;
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     public List<JobPosition> findAll(int offset, int limit) {
         String sql = """
             SELECT id, job_title, company_name, job_description, location, salary, source_url, crawl_time
             FROM job_positions
-            ORDER BY crawl_time DESC
+            ORDER BY crawl_time DESC, id DESC
             LIMIT :limit OFFSET :offset
         """;
-        return jdbc.query(sql, Map.of("limit", limit, "offset", offset), (rs, i) -> {
-            JobPosition j = new JobPosition();
-            j.setId(rs.getLong("id"));
-            j.setJobTitle(rs.getString("job_title"));
-            j.setCompanyName(rs.getString("company_name"));
-            j.setJobDescription(rs.getString("job_description"));
-            j.setLocation(rs.getString("location"));
-            j.setSalary(rs.getString("salary"));
-            j.setSourceUrl(rs.getString("source_url"));
-            j.setCrawlTime(rs.getTimestamp("crawl_time").toLocalDateTime());
-            return j;
-        });
+        return jdbc.query(sql, Map.of("limit", limit, "offset", offset), JobRowMapper.INSTANCE);
+    }
+
+    /**
+     * 按 id 批量查询，结果顺序与入参 ids 保持一致（不存在的 id 被忽略）
+     */
+    public List<JobPosition> findByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        String sql = """
+            SELECT id, job_title, company_name, job_description, location, salary, source_url, crawl_time
+            FROM job_positions
+            WHERE id IN (:ids)
+        """;
+        Map<Long, JobPosition> byId = new HashMap<>();
+        for (JobPosition j : jdbc.query(sql, Map.of("ids", ids), JobRowMapper.INSTANCE)) {
+            byId.put(j.getId(), j);
+        }
+        List<JobPosition> ordered = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            JobPosition j = byId.get(id);
+            if (j != null) ordered.add(j);
+        }
+        return ordered;
+    }
+
+    /**
+     * 按主键升序分批读取 id 大于 afterId 的职位，用于全量加载内存索引
+     */
+    public List<JobPosition> findBatchAfterId(long afterId, int limit) {
+        String sql = """
+            SELECT id, job_title, company_name, job_description, location, salary, source_url, crawl_time
+            FROM job_positions
+            WHERE id > :afterId
+            ORDER BY id
+            LIMIT :limit
+        """;
+        return jdbc.query(sql, Map.of("afterId", afterId, "limit", limit), JobRowMapper.INSTANCE);
     }
 
     public void deleteById(Long id) {
-        jdbc.update("DELETE FROM job_positions WHERE id=:id", Map.of("id", id));
+        Boolean deleted = transactionTemplate.execute(status -> {
+            List<JobStatKey> keys = jdbc.query("SELECT source_url, crawl_time FROM job_positions WHERE id=:id FOR UPDATE",
+                    Map.of("id", id),
+                    (rs, i) -> JobStatKey.of(rs.getString("source_url"), toLocalDateTime(rs.getTimestamp("crawl_time"))));
+            int n = jdbc.update("DELETE FROM job_positions WHERE id=:id", Map.of("id", id));
+            if (n > 0 && !keys.isEmpty()) statsRepository.addJobDeltas(Map.of(keys.get(0), -1));
+            return n > 0;
+        });
+        if (Boolean.TRUE.equals(deleted)) events.publishEvent(new JobDeletedEvent(id));
     }
 
     public List<JobPosition> search(String keywords, String city, int offset, int limit) {
@@ -42,7 +97,7 @@ public class JobRepository {
             FROM job_positions
             WHERE (:kw IS NULL OR CONCAT_WS(' ', job_title, company_name, job_description) LIKE :kwLike)
             AND (:city IS NULL OR location LIKE :cityLike)
-            ORDER BY crawl_time DESC
+            ORDER BY crawl_time DESC, id DESC
             LIMIT :limit OFFSET :offset
         """;
         Map<String, Object> p = new HashMap<>();
@@ -52,18 +107,33 @@ public class JobRepository {
         p.put("cityLike", city == null ? null : "%" + city + "%");
         p.put("limit", limit);
         p.put("offset", offset);
-        return jdbc.query(sql, p, (rs, i) -> {
-            JobPosition j = new JobPosition();
-            j.setId(rs.getLong("id"));
-            j.setJobTitle(rs.getString("job_title"));
-            j.setCompanyName(rs.getString("company_name"));
-            j.setJobDescription(rs.getString("job_description"));
-            j.setLocation(rs.getString("location"));
-            j.setSalary(rs.getString("salary"));
-            j.setSourceUrl(rs.getString("source_url"));
-            j.setCrawlTime(rs.getTimestamp("crawl_time").toLocalDateTime());
-            return j;
-        });
+        return jdbc.query(sql, p, JobRowMapper.INSTANCE);
+    }
+
+    /**
+     * 键集分页：按 (crawl_time, id) 倒序读取排在 after 之后的最多 limit 条，after 为 null 时从头读取。
+     * 沿 idx_crawl_time（InnoDB 二级索引隐含主键）定位后顺序读取，翻页深度不影响耗时
+     */
+    public List<JobPosition> searchAfter(String keywords, String city, PageCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT id, job_title, company_name, job_description, location, salary, source_url, crawl_time
+            FROM job_positions
+            WHERE (:kw IS NULL OR CONCAT_WS(' ', job_title, company_name, job_description) LIKE :kwLike)
+            AND (:city IS NULL OR location LIKE :cityLike)
+        """);
+        Map<String, Object> p = new HashMap<>();
+        p.put("kw", keywords);
+        p.put("kwLike", keywords == null ? null : "%" + keywords + "%");
+        p.put("city", city);
+        p.put("cityLike", city == null ? null : "%" + city + "%");
+        if (after != null) {
+            sql.append("AND (crawl_time < :afterTime OR (crawl_time = :afterTime AND id < :afterId))\n");
+            p.put("afterTime", after.localDateTime());
+            p.put("afterId", after.id());
+        }
+        sql.append("ORDER BY crawl_time DESC, id DESC LIMIT :limit");
+        p.put("limit", limit);
+        return jdbc.query(sql.toString(), p, JobRowMapper.INSTANCE);
     }
 
     public int count(String keywords, String city) {
@@ -81,48 +151,178 @@ public class JobRepository {
         return r == null ? 0 : r;
     }
 
+    /**
+     * 统计最新 sample 条职位（按主键倒序）中满足条件的条数，扫描行数以 sample 为上限，用于估算大表上的筛选总数
+     */
+    public int countInLatest(String keywords, String city, int sample) {
+        String sql = """
+            SELECT COUNT(1) FROM (
+              SELECT job_title, company_name, job_description, location FROM job_positions ORDER BY id DESC LIMIT :sample
+            ) latest
+            WHERE (:kw IS NULL OR CONCAT_WS(' ', job_title, company_name, job_description) LIKE :kwLike)
+            AND (:city IS NULL OR location LIKE :cityLike)
+        """;
+        Map<String, Object> p = new HashMap<>();
+        p.put("kw", keywords);
+        p.put("kwLike", keywords == null ? null : "%" + keywords + "%");
+        p.put("city", city);
+        p.put("cityLike", city == null ? null : "%" + city + "%");
+        p.put("sample", sample);
+        Integer r = jdbc.queryForObject(sql, p, Integer.class);
+        return r == null ? 0 : r;
+    }
+
+    /**
+     * 批量写入职位：按来源 URL 指纹 upsert，已存在的职位更新内容而不是重复插入，详见 {@link #upsertAll}
+     */
     public void saveAll(List<JobPosition> jobs) {
+        if (jobs == null || jobs.isEmpty()) return;
+        List<JobFingerprint> fingerprints = new ArrayList<>(jobs.size());
+        for (JobPosition job : jobs) fingerprints.add(JobFingerprint.of(job));
+        upsertAll(jobs, fingerprints);
+    }
+
+    /**
+     * 以 url_hash 唯一键批量 INSERT ... ON DUPLICATE KEY UPDATE，写入后按 url_hash 回填主键，
+     * 并发布 {@link JobsSavedEvent} 供搜索索引等组件增量更新。fingerprints 与 jobs 一一对应。
+     * 同时按写入前后的 (抓取日期, 来源站点) 增量维护统计聚合表：读取旧维度、upsert 与差值写入在同一事务中，
+     * 旧维度以 SELECT ... FOR UPDATE 读取，并发写入同一批 url_hash 时后者等待前者提交，差值不会重复或丢失。
+     */
+    public void upsertAll(List<JobPosition> jobs, List<JobFingerprint> fingerprints) {
+        upsertAll(jobs, fingerprints, -1);
+    }
+
+    /**
+     * 同 {@link #upsertAll(List, List)}，inserted 为调用方已知的新插入条数（-1 表示未知），随事件发布供计数维护
+     */
+    public void upsertAll(List<JobPosition> jobs, List<JobFingerprint> fingerprints, int inserted) {
+        if (jobs == null || jobs.isEmpty()) return;
         String sql = """
-            INSERT INTO job_positions (job_title, company_name, job_description, location, salary, source_url, crawl_time)
-            VALUES (:jobTitle, :companyName, :jobDescription, :location, :salary, :sourceUrl, :crawlTime)
+            INSERT INTO job_positions (job_title, company_name, job_description, location, salary, source_url, crawl_time, url_hash, content_hash)
+            VALUES (:jobTitle, :companyName, :jobDescription, :location, :salary, :sourceUrl, :crawlTime, :urlHash, :contentHash)
+            ON DUPLICATE KEY UPDATE
+              job_title=VALUES(job_title), company_name=VALUES(company_name), job_description=VALUES(job_description),
+              location=VALUES(location), salary=VALUES(salary), source_url=VALUES(source_url),
+              crawl_time=VALUES(crawl_time), content_hash=VALUES(content_hash)
         """;
-        List<Map<String, Object>> batchValues = new ArrayList<>();
-        for (JobPosition job : jobs) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("jobTitle", job.getJobTitle());
-            map.put("companyName", job.getCompanyName());
-            map.put("jobDescription", job.getJobDescription());
-            map.put("location", job.getLocation());
-            map.put("salary", job.getSalary());
-            map.put("sourceUrl", job.getSourceUrl());
-            map.put("crawlTime", job.getCrawlTime());
-            batchValues.add(map);
+        SqlParameterSource[] batchValues = new SqlParameterSource[jobs.size()];
+        for (int i = 0; i < jobs.size(); i++) {
+            JobPosition job = jobs.get(i);
+            MapSqlParameterSource map = new MapSqlParameterSource();
+            map.addValue("jobTitle", job.getJobTitle());
+            map.addValue("companyName", job.getCompanyName());
+            map.addValue("jobDescription", job.getJobDescription());
+            map.addValue("location", job.getLocation());
+            map.addValue("salary", job.getSalary());
+            map.addValue("sourceUrl", job.getSourceUrl());
+            map.addValue("crawlTime", job.getCrawlTime());
+            map.addValue("urlHash", fingerprints.get(i).urlHash());
+            map.addValue("contentHash", fingerprints.get(i).contentHash());
+            batchValues[i] = map;
+        }
+        Set<String> hashes = new HashSet<>();
+        for (JobFingerprint fp : fingerprints) hashes.add(fp.urlHash());
+        // 更新命中的行不会返回生成的主键，统一按 url_hash 查回
+        Map<String, StoredFingerprint> stored = transactionTemplate.execute(status -> {
+            Map<JobStatKey, Integer> statDeltas = statDeltas(jobs, fingerprints, findStatKeysForUpdate(hashes));
+            jdbc.batchUpdate(sql, batchValues);
+            statsRepository.addJobDeltas(statDeltas);
+            return findFingerprints(hashes);
+        });
+        for (int i = 0; i < jobs.size(); i++) {
+            StoredFingerprint s = stored.get(fingerprints.get(i).urlHash());
+            if (s != null) jobs.get(i).setId(s.id());
+        }
+        events.publishEvent(new JobsSavedEvent(jobs, inserted));
+    }
+
+    /**
+     * 写入前后统计维度的差值：已存在的行从旧维度移到新维度，新行只在新维度 +1；同一批内重复的 url_hash 依次覆盖
+     */
+    private static Map<JobStatKey, Integer> statDeltas(List<JobPosition> jobs, List<JobFingerprint> fingerprints,
+                                                       Map<String, JobStatKey> current) {
+        Map<JobStatKey, Integer> deltas = new HashMap<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            JobPosition job = jobs.get(i);
+            JobStatKey next = JobStatKey.of(job.getSourceUrl(), job.getCrawlTime());
+            JobStatKey prev = current.put(fingerprints.get(i).urlHash(), next);
+            if (prev != null) deltas.merge(prev, -1, Integer::sum);
+            deltas.merge(next, 1, Integer::sum);
         }
-        jdbc.batchUpdate(sql, batchValues.toArray(new Map[0]));
+        return deltas;
+    }
+
+    /**
+     * 锁定已存在的 url_hash 行并读取其统计维度，须在事务中调用
+     */
+    private Map<String, JobStatKey> findStatKeysForUpdate(Collection<String> urlHashes) {
+        Map<String, JobStatKey> byHash = new HashMap<>();
+        jdbc.query("SELECT url_hash, source_url, crawl_time FROM job_positions WHERE url_hash IN (:hashes) FOR UPDATE",
+                Map.of("hashes", urlHashes), rs -> {
+                    byHash.put(rs.getString("url_hash"),
+                            JobStatKey.of(rs.getString("source_url"), toLocalDateTime(rs.getTimestamp("crawl_time"))));
+                });
+        return byHash;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp t) {
+        return t == null ? null : t.toLocalDateTime();
+    }
+
+    /**
+     * 按 url_hash 批量查询已入库职位的主键与内容指纹
+     */
+    public Map<String, StoredFingerprint> findFingerprints(Collection<String> urlHashes) {
+        if (urlHashes == null || urlHashes.isEmpty()) return Map.of();
+        String sql = "SELECT id, url_hash, content_hash FROM job_positions WHERE url_hash IN (:hashes)";
+        Map<String, StoredFingerprint> byHash = new HashMap<>();
+        jdbc.query(sql, Map.of("hashes", urlHashes), rs -> {
+            byHash.put(rs.getString("url_hash"),
+                    new StoredFingerprint(rs.getLong("id"), rs.getString("url_hash"), rs.getString("content_hash")));
+        });
+        return byHash;
     }
-    
-    public List<Map<String, Object>> getCrawlTrend() {
+
+    /**
+     * 按主键升序分批读取 id 大于 afterId 的职位指纹，用于预热去重过滤器
+     */
+    public List<StoredFingerprint> findFingerprintsAfterId(long afterId, int limit) {
         String sql = """
-            SELECT DATE_FORMAT(crawl_time, '%a') as date, COUNT(*) as count 
-            FROM job_positions 
-            WHERE crawl_time >= DATE_SUB(CURDATE(), INTERVAL 6 DAY)
-            GROUP BY DATE_FORMAT(crawl_time, '%a'), DATE(crawl_time)
-            ORDER BY DATE(crawl_time)
+            SELECT id, url_hash, content_hash FROM job_positions
+            WHERE id > :afterId AND url_hash IS NOT NULL
+            ORDER BY id
+            LIMIT :limit
         """;
-        return jdbc.queryForList(sql, Map.of());
+        return jdbc.query(sql, Map.of("afterId", afterId, "limit", limit),
+                (rs, i) -> new StoredFingerprint(rs.getLong("id"), rs.getString("url_hash"), rs.getString("content_hash")));
     }
 
-    public List<Map<String, Object>> getSourceDistribution() {
-        // Simplified grouping by source_url column. 
-        // If source_url contains full URL, we might want to extract domain here or in service.
-        // Assuming it stores cleaner source names based on current usage.
+    /**
+     * 读取尚未计算指纹的历史职位，新的在前
+     */
+    public List<JobPosition> findWithoutFingerprint(int limit) {
         String sql = """
-            SELECT source_url as source, COUNT(*) as count 
-            FROM job_positions 
-            GROUP BY source_url
-            ORDER BY count DESC
-            LIMIT 5
+            SELECT id, job_title, company_name, job_description, location, salary, source_url, crawl_time
+            FROM job_positions
+            WHERE url_hash IS NULL
+            ORDER BY id DESC
+            LIMIT :limit
         """;
-        return jdbc.queryForList(sql, Map.of());
+        return jdbc.query(sql, Map.of("limit", limit), JobRowMapper.INSTANCE);
+    }
+
+    /**
+     * 为历史职位补写指纹；与已有职位 URL 重复时抛出 {@link org.springframework.dao.DuplicateKeyException}
+     */
+    public void updateFingerprint(long id, JobFingerprint fingerprint) {
+        jdbc.update("UPDATE job_positions SET url_hash=:urlHash, content_hash=:contentHash WHERE id=:id",
+                Map.of("id", id, "urlHash", fingerprint.urlHash(), "contentHash", fingerprint.contentHash()));
+    }
+
+    public long countAll() {
+        Long n = jdbc.queryForObject("SELECT COUNT(*) FROM job_positions", Map.of(), Long.class);
+        return n == null ? 0 : n;
     }
+
+    public record StoredFingerprint(long id, String urlHash, String contentHash) {}
 }
@@ -0,0 +1,46 @@
+package com.resume.resumeai.repository;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多实例共享的限流计数表 rate_limit_counters：每行为一个 (限流键, 固定窗口起点) 的已发放请求数
+ */
+@Repository
+public class RateLimitRepository {
+    private final NamedParameterJdbcTemplate jdbc;
+    public RateLimitRepository(NamedParameterJdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    /**
+     * 从 key 在 windowStart 窗口的剩余额度中预领最多 requested 个，返回实际领到的数量（额度用完时为 0）。
+     * 行锁保证多个实例并发预领时总数不超过 limit，需在事务中调用
+     */
+    public int lease(String key, long windowStart, int requested, int limit, long expiresAt) {
+        Map<String, Object> p = Map.of("key", key, "windowStart", windowStart, "expiresAt", expiresAt);
+        jdbc.update("""
+            INSERT INTO rate_limit_counters (bucket_key, window_start, hits, expires_at)
+            VALUES (:key, :windowStart, 0, :expiresAt)
+            ON DUPLICATE KEY UPDATE hits = hits
+        """, p);
+        List<Integer> hits = jdbc.queryForList(
+                "SELECT hits FROM rate_limit_counters WHERE bucket_key=:key AND window_start=:windowStart FOR UPDATE",
+                p, Integer.class);
+        int used = hits.isEmpty() ? 0 : hits.get(0);
+        int granted = Math.max(0, Math.min(requested, limit - used));
+        if (granted > 0) {
+            jdbc.update("UPDATE rate_limit_counters SET hits = hits + :granted WHERE bucket_key=:key AND window_start=:windowStart",
+                    Map.of("key", key, "windowStart", windowStart, "granted", granted));
+        }
+        return granted;
+    }
+
+    /**
+     * 删除窗口已结束的计数行
+     */
+    public int deleteExpired(long now) {
+        return jdbc.update("DELETE FROM rate_limit_counters WHERE expires_at < :now", Map.of("now", now));
+    }
+}
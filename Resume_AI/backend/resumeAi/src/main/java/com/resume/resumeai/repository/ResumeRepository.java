@@ -1,15 +1,21 @@
 package com.resume.resumeai.repository;
 
 import com.resume.resumeai.domain.Resume;
+import com.resume.resumeai.util.PageCursor;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.util.*;
 
 @Repository
 public class ResumeRepository {
     private final NamedParameterJdbcTemplate jdbc;
-    public ResumeRepository(NamedParameterJdbcTemplate jdbc) { this.jdbc = jdbc; }
+    private final StatsRepository statsRepository;
+    public ResumeRepository(NamedParameterJdbcTemplate jdbc, StatsRepository statsRepository) {
+        this.jdbc = jdbc;
+        this.statsRepository = statsRepository;
+    }
 
     public Resume create(Resume r) {
         String sql = """
@@ -23,6 +29,7 @@ public class ResumeRepository {
         p.put("status", r.getStatus());
         jdbc.update(sql, p);
         Long id = jdbc.queryForObject("SELECT LAST_INSERT_ID()", Map.of(), Long.class);
+        statsRepository.addCounter(StatsRepository.RESUMES, 1);
         r.setId(id);
         return r;
     }
@@ -58,7 +65,9 @@ public class ResumeRepository {
     }
 
     public int delete(Long id) {
-        return jdbc.update("DELETE FROM resumes WHERE id=:id", Map.of("id", id));
+        int n = jdbc.update("DELETE FROM resumes WHERE id=:id", Map.of("id", id));
+        statsRepository.addCounter(StatsRepository.RESUMES, -n);
+        return n;
     }
 
     public List<Resume> list(int offset, int limit, String status) {
@@ -66,7 +75,7 @@ public class ResumeRepository {
             SELECT id, user_id, title, content_json, status, created_at, updated_at
             FROM resumes
             WHERE (:status IS NULL OR status=:status)
-            ORDER BY updated_at DESC
+            ORDER BY updated_at DESC, id DESC
             LIMIT :limit OFFSET :offset
         """;
         Map<String, Object> p = new HashMap<>();
@@ -91,7 +100,7 @@ public class ResumeRepository {
             SELECT id, user_id, title, content_json, status, created_at, updated_at
             FROM resumes
             WHERE user_id=:user_id AND (:status IS NULL OR status=:status)
-            ORDER BY updated_at DESC
+            ORDER BY updated_at DESC, id DESC
             LIMIT :limit OFFSET :offset
         """;
         Map<String, Object> p = new HashMap<>();
@@ -112,6 +121,39 @@ public class ResumeRepository {
         });
     }
 
+    /**
+     * 键集分页：按 (updated_at, id) 倒序读取排在 after 之后的最多 limit 条简历；userId、status 为 null 表示不筛选，
+     * after 为 null 时从头读取。按用户筛选时走 idx_user_updated (user_id, updated_at)
+     */
+    public List<Resume> listAfter(Long userId, String status, PageCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT id, user_id, title, content_json, status, created_at, updated_at
+            FROM resumes
+            WHERE (:user_id IS NULL OR user_id=:user_id) AND (:status IS NULL OR status=:status)
+        """);
+        Map<String, Object> p = new HashMap<>();
+        p.put("user_id", userId);
+        p.put("status", status);
+        if (after != null) {
+            sql.append("AND (updated_at < :afterTime OR (updated_at = :afterTime AND id < :afterId))\n");
+            p.put("afterTime", Timestamp.from(after.instant()));
+            p.put("afterId", after.id());
+        }
+        sql.append("ORDER BY updated_at DESC, id DESC LIMIT :limit");
+        p.put("limit", limit);
+        return jdbc.query(sql.toString(), p, (rs, i) -> {
+            Resume r = new Resume();
+            r.setId(rs.getLong("id"));
+            r.setUserId(rs.getLong("user_id"));
+            r.setTitle(rs.getString("title"));
+            r.setContentJson(rs.getString("content_json"));
+            r.setStatus(rs.getString("status"));
+            r.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+            r.setUpdatedAt(rs.getTimestamp("updated_at").toInstant());
+            return r;
+        });
+    }
+
     /**
      * 统计简历数量；允许 status 为 null 表示不筛选
      */
@@ -0,0 +1,137 @@
+package com.resume.resumeai.repository;
+
+import com.resume.resumeai.domain.JobStatKey;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 管理后台统计聚合表：stats_counters（实体计数）、stats_job_daily（按抓取日期与来源站点的职位数）、
+ * stats_job_source（按来源站点的职位数）。由各仓储在写入时增量维护，可随时 {@link #rebuild()} 从业务表重算。
+ */
+@Repository
+public class StatsRepository {
+    public static final String USERS = "users";
+    public static final String RESUMES = "resumes";
+    /** 最近一次全量重算的时间（毫秒），不存在表示聚合表尚未初始化 */
+    public static final String REBUILT_AT = "rebuilt_at";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    public StatsRepository(NamedParameterJdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    public void addCounter(String name, long delta) {
+        if (delta == 0) return;
+        jdbc.update("""
+            INSERT INTO stats_counters (name, total) VALUES (:name, :delta)
+            ON DUPLICATE KEY UPDATE total = total + VALUES(total)
+        """, Map.of("name", name, "delta", delta));
+    }
+
+    public Map<String, Long> counters() {
+        Map<String, Long> r = new HashMap<>();
+        jdbc.query("SELECT name, total FROM stats_counters", rs -> { r.put(rs.getString("name"), rs.getLong("total")); });
+        return r;
+    }
+
+    /**
+     * 批量累加职位统计增量（差值为 0 或没有抓取日期的维度被忽略）
+     */
+    public void addJobDeltas(Map<JobStatKey, Integer> deltas) {
+        List<SqlParameterSource> daily = new ArrayList<>();
+        Map<String, Integer> bySource = new HashMap<>();
+        for (Map.Entry<JobStatKey, Integer> e : deltas.entrySet()) {
+            if (e.getValue() == 0) continue;
+            bySource.merge(e.getKey().source(), e.getValue(), Integer::sum);
+            if (e.getKey().day() == null) continue;
+            daily.add(new MapSqlParameterSource()
+                    .addValue("day", Date.valueOf(e.getKey().day()))
+                    .addValue("source", e.getKey().source())
+                    .addValue("delta", e.getValue()));
+        }
+        if (!daily.isEmpty()) {
+            jdbc.batchUpdate("""
+                INSERT INTO stats_job_daily (stat_date, source, jobs) VALUES (:day, :source, :delta)
+                ON DUPLICATE KEY UPDATE jobs = jobs + VALUES(jobs)
+            """, daily.toArray(new SqlParameterSource[0]));
+        }
+        List<SqlParameterSource> sources = new ArrayList<>();
+        bySource.forEach((source, delta) -> {
+            if (delta != 0) sources.add(new MapSqlParameterSource().addValue("source", source).addValue("delta", delta));
+        });
+        if (!sources.isEmpty()) {
+            jdbc.batchUpdate("""
+                INSERT INTO stats_job_source (source, jobs) VALUES (:source, :delta)
+                ON DUPLICATE KEY UPDATE jobs = jobs + VALUES(jobs)
+            """, sources.toArray(new SqlParameterSource[0]));
+        }
+    }
+
+    /**
+     * from 起（含）每天抓取的职位数，按日期升序，没有职位的日期不返回
+     */
+    public List<Map<String, Object>> dailyJobs(LocalDate from) {
+        String sql = """
+            SELECT stat_date, SUM(jobs) AS jobs FROM stats_job_daily
+            WHERE stat_date >= :from
+            GROUP BY stat_date
+            HAVING SUM(jobs) > 0
+            ORDER BY stat_date
+        """;
+        return jdbc.query(sql, Map.of("from", Date.valueOf(from)), (rs, i) -> {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("date", rs.getDate("stat_date").toLocalDate());
+            m.put("count", rs.getLong("jobs"));
+            return m;
+        });
+    }
+
+    /**
+     * 职位数最多的 limit 个来源站点
+     */
+    public List<Map<String, Object>> topSources(int limit) {
+        String sql = """
+            SELECT source, jobs FROM stats_job_source
+            WHERE jobs > 0
+            ORDER BY jobs DESC, source
+            LIMIT :limit
+        """;
+        return jdbc.query(sql, Map.of("limit", limit), (rs, i) -> {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("source", rs.getString("source"));
+            m.put("count", rs.getLong("jobs"));
+            return m;
+        });
+    }
+
+    /**
+     * 清空并从 users、resumes、job_positions 全量重算聚合表；职位按主键顺序流式读取，在内存中按维度汇总。
+     * 应在事务中调用，重算期间的并发写入可能需要再次重算
+     */
+    public void rebuild() {
+        jdbc.update("DELETE FROM stats_counters", Map.of());
+        jdbc.update("DELETE FROM stats_job_daily", Map.of());
+        jdbc.update("DELETE FROM stats_job_source", Map.of());
+        addCounter(USERS, count("SELECT COUNT(1) FROM users"));
+        addCounter(RESUMES, count("SELECT COUNT(1) FROM resumes"));
+
+        Map<JobStatKey, Integer> jobs = new HashMap<>();
+        jdbc.query("SELECT source_url, crawl_time FROM job_positions", rs -> {
+            Timestamp t = rs.getTimestamp("crawl_time");
+            jobs.merge(JobStatKey.of(rs.getString("source_url"), t == null ? null : t.toLocalDateTime()), 1, Integer::sum);
+        });
+        addJobDeltas(jobs);
+        jdbc.update("INSERT INTO stats_counters (name, total) VALUES (:name, :value)",
+                Map.of("name", REBUILT_AT, "value", System.currentTimeMillis()));
+    }
+
+    private long count(String sql) {
+        Long c = jdbc.queryForObject(sql, Map.of(), Long.class);
+        return c == null ? 0 : c;
+    }
+}
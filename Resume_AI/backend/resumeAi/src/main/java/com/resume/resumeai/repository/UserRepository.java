@@ -3,13 +3,22 @@ package com.resume.resumeai.repository;
 import com.resume.resumeai.domain.User;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 
 @Repository
 public class UserRepository {
     private final NamedParameterJdbcTemplate jdbc;
-    public UserRepository(NamedParameterJdbcTemplate jdbc) { this.jdbc = jdbc; }
+    private final StatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    public UserRepository(NamedParameterJdbcTemplate jdbc, StatsRepository statsRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     public boolean existsByEmail(String email) {
         Integer r = jdbc.queryForObject("SELECT COUNT(1) FROM users WHERE email=:email",
@@ -28,6 +37,7 @@ public class UserRepository {
         p.put("username", u.getNickname());
         p.put("type", 0);
         jdbc.update(sql, p);
+        statsRepository.addCounter(StatsRepository.USERS, 1);
         u.setId(findIdByEmail(u.getEmail()));
     }
 
@@ -92,6 +102,33 @@ public class UserRepository {
         });
     }
 
+    /**
+     * 键集分页：按 user_id 倒序读取 id 小于 afterId 的最多 limit 个用户，afterId 为 null 时从头读取
+     */
+    public List<User> findAfter(Long afterId, int limit) {
+        String sql = """
+            SELECT user_id, email, password, username, role, status, created_at
+            FROM users
+            WHERE (:afterId IS NULL OR user_id < :afterId)
+            ORDER BY user_id DESC
+            LIMIT :limit
+        """;
+        Map<String, Object> p = new HashMap<>();
+        p.put("afterId", afterId);
+        p.put("limit", limit);
+        return jdbc.query(sql, p, (rs, i) -> {
+            User u = new User();
+            u.setId(rs.getLong("user_id"));
+            u.setEmail(rs.getString("email"));
+            u.setPasswordHash(rs.getString("password"));
+            u.setNickname(rs.getString("username"));
+            u.setRole(rs.getString("role"));
+            u.setStatus(rs.getString("status"));
+            u.setJoinedAt(rs.getString("created_at"));
+            return u;
+        });
+    }
+
     public int count() {
         Integer c = jdbc.queryForObject("SELECT COUNT(1) FROM users", Map.of(), Integer.class);
         return c == null ? 0 : c;
@@ -105,7 +142,29 @@ public class UserRepository {
         jdbc.update("UPDATE users SET status=:status WHERE user_id=:id", Map.of("status", status, "id", userId));
     }
 
+    /**
+     * 仅当当前口令哈希仍为 oldHash 时替换，返回是否更新；期间口令被修改过的不会被覆盖
+     */
+    public boolean updatePassword(Long userId, String oldHash, String newHash) {
+        return jdbc.update("UPDATE users SET password=:password WHERE user_id=:id AND password=:oldHash",
+                Map.of("password", newHash, "id", userId, "oldHash", oldHash)) > 0;
+    }
+
+    /**
+     * 删除用户；其简历由外键级联删除，一并从统计计数中扣除
+     */
     public void deleteById(Long id) {
-        jdbc.update("DELETE FROM users WHERE user_id=:id", Map.of("id", id));
+        transactionTemplate.executeWithoutResult(status -> {
+            // 先锁住用户行，阻塞并发新增的简历，保证计数与级联删除的简历数一致
+            List<Long> locked = jdbc.queryForList("SELECT user_id FROM users WHERE user_id=:id FOR UPDATE",
+                    Map.of("id", id), Long.class);
+            if (locked.isEmpty()) return;
+            Integer resumes = jdbc.queryForObject("SELECT COUNT(1) FROM resumes WHERE user_id=:id", Map.of("id", id), Integer.class);
+            int n = jdbc.update("DELETE FROM users WHERE user_id=:id", Map.of("id", id));
+            if (n > 0) {
+                statsRepository.addCounter(StatsRepository.USERS, -n);
+                statsRepository.addCounter(StatsRepository.RESUMES, resumes == null ? 0 : -resumes);
+            }
+        });
     }
 }
\ No newline at end of file
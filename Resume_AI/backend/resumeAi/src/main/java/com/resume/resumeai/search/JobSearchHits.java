@@ -0,0 +1,32 @@
+package com.resume.resumeai.search;
+
+import com.resume.resumeai.util.PageCursor;
+
+import java.util.List;
+
+/**
+ * 一次索引查询的结果：当前页的职位 id（已排序）、对应得分与满足条件的总数；
+ * 键集分页查询时另带下一页游标（没有下一页时为 null）
+ */
+public class JobSearchHits {
+    private final List<Long> jobIds;
+    private final List<Double> scores;
+    private final int total;
+    private final PageCursor nextCursor;
+
+    public JobSearchHits(List<Long> jobIds, List<Double> scores, int total) {
+        this(jobIds, scores, total, null);
+    }
+
+    public JobSearchHits(List<Long> jobIds, List<Double> scores, int total, PageCursor nextCursor) {
+        this.jobIds = jobIds;
+        this.scores = scores;
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Long> getJobIds() { return jobIds; }
+    public List<Double> getScores() { return scores; }
+    public int getTotal() { return total; }
+    public PageCursor getNextCursor() { return nextCursor; }
+}
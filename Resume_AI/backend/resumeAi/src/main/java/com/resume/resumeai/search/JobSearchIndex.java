@@ -0,0 +1,484 @@
+package com.resume.resumeai.search;
+
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.domain.event.JobDeletedEvent;
+import com.resume.resumeai.domain.event.JobsSavedEvent;
+import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.util.PageCursor;
+import com.resume.resumeai.util.TextTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 职位内存倒排索引，替代 CONCAT_WS(...) LIKE '%kw%' 的全表扫描。
+ * 词项 -> 倒排表（内部文档槽位 + 字段加权词频），分词见 {@link TextTokenizer}。
+ * 启动完成后从 job_positions 全量加载，之后随 {@link JobsSavedEvent}/{@link JobDeletedEvent} 增量更新；
+ * 查询时对各词项倒排表求交集，一次遍历同时完成城市过滤、打分、Top-N 与总数统计。
+ * 每个职位在写入时同时记录其词向量的 L2 范数（倒排表即按词转置存放的稀疏向量），
+ * 供 {@link #match} 以 lnc.ltc 余弦相似度对全量职位打分并用有界最小堆取 Top-K。
+ * 索引未就绪（加载中或被禁用）或关键词含单个汉字（只能由 LIKE 子串匹配）时调用方应回退到数据库查询，见 {@link #canSearch}。
+ */
+@Component
+public class JobSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(JobSearchIndex.class);
+    private static final int TITLE_WEIGHT = 3;
+    private static final int COMPANY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int LOAD_BATCH = 2000;
+    static final int COMPACT_MIN_DELETED = 1024;
+    /** 匹配时最多使用的查询词项数（按 tf-idf 权重取前若干个），长简历的低权重词对排序几乎没有贡献 */
+    private static final int MAX_MATCH_TERMS = 128;
+    /** 打分累加器池：请求跑在虚拟线程上，ThreadLocal 每次都是新线程，只有共享的小池才能复用按语料规模分配的数组 */
+    private static final int MATCH_SCRATCH_POOL_SIZE = 8;
+
+    private final JobRepository jobRepository;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final BlockingQueue<MatchScratch> matchScratch = new ArrayBlockingQueue<>(MATCH_SCRATCH_POOL_SIZE);
+    /** 重建期间到达的写入，换入新索引前按序重放；null 表示未在重建（由写锁保护） */
+    private List<Consumer<JobSearchIndex>> pendingWrites;
+
+    private Map<String, PostingList> postings = new HashMap<>();
+    private Map<Long, Integer> slotByJobId = new HashMap<>();
+    private long[] jobIds = new long[16];
+    private long[] crawlTimes = new long[16];
+    private String[] locations = new String[16];
+    private float[] norms = new float[16];
+    private BitSet live = new BitSet();
+    private int slotCount;
+    private int liveCount;
+    private volatile boolean ready;
+
+    public JobSearchIndex(JobRepository jobRepository, @Value("${search.index.enabled:true}") boolean enabled) {
+        this.jobRepository = jobRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() { return enabled && ready; }
+
+    /**
+     * 索引能否回答该关键词查询：汉字按二元组建索引，单独一个汉字的查询词（如“京”）无法命中“北京”中的二元组，
+     * 这类查询交给数据库 LIKE 保持原有语义
+     */
+    public boolean canSearch(String keywords) {
+        if (!isReady()) return false;
+        if (keywords == null) return true;
+        boolean[] singleHan = {false};
+        TextTokenizer.tokenize(keywords, (buf, len) -> {
+            if (len == 1 && TextTokenizer.isCjk(buf[0])) singleHan[0] = true;
+        });
+        return !singleHan[0];
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try { return liveCount; } finally { lock.readLock().unlock(); }
+    }
+
+    /** 已分配的槽位数（含已删除未压缩的），用于观测索引膨胀 */
+    int slotCount() {
+        lock.readLock().lock();
+        try { return slotCount; } finally { lock.readLock().unlock(); }
+    }
+
+    /** 倒排表条目总数（含指向已删除槽位的） */
+    long postingCount() {
+        lock.readLock().lock();
+        try {
+            long n = 0;
+            for (PostingList pl : postings.values()) n += pl.size;
+            return n;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) rebuild();
+    }
+
+    /**
+     * 从数据库按主键分批加载到新的索引结构，不持有读写锁，查询照常由旧索引回答；
+     * 加载期间的写入事件先作用于旧索引并记录下来，换入新索引前按序重放（重放是幂等的）
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pendingWrites = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            JobSearchIndex staging = new JobSearchIndex(jobRepository, enabled);
+            try {
+                long afterId = 0;
+                while (true) {
+                    List<JobPosition> batch = jobRepository.findBatchAfterId(afterId, LOAD_BATCH);
+                    for (JobPosition j : batch) staging.addLocked(j);
+                    if (batch.size() < LOAD_BATCH) break;
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } catch (Exception e) {
+                lock.writeLock().lock();
+                try {
+                    pendingWrites = null;
+                    ready = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.error("job search index rebuild failed, falling back to database search", e);
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                for (Consumer<JobSearchIndex> write : pendingWrites) write.accept(staging);
+                pendingWrites = null;
+                adoptLocked(staging);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("job search index loaded: {} jobs, {} terms in {}ms", liveCount, postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobsSaved(JobsSavedEvent event) {
+        if (!enabled) return;
+        // 已收录的职位（重复抓取后内容更新）会释放旧槽位并追加新槽位，与删除一样需要适时压缩
+        applyWrite(index -> {
+            for (JobPosition j : event.getJobs()) index.addLocked(j);
+            index.maybeCompactLocked();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobDeleted(JobDeletedEvent event) {
+        if (!enabled) return;
+        applyWrite(index -> {
+            index.removeLocked(event.getJobId());
+            index.maybeCompactLocked();
+        });
+    }
+
+    private void applyWrite(Consumer<JobSearchIndex> write) {
+        lock.writeLock().lock();
+        try {
+            write.accept(this);
+            if (pendingWrites != null) pendingWrites.add(write);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 检索职位：keywords 分词后所有词项都须命中（AND），city 按包含匹配 location。
+     * 有关键词时按相关度（idf × 亚线性词频）排序，否则按抓取时间倒序；同分再按抓取时间、id 倒序。
+     */
+    public JobSearchHits search(String keywords, String city, int offset, int limit) {
+        offset = Math.max(0, offset);
+        limit = Math.max(0, limit);
+        lock.readLock().lock();
+        try {
+            TopHits top = new TopHits((int) Math.min((long) offset + limit, liveCount));
+            int total = scan(keywords, city, null, top);
+            return toHits(top, offset, top.sortBestFirst(), total, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 键集分页检索：排序同 {@link #search}，只保留排在 after（上一页最后一条的得分、抓取时间与 id）之后的命中，
+     * 堆大小恒为 limit + 1，不随翻页深度增长。after 为 null 时等同第一页；结果带下一页游标
+     */
+    public JobSearchHits searchAfter(String keywords, String city, PageCursor after, int limit) {
+        limit = Math.max(1, limit);
+        lock.readLock().lock();
+        try {
+            TopHits top = new TopHits((int) Math.min((long) limit + 1, liveCount));
+            int total = scan(keywords, city, after, top);
+            int n = top.sortBestFirst();
+            PageCursor next = n > limit
+                    ? new PageCursor(top.scoreAt(limit - 1), top.timeAt(limit - 1), top.idAt(limit - 1))
+                    : null;
+            return toHits(top, 0, Math.min(n, limit), total, next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int scan(String keywords, String city, PageCursor after, TopHits top) {
+        List<String> terms = queryTerms(keywords);
+        String cityNeedle = city == null || city.isBlank() ? null : city.trim().toLowerCase(Locale.ROOT);
+        return terms.isEmpty()
+                ? scanAll(cityNeedle, after, top)
+                : scanTerms(terms, cityNeedle, after, top);
+    }
+
+    /**
+     * 以任意文本（简历/关键词）对全量职位打分，返回余弦相似度最高的 k 个职位，得分范围 [0, 1]。
+     * 文档向量：1 + ln(tf) 并做 L2 归一化（写入时计算）；查询向量：(1 + ln(tf)) × idf 并归一化。
+     * 按词项遍历倒排表累加得分（term-at-a-time），total 为与查询至少共享一个词项的职位数。
+     */
+    public JobSearchHits match(String text, int k) {
+        Map<String, int[]> queryTf = new HashMap<>();
+        TextTokenizer.tokenize(text, (buf, len) -> queryTf.computeIfAbsent(new String(buf, 0, len), t -> new int[1])[0]++);
+        if (queryTf.isEmpty() || k <= 0) return new JobSearchHits(List.of(), List.of(), 0);
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(queryTf.size());
+            List<Double> weights = new ArrayList<>(queryTf.size());
+            for (Map.Entry<String, int[]> e : queryTf.entrySet()) {
+                PostingList pl = postings.get(e.getKey());
+                if (pl == null || pl.size == 0) continue;
+                double idf = Math.log(1.0 + (double) Math.max(liveCount, 1) / pl.size);
+                lists.add(pl);
+                weights.add((1.0 + Math.log(e.getValue()[0])) * idf);
+            }
+            Integer[] order = new Integer[lists.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Double.compare(weights.get(b), weights.get(a)));
+            int used = Math.min(order.length, MAX_MATCH_TERMS);
+            double queryNorm = 0;
+            for (int i = 0; i < used; i++) queryNorm += weights.get(order[i]) * weights.get(order[i]);
+            if (queryNorm == 0) return new JobSearchHits(List.of(), List.of(), 0);
+            queryNorm = Math.sqrt(queryNorm);
+
+            MatchScratch scratch = matchScratch.poll();
+            if (scratch == null) scratch = new MatchScratch();
+            scratch.ensure(slotCount);
+            float[] acc = scratch.acc;
+            int[] touched = scratch.touched;
+            int touchedCount = 0;
+            for (int i = 0; i < used; i++) {
+                PostingList pl = lists.get(order[i]);
+                double qw = weights.get(order[i]) / queryNorm;
+                for (int p = 0; p < pl.size; p++) {
+                    int slot = pl.docs[p];
+                    if (!live.get(slot)) continue;
+                    if (acc[slot] == 0f) touched[touchedCount++] = slot;
+                    acc[slot] += (float) (qw * (1.0 + Math.log(pl.freqs[p])) / norms[slot]);
+                }
+            }
+            TopHits top = new TopHits(Math.min(k, touchedCount));
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touched[i];
+                top.offer(slot, Math.min(1.0, acc[slot]), crawlTimes[slot], jobIds[slot]);
+                acc[slot] = 0f;
+            }
+            // 累加器已逐项清零才归还；中途异常时直接丢弃
+            matchScratch.offer(scratch);
+            return toHits(top, 0, top.sortBestFirst(), touchedCount, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private JobSearchHits toHits(TopHits top, int from, int to, int total, PageCursor next) {
+        List<Long> ids = new ArrayList<>(Math.max(0, to - from));
+        List<Double> scores = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            ids.add(jobIds[top.slotAt(i)]);
+            scores.add(top.scoreAt(i));
+        }
+        return new JobSearchHits(ids, scores, total, next);
+    }
+
+    private int scanAll(String cityNeedle, PageCursor after, TopHits top) {
+        int total = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            if (!cityMatches(slot, cityNeedle)) continue;
+            total++;
+            if (after != null && !isAfter(0, slot, after)) continue;
+            top.offer(slot, 0, crawlTimes[slot], jobIds[slot]);
+        }
+        return total;
+    }
+
+    private int scanTerms(List<String> terms, String cityNeedle, PageCursor after, TopHits top) {
+        int k = terms.size();
+        PostingList[] lists = new PostingList[k];
+        for (int i = 0; i < k; i++) {
+            lists[i] = postings.get(terms.get(i));
+            if (lists[i] == null) return 0;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        double[] idf = new double[k];
+        for (int i = 0; i < k; i++) idf[i] = Math.log(1.0 + (double) Math.max(liveCount, 1) / lists[i].size);
+        int[] cursors = new int[k];
+
+        int total = 0;
+        PostingList lead = lists[0];
+        outer:
+        for (int p = 0; p < lead.size; p++) {
+            int slot = lead.docs[p];
+            double score = idf[0] * (1.0 + Math.log(lead.freqs[p]));
+            for (int i = 1; i < k; i++) {
+                PostingList other = lists[i];
+                int c = other.advance(cursors[i], slot);
+                cursors[i] = c;
+                if (c >= other.size) break outer;
+                if (other.docs[c] != slot) continue outer;
+                score += idf[i] * (1.0 + Math.log(other.freqs[c]));
+            }
+            if (!live.get(slot) || !cityMatches(slot, cityNeedle)) continue;
+            total++;
+            if (after != null && !isAfter(score, slot, after)) continue;
+            top.offer(slot, score, crawlTimes[slot], jobIds[slot]);
+        }
+        return total;
+    }
+
+    /**
+     * 按 (得分, 抓取时间, id) 倒序，该命中是否严格排在游标之后
+     */
+    private boolean isAfter(double score, int slot, PageCursor after) {
+        if (score != after.score()) return score < after.score();
+        if (crawlTimes[slot] != after.time()) return crawlTimes[slot] < after.time();
+        return jobIds[slot] < after.id();
+    }
+
+    private boolean cityMatches(int slot, String cityNeedle) {
+        if (cityNeedle == null) return true;
+        String loc = locations[slot];
+        return loc != null && loc.contains(cityNeedle);
+    }
+
+    private static List<String> queryTerms(String keywords) {
+        if (keywords == null || keywords.isBlank()) return List.of();
+        Set<String> terms = new LinkedHashSet<>();
+        TextTokenizer.tokenize(keywords, (buf, len) -> terms.add(new String(buf, 0, len)));
+        return new ArrayList<>(terms);
+    }
+
+    private void addLocked(JobPosition job) {
+        if (job == null || job.getId() == null) return;
+        removeLocked(job.getId());
+        int slot = slotCount++;
+        ensureCapacity(slotCount);
+        jobIds[slot] = job.getId();
+        crawlTimes[slot] = job.getCrawlTime() == null ? 0L : job.getCrawlTime().toInstant(ZoneOffset.UTC).toEpochMilli();
+        locations[slot] = job.getLocation() == null ? null : job.getLocation().toLowerCase(Locale.ROOT);
+        live.set(slot);
+        liveCount++;
+        slotByJobId.put(job.getId(), slot);
+
+        Map<String, int[]> tf = new HashMap<>();
+        collect(job.getJobTitle(), TITLE_WEIGHT, tf);
+        collect(job.getCompanyName(), COMPANY_WEIGHT, tf);
+        collect(job.getJobDescription(), DESCRIPTION_WEIGHT, tf);
+        double norm = 0;
+        for (Map.Entry<String, int[]> e : tf.entrySet()) {
+            int f = e.getValue()[0];
+            postings.computeIfAbsent(e.getKey(), t -> new PostingList()).add(slot, f);
+            double w = 1.0 + Math.log(f);
+            norm += w * w;
+        }
+        norms[slot] = norm == 0 ? 1f : (float) Math.sqrt(norm);
+    }
+
+    private static void collect(String text, int weight, Map<String, int[]> tf) {
+        TextTokenizer.tokenize(text, (buf, len) -> tf.computeIfAbsent(new String(buf, 0, len), t -> new int[1])[0] += weight);
+    }
+
+    private void removeLocked(Long jobId) {
+        Integer slot = slotByJobId.remove(jobId);
+        if (slot == null) return;
+        live.clear(slot);
+        locations[slot] = null;
+        liveCount--;
+    }
+
+    /**
+     * 已删除槽位过多时压缩：重排槽位并过滤倒排表中的失效条目
+     */
+    private void maybeCompactLocked() {
+        int deleted = slotCount - liveCount;
+        if (deleted < COMPACT_MIN_DELETED || deleted < slotCount / 4) return;
+        int[] remap = new int[slotCount];
+        int next = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (live.get(slot)) {
+                remap[slot] = next;
+                jobIds[next] = jobIds[slot];
+                crawlTimes[next] = crawlTimes[slot];
+                locations[next] = locations[slot];
+                norms[next] = norms[slot];
+                next++;
+            } else {
+                remap[slot] = -1;
+            }
+        }
+        Arrays.fill(locations, next, slotCount, null);
+        postings.values().removeIf(pl -> { pl.remap(remap); return pl.size == 0; });
+        slotByJobId.replaceAll((id, slot) -> remap[slot]);
+        live = new BitSet(next);
+        live.set(0, next);
+        slotCount = next;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= jobIds.length) return;
+        int cap = Math.max(needed, jobIds.length + (jobIds.length >> 1));
+        jobIds = Arrays.copyOf(jobIds, cap);
+        crawlTimes = Arrays.copyOf(crawlTimes, cap);
+        locations = Arrays.copyOf(locations, cap);
+        norms = Arrays.copyOf(norms, cap);
+    }
+
+    private void adoptLocked(JobSearchIndex other) {
+        postings = other.postings;
+        slotByJobId = other.slotByJobId;
+        jobIds = other.jobIds;
+        crawlTimes = other.crawlTimes;
+        locations = other.locations;
+        norms = other.norms;
+        live = other.live;
+        slotCount = other.slotCount;
+        liveCount = other.liveCount;
+    }
+
+    /**
+     * 在匹配之间复用的打分累加器（借出时独占，归还时 acc 全为 0），避免每次匹配按语料规模分配数组
+     */
+    private static final class MatchScratch {
+        float[] acc = new float[0];
+        int[] touched = new int[0];
+
+        void ensure(int slots) {
+            if (acc.length < slots) {
+                acc = new float[slots];
+                touched = new int[slots];
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.resume.resumeai.search;
+
+import java.util.Arrays;
+
+/**
+ * 单个词项的倒排表：按内部文档槽位升序存放，freqs 为对应文档中的字段加权词频。
+ */
+final class PostingList {
+    int[] docs = new int[4];
+    int[] freqs = new int[4];
+    int size;
+
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            int cap = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, cap);
+            freqs = Arrays.copyOf(freqs, cap);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+
+    /**
+     * 从 from 开始查找第一个 >= doc 的位置（先指数步进再二分），找不到返回 size
+     */
+    int advance(int from, int doc) {
+        if (from >= size || docs[from] >= doc) return from;
+        int step = 1;
+        int lo = from;
+        int hi = from + 1;
+        while (hi < size && docs[hi] < doc) {
+            lo = hi;
+            step <<= 1;
+            hi = from + step;
+        }
+        if (hi > size) hi = size;
+        int idx = Arrays.binarySearch(docs, lo + 1, hi, doc);
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    /**
+     * 按槽位重映射（remap[old] < 0 表示已删除），保持升序
+     */
+    void remap(int[] remap) {
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            int nd = remap[docs[r]];
+            if (nd < 0) continue;
+            docs[w] = nd;
+            freqs[w] = freqs[r];
+            w++;
+        }
+        size = w;
+        if (docs.length > 16 && size < docs.length / 4) {
+            docs = Arrays.copyOf(docs, Math.max(4, size));
+            freqs = Arrays.copyOf(freqs, Math.max(4, size));
+        }
+    }
+}
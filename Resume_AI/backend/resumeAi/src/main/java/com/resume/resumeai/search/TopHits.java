@@ -0,0 +1,99 @@
+package com.resume.resumeai.search;
+
+/**
+ * 基于原始类型数组的有界最小堆，保留得分最高的前 K 个命中。
+ * 排序键依次为：得分降序、抓取时间降序、职位 id 降序；堆顶是当前最差的命中。
+ */
+final class TopHits {
+    private final int capacity;
+    private final int[] slots;
+    private final double[] scores;
+    private final long[] times;
+    private final long[] ids;
+    private int size;
+
+    TopHits(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.slots = new int[this.capacity];
+        this.scores = new double[this.capacity];
+        this.times = new long[this.capacity];
+        this.ids = new long[this.capacity];
+    }
+
+    void offer(int slot, double score, long time, long id) {
+        if (capacity == 0) return;
+        if (size < capacity) {
+            set(size, slot, score, time, id);
+            siftUp(size++);
+        } else if (better(score, time, id, 0)) {
+            set(0, slot, score, time, id);
+            siftDown(0);
+        }
+    }
+
+    int size() { return size; }
+
+    /**
+     * 原地堆排序：完成后 [0, size) 按从好到差排列，之后可通过 slotAt/scoreAt 读取，不可再 offer
+     */
+    int sortBestFirst() {
+        int n = size;
+        for (int end = n - 1; end > 0; end--) {
+            swap(0, end);
+            size = end;
+            siftDown(0);
+        }
+        size = n;
+        return n;
+    }
+
+    int slotAt(int i) { return slots[i]; }
+
+    double scoreAt(int i) { return scores[i]; }
+
+    long timeAt(int i) { return times[i]; }
+
+    long idAt(int i) { return ids[i]; }
+
+    private boolean better(double score, long time, long id, int i) {
+        if (score != scores[i]) return score > scores[i];
+        if (time != times[i]) return time > times[i];
+        return id > ids[i];
+    }
+
+    private boolean worse(int a, int b) {
+        return better(scores[b], times[b], ids[b], a);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(i, parent)) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1;
+            if (l >= size) break;
+            int r = l + 1;
+            int m = (r < size && worse(r, l)) ? r : l;
+            if (!worse(m, i)) break;
+            swap(i, m);
+            i = m;
+        }
+    }
+
+    private void set(int i, int slot, double score, long time, long id) {
+        slots[i] = slot; scores[i] = score; times[i] = time; ids[i] = id;
+    }
+
+    private void swap(int a, int b) {
+        int s = slots[a]; slots[a] = slots[b]; slots[b] = s;
+        double d = scores[a]; scores[a] = scores[b]; scores[b] = d;
+        long t = times[a]; times[a] = times[b]; times[b] = t;
+        long x = ids[a]; ids[a] = ids[b]; ids[b] = x;
+    }
+}
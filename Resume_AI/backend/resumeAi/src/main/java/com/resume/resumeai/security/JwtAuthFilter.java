@@ -4,13 +4,21 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.util.Collections;
 
+/**
+ * 校验 Bearer 令牌并写入 SecurityContext；上下文同时保存到请求属性，
+ * SSE 等异步请求的 ASYNC 派发不再经过本过滤器，由 SecurityContextHolderFilter 从请求属性恢复同一身份
+ */
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
+    private final SecurityContextRepository contextRepository = new RequestAttributeSecurityContextRepository();
     public JwtAuthFilter(JwtUtil jwtUtil) { this.jwtUtil = jwtUtil; }
 
     @Override
@@ -23,7 +31,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 if (claims != null) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(claims.getSubject(), null, Collections.emptyList());
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    SecurityContext context = SecurityContextHolder.createEmptyContext();
+                    context.setAuthentication(authToken);
+                    SecurityContextHolder.setContext(context);
+                    contextRepository.saveContext(context, request, response);
                 }
             }
             chain.doFilter(request, response);
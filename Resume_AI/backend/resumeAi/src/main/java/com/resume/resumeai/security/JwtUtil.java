@@ -1,30 +1,79 @@
 package com.resume.resumeai.security;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.time.Instant;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
+/**
+ * HS256 令牌的签发与校验。校验是每个受保护请求的必经路径，因此：
+ * <ul>
+ *   <li>HMAC 密钥只构造一次，已初始化的 Mac 放在小池中复用（请求跑在虚拟线程上，ThreadLocal 几乎不会命中）；</li>
+ *   <li>签名按 Base64URL 文本做常量时间比较；</li>
+ *   <li>校验通过的令牌按其 SHA-256 摘要缓存 Claims 直到令牌过期，重复出现的令牌只需一次摘要与哈希表查找；
+ *       堆中不保存令牌原文，缓存为无锁的 ConcurrentHashMap，读取时检查过期，超出上限时由一个线程清理。</li>
+ * </ul>
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:change_me}")
-    private String secret;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_POOL_SIZE = 64;
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
 
-    @Value("${jwt.access-token-ttl-minutes:30}")
-    private long ttlMinutes;
+    private final SecretKeySpec key;
+    private final long ttlMinutes;
+    private final LongSupplier clockMillis;
+    private final BlockingQueue<Mac> macs = new ArrayBlockingQueue<>(MAC_POOL_SIZE);
+    private final BlockingQueue<MessageDigest> digests = new ArrayBlockingQueue<>(MAC_POOL_SIZE);
+    /** 令牌摘要 -> 校验结果；条目在令牌过期时失效，maxEntries<=0 时不缓存 */
+    private final Map<TokenKey, Claims> verified;
+    private final int cacheMaxEntries;
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    public JwtUtil(String secret, long ttlMinutes) {
+        this(secret, ttlMinutes, 10_000, System::currentTimeMillis);
+    }
+
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret:change_me}") String secret,
+                   @Value("${jwt.access-token-ttl-minutes:30}") long ttlMinutes,
+                   @Value("${jwt.verify-cache.max-entries:10000}") int cacheMaxEntries) {
+        this(secret, ttlMinutes, cacheMaxEntries, System::currentTimeMillis);
+    }
+
+    JwtUtil(String secret, long ttlMinutes, int cacheMaxEntries, LongSupplier clockMillis) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttlMinutes = ttlMinutes;
+        this.clockMillis = clockMillis;
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.verified = cacheMaxEntries > 0 ? new ConcurrentHashMap<>() : null;
+    }
 
     public String issueToken(Long userId, String email) {
-        long now = Instant.now().getEpochSecond();
+        long now = clockMillis.getAsLong() / 1000;
         long exp = now + ttlMinutes * 60;
         String header = base64Json(Map.of("alg","HS256","typ","JWT"));
         String payload = base64Json(Map.of("sub", String.valueOf(userId), "email", email, "iat", now, "exp", exp));
-        String signature = hmacSha256(header + "." + payload, secret);
+        String signature = hmacSha256(header + "." + payload);
         return header + "." + payload + "." + signature;
     }
 
@@ -34,47 +83,128 @@ public class JwtUtil {
         return issueToken(Long.valueOf(c.getSubject()), c.getEmail());
     }
 
+    /**
+     * 校验签名与过期时间，失败返回 null
+     */
     public Claims verify(String token) {
+        if (token == null) return null;
+        long nowSeconds = clockMillis.getAsLong() / 1000;
+        if (verified == null) return verifyUncached(token, nowSeconds);
+        TokenKey key = digest(token);
+        Claims cached = verified.get(key);
+        if (cached != null) {
+            if (nowSeconds <= cached.getExpiresAt()) return cached;
+            verified.remove(key, cached);
+            return null;
+        }
+        Claims claims = verifyUncached(token, nowSeconds);
+        if (claims != null) cache(key, claims, nowSeconds);
+        return claims;
+    }
+
+    /**
+     * 写入缓存；达到上限时由一个线程先清除已过期条目，仍超出则任意淘汰约 1/8，其余线程本次不写入
+     */
+    private void cache(TokenKey key, Claims claims, long nowSeconds) {
+        if (verified.size() >= cacheMaxEntries) {
+            if (!evicting.tryLock()) return;
+            try {
+                verified.values().removeIf(c -> nowSeconds > c.getExpiresAt());
+                int excess = verified.size() - cacheMaxEntries + Math.max(1, cacheMaxEntries / 8);
+                Iterator<TokenKey> it = verified.keySet().iterator();
+                while (excess-- > 0 && it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            } finally {
+                evicting.unlock();
+            }
+        }
+        verified.put(key, claims);
+    }
+
+    private TokenKey digest(String token) {
+        MessageDigest md = digests.poll();
+        if (md == null) md = newDigest();
         try {
-            String[] parts = token.split("\\.");
-            if (parts.length != 3) return null;
-            String data = parts[0] + "." + parts[1];
-            String sig = hmacSha256(data, secret);
-            if (!sig.equals(parts[2])) return null;
-            String json = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
-            Map<String, Object> map = Json.minParse(json);
-            long exp = ((Number)map.get("exp")).longValue();
-            if (Instant.now().getEpochSecond() > exp) return null;
-            String sub = (String) map.get("sub");
-            String email = (String) map.get("email");
-            return new Claims(sub, email);
-        } catch (Exception e) {
+            ByteBuffer d = ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new TokenKey(d.getLong(), d.getLong(), d.getLong(), d.getLong());
+        } finally {
+            digests.offer(md);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 令牌的 SHA-256 摘要 */
+    private record TokenKey(long a, long b, long c, long d) {}
+
+    int cacheSize() { return verified == null ? 0 : verified.size(); }
+
+    private Claims verifyUncached(String token, long nowSeconds) {
+        try {
+            int first = token.indexOf('.');
+            int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+            if (second < 0 || token.indexOf('.', second + 1) >= 0) return null;
+            String expected = hmacSha256(token.substring(0, second));
+            byte[] actual = token.substring(second + 1).getBytes(StandardCharsets.US_ASCII);
+            if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), actual)) return null;
+
+            String json = new String(Base64.getUrlDecoder().decode(token.substring(first + 1, second)), StandardCharsets.UTF_8);
+            Map<String, Object> map = Json.parseObject(json);
+            long exp = ((Number) map.get("exp")).longValue();
+            if (nowSeconds > exp) return null;
+            return new Claims((String) map.get("sub"), (String) map.get("email"), exp);
+        } catch (RuntimeException e) {
             return null;
         }
     }
 
-    private String hmacSha256(String data, String key) {
+    private String hmacSha256(String data) {
+        Mac mac = macs.poll();
+        if (mac == null) mac = newMac();
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-            byte[] result = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(result);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            return B64.encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            macs.offer(mac);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
         }
     }
 
     private String base64Json(Map<String, Object> map) {
         String json = Json.minStringify(map);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+        return B64.encodeToString(json.getBytes(StandardCharsets.UTF_8));
     }
 
     public static class Claims {
         private final String subject;
         private final String email;
-        public Claims(String subject, String email) { this.subject = subject; this.email = email; }
+        private final long expiresAt;
+        public Claims(String subject, String email) { this(subject, email, Long.MAX_VALUE / 1000 - 1); }
+        public Claims(String subject, String email, long expiresAt) {
+            this.subject = subject;
+            this.email = email;
+            this.expiresAt = expiresAt;
+        }
         public String getSubject() { return subject; }
         public String getEmail() { return email; }
+        /** 过期时间（epoch 秒） */
+        public long getExpiresAt() { return expiresAt; }
     }
 
     // Minimal JSON util to avoid extra dependencies
@@ -85,34 +215,177 @@ public class JwtUtil {
             for (Map.Entry<String,Object> e: map.entrySet()) {
                 if (!first) sb.append(",");
                 first = false;
-                sb.append("\"").append(e.getKey()).append("\":");
+                quote(sb, e.getKey()).append(':');
                 Object v = e.getValue();
                 if (v instanceof Number) sb.append(v);
-                else sb.append("\"").append(v.toString()).append("\"");
+                else quote(sb, v.toString());
             }
             sb.append("}");
             return sb.toString();
         }
-        static Map<String,Object> minParse(String json) {
-            // very naive parser for flat objects: for demo only
-            java.util.HashMap<String,Object> m = new java.util.HashMap<>();
-            String body = json.trim();
-            if (body.startsWith("{") && body.endsWith("}")) {
-                body = body.substring(1, body.length()-1);
+
+        private static StringBuilder quote(StringBuilder sb, String s) {
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\') sb.append('\\').append(c);
+                else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                else sb.append(c);
+            }
+            return sb.append('"');
+        }
+
+        /**
+         * 单遍解析 JSON 对象：字符串（含转义）、整数/小数、true/false/null，嵌套的对象与数组按结构解析；
+         * 格式错误时抛 IllegalArgumentException
+         */
+        static Map<String,Object> parseObject(String json) {
+            Parser p = new Parser(json);
+            p.skipWhitespace();
+            Object value = p.value();
+            p.skipWhitespace();
+            if (!p.atEnd() || !(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = (Map<String, Object>) value;
+            return map;
+        }
+
+        private static final class Parser {
+            private final String s;
+            private int pos;
+
+            Parser(String s) { this.s = s; }
+
+            boolean atEnd() { return pos >= s.length(); }
+
+            void skipWhitespace() {
+                while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+            }
+
+            Object value() {
+                if (atEnd()) throw error("Unexpected end of input");
+                char c = s.charAt(pos);
+                switch (c) {
+                    case '{': return object();
+                    case '[': return array();
+                    case '"': return string();
+                    case 't': return literal("true", Boolean.TRUE);
+                    case 'f': return literal("false", Boolean.FALSE);
+                    case 'n': return literal("null", null);
+                    default:
+                        if (c == '-' || (c >= '0' && c <= '9')) return number();
+                        throw error("Unexpected character '" + c + "'");
+                }
+            }
+
+            private Map<String, Object> object() {
+                Map<String, Object> map = new HashMap<>();
+                pos++;
+                skipWhitespace();
+                if (peek('}')) { pos++; return map; }
+                while (true) {
+                    skipWhitespace();
+                    if (!peek('"')) throw error("Expected a key");
+                    String key = string();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    map.put(key, value());
+                    skipWhitespace();
+                    if (peek(',')) { pos++; continue; }
+                    expect('}');
+                    return map;
+                }
             }
-            if (body.isEmpty()) return m;
-            String[] parts = body.split(",");
-            for (String part : parts) {
-                String[] kv = part.split(":");
-                String k = kv[0].trim().replaceAll("^\"|\"$", "");
-                String raw = kv[1].trim();
-                if (raw.matches("^-?\\d+(\\.\\d+)?$")) {
-                    m.put(k, Long.parseLong(raw));
-                } else {
-                    m.put(k, raw.replaceAll("^\"|\"$", ""));
+
+            private List<Object> array() {
+                List<Object> list = new ArrayList<>();
+                pos++;
+                skipWhitespace();
+                if (peek(']')) { pos++; return list; }
+                while (true) {
+                    skipWhitespace();
+                    list.add(value());
+                    skipWhitespace();
+                    if (peek(',')) { pos++; continue; }
+                    expect(']');
+                    return list;
+                }
+            }
+
+            private String string() {
+                pos++;
+                StringBuilder sb = null;
+                int start = pos;
+                while (pos < s.length()) {
+                    char c = s.charAt(pos);
+                    if (c == '"') {
+                        String result = sb == null ? s.substring(start, pos) : sb.append(s, start, pos).toString();
+                        pos++;
+                        return result;
+                    }
+                    if (c == '\\') {
+                        if (sb == null) sb = new StringBuilder();
+                        sb.append(s, start, pos);
+                        if (pos + 1 >= s.length()) break;
+                        char e = s.charAt(pos + 1);
+                        pos += 2;
+                        switch (e) {
+                            case '"', '\\', '/' -> sb.append(e);
+                            case 'b' -> sb.append('\b');
+                            case 'f' -> sb.append('\f');
+                            case 'n' -> sb.append('\n');
+                            case 'r' -> sb.append('\r');
+                            case 't' -> sb.append('\t');
+                            case 'u' -> {
+                                if (pos + 4 > s.length()) throw error("Bad unicode escape");
+                                sb.append((char) Integer.parseInt(s, pos, pos + 4, 16));
+                                pos += 4;
+                            }
+                            default -> throw error("Bad escape '\\" + e + "'");
+                        }
+                        start = pos;
+                        continue;
+                    }
+                    pos++;
+                }
+                throw error("Unterminated string");
+            }
+
+            private Number number() {
+                int start = pos;
+                boolean decimal = false;
+                if (peek('-')) pos++;
+                while (pos < s.length()) {
+                    char c = s.charAt(pos);
+                    if (c >= '0' && c <= '9') pos++;
+                    else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') { decimal = true; pos++; }
+                    else break;
+                }
+                String text = s.substring(start, pos);
+                try {
+                    return decimal ? (Number) Double.parseDouble(text) : (Number) Long.parseLong(text);
+                } catch (NumberFormatException e) {
+                    throw error("Bad number '" + text + "'");
                 }
             }
-            return m;
+
+            private Object literal(String word, Object value) {
+                if (!s.startsWith(word, pos)) throw error("Unexpected token");
+                pos += word.length();
+                return value;
+            }
+
+            private boolean peek(char c) { return pos < s.length() && s.charAt(pos) == c; }
+
+            private void expect(char c) {
+                if (!peek(c)) throw error("Expected '" + c + "'");
+                pos++;
+            }
+
+            private IllegalArgumentException error(String message) {
+                return new IllegalArgumentException(message + " at position " + pos);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package com.resume.resumeai.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntToLongFunction;
+
+/**
+ * BCrypt 口令哈希与校验，在独立的有界线程池中执行：
+ * <ul>
+ *   <li>线程数默认取 CPU 核数的一半，登录/注册洪峰最多占用这部分 CPU，其他接口不被饿死；</li>
+ *   <li>排队数超过 max-queue 或等待超过 timeout-ms 时立即抛出 {@link PasswordHasherBusyException}（503）；</li>
+ *   <li>strength=0 时启动阶段按 target-ms 标定工作因子：在 min-strength 下实测一次耗时，每加 1 耗时翻倍，
+ *       取不超过目标的最大值（不超过 max-strength）；</li>
+ *   <li>登录成功且已存哈希的工作因子低于当前值时，在池中后台重新哈希，回写在池外的虚拟线程中进行
+ *       （只升不降，避免多实例标定结果不同时来回改写）。</li>
+ * </ul>
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final int strength;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    /** 重新哈希后的回写（数据库 I/O）不占用哈希线程 */
+    private final ExecutorService callbacks = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("password-rehash-", 0).factory());
+    private final long timeoutMillis;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHasher(MeterRegistry meterRegistry,
+                          @Value("${auth.password.strength:0}") int strength,
+                          @Value("${auth.password.target-ms:250}") long targetMs,
+                          @Value("${auth.password.min-strength:10}") int minStrength,
+                          @Value("${auth.password.max-strength:14}") int maxStrength,
+                          @Value("${auth.password.threads:0}") int threads,
+                          @Value("${auth.password.max-queue:64}") int maxQueue,
+                          @Value("${auth.password.timeout-ms:5000}") long timeoutMs) {
+        this(meterRegistry,
+                strength > 0 ? strength : calibrate(minStrength, maxStrength, targetMs, PasswordHasher::measureNanos),
+                threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                maxQueue, timeoutMs);
+        log.info("password hashing: bcrypt strength={} (configured={}, target={}ms), threads={}, maxQueue={}",
+                this.strength, strength, targetMs, executor.getMaximumPoolSize(), maxQueue);
+    }
+
+    /** 固定工作因子，不做标定 */
+    public PasswordHasher(MeterRegistry meterRegistry, int strength, int threads, int maxQueue, long timeoutMillis) {
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger seq = new AtomicInteger();
+        // BCrypt 纯 CPU 计算，使用平台线程；队列有界，满时由 AbortPolicy 拒绝
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueue)), r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        Gauge.builder("auth.password.queue", executor, e -> e.getQueue().size())
+                .description("等待口令哈希的请求数")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("因口令哈希队列已满或超时被拒绝的请求数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 标定工作因子：measure(s) 返回在 s 下一次哈希的纳秒数，只在 minStrength 下实测
+     */
+    static int calibrate(int minStrength, int maxStrength, long targetMs, IntToLongFunction measure) {
+        int s = Math.max(4, minStrength);
+        int max = Math.min(31, Math.max(s, maxStrength));
+        long nanos = measure.applyAsLong(s);
+        long target = TimeUnit.MILLISECONDS.toNanos(targetMs);
+        while (s < max && nanos * 2 <= target) {
+            s++;
+            nanos *= 2;
+        }
+        return s;
+    }
+
+    private static long measureNanos(int strength) {
+        BCryptPasswordEncoder e = new BCryptPasswordEncoder(strength);
+        e.encode("calibration"); // 预热
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long t0 = System.nanoTime();
+            e.encode("calibration");
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+
+    public int strength() { return strength; }
+
+    public String hash(String raw) {
+        return await(submit("hash", () -> encoder.encode(raw)));
+    }
+
+    public boolean verify(String raw, String hash) {
+        if (raw == null || hash == null) return false;
+        return await(submit("verify", () -> encoder.matches(raw, hash)));
+    }
+
+    /**
+     * 已存哈希的工作因子低于当前值时需要重新哈希；无法识别的格式不处理
+     */
+    public boolean needsRehash(String hash) {
+        int stored = strengthOf(hash);
+        return stored > 0 && stored < strength;
+    }
+
+    /**
+     * 在池中后台重新哈希，完成后在池外回调 onHashed；池已满时放弃，下次登录再试
+     */
+    public void rehashAsync(String raw, Consumer<String> onHashed) {
+        CompletableFuture<String> hashed;
+        try {
+            hashed = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return timed("rehash", () -> encoder.encode(raw));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.debug("password hashing pool busy, skipping rehash");
+            return;
+        }
+        hashed.thenAcceptAsync(onHashed, callbacks).exceptionally(e -> {
+            log.warn("password rehash failed: {}", e.getMessage());
+            return null;
+        });
+    }
+
+    /** $2a$10$... 形式中的工作因子，解析失败返回 -1 */
+    static int strengthOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') return -1;
+        char d1 = hash.charAt(4), d2 = hash.charAt(5);
+        if (!Character.isDigit(d1) || !Character.isDigit(d2)) return -1;
+        return (d1 - '0') * 10 + (d2 - '0');
+    }
+
+    <T> Future<T> submit(String op, Callable<T> task) {
+        try {
+            return executor.submit(() -> timed(op, task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHasherBusyException();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHasherBusyException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHasherBusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T timed(String op, Callable<T> task) throws Exception {
+        return Timer.builder("auth.password.hash")
+                .description("BCrypt 计算耗时")
+                .tag("op", op)
+                .register(meterRegistry)
+                .recordCallable(task);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        callbacks.shutdownNow();
+    }
+}
@@ -0,0 +1,10 @@
+package com.resume.resumeai.security;
+
+/**
+ * 口令哈希线程池已满或等待超时，调用方应稍后重试
+ */
+public class PasswordHasherBusyException extends RuntimeException {
+    public PasswordHasherBusyException() {
+        super("Authentication service is busy, please retry later");
+    }
+}
@@ -1,5 +1,6 @@
 package com.resume.resumeai.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,16 +12,26 @@ import com.resume.resumeai.middleware.RequestLoggingFilter;
 
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.util.List;
+
 @Configuration
 public class SecurityConfig {
 
+    /** SSE 流式接口（produces text/event-stream），请求日志不包装其响应 */
+    static final List<String> EVENT_STREAM_ROUTES = List.of("/api/ai/polish/stream", "/api/ai/match-report/stream");
+
     @Bean
     public JwtAuthFilter jwtAuthFilter(JwtUtil jwtUtil) {
         return new JwtAuthFilter(jwtUtil);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter,
+                                           @Value("${request-logging.enabled:true}") boolean requestLogging,
+                                           @Value("${request-logging.sample-rate:0.1}") double sampleRate,
+                                           @Value("${request-logging.slow-threshold-ms:1000}") long slowThresholdMs,
+                                           @Value("${request-logging.body-capture:on-error}") String bodyCapture,
+                                           @Value("${request-logging.max-body-bytes:2048}") int maxBodyBytes) throws Exception {
         http.csrf(csrf -> csrf.disable())
             .cors(cors -> {})
             .authorizeHttpRequests(reg -> reg
@@ -37,7 +48,9 @@ public class SecurityConfig {
                 res.getWriter().write("{\"code\":\"UNAUTHORIZED\",\"message\":\"Missing or invalid token\"}");
             }));
 
-        http.addFilterBefore(new RequestLoggingFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(new RequestLoggingFilter(requestLogging, sampleRate, slowThresholdMs,
+                RequestLoggingFilter.BodyCapture.parse(bodyCapture), maxBodyBytes, EVENT_STREAM_ROUTES),
+                UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
@@ -20,4 +20,17 @@ public final class SecurityUtil {
             throw new SecurityException("Invalid principal");
         }
     }
+
+    /**
+     * 当前登录用户 ID；未登录或主体不是用户 ID 时返回 null
+     */
+    public static Long getCurrentUserIdOrNull() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getPrincipal() == null) return null;
+        try {
+            return Long.parseLong(auth.getPrincipal().toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
\ No newline at end of file
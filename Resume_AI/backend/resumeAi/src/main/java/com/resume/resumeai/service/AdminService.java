@@ -1,6 +1,7 @@
 package com.resume.resumeai.service;
 
-import com.resume.resumeai.crawler.CrawlerService;
+import com.resume.resumeai.crawler.CrawlerExecutor;
+import com.resume.resumeai.crawler.CrawlerScheduler;
 import com.resume.resumeai.domain.CrawlerTask;
 import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.domain.User;
@@ -9,10 +10,13 @@ import com.resume.resumeai.repository.JobRepository;
 import com.resume.resumeai.repository.ResumeRepository;
 import com.resume.resumeai.repository.TemplateRepository;
 import com.resume.resumeai.repository.UserRepository;
+import com.resume.resumeai.util.CursorPage;
+import com.resume.resumeai.util.PageCursor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -24,31 +28,34 @@ public class AdminService {
     private final CrawlerTaskRepository crawlerTaskRepository;
     private final TemplateRepository templateRepository;
     private final JobRepository jobRepository;
-    private final CrawlerService crawlerService;
+    private final CrawlerExecutor crawlerExecutor;
+    private final CrawlerScheduler crawlerScheduler;
+    private final JobCountService jobCountService;
+    private final AdminStatsService adminStatsService;
 
     public AdminService(UserRepository userRepository, 
                         ResumeRepository resumeRepository,
                         CrawlerTaskRepository crawlerTaskRepository,
                         TemplateRepository templateRepository,
                         JobRepository jobRepository,
-                        CrawlerService crawlerService) {
+                        CrawlerExecutor crawlerExecutor,
+                        CrawlerScheduler crawlerScheduler,
+                        JobCountService jobCountService,
+                        AdminStatsService adminStatsService) {
         this.userRepository = userRepository;
         this.resumeRepository = resumeRepository;
         this.crawlerTaskRepository = crawlerTaskRepository;
         this.templateRepository = templateRepository;
         this.jobRepository = jobRepository;
-        this.crawlerService = crawlerService;
+        this.crawlerExecutor = crawlerExecutor;
+        this.crawlerScheduler = crawlerScheduler;
+        this.jobCountService = jobCountService;
+        this.adminStatsService = adminStatsService;
     }
 
     public Map<String, Object> getStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("userCount", userRepository.count());
-        stats.put("resumeCount", resumeRepository.count(null));
-        stats.put("jobCount", jobRepository.count(null, null));
-        
-        // Real chart data from JobRepository
-        stats.put("crawlTrend", jobRepository.getCrawlTrend());
-        stats.put("sourceDistribution", jobRepository.getSourceDistribution());
+        Map<String, Object> stats = adminStatsService.snapshot(LocalDate.now());
+        stats.put("jobCount", jobCountService.total());
 
         // Mock activity for now, can be implemented with real logs later
         stats.put("recentActivity", List.of(
@@ -57,15 +64,40 @@ public class AdminService {
         return stats;
     }
 
+    /**
+     * 从业务表全量重算统计聚合数据
+     */
+    public void rebuildStats() {
+        adminStatsService.rebuild();
+    }
+
     public List<User> listUsers(int page, int pageSize) {
         return userRepository.findAll(page, pageSize);
     }
 
+    /**
+     * 键集分页列出用户，cursor 为上一页返回的 nextCursor，为空时从第一页开始
+     */
+    public CursorPage<User> listUsersAfter(String cursor, int pageSize) {
+        PageCursor after = PageCursor.decode(cursor);
+        int limit = Math.max(1, pageSize);
+        List<User> rows = userRepository.findAfter(after == null ? null : after.id(), limit + 1);
+        return CursorPage.of(rows, limit, u -> new PageCursor(0, 0, u.getId()));
+    }
+
+    /**
+     * 键集分页列出职位（按抓取时间倒序），不统计总数，翻页深度不影响耗时
+     */
+    public CursorPage<JobPosition> listJobsAfter(String cursor, int pageSize) {
+        int limit = Math.max(1, pageSize);
+        List<JobPosition> rows = jobRepository.searchAfter(null, null, PageCursor.decode(cursor), limit + 1);
+        return CursorPage.of(rows, limit, j -> PageCursor.of(j.getCrawlTime(), j.getId()));
+    }
+
     public Map<String, Object> listJobs(int page, int pageSize) {
         int offset = (page - 1) * pageSize;
         List<JobPosition> items = jobRepository.findAll(offset, pageSize);
-        int total = jobRepository.count(null, null);
-        return Map.of("items", items, "total", total);
+        return Map.of("items", items, "total", jobCountService.total());
     }
 
     @Transactional
@@ -92,18 +124,33 @@ public class AdminService {
         if (task.getId() == null) {
             task.setId(UUID.randomUUID().toString());
         }
-        task.setNextRun("Pending");
+        // 校验运行周期（无法识别时抛出 IllegalArgumentException）；创建后立即执行一次，之后按周期调度
+        LocalDateTime nextRun = crawlerScheduler.nextRun(task, LocalDateTime.now());
+        task.setNextRun(nextRun == null ? null : nextRun.toString());
         task.setStatus("Active");
+        task.setRunState(CrawlerTaskRepository.IDLE);
         crawlerTaskRepository.create(task);
-        
-        // Trigger crawler immediately in a separate thread (simplified)
-        new Thread(() -> {
-            crawlerService.runCrawler(task.getId(),task.getSource(), task.getQuery(), "全国"); // City hardcoded or add to task
-        }).start();
-        
+
+        // Queue for immediate execution; throws CrawlerQueueFullException when the queue is full
+        crawlerExecutor.enqueue(task);
         return task;
     }
 
+    /**
+     * 将已有任务重新放入执行队列
+     */
+    @Transactional
+    public CrawlerTask runCrawlerTask(String id) {
+        CrawlerTask task = crawlerTaskRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Crawler task not found"));
+        crawlerExecutor.enqueue(task);
+        return task;
+    }
+
+    public Map<String, Object> getCrawlerQueue() {
+        return crawlerExecutor.snapshot();
+    }
+
     @Transactional
     public void deleteCrawlerTask(String id) {
         crawlerTaskRepository.delete(id);
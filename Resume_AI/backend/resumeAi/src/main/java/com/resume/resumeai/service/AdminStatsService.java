@@ -0,0 +1,68 @@
+package com.resume.resumeai.service;
+
+import com.resume.resumeai.repository.StatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.*;
+
+/**
+ * 管理后台统计：从增量维护的聚合表读取实体计数、近 7 天抓取趋势与来源分布，
+ * 每次读取只访问几行聚合数据，不再扫描业务表。聚合表缺失（首次部署）时启动后全量重算一次。
+ */
+@Service
+public class AdminStatsService {
+    private static final Logger log = LoggerFactory.getLogger(AdminStatsService.class);
+    static final int TREND_DAYS = 7;
+    static final int TOP_SOURCES = 5;
+
+    private final StatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public AdminStatsService(StatsRepository statsRepository, PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (statsRepository.counters().containsKey(StatsRepository.REBUILT_AT)) return;
+        log.info("admin stats aggregates not initialized, rebuilding");
+        rebuild();
+    }
+
+    /**
+     * 清空并从业务表全量重算聚合数据
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> statsRepository.rebuild());
+        log.info("admin stats aggregates rebuilt in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * userCount、resumeCount、crawlTrend（近 7 天，date 为星期缩写）与 sourceDistribution（前 5 个来源站点）
+     */
+    public Map<String, Object> snapshot(LocalDate today) {
+        Map<String, Long> counters = statsRepository.counters();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("userCount", counters.getOrDefault(StatsRepository.USERS, 0L));
+        stats.put("resumeCount", counters.getOrDefault(StatsRepository.RESUMES, 0L));
+
+        List<Map<String, Object>> trend = new ArrayList<>();
+        for (Map<String, Object> row : statsRepository.dailyJobs(today.minusDays(TREND_DAYS - 1))) {
+            LocalDate day = (LocalDate) row.get("date");
+            trend.add(Map.of("date", day.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH), "count", row.get("count")));
+        }
+        stats.put("crawlTrend", trend);
+        stats.put("sourceDistribution", statsRepository.topSources(TOP_SOURCES));
+        return stats;
+    }
+}
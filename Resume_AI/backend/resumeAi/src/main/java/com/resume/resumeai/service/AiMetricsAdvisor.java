@@ -0,0 +1,130 @@
+package com.resume.resumeai.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ChatClientCustomizer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 按 AiService 操作（请求上下文中的 {@link #OPERATION}）记录模型调用指标：
+ * <ul>
+ *   <li>ai.llm.requests：调用耗时，标签 operation、mode（call/stream）、outcome（success/error/cancelled）；</li>
+ *   <li>ai.llm.first_token：流式调用收到首个分片的耗时；</li>
+ *   <li>ai.llm.tokens：每次调用的 token 数，标签 operation、type（prompt/completion），取模型返回的用量。</li>
+ * </ul>
+ * 缓存命中不经过模型，因此不计入；两个耗时指标的百分位直方图由 management.metrics.distribution.* 配置开启
+ */
+@Component
+public class AiMetricsAdvisor implements CallAdvisor, StreamAdvisor, ChatClientCustomizer {
+
+    /** 请求上下文中的操作名，由 AiService 通过 advisors(a -> a.param(...)) 传入 */
+    public static final String OPERATION = "ai.operation";
+
+    private final MeterRegistry meterRegistry;
+
+    public AiMetricsAdvisor(MeterRegistry meterRegistry) { this.meterRegistry = meterRegistry; }
+
+    @Override
+    public void customize(ChatClient.Builder builder) {
+        builder.defaultAdvisors(this);
+    }
+
+    @Override
+    public String getName() { return "aiMetrics"; }
+
+    /** 排在最外层，耗时包含其他 Advisor 的处理 */
+    @Override
+    public int getOrder() { return Ordered.HIGHEST_PRECEDENCE + 100; }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        String operation = operationOf(request);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            ChatClientResponse response = chain.nextCall(request);
+            outcome = "success";
+            recordUsage(operation, response == null ? null : response.chatResponse());
+            return response;
+        } finally {
+            timer(operation, "call", outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        String operation = operationOf(request);
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            AtomicReference<ChatResponse> last = new AtomicReference<>();
+            return chain.nextStream(request)
+                    .doOnNext(r -> {
+                        if (first.compareAndSet(true, false)) {
+                            Timer.builder("ai.llm.first_token")
+                                    .description("流式模型调用首个分片耗时")
+                                    .tag("operation", operation)
+                                    .register(meterRegistry)
+                                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                        // 开启 stream-usage 时用量在最后一个分片中返回
+                        if (AiUsageAdvisor.usageOf(r.chatResponse()) != null) last.set(r.chatResponse());
+                    })
+                    .doFinally(signal -> {
+                        String outcome = signal == SignalType.ON_COMPLETE ? "success"
+                                : signal == SignalType.CANCEL ? "cancelled" : "error";
+                        timer(operation, "stream", outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        recordUsage(operation, last.get());
+                    });
+        });
+    }
+
+    private Timer timer(String operation, String mode, String outcome) {
+        return Timer.builder("ai.llm.requests")
+                .description("模型调用耗时")
+                .tag("operation", operation)
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void recordUsage(String operation, ChatResponse chat) {
+        Usage usage = AiUsageAdvisor.usageOf(chat);
+        if (usage == null) return;
+        tokens(operation, "prompt", usage.getPromptTokens());
+        tokens(operation, "completion", usage.getCompletionTokens());
+    }
+
+    private void tokens(String operation, String type, Integer count) {
+        if (count == null || count <= 0) return;
+        DistributionSummary.builder("ai.llm.tokens")
+                .description("每次模型调用的 token 数")
+                .baseUnit("tokens")
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(count);
+    }
+
+    private static String operationOf(ChatClientRequest request) {
+        Object op = request.context().get(OPERATION);
+        return op == null ? "unknown" : op.toString();
+    }
+}
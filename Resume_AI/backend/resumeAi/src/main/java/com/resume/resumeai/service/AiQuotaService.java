@@ -0,0 +1,79 @@
+package com.resume.resumeai.service;
+
+import com.resume.resumeai.domain.AiUsage;
+import com.resume.resumeai.repository.AiUsageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * 每个用户每天的 AI 调用配额：请求次数与 token 数，按服务器时区的自然日重置。
+ * 计数保存在 ai_usage 表中，所有后端实例共享；AI 请求本身耗时数秒，每次一两条 SQL 的开销可以忽略
+ */
+@Service
+public class AiQuotaService {
+    private final AiUsageRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long dailyRequests;
+    private final long dailyTokens;
+    private final Clock clock;
+
+    @Autowired
+    public AiQuotaService(AiUsageRepository repository,
+                          MeterRegistry meterRegistry,
+                          @Value("${ai.quota.enabled:true}") boolean enabled,
+                          @Value("${ai.quota.daily-requests:200}") long dailyRequests,
+                          @Value("${ai.quota.daily-tokens:200000}") long dailyTokens) {
+        this(repository, meterRegistry, enabled, dailyRequests, dailyTokens, Clock.systemDefaultZone());
+    }
+
+    AiQuotaService(AiUsageRepository repository, MeterRegistry meterRegistry, boolean enabled,
+                   long dailyRequests, long dailyTokens, Clock clock) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.dailyRequests = dailyRequests;
+        this.dailyTokens = dailyTokens;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * 当天配额未用完时计入一次请求并返回 true
+     */
+    public boolean tryAcquire(long userId) {
+        if (!enabled) return true;
+        boolean ok = repository.tryCountRequest(userId, LocalDate.now(clock), dailyRequests, dailyTokens);
+        meterRegistry.counter("ai.quota.requests", "result", ok ? "allowed" : "rejected").increment();
+        return ok;
+    }
+
+    /**
+     * 记录一次模型调用消耗的 token 数，计入当天用量
+     */
+    public void recordTokens(long userId, long tokens) {
+        if (!enabled || tokens <= 0) return;
+        repository.addTokens(userId, LocalDate.now(clock), tokens);
+        meterRegistry.counter("ai.quota.tokens").increment(tokens);
+    }
+
+    public AiUsage usage(long userId) {
+        return repository.find(userId, LocalDate.now(clock));
+    }
+
+    /**
+     * 距配额重置（次日零点）的秒数
+     */
+    public long secondsUntilReset() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        return Math.max(1, Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay(now.getZone())).toSeconds());
+    }
+}
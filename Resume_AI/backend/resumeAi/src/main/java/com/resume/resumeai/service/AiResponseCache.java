@@ -0,0 +1,202 @@
+package com.resume.resumeai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resume.resumeai.domain.AiCacheEntry;
+import com.resume.resumeai.repository.AiCacheRepository;
+import com.resume.resumeai.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * AI 响应缓存：以 (操作, 系统提示词, 用户内容, 模型, 温度) 归一化后的 SHA-256 为键，
+ * 缓存经 sanitizeJson 与解析后结果的 JSON 序列化文本，命中时跳过模型调用，并为每次命中反序列化出新实例，
+ * 调用方修改返回的 DTO 不会影响缓存条目。内存层按容量与 TTL 淘汰；开启持久化后写穿到 ai_response_cache 表，重启后内存未命中时回源该表。
+ */
+@Component
+public class AiResponseCache {
+    private static final Logger log = LoggerFactory.getLogger(AiResponseCache.class);
+
+    private final boolean enabled;
+    private final boolean persist;
+    private final String model;
+    private final String temperature;
+    private final LruCache<String, String> memory;
+    private final AiCacheRepository repository;
+    private final ObjectMapper mapper;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AiResponseCache(AiCacheRepository repository,
+                           ObjectMapper mapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${ai.cache.enabled:true}") boolean enabled,
+                           @Value("${ai.cache.max-entries:1000}") int maxEntries,
+                           @Value("${ai.cache.ttl-minutes:1440}") long ttlMinutes,
+                           @Value("${ai.cache.persist:false}") boolean persist,
+                           @Value("${spring.ai.openai.chat.options.model:}") String model,
+                           @Value("${spring.ai.openai.chat.options.temperature:}") String temperature) {
+        this(repository, mapper, meterRegistry, enabled, maxEntries, ttlMinutes, persist, model, temperature,
+                System::currentTimeMillis);
+    }
+
+    AiResponseCache(AiCacheRepository repository, ObjectMapper mapper, MeterRegistry meterRegistry,
+                    boolean enabled, int maxEntries, long ttlMinutes, boolean persist,
+                    String model, String temperature, LongSupplier clock) {
+        if (ttlMinutes <= 0) throw new IllegalArgumentException("ai.cache.ttl-minutes must be positive");
+        this.repository = repository;
+        this.mapper = mapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.persist = persist && repository != null;
+        this.model = model == null ? "" : model;
+        this.temperature = temperature == null ? "" : temperature;
+        this.clock = clock;
+        this.memory = new LruCache<>(maxEntries, Duration.ofMinutes(ttlMinutes), clock);
+        Gauge.builder("ai.cache.entries", memory, LruCache::size)
+                .description("AI 响应缓存内存条目数")
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.cache.evictions", memory, LruCache::evictions)
+                .description("AI 响应缓存因容量或过期淘汰的条目数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动后清理持久化表中的过期条目
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeExpired() {
+        if (!enabled || !persist) return;
+        try {
+            int n = repository.deleteExpired(toDateTime(clock.getAsLong()));
+            if (n > 0) log.info("purged {} expired ai cache entries", n);
+        } catch (Exception e) {
+            log.warn("ai cache purge failed", e);
+        }
+    }
+
+    /**
+     * 计算缓存键：空白归一化后拼接各要素再取 SHA-256
+     */
+    public String key(String operation, String system, String user) {
+        String basis = operation + '\u0000' + model + '\u0000' + temperature + '\u0000'
+                + normalize(system) + '\u0000' + normalize(user);
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(basis.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 查询缓存，未命中返回 null
+     */
+    public <T> T get(String operation, String key, Class<T> type) {
+        if (!enabled) return null;
+        String json = memory.get(key);
+        if (json == null && persist) json = load(key);
+        if (json != null) {
+            try {
+                T v = mapper.readValue(json, type);
+                count(operation, "hit");
+                return v;
+            } catch (Exception ex) {
+                log.warn("ai cache decode failed, op={}", operation, ex);
+            }
+        }
+        count(operation, "miss");
+        return null;
+    }
+
+    /**
+     * 写入缓存；仅应写入成功解析的结果，解析失败的兜底响应不缓存
+     */
+    public void put(String operation, String key, Object value) {
+        if (!enabled || value == null) return;
+        String json;
+        try {
+            json = mapper.writeValueAsString(value);
+        } catch (Exception ex) {
+            log.warn("ai cache encode failed, op={}", operation, ex);
+            return;
+        }
+        memory.put(key, json);
+        if (!persist) return;
+        try {
+            long now = clock.getAsLong();
+            AiCacheEntry e = new AiCacheEntry();
+            e.setCacheKey(key);
+            e.setOperation(operation);
+            e.setPayload(json);
+            e.setCreatedAt(toDateTime(now));
+            e.setExpiresAt(toDateTime(now + memory.ttlMillis()));
+            repository.upsert(e);
+        } catch (Exception ex) {
+            log.warn("ai cache persist failed, op={}", operation, ex);
+        }
+    }
+
+    private String load(String key) {
+        try {
+            AiCacheEntry e = repository.findValid(key, toDateTime(clock.getAsLong()));
+            if (e == null || e.getPayload() == null) return null;
+            memory.put(key, e.getPayload(), e.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            return e.getPayload();
+        } catch (Exception ex) {
+            log.warn("ai cache load failed, key={}", key, ex);
+            return null;
+        }
+    }
+
+    private void count(String operation, String result) {
+        counters.computeIfAbsent(operation + ':' + result, k -> Counter.builder("ai.cache.requests")
+                .description("AI 响应缓存查询次数")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry)).increment();
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    static String normalize(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean space = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+            } else {
+                if (space) sb.append(' ');
+                space = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -2,6 +2,8 @@ package com.resume.resumeai.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.resume.resumeai.domain.dto.ai.*;
@@ -13,9 +15,13 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * 基于 Spring AI 的后端 AI 服务
@@ -23,19 +29,24 @@ import java.util.Map;
 @Service
 public class AiService {
     private static final Logger log = LoggerFactory.getLogger(AiService.class);
+    private static final String MATCH_REPORT_SYSTEM = "你是 HR 招聘顾问，请对候选人的简历与岗位 JD 进行细致匹配分析并给出建议。所有评分范围为 0-100，分数越高表示越匹配。";
     private final ChatClient chatClient;
     private final ObjectMapper mapper;
+    private final AiResponseCache cache;
+    private final MeterRegistry meterRegistry;
 
-    public AiService(ChatClient.Builder chatClientBuilder, ObjectMapper mapper) {
+    public AiService(ChatClient.Builder chatClientBuilder, ObjectMapper mapper, AiResponseCache cache, MeterRegistry meterRegistry) {
         this.chatClient = chatClientBuilder.build();
         this.mapper = mapper;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * 清洗模型返回的 JSON 文本，移除 Markdown 代码块围栏与语言标记。
      * 适配形态：```json { ... } ```、``` { ... } ```、前缀为"json\n"。
      */
-    private String sanitizeJson(String s) {
+    static String sanitizeJson(String s) {
         if (s == null) return null;
         String t = s.trim();
         t = t.replaceFirst("(?s)^```(?:json)?\\s*", "");
@@ -48,30 +59,52 @@ public class AiService {
      * 简历润色
      */
     public ResumePolishResponse polish(ResumePolishRequest req) {
+        String sys = polishSystem(req);
+        String content = polishContent(req);
+        String cacheKey = cache.key("polish", sys, content);
+        ResumePolishResponse cached = cache.get("polish", cacheKey, ResumePolishResponse.class);
+        if (cached != null) return cached;
+
+        String json = prompt("polish", sys, content).call().content();
+        return parsePolish(json, req, cacheKey);
+    }
+
+    /**
+     * 简历润色（流式）：逐段推送模型输出，结束后推送解析后的完整结果；缓存命中时直接推送结果
+     */
+    public Flux<AiStreamEvent> polishStream(ResumePolishRequest req) {
+        String sys = polishSystem(req);
+        String content = polishContent(req);
+        String cacheKey = cache.key("polish", sys, content);
+        return stream("polish", sys, content, cacheKey, ResumePolishResponse.class,
+                json -> parsePolish(json, req, cacheKey));
+    }
+
+    private String polishSystem(ResumePolishRequest req) {
         String language = req.getLanguage() == null ? "zh" : req.getLanguage();
-        String sys = "你是资深简历顾问，面向" + (req.getIndustry() == null ? "通用行业" : req.getIndustry()) +
+        return "你是资深简历顾问，面向" + (req.getIndustry() == null ? "通用行业" : req.getIndustry()) +
                 "的" + (req.getRole() == null ? "岗位" : req.getRole()) + "，请在保持事实的前提下优化语法与表达。" +
                 "以" + ("zh".equalsIgnoreCase(language) ? "中文" : "英文") + "输出。";
+    }
 
+    private String polishContent(ResumePolishRequest req) {
         String instruction = "请严格输出 JSON：{\n  \"polished_text\": string\n}";
-        String content = "原始简历：\n" + req.getText() + "\n\n" + instruction;
+        return "原始简历：\n" + req.getText() + "\n\n" + instruction;
+    }
 
-        String json = chatClient
-                .prompt()
-                .system(sys)
-                .user(content)
-                .call()
-                .content();
-        json = sanitizeJson(json);
+    private ResumePolishResponse parsePolish(String raw, ResumePolishRequest req, String cacheKey) {
+        String json = sanitizeJson(raw);
         log.debug("polish response: {}", json);
         try {
             ResumePolishResponse resp = mapper.readValue(json, ResumePolishResponse.class);
             if (resp.getPolishedText() == null || resp.getPolishedText().isBlank()) {
                 resp.setPolishedText(req.getText());
             }
+            cache.put("polish", cacheKey, resp);
             return resp;
         } catch (Exception e) {
             log.warn("polish parse error", e);
+            parseFailed("polish");
             ResumePolishResponse fallback = new ResumePolishResponse();
             fallback.setPolishedText(json);
             return fallback;
@@ -96,28 +129,35 @@ public class AiService {
         try { content = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(payload) + "\n" + instruction; }
         catch (Exception ex) { content = (req.getResumeText() == null ? "" : req.getResumeText()); }
 
-        String json = chatClient
-                .prompt()
-                .system(sys)
-                .user(content)
-                .call()
-                .content();
-        json = sanitizeJson(json);
-        log.debug("recommend response: {}", json);
-        JobRecommendResponse result = new JobRecommendResponse();
-        try {
-            Map<String, Object> map = mapper.readValue(json, new TypeReference<Map<String, Object>>(){});
-            List<JobRecommendItem> items = mapper.convertValue(map.get("items"), new TypeReference<List<JobRecommendItem>>(){});
-            // 过滤与排序
-            items = items == null ? List.of() : items;
-            if (minScore != null) { items = items.stream().filter(i -> i.getScore() != null && i.getScore() >= minScore).toList(); }
-            if (cityFilter != null && !cityFilter.isEmpty()) { items = items.stream().filter(i -> cityFilter.equalsIgnoreCase(i.getLocation())).toList(); }
-            if ("score_desc".equalsIgnoreCase(sort)) { items = items.stream().sorted((a,b) -> Double.compare(b.getScore()==null?0:b.getScore(), a.getScore()==null?0:a.getScore())).toList(); }
-            result.setItems(items);
-        } catch (Exception e) {
-            log.warn("recommend parse error", e);
-            result.setItems(List.of());
+        // 缓存的是过滤排序前的完整结果，不同的 sort/minScore/cityFilter 可共用同一条缓存
+        String cacheKey = cache.key("recommend", sys, content);
+        JobRecommendResponse cached = cache.get("recommend", cacheKey, JobRecommendResponse.class);
+        List<JobRecommendItem> items;
+        if (cached != null) {
+            items = cached.getItems() == null ? List.of() : cached.getItems();
+        } else {
+            String json = prompt("recommend", sys, content).call().content();
+            json = sanitizeJson(json);
+            log.debug("recommend response: {}", json);
+            try {
+                Map<String, Object> map = mapper.readValue(json, new TypeReference<Map<String, Object>>(){});
+                items = mapper.convertValue(map.get("items"), new TypeReference<List<JobRecommendItem>>(){});
+                items = items == null ? List.of() : items;
+                JobRecommendResponse parsed = new JobRecommendResponse();
+                parsed.setItems(items);
+                cache.put("recommend", cacheKey, parsed);
+            } catch (Exception e) {
+                log.warn("recommend parse error", e);
+                parseFailed("recommend");
+                items = List.of();
+            }
         }
+        JobRecommendResponse result = new JobRecommendResponse();
+        // 过滤与排序
+        if (minScore != null) { items = items.stream().filter(i -> i.getScore() != null && i.getScore() >= minScore).toList(); }
+        if (cityFilter != null && !cityFilter.isEmpty()) { items = items.stream().filter(i -> cityFilter.equalsIgnoreCase(i.getLocation())).toList(); }
+        if ("score_desc".equalsIgnoreCase(sort)) { items = items.stream().sorted((a,b) -> Double.compare(b.getScore()==null?0:b.getScore(), a.getScore()==null?0:a.getScore())).toList(); }
+        result.setItems(items);
         return result;
     }
 
@@ -125,7 +165,26 @@ public class AiService {
      * 岗位匹配度报告
      */
     public MatchReportResponse matchReport(MatchReportRequest req) {
-        String sys = "你是 HR 招聘顾问，请对候选人的简历与岗位 JD 进行细致匹配分析并给出建议。所有评分范围为 0-100，分数越高表示越匹配。";
+        String content = matchReportContent(req);
+        String cacheKey = cache.key("match_report", MATCH_REPORT_SYSTEM, content);
+        MatchReportResponse cached = cache.get("match_report", cacheKey, MatchReportResponse.class);
+        if (cached != null) return cached;
+
+        String json = prompt("match_report", MATCH_REPORT_SYSTEM, content).call().content();
+        return parseMatchReport(json, cacheKey);
+    }
+
+    /**
+     * 岗位匹配度报告（流式）
+     */
+    public Flux<AiStreamEvent> matchReportStream(MatchReportRequest req) {
+        String content = matchReportContent(req);
+        String cacheKey = cache.key("match_report", MATCH_REPORT_SYSTEM, content);
+        return stream("match_report", MATCH_REPORT_SYSTEM, content, cacheKey, MatchReportResponse.class,
+                json -> parseMatchReport(json, cacheKey));
+    }
+
+    private String matchReportContent(MatchReportRequest req) {
         String instruction = "请严格输出标准的 JSON 格式（无注释、无多余文本）：\n" +
                 "{\n" +
                 "  \"overall_score\": number,\n" +
@@ -136,17 +195,13 @@ public class AiService {
                 "  \"suggestions\": [\"string\"],\n" +
                 "  \"missing_keywords\": [\"string\"]\n" +
                 "}";
-        String content = "简历内容：\n" + req.getResumeText() + "\n\n岗位描述：\n" + req.getJobDescription() +
+        return "简历内容：\n" + req.getResumeText() + "\n\n岗位描述：\n" + req.getJobDescription() +
                 (req.getCompanyCulture() != null ? ("\n\n公司文化/要求：\n" + req.getCompanyCulture()) : "") +
                 "\n\n请严格按此格式返回报告：" + instruction;
+    }
 
-        String json = chatClient
-                .prompt()
-                .system(sys)
-                .user(content)
-                .call()
-                .content();
-        json = sanitizeJson(json);
+    private MatchReportResponse parseMatchReport(String raw, String cacheKey) {
+        String json = sanitizeJson(raw);
         log.debug("match-report response: {}", json);
         try {
             JsonNode root = mapper.readTree(json);
@@ -173,9 +228,11 @@ public class AiService {
             resp.setAnalysis(analysis);
             resp.setSuggestions(suggestions);
             resp.setMissingKeywords(missingKeywords);
+            cache.put("match_report", cacheKey, resp);
             return resp;
         } catch (Exception e) {
             log.warn("match-report parse error", e);
+            parseFailed("match_report");
             MatchReportResponse fallback = new MatchReportResponse();
             try {
                 JsonNode root = mapper.readTree(json);
@@ -191,6 +248,49 @@ public class AiService {
         }
     }
 
+    /**
+     * 构造一次模型调用，operation 作为 Advisor 上下文参数传给 AiMetricsAdvisor 用于指标标签
+     */
+    private ChatClient.ChatClientRequestSpec prompt(String operation, String sys, String content) {
+        return chatClient
+                .prompt()
+                .advisors(a -> a.param(AiMetricsAdvisor.OPERATION, operation))
+                .system(sys)
+                .user(content);
+    }
+
+    private void parseFailed(String operation) {
+        Counter.builder("ai.parse.failures")
+                .description("模型输出无法解析为预期 JSON 的次数")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 流式调用模型：先推送 delta 事件，流结束后将拼接的全文交给 parser 解析并推送 result 事件；
+     * 出错时推送 error 事件后正常结束，避免客户端收到被截断的连接
+     */
+    private <T> Flux<AiStreamEvent> stream(String operation, String sys, String content, String cacheKey,
+                                           Class<T> type, Function<String, T> parser) {
+        return Flux.defer(() -> {
+            T cached = cache.get(operation, cacheKey, type);
+            if (cached != null) return Flux.just(AiStreamEvent.result(cached));
+            StringBuilder full = new StringBuilder();
+            return prompt(operation, sys, content)
+                    .stream()
+                    .content()
+                    .filter(chunk -> !chunk.isEmpty())
+                    .doOnNext(full::append)
+                    .map(AiStreamEvent::delta)
+                    .concatWith(Mono.fromCallable(() -> AiStreamEvent.result(parser.apply(full.toString()))))
+                    .onErrorResume(e -> {
+                        log.warn("{} stream error", operation, e);
+                        return Flux.just(AiStreamEvent.error("AI 服务调用失败，请稍后重试"));
+                    });
+        });
+    }
+
     private Double pickNumber(JsonNode root, String... keys) {
         for (String k : keys) {
             JsonNode n = root.get(k);
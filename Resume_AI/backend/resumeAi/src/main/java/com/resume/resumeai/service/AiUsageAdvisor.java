@@ -0,0 +1,105 @@
+package com.resume.resumeai.service;
+
+import com.resume.resumeai.security.SecurityUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ChatClientCustomizer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计每次模型调用消耗的 token 并计入当前用户的 AI 配额（{@link AiQuotaService}）。
+ * 作为默认 Advisor 挂到自动配置的 ChatClient.Builder 上，同步与流式调用都会经过。
+ * 模型未返回用量时（如流式调用未开启 stream-usage）按提示词与输出字符数粗略估算（约 2 字符 1 token）
+ */
+@Component
+public class AiUsageAdvisor implements CallAdvisor, StreamAdvisor, ChatClientCustomizer {
+    private static final Logger log = LoggerFactory.getLogger(AiUsageAdvisor.class);
+
+    private final AiQuotaService quotaService;
+
+    public AiUsageAdvisor(AiQuotaService quotaService) { this.quotaService = quotaService; }
+
+    @Override
+    public void customize(ChatClient.Builder builder) {
+        builder.defaultAdvisors(this);
+    }
+
+    @Override
+    public String getName() { return "aiUsage"; }
+
+    @Override
+    public int getOrder() { return 0; }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        Long userId = SecurityUtil.getCurrentUserIdOrNull();
+        ChatClientResponse response = chain.nextCall(request);
+        ChatResponse chat = response == null ? null : response.chatResponse();
+        record(userId, usedTokens(chat), request, text(chat));
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        // 订阅发生在请求线程上，此时读取用户；用量在最后的分片中返回，完成后再记录
+        Long userId = SecurityUtil.getCurrentUserIdOrNull();
+        AtomicLong tokens = new AtomicLong();
+        StringBuilder output = new StringBuilder();
+        return chain.nextStream(request)
+                .doOnNext(r -> {
+                    ChatResponse chat = r.chatResponse();
+                    long used = usedTokens(chat);
+                    if (used > 0) tokens.set(used);
+                    String t = text(chat);
+                    if (t != null) output.append(t);
+                })
+                .doFinally(signal -> record(userId, tokens.get(), request, output.toString()));
+    }
+
+    private void record(Long userId, long tokens, ChatClientRequest request, String output) {
+        if (userId == null) return;
+        if (tokens <= 0) tokens = estimate(request.prompt().getContents(), output);
+        try {
+            quotaService.recordTokens(userId, tokens);
+        } catch (Exception e) {
+            log.warn("failed to record AI token usage for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    static long estimate(String prompt, String output) {
+        long chars = (prompt == null ? 0 : prompt.length()) + (output == null ? 0 : output.length());
+        return (chars + 1) / 2;
+    }
+
+    private static long usedTokens(ChatResponse chat) {
+        Usage usage = usageOf(chat);
+        return usage == null ? 0 : usage.getTotalTokens();
+    }
+
+    /**
+     * 模型返回的用量；未返回或总数不大于 0 时为 null（流式调用只有最后一个分片带用量）
+     */
+    static Usage usageOf(ChatResponse chat) {
+        if (chat == null || chat.getMetadata() == null) return null;
+        Usage usage = chat.getMetadata().getUsage();
+        Integer total = usage == null ? null : usage.getTotalTokens();
+        return total == null || total <= 0 ? null : usage;
+    }
+
+    private static String text(ChatResponse chat) {
+        if (chat == null || chat.getResult() == null || chat.getResult().getOutput() == null) return null;
+        return chat.getResult().getOutput().getText();
+    }
+}
@@ -5,7 +5,7 @@ import com.resume.resumeai.domain.dto.LoginRequest;
 import com.resume.resumeai.domain.dto.RegisterRequest;
 import com.resume.resumeai.repository.UserRepository;
 import com.resume.resumeai.security.JwtUtil;
-import com.resume.resumeai.util.PasswordUtil;
+import com.resume.resumeai.security.PasswordHasher;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -14,10 +14,12 @@ import java.util.Map;
 public class AuthService {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final PasswordHasher passwordHasher;
 
-    public AuthService(UserRepository userRepository, JwtUtil jwtUtil) {
+    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
+        this.passwordHasher = passwordHasher;
     }
 
     public Map<String, Object> register(RegisterRequest req) {
@@ -26,7 +28,7 @@ public class AuthService {
         }
         User u = new User();
         u.setEmail(req.getEmail());
-        u.setPasswordHash(PasswordUtil.hash(req.getPassword()));
+        u.setPasswordHash(passwordHasher.hash(req.getPassword()));
         u.setNickname(req.getNickname());
         userRepository.create(u);
         String token = jwtUtil.issueToken(u.getId(), u.getEmail());
@@ -35,9 +37,14 @@ public class AuthService {
 
     public Map<String, Object> login(LoginRequest req) {
         User u = userRepository.findByEmail(req.getEmail());
-        if (u == null || !PasswordUtil.verify(req.getPassword(), u.getPasswordHash())) {
+        if (u == null || !passwordHasher.verify(req.getPassword(), u.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid credentials");
         }
+        if (passwordHasher.needsRehash(u.getPasswordHash())) {
+            Long userId = u.getId();
+            String oldHash = u.getPasswordHash();
+            passwordHasher.rehashAsync(req.getPassword(), hash -> userRepository.updatePassword(userId, oldHash, hash));
+        }
         String token = jwtUtil.issueToken(u.getId(), u.getEmail());
         return Map.of("token", token, "userId", u.getId());
     }
@@ -0,0 +1,188 @@
+package com.resume.resumeai.service;
+
+import com.resume.resumeai.domain.event.JobDeletedEvent;
+import com.resume.resumeai.domain.event.JobsSavedEvent;
+import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.util.LruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 职位总数统计，避免每次列表查询都对全表做一次 COUNT / LIKE 扫描：
+ * <ul>
+ *   <li>不带条件的总数取自内存计数器：启动后首次读取时 COUNT 一次，之后随写入/删除事件增减，
+ *       每隔 reconcile 间隔重新 COUNT 校准（其他实例的写入也会在校准时计入）；COUNT 在锁外执行且同一时刻只有一个，
+ *       校准期间其他读取直接返回当前值，写入/删除事件也不被阻塞；</li>
+ *   <li>带条件的总数按归一化后的 (keywords, city) 缓存，短 TTL，有职位写入或删除时整体失效；</li>
+ *   <li>总数超过 exact-scan-limit 时，带条件的总数改为在最新 exact-scan-limit 条职位中计数后按比例推算，
+ *       结果标记为估算值。</li>
+ * </ul>
+ */
+@Service
+public class JobCountService {
+
+    /**
+     * 统计结果；estimated 为 true 表示按抽样推算的近似值
+     */
+    public record JobCount(int total, boolean estimated) {}
+
+    /** 缓存键：关键词与城市转小写（LIKE 在 utf8mb4 默认排序规则下不区分大小写） */
+    private record Key(String keywords, String city) {}
+
+    private final JobRepository jobRepository;
+    private final int exactScanLimit;
+    private final long reconcileMillis;
+    private final LongSupplier clock;
+    private final LruCache<Key, JobCount> cache;
+    /** 每次写入/删除递增；读取方仅在计算期间代数未变时写入缓存，避免把写入前的结果缓存下来 */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Object counterLock = new Object();
+    /** 由 counterLock 保护；-1 表示尚未统计或需要重新统计 */
+    private long total = -1;
+    private long countedAt;
+    /** 由 counterLock 保护；进行中的 COUNT，没有时为 null */
+    private CompletableFuture<Long> counting;
+    /** 由 counterLock 保护；COUNT 进行期间收到的事件，COUNT 结束后叠加到结果上 */
+    private long pendingDelta;
+    private boolean pendingRecount;
+
+    @Autowired
+    public JobCountService(JobRepository jobRepository,
+                           @Value("${job.count.cache-ttl-seconds:30}") long cacheTtlSeconds,
+                           @Value("${job.count.cache-max-entries:1000}") int cacheMaxEntries,
+                           @Value("${job.count.exact-scan-limit:50000}") int exactScanLimit,
+                           @Value("${job.count.reconcile-seconds:600}") long reconcileSeconds) {
+        this(jobRepository, Duration.ofSeconds(cacheTtlSeconds), cacheMaxEntries, exactScanLimit,
+                Duration.ofSeconds(reconcileSeconds), System::currentTimeMillis);
+    }
+
+    JobCountService(JobRepository jobRepository, Duration cacheTtl, int cacheMaxEntries, int exactScanLimit,
+                    Duration reconcile, LongSupplier clock) {
+        this.jobRepository = jobRepository;
+        this.exactScanLimit = Math.max(1, exactScanLimit);
+        this.reconcileMillis = reconcile.toMillis();
+        this.clock = clock;
+        this.cache = new LruCache<>(cacheMaxEntries, cacheTtl, clock);
+    }
+
+    /**
+     * 职位总数（不带条件），取自维护的计数器
+     */
+    public int total() {
+        CompletableFuture<Long> flight;
+        long now;
+        synchronized (counterLock) {
+            now = clock.getAsLong();
+            if (total >= 0 && (reconcileMillis <= 0 || now - countedAt < reconcileMillis)) return (int) total;
+            if (counting != null) {
+                if (total >= 0) return (int) total;
+                flight = counting;
+            } else {
+                flight = null;
+                counting = new CompletableFuture<>();
+                pendingDelta = 0;
+                pendingRecount = false;
+            }
+        }
+        return flight == null ? (int) recount(now) : (int) await(flight);
+    }
+
+    /**
+     * 在锁外执行 COUNT，结束后叠加期间收到的事件并发布结果
+     */
+    private long recount(long startedAt) {
+        CompletableFuture<Long> flight;
+        long counted;
+        try {
+            counted = jobRepository.count(null, null);
+        } catch (RuntimeException e) {
+            synchronized (counterLock) {
+                flight = counting;
+                counting = null;
+            }
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        long result;
+        synchronized (counterLock) {
+            result = Math.max(0, counted + pendingDelta);
+            total = pendingRecount ? -1 : result;
+            countedAt = startedAt;
+            flight = counting;
+            counting = null;
+        }
+        flight.complete(result);
+        return result;
+    }
+
+    private static long await(CompletableFuture<Long> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    /**
+     * 满足条件的职位数；keywords、city 为空时等同 {@link #total()}
+     */
+    public JobCount count(String keywords, String city) {
+        String kw = blankToNull(keywords);
+        String c = blankToNull(city);
+        if (kw == null && c == null) return new JobCount(total(), false);
+
+        Key key = new Key(kw == null ? null : kw.toLowerCase(Locale.ROOT), c == null ? null : c.toLowerCase(Locale.ROOT));
+        JobCount cached = cache.get(key);
+        if (cached != null) return cached;
+
+        long gen = generation.get();
+        int all = total();
+        JobCount result;
+        if (all <= exactScanLimit) {
+            result = new JobCount(jobRepository.count(kw, c), false);
+        } else {
+            int matched = jobRepository.countInLatest(kw, c, exactScanLimit);
+            result = new JobCount((int) Math.round((double) matched * all / exactScanLimit), true);
+        }
+        if (generation.get() == gen) cache.put(key, result);
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobsSaved(JobsSavedEvent event) {
+        generation.incrementAndGet();
+        cache.clear();
+        synchronized (counterLock) {
+            if (counting != null) {
+                if (event.getInserted() < 0) pendingRecount = true;
+                else pendingDelta += event.getInserted();
+            }
+            if (total < 0) return;
+            if (event.getInserted() < 0) total = -1;
+            else total += event.getInserted();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobDeleted(JobDeletedEvent event) {
+        generation.incrementAndGet();
+        cache.clear();
+        synchronized (counterLock) {
+            if (counting != null) pendingDelta--;
+            if (total > 0) total--;
+        }
+    }
+
+    private static String blankToNull(String s) { return s == null || s.isBlank() ? null : s.trim(); }
+}
@@ -2,22 +2,80 @@ package com.resume.resumeai.service;
 
 import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.search.JobSearchHits;
+import com.resume.resumeai.search.JobSearchIndex;
+import com.resume.resumeai.util.CursorPage;
+import com.resume.resumeai.util.PageCursor;
 import com.resume.resumeai.util.PageUtil;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class JobService {
     private final JobRepository jobRepository;
-    public JobService(JobRepository jobRepository) { this.jobRepository = jobRepository; }
+    private final JobSearchIndex searchIndex;
+    private final JobCountService jobCountService;
+    public JobService(JobRepository jobRepository, JobSearchIndex searchIndex, JobCountService jobCountService) {
+        this.jobRepository = jobRepository;
+        this.searchIndex = searchIndex;
+        this.jobCountService = jobCountService;
+    }
+
+    /**
+     * 分页搜索并返回 items、total 与 totalEstimated；索引可回答该查询时一次索引遍历得到排序后的 id 与精确总数，再按 id 回表，
+     * 否则总数取自 {@link JobCountService}（缓存、计数器或估算值）
+     */
+    public Map<String, Object> searchPage(String keywords, String city, int page, int pageSize) {
+        String kw = blankToNull(keywords);
+        String c = blankToNull(city);
+        int offset = PageUtil.offset(page, pageSize);
+        if (searchIndex.canSearch(kw)) {
+            JobSearchHits hits = searchIndex.search(kw, c, offset, pageSize);
+            return Map.of("items", jobRepository.findByIds(hits.getJobIds()), "total", hits.getTotal(), "totalEstimated", false);
+        }
+        List<JobPosition> items = jobRepository.search(kw, c, offset, pageSize);
+        JobCountService.JobCount count = jobCountService.count(kw, c);
+        return Map.of("items", items, "total", count.total(), "totalEstimated", count.estimated());
+    }
+
+    /**
+     * 键集分页搜索：cursor 为上一页返回的 nextCursor，为空时从第一页开始；不统计总数。
+     * 索引就绪时按索引排序（有关键词时为相关度）过滤游标之前的命中，否则按 (crawl_time, id) 走数据库键集查询
+     */
+    public CursorPage<JobPosition> searchAfter(String keywords, String city, String cursor, int pageSize) {
+        String kw = blankToNull(keywords);
+        String c = blankToNull(city);
+        PageCursor after = PageCursor.decode(cursor);
+        int limit = Math.max(1, pageSize);
+        if (searchIndex.canSearch(kw)) {
+            JobSearchHits hits = searchIndex.searchAfter(kw, c, after, limit);
+            PageCursor next = hits.getNextCursor();
+            return new CursorPage<>(jobRepository.findByIds(hits.getJobIds()), next == null ? null : next.encode());
+        }
+        return CursorPage.of(jobRepository.searchAfter(kw, c, after, limit + 1), limit,
+                j -> PageCursor.of(j.getCrawlTime(), j.getId()));
+    }
 
     public List<JobPosition> search(String keywords, String city, int page, int pageSize) {
+        String kw = blankToNull(keywords);
+        String c = blankToNull(city);
         int offset = PageUtil.offset(page, pageSize);
-        return jobRepository.search(keywords, city, offset, pageSize);
+        if (searchIndex.canSearch(kw)) {
+            return jobRepository.findByIds(searchIndex.search(kw, c, offset, pageSize).getJobIds());
+        }
+        return jobRepository.search(kw, c, offset, pageSize);
     }
 
     public int count(String keywords, String city) {
-        return jobRepository.count(keywords, city);
+        String kw = blankToNull(keywords);
+        String c = blankToNull(city);
+        if (searchIndex.canSearch(kw)) {
+            return searchIndex.search(kw, c, 0, 0).getTotal();
+        }
+        return jobCountService.count(kw, c).total();
     }
-}
\ No newline at end of file
+
+    private static String blankToNull(String s) { return s == null || s.isBlank() ? null : s.trim(); }
+}
@@ -2,6 +2,8 @@ package com.resume.resumeai.service;
 
 import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.search.JobSearchHits;
+import com.resume.resumeai.search.JobSearchIndex;
 import com.resume.resumeai.util.TextMatcher;
 import org.springframework.stereotype.Service;
 
@@ -10,8 +12,13 @@ import java.util.stream.Collectors;
 
 @Service
 public class MatchService {
+    private static final int TOP_K = 10;
     private final JobRepository jobRepository;
-    public MatchService(JobRepository jobRepository) { this.jobRepository = jobRepository; }
+    private final JobSearchIndex searchIndex;
+    public MatchService(JobRepository jobRepository, JobSearchIndex searchIndex) {
+        this.jobRepository = jobRepository;
+        this.searchIndex = searchIndex;
+    }
 
     public Map<String, Object> recommend(Map<String, Object> payload) {
         String keywords = asString(payload.get("keywords"));
@@ -19,14 +26,6 @@ public class MatchService {
         if (resumeText == null) resumeText = asString(payload.get("resumeContent"));
         if (resumeText == null) resumeText = asString(payload.get("content"));
 
-        // 查询一页岗位，默认取前50条用于评分
-        List<JobPosition> candidates = jobRepository.search(
-                keywords != null ? keywords : resumeText,
-                null,
-                0,
-                50
-        );
-
         String explain;
         if (keywords != null && !keywords.isBlank()) {
             explain = "基于关键词检索与文本重合度打分";
@@ -39,34 +38,59 @@ public class MatchService {
         // 当未提供文本时直接返回最新岗位
         if ((keywords == null || keywords.isBlank()) && (resumeText == null || resumeText.isBlank())) {
             return Map.of(
-                    "items", candidates,
+                    "items", jobRepository.search(null, null, 0, 50),
                     "explain", explain
             );
         }
 
         String basis = keywords != null && !keywords.isBlank() ? keywords : resumeText;
-        final String basisText = basis;
-        List<Map<String, Object>> scored = candidates.stream()
+        List<Map<String, Object>> scored = searchIndex.isReady() ? matchAll(basis) : matchCandidates(basis);
+        return Map.of(
+                "items", scored,
+                "explain", explain
+        );
+    }
+
+    /**
+     * 基于索引中预计算的职位词向量对全量职位打分，仅为最终 Top-K 回表并构造结果
+     */
+    private List<Map<String, Object>> matchAll(String basis) {
+        JobSearchHits hits = searchIndex.match(basis, TOP_K);
+        Map<Long, Double> scoreById = new HashMap<>();
+        for (int i = 0; i < hits.getJobIds().size(); i++) {
+            scoreById.put(hits.getJobIds().get(i), hits.getScores().get(i));
+        }
+        List<Map<String, Object>> scored = new ArrayList<>(scoreById.size());
+        for (JobPosition j : jobRepository.findByIds(hits.getJobIds())) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("job", j);
+            m.put("score", scoreById.get(j.getId()));
+            scored.add(m);
+        }
+        return scored;
+    }
+
+    /**
+     * 索引未就绪时的回退：取 LIKE 检索到的前 50 条候选逐条打分
+     */
+    private List<Map<String, Object>> matchCandidates(String basis) {
+        List<JobPosition> candidates = jobRepository.search(basis, null, 0, 50);
+        return candidates.stream()
                 .map(j -> {
                     String jobText = String.join(" ",
                             nullToEmpty(j.getJobTitle()),
                             nullToEmpty(j.getCompanyName()),
                             nullToEmpty(j.getJobDescription())
                     );
-                    double score = TextMatcher.score(basisText, jobText);
+                    double score = TextMatcher.score(basis, jobText, TextMatcher.Mode.HASHED);
                     Map<String, Object> m = new LinkedHashMap<>();
                     m.put("job", j);
                     m.put("score", score);
                     return m;
                 })
                 .sorted((a, b) -> Double.compare((Double) b.get("score"), (Double) a.get("score")))
-                .limit(10)
+                .limit(TOP_K)
                 .collect(Collectors.toList());
-
-        return Map.of(
-                "items", scored,
-                "explain", explain
-        );
     }
 
     private static String asString(Object v) { return v == null ? null : String.valueOf(v); }
@@ -9,6 +9,8 @@ import com.resume.resumeai.domain.dto.ResumeCreateRequest;
 import com.resume.resumeai.domain.dto.ResumeUpdateRequest;
 import com.resume.resumeai.repository.ResumeRepository;
 import com.resume.resumeai.security.SecurityUtil;
+import com.resume.resumeai.util.CursorPage;
+import com.resume.resumeai.util.PageCursor;
 import com.resume.resumeai.util.PageUtil;
 
 @Service
@@ -64,6 +66,18 @@ public class ResumeService {
         return resumeRepository.listByUser(currentUserId, offset, pageSize, normalizedStatus);
     }
 
+    /**
+     * 键集分页查询当前用户的简历列表（按更新时间倒序）；cursor 为上一页返回的 nextCursor，为空时从第一页开始
+     */
+    public CursorPage<Resume> listAfter(String cursor, int pageSize, String status) {
+        PageCursor after = PageCursor.decode(cursor);
+        int limit = Math.max(1, pageSize);
+        Long currentUserId = SecurityUtil.getCurrentUserIdOrThrow();
+        String normalizedStatus = (status != null && status.trim().isEmpty()) ? null : status;
+        List<Resume> rows = resumeRepository.listAfter(currentUserId, normalizedStatus, after, limit + 1);
+        return CursorPage.of(rows, limit, r -> PageCursor.of(r.getUpdatedAt(), r.getId()));
+    }
+
     /**
      * 统计当前用户的简历数量；当 status 为空字符串时视为不筛选
      */
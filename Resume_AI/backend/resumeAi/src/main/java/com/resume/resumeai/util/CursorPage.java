@@ -0,0 +1,19 @@
+package com.resume.resumeai.util;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集分页的一页结果；nextCursor 为 null 表示没有下一页
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * 由多取一条的查询结果构造：rows 超过 limit 时截去多出的一条，并以本页最后一条生成下一页游标
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= limit) return new CursorPage<>(rows, null);
+        List<T> page = rows.subList(0, limit);
+        return new CursorPage<>(List.copyOf(page), cursorOf.apply(page.get(limit - 1)).encode());
+    }
+}
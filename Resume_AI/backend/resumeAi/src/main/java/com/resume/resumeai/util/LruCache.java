@@ -0,0 +1,102 @@
+package com.resume.resumeai.util;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 线程安全的 LRU 缓存，同时按容量与存活时间淘汰。
+ * 超出容量时淘汰最久未访问的条目；过期条目在被访问时惰性移除，写入时顺带清理队首的过期条目。
+ */
+public class LruCache<K, V> {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Item<V>> map;
+    private long evictions;
+
+    /**
+     * @param ttl 存活时间，为 null 或非正数时不过期
+     */
+    public LruCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::currentTimeMillis);
+    }
+
+    public LruCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl == null || ttl.isNegative() || ttl.isZero() ? 0 : ttl.toMillis();
+        this.clock = clock;
+        this.map = new LinkedHashMap<>(Math.min(maxEntries, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Item<V>> eldest) {
+                if (size() <= LruCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Item<V> e = map.get(key);
+        if (e == null) return null;
+        if (e.expiresAt != 0 && e.expiresAt <= clock.getAsLong()) {
+            map.remove(key);
+            evictions++;
+            return null;
+        }
+        return e.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlMillis == 0 ? 0 : clock.getAsLong() + ttlMillis);
+    }
+
+    /**
+     * 以指定的绝对过期时间（毫秒时间戳，0 表示不过期）写入，用于从持久化存储恢复条目
+     */
+    public synchronized void put(K key, V value, long expiresAtMillis) {
+        purgeExpiredHead();
+        map.put(key, new Item<>(value, expiresAtMillis));
+    }
+
+    public synchronized V remove(K key) {
+        Item<V> e = map.remove(key);
+        return e == null ? null : e.value;
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    /**
+     * 因容量或过期被淘汰的累计条目数
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public long ttlMillis() {
+        return ttlMillis;
+    }
+
+    private void purgeExpiredHead() {
+        if (ttlMillis == 0) return;
+        long now = clock.getAsLong();
+        Iterator<Item<V>> it = map.values().iterator();
+        while (it.hasNext()) {
+            Item<V> e = it.next();
+            if (e.expiresAt == 0 || e.expiresAt > now) break;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private record Item<V>(V value, long expiresAt) {}
+}
@@ -0,0 +1,58 @@
+package com.resume.resumeai.util;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 键集分页游标：记录上一页最后一条记录的排序键 (score, time, id)，下一页从其之后继续读取，
+ * 翻到多深都只读取一页的行，而不是像 LIMIT/OFFSET 那样扫描并丢弃前面所有行。
+ * time 为排序时间的毫秒值（LocalDateTime 按 UTC 换算），score 仅用于按相关度排序的检索。
+ * 对外编码为不透明的 base64url 字符串。
+ */
+public record PageCursor(double score, long time, long id) {
+    private static final byte VERSION = 1;
+    private static final int LENGTH = 1 + 8 + 8 + 8;
+
+    public static PageCursor of(LocalDateTime time, long id) {
+        return new PageCursor(0, time == null ? 0L : time.toInstant(ZoneOffset.UTC).toEpochMilli(), id);
+    }
+
+    public static PageCursor of(Instant time, long id) {
+        return new PageCursor(0, time == null ? 0L : time.toEpochMilli(), id);
+    }
+
+    public LocalDateTime localDateTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneOffset.UTC);
+    }
+
+    public Instant instant() {
+        return Instant.ofEpochMilli(time);
+    }
+
+    public String encode() {
+        ByteBuffer buf = ByteBuffer.allocate(LENGTH);
+        buf.put(VERSION).putDouble(score).putLong(time).putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    /**
+     * 解析游标；null 或空串表示从第一页开始，返回 null
+     *
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        if (bytes.length != LENGTH || bytes[0] != VERSION) throw new IllegalArgumentException("Invalid page cursor");
+        ByteBuffer buf = ByteBuffer.wrap(bytes, 1, LENGTH - 1);
+        return new PageCursor(buf.getDouble(), buf.getLong(), buf.getLong());
+    }
+}
@@ -1,6 +1,24 @@
 package com.resume.resumeai.util;
 
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
 public class TextMatcher {
+    /**
+     * 打分模式
+     */
+    public enum Mode {
+        /** 按空白切词后两两 equalsIgnoreCase 比较，O(|a|·|b|)，中文几乎切不出词 */
+        WHITESPACE,
+        /** 中英文分词（见 {@link TextTokenizer}）+ 词项哈希多重集计数，线性时间且不产生中间对象 */
+        HASHED
+    }
+
+    /** 请求跑在虚拟线程上，ThreadLocal 几乎不会命中，改为借还式的小池 */
+    private static final int SCRATCH_POOL_SIZE = 16;
+    private static final BlockingQueue<HashedScratch> SCRATCH = new ArrayBlockingQueue<>(SCRATCH_POOL_SIZE);
+
     public static double score(String a, String b) {
         if (a == null || b == null) return 0.0;
         String[] aa = a.split("\\s+");
@@ -9,4 +27,110 @@ public class TextMatcher {
         for (String x : aa) for (String y : bb) if (x.equalsIgnoreCase(y)) match++;
         return match / (double) Math.max(aa.length, bb.length);
     }
-}
\ No newline at end of file
+
+    public static double score(String a, String b, Mode mode) {
+        return mode == Mode.HASHED ? hashedScore(a, b) : score(a, b);
+    }
+
+    /**
+     * 重合度 = Σ min(a 中词频, b 中词频) / max(a 词数, b 词数)，取值 [0, 1]；任一侧无词项时返回 0。
+     * 词项以 64 位哈希计数（冲突概率可忽略），缓冲区与哈希表从池中借用。
+     */
+    public static double hashedScore(String a, String b) {
+        if (a == null || b == null) return 0.0;
+        HashedScratch s = SCRATCH.poll();
+        if (s == null) s = new HashedScratch();
+        try {
+            s.begin();
+            TextTokenizer.tokenize(a, s.buf, s);
+            s.probing = true;
+            TextTokenizer.tokenize(b, s.buf, s);
+            int max = Math.max(s.countA, s.countB);
+            return max == 0 ? 0.0 : s.overlap / (double) max;
+        } finally {
+            SCRATCH.offer(s);
+        }
+    }
+
+    /**
+     * 借出期间独占的开放寻址哈希表（token 哈希 -> 剩余次数），以代数戳实现 O(1) 清空。
+     * 第一遍写入 a 的词项计数，第二遍用 b 的词项逐个抵扣并累计重合数。
+     */
+    private static final class HashedScratch implements TextTokenizer.TokenSink {
+        final char[] buf = new char[TextTokenizer.MAX_TOKEN_LENGTH];
+        long[] keys = new long[256];
+        int[] counts = new int[256];
+        int[] stamps = new int[256];
+        int generation;
+        int used;
+        boolean probing;
+        int countA;
+        int countB;
+        int overlap;
+
+        void begin() {
+            if (++generation == 0) {
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+            used = 0;
+            probing = false;
+            countA = 0;
+            countB = 0;
+            overlap = 0;
+        }
+
+        @Override
+        public void accept(char[] token, int len) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < len; i++) {
+                h ^= token[i];
+                h *= 0x100000001b3L;
+            }
+            if (probing) {
+                countB++;
+                int i = find(h);
+                if (stamps[i] == generation && counts[i] > 0) {
+                    counts[i]--;
+                    overlap++;
+                }
+            } else {
+                countA++;
+                if ((used + 1) * 2 > keys.length) grow();
+                int i = find(h);
+                if (stamps[i] != generation) {
+                    stamps[i] = generation;
+                    keys[i] = h;
+                    counts[i] = 0;
+                    used++;
+                }
+                counts[i]++;
+            }
+        }
+
+        private int find(long h) {
+            int mask = keys.length - 1;
+            int i = (int) (h ^ (h >>> 32)) & mask;
+            while (stamps[i] == generation && keys[i] != h) i = (i + 1) & mask;
+            return i;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            int[] oldStamps = stamps;
+            int oldGen = generation;
+            keys = new long[oldKeys.length << 1];
+            counts = new int[keys.length];
+            stamps = new int[keys.length];
+            generation = 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldStamps[j] != oldGen) continue;
+                int i = find(oldKeys[j]);
+                stamps[i] = generation;
+                keys[i] = oldKeys[j];
+                counts[i] = oldCounts[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.resume.resumeai.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 中英文混合文本分词器：
+ * 拉丁字母/数字按连续片段切词并转小写（保留 c++、c# 这类尾随的 + / #），
+ * 汉字按相邻二元组（bigram）切分，孤立的单个汉字保留为一元词，其余字符视为分隔符。
+ * 分词结果写入调用方提供的字符缓冲区后回调 {@link TokenSink}，是否物化为字符串由调用方决定。
+ */
+public final class TextTokenizer {
+    /** 单个词项的最大长度，超长的拉丁词被截断 */
+    public static final int MAX_TOKEN_LENGTH = 64;
+
+    @FunctionalInterface
+    public interface TokenSink {
+        /** buf[0, len) 为当前词项；buf 会被复用，回调返回后内容即失效 */
+        void accept(char[] buf, int len);
+    }
+
+    private TextTokenizer() {}
+
+    public static void tokenize(CharSequence text, TokenSink sink) {
+        tokenize(text, new char[MAX_TOKEN_LENGTH], sink);
+    }
+
+    /**
+     * 使用调用方复用的缓冲区分词，buf 长度至少为 2
+     */
+    public static void tokenize(CharSequence text, char[] buf, TokenSink sink) {
+        if (text == null) return;
+        int n = text.length();
+        int wordLen = 0;
+        char prevCjk = 0;
+        int cjkRun = 0;
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (isCjk(c)) {
+                if (wordLen > 0) { sink.accept(buf, wordLen); wordLen = 0; }
+                if (cjkRun > 0) {
+                    buf[0] = prevCjk;
+                    buf[1] = c;
+                    sink.accept(buf, 2);
+                }
+                prevCjk = c;
+                cjkRun++;
+                continue;
+            }
+            if (cjkRun == 1) {
+                buf[0] = prevCjk;
+                sink.accept(buf, 1);
+            }
+            cjkRun = 0;
+            if (Character.isLetterOrDigit(c)) {
+                if (wordLen < buf.length) buf[wordLen++] = Character.toLowerCase(c);
+            } else if ((c == '+' || c == '#') && wordLen > 0) {
+                if (wordLen < buf.length) buf[wordLen++] = c;
+            } else if (wordLen > 0) {
+                sink.accept(buf, wordLen);
+                wordLen = 0;
+            }
+        }
+        if (cjkRun == 1) {
+            buf[0] = prevCjk;
+            sink.accept(buf, 1);
+        }
+        if (wordLen > 0) sink.accept(buf, wordLen);
+    }
+
+    /**
+     * 便捷方法：返回词项列表（会为每个词项分配字符串，热路径请使用回调形式）
+     */
+    public static List<String> tokens(CharSequence text) {
+        List<String> out = new ArrayList<>();
+        tokenize(text, (buf, len) -> out.add(new String(buf, 0, len)));
+        return out;
+    }
+
+    /**
+     * 判断是否为 CJK 统一表意文字（基本区、扩展 A 区与兼容区）
+     */
+    public static boolean isCjk(char c) {
+        return (c >= 0x4E00 && c <= 0x9FFF) || (c >= 0x3400 && c <= 0x4DBF) || (c >= 0xF900 && c <= 0xFAFF);
+    }
+}
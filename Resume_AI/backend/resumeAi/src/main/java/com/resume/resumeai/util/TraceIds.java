@@ -0,0 +1,35 @@
+package com.resume.resumeai.util;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 请求追踪 ID：16 位十六进制随机数，取自 ThreadLocalRandom，
+ * 不像 UUID.randomUUID() 那样经过 SecureRandom 的全局锁与熵源
+ */
+public final class TraceIds {
+    public static final String MDC_KEY = "traceId";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceIds() {}
+
+    public static String next() {
+        long v = ThreadLocalRandom.current().nextLong();
+        char[] out = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            out[i] = HEX[(int) (v & 0xF)];
+            v >>>= 4;
+        }
+        return new String(out);
+    }
+
+    /**
+     * 当前请求的追踪 ID（由 RequestLoggingFilter 写入 MDC），不在请求线程中时生成一个新的
+     */
+    public static String current() {
+        String id = MDC.get(MDC_KEY);
+        return id != null ? id : next();
+    }
+}
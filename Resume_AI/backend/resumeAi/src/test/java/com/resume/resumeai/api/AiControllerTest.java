@@ -11,12 +11,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -78,4 +85,24 @@ class AiControllerTest {
                 .andExpect(jsonPath("$.data.overall_score", is(85.0)))
                 .andExpect(jsonPath("$.data.suggestions[0]", containsString("优化")));
     }
+
+    @Test
+    @DisplayName("流式润色以 SSE 推送增量与最终结果")
+    void polish_stream_sse() throws Exception {
+        ResumePolishResponse resp = new ResumePolishResponse();
+        resp.setPolishedText("优化后的文本");
+        when(aiService.polishStream(org.mockito.ArgumentMatchers.any(ResumePolishRequest.class)))
+                .thenReturn(Flux.just(AiStreamEvent.delta("优化"), AiStreamEvent.result(resp)));
+
+        String body = "{\"text\":\"我有五年Java经验\"}";
+        var result = mockMvc.perform(post("/api/ai/polish/stream").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String sse = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(sse).contains("event:delta\ndata:{\"delta\":\"优化\"}");
+        assertThat(sse).contains("event:result\ndata:{\"result\":{\"polished_text\":\"优化后的文本\"}}");
+    }
 }
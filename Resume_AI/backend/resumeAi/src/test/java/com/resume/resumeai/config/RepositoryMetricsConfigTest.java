@@ -0,0 +1,72 @@
+package com.resume.resumeai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.stereotype.Repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RepositoryMetricsConfigTest {
+
+    @Repository
+    static class SampleRepository {
+        private final String table;
+
+        SampleRepository(String table) { this.table = table; }
+
+        public int count() { return table.length(); }
+
+        public int fail() { throw new IllegalStateException("boom"); }
+    }
+
+    static class PlainService {
+        public int count() { return 1; }
+    }
+
+    @Configuration
+    @Import(RepositoryMetricsConfig.class)
+    static class TestConfig {
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholders() { return new PropertySourcesPlaceholderConfigurer(); }
+
+        @Bean
+        MeterRegistry meterRegistry() { return new SimpleMeterRegistry(); }
+
+        @Bean
+        SampleRepository sampleRepository() { return new SampleRepository("jobs"); }
+
+        @Bean
+        PlainService plainService() { return new PlainService(); }
+    }
+
+    @Test
+    @DisplayName("仅代理 @Repository Bean，按 repository/method/exception 记录耗时")
+    void times_repository_methods() {
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(TestConfig.class)) {
+            SampleRepository repository = ctx.getBean(SampleRepository.class);
+            MeterRegistry registry = ctx.getBean(MeterRegistry.class);
+            assertThat(AopUtils.isAopProxy(repository)).isTrue();
+            assertThat(AopUtils.isAopProxy(ctx.getBean(PlainService.class))).isFalse();
+
+            assertThat(repository.count()).isEqualTo(4);
+            repository.count();
+            assertThatThrownBy(repository::fail).isInstanceOf(IllegalStateException.class);
+
+            assertThat(registry.get("repository.invocations")
+                    .tags("repository", "SampleRepository", "method", "count", "exception", "none")
+                    .timer().count()).isEqualTo(2);
+            assertThat(registry.get("repository.invocations")
+                    .tags("method", "fail", "exception", "IllegalStateException")
+                    .timer().count()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.resume.resumeai.crawler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CrawlScheduleTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2026, 10, 18, 7, 30);
+
+    @Test
+    @DisplayName("parse: 支持英文、中文周期写法与 cron 表达式，固定间隔按整点网格对齐")
+    void parses_frequencies() {
+        assertThat(CrawlSchedule.parse("Every 6 Hours").next(T)).isEqualTo(LocalDateTime.of(2026, 10, 18, 12, 0));
+        assertThat(CrawlSchedule.parse("每 12 小时").next(T)).isEqualTo(LocalDateTime.of(2026, 10, 18, 12, 0));
+        assertThat(CrawlSchedule.parse("Daily").next(T)).isEqualTo(LocalDateTime.of(2026, 10, 19, 0, 0));
+        assertThat(CrawlSchedule.parse("每天").next(T)).isEqualTo(LocalDateTime.of(2026, 10, 19, 0, 0));
+        assertThat(CrawlSchedule.parse("every 15 minutes").next(T)).isEqualTo(LocalDateTime.of(2026, 10, 18, 7, 45));
+        assertThat(CrawlSchedule.parse("每周").next(T)).isEqualTo(LocalDateTime.of(2026, 10, 19, 0, 0)); // 周一
+        assertThat(CrawlSchedule.parse("0 30 9 * * *").next(T)).isEqualTo(LocalDateTime.of(2026, 10, 18, 9, 30));
+        assertThat(CrawlSchedule.parse("Instant").isRecurring()).isFalse();
+        assertThat(CrawlSchedule.parse("Instant").next(T, "t1", Duration.ofMinutes(30))).isNull();
+    }
+
+    @Test
+    @DisplayName("parse: 无法识别的周期抛出 IllegalArgumentException")
+    void rejects_unknown() {
+        assertThatThrownBy(() -> CrawlSchedule.parse("sometimes")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CrawlSchedule.parse("Every 0 Hours")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CrawlSchedule.parse(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("抖动: 同一任务偏移固定且不超过上限与半个周期，不同任务分散，偏移不逐次累积")
+    void jitter_is_stable_bounded_and_spread() {
+        CrawlSchedule daily = CrawlSchedule.parse("Daily");
+        Duration max = Duration.ofMinutes(30);
+        LocalDateTime midnight = LocalDateTime.of(2026, 10, 19, 0, 0);
+
+        LocalDateTime first = daily.next(T, "task-a", max);
+        assertThat(first).isBetween(midnight, midnight.plus(max));
+        // 在计划时间点认领后，下一次仍是次日同一偏移
+        assertThat(daily.next(first, "task-a", max)).isEqualTo(first.plusDays(1));
+
+        long distinct = IntStream.range(0, 50)
+                .mapToObj(i -> daily.next(T, "task-" + i, max)).distinct().count();
+        assertThat(distinct).isGreaterThan(40);
+
+        CrawlSchedule quarter = CrawlSchedule.parse("Every 15 Minutes");
+        for (int i = 0; i < 20; i++) {
+            assertThat(Duration.between(LocalDateTime.of(2026, 10, 18, 7, 45), quarter.next(T, "q-" + i, max)))
+                    .isLessThanOrEqualTo(Duration.ofMinutes(7).plusSeconds(30));
+        }
+    }
+
+    @Test
+    @DisplayName("补跑: 停机错过多次后，下一次从当前时间起算")
+    void catch_up_collapses_missed_runs() {
+        CrawlSchedule sixHours = CrawlSchedule.parse("Every 6 Hours");
+        LocalDateTime afterOutage = LocalDateTime.of(2026, 10, 21, 13, 5);
+        assertThat(sixHours.next(afterOutage, "task-a", Duration.ZERO)).isEqualTo(LocalDateTime.of(2026, 10, 21, 18, 0));
+    }
+}
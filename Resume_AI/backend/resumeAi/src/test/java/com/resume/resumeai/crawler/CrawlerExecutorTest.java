@@ -0,0 +1,182 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.CrawlerTask;
+import com.resume.resumeai.repository.CrawlerTaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class CrawlerExecutorTest {
+
+    private NamedParameterJdbcTemplate jdbc;
+    private CrawlerTaskRepository repository;
+    private SimpleMeterRegistry registry;
+    private final List<String> started = new CopyOnWriteArrayList<>();
+    private final Map<String, CountDownLatch> gates = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:crawler_exec_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(ds);
+        jdbc = new NamedParameterJdbcTemplate(ds);
+        repository = new CrawlerTaskRepository(jdbc);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gates.values().forEach(CountDownLatch::countDown);
+    }
+
+    @Test
+    @DisplayName("全局并发与单站点并发均受限，任务结束后继续调度")
+    void respects_worker_and_source_limits() {
+        CrawlerExecutor executor = executor(2, 10);
+        CrawlerTask a = task("lagou", 0), b = task("lagou.com", 0), c = task("shixiseng", 0);
+        executor.enqueue(a);
+        executor.enqueue(b);
+        executor.enqueue(c);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> started.size() == 2);
+        assertThat(started).containsExactlyInAnyOrder(a.getQuery(), c.getQuery());
+        assertThat(executor.snapshot().get("queued")).isEqualTo(1);
+        assertThat(registry.get("crawler.workers.active").gauge().value()).isEqualTo(2.0);
+
+        gates.get(a.getQuery()).countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> started.size() == 3);
+        assertThat(started.get(2)).isEqualTo(b.getQuery());
+    }
+
+    @Test
+    @DisplayName("高优先级任务先于先入队的低优先级任务执行")
+    void higher_priority_first() {
+        CrawlerExecutor executor = executor(1, 10);
+        CrawlerTask blocker = task("lagou", 0);
+        executor.enqueue(blocker);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> started.size() == 1);
+
+        CrawlerTask low = task("shixiseng", 0), high = task("shixiseng", 5);
+        executor.enqueue(low);
+        executor.enqueue(high);
+        gates.get(blocker.getQuery()).countDown();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> started.size() == 2);
+        assertThat(started.get(1)).isEqualTo(high.getQuery());
+    }
+
+    @Test
+    @DisplayName("队列已满时拒绝入队并计数")
+    void rejects_when_queue_full() {
+        CrawlerExecutor executor = executor(1, 1);
+        executor.enqueue(task("lagou", 0));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> started.size() == 1);
+        executor.enqueue(task("lagou", 0));
+
+        CrawlerTask rejected = task("lagou", 0);
+        assertThatThrownBy(() -> executor.enqueue(rejected)).isInstanceOf(CrawlerQueueFullException.class);
+        assertThat(repository.findById(rejected.getId()).get().getRunState()).isEqualTo("Idle");
+        assertThat(registry.get("crawler.tasks.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("恢复: 只重新排队租约已过期、没有租约或由本实例持有的运行中任务，其他存活实例的任务不受影响")
+    void recover_requeues_only_abandoned() {
+        CrawlerTask expired = running(task("lagou", 0), "node-b", "DATEADD(MINUTE, -1, NOW(3))");
+        CrawlerTask legacy = running(task("shixiseng", 0), null, "NULL");
+        CrawlerTask own = running(task("boss", 0), "node-a", "DATEADD(MINUTE, 5, NOW(3))");
+        CrawlerTask alive = running(task("zhilian", 0), "node-b", "DATEADD(MINUTE, 5, NOW(3))");
+
+        executor(4, 10).recover();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> started.size() == 3);
+        assertThat(started).containsExactlyInAnyOrder(expired.getQuery(), legacy.getQuery(), own.getQuery());
+        assertThat(jdbc.queryForObject("SELECT owner FROM crawler_tasks WHERE id=:id",
+                Map.of("id", expired.getId()), String.class)).isEqualTo("node-a");
+        assertThat(repository.findById(alive.getId()).get().getRunState()).isEqualTo("Running");
+    }
+
+    @Test
+    @DisplayName("租约: 续约只作用于本实例持有的任务，结束时只释放仍由本实例持有的任务")
+    void lease_renewal_and_release_are_owner_scoped() {
+        CrawlerTask mine = running(task("lagou", 0), "node-a", "DATEADD(MINUTE, -1, NOW(3))");
+        CrawlerTask theirs = running(task("lagou", 0), "node-b", "DATEADD(MINUTE, -1, NOW(3))");
+
+        assertThat(repository.renewLeases("node-a", 60)).isEqualTo(1);
+        assertThat(repository.requeueAbandoned("node-c")).isEqualTo(1);
+        assertThat(repository.findById(mine.getId()).get().getRunState()).isEqualTo("Running");
+        assertThat(repository.findById(theirs.getId()).get().getRunState()).isEqualTo("Queued");
+
+        repository.markIdle(mine.getId(), "node-b");
+        assertThat(repository.findById(mine.getId()).get().getRunState()).isEqualTo("Running");
+        repository.markIdle(mine.getId(), "node-a");
+        assertThat(repository.findById(mine.getId()).get().getRunState()).isEqualTo("Idle");
+    }
+
+    @Test
+    @DisplayName("站点并发配置解析与站点名归一化")
+    void parse_source_limits() {
+        assertThat(CrawlerExecutor.parseSourceLimits("lagou.com:2, shixiseng:3"))
+                .containsEntry("lagou", 2).containsEntry("shixiseng", 3);
+        assertThat(CrawlerExecutor.parseSourceLimits("")).isEmpty();
+        assertThat(CrawlerExecutor.autoWorkers(512)).isPositive();
+    }
+
+    private CrawlerExecutor executor(int maxWorkers, int maxQueue) {
+        CrawlerService crawlerService = new CrawlerService(null, null, Map.of()) {
+            @Override
+            public void runCrawler(String taskId, String source, String keyword, String city) {
+                CountDownLatch gate = gates.computeIfAbsent(keyword, k -> new CountDownLatch(1));
+                started.add(keyword);
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        return new CrawlerExecutor(repository, crawlerService, new SimpleAsyncTaskExecutor("crawler-test-"), registry,
+                maxWorkers, 512, maxQueue, 1, "", "node-a", 60);
+    }
+
+    private CrawlerTask running(CrawlerTask t, String owner, String leaseExpiresAt) {
+        Map<String, Object> p = new HashMap<>();
+        p.put("id", t.getId());
+        p.put("owner", owner);
+        jdbc.update("UPDATE crawler_tasks SET run_state='Running', owner=:owner, lease_expires_at=" + leaseExpiresAt
+                + " WHERE id=:id", p);
+        return t;
+    }
+
+    private CrawlerTask task(String source, int priority) {
+        CrawlerTask t = new CrawlerTask();
+        t.setId(UUID.randomUUID().toString());
+        t.setQuery("q-" + t.getId());
+        t.setSource(source);
+        t.setFrequency("Daily");
+        t.setStatus("Active");
+        t.setPriority(priority);
+        repository.create(t);
+        return t;
+    }
+}
@@ -0,0 +1,184 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.CrawlerTask;
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.repository.CrawlerTaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CrawlerSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 7, 30);
+
+    private NamedParameterJdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+    private CrawlerTaskRepository repository;
+    private CrawlerExecutor executor;
+    private SimpleMeterRegistry registry;
+    private CrawlerScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:crawler_sched_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(ds);
+        jdbc = new NamedParameterJdbcTemplate(ds);
+        transactionManager = new DataSourceTransactionManager(ds);
+        repository = new CrawlerTaskRepository(jdbc);
+        executor = mock(CrawlerExecutor.class);
+        registry = new SimpleMeterRegistry();
+        scheduler = new CrawlerScheduler(repository, executor, transactionManager, registry, false, 30, 20, 0);
+    }
+
+    @Test
+    @DisplayName("poll: 到期的空闲任务入队并推进 next_run，未到期、已暂停与运行中的任务不入队")
+    void queues_due_idle_tasks_only() {
+        CrawlerTask due = task("Every 6 Hours", NOW.minusMinutes(1), "Active");
+        CrawlerTask later = task("Daily", NOW.plusMinutes(1), "Active");
+        CrawlerTask paused = task("Daily", NOW.minusHours(1), "Paused");
+        CrawlerTask running = task("Every 6 Hours", NOW.minusHours(2), "Active");
+        repository.markQueued(running.getId(), 0);
+        repository.claim(running.getId(), "test", 60);
+
+        assertThat(scheduler.poll(NOW)).isEqualTo(1);
+
+        verify(executor).enqueue(argThat(t -> t.getId().equals(due.getId())));
+        verifyNoMoreInteractions(executor);
+        assertThat(nextRun(due)).isEqualTo(LocalDateTime.of(2026, 10, 18, 12, 0));
+        assertThat(nextRun(running)).isEqualTo(LocalDateTime.of(2026, 10, 18, 12, 0));
+        assertThat(nextRun(later)).isEqualTo(NOW.plusMinutes(1));
+        assertThat(nextRun(paused)).isEqualTo(NOW.minusHours(1));
+        assertThat(registry.counter("crawler.scheduler.triggered", "result", "busy").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("poll: 执行完成后任务保持启用，下一次到期时再次被认领")
+    void completed_run_is_scheduled_again() {
+        CrawlerTask recurring = task("Every 6 Hours", NOW.minusMinutes(1), "Active");
+        assertThat(scheduler.poll(NOW)).isEqualTo(1);
+
+        // 模拟执行器执行一次：认领、经 CrawlerService 抓取并写入执行结果、释放
+        BaseCrawler crawler = mock(BaseCrawler.class);
+        JobDeduplicator deduplicator = mock(JobDeduplicator.class);
+        when(deduplicator.ingest(anyList())).thenReturn(new IngestResult(1, 0, 0));
+        doAnswer(inv -> {
+            inv.<JobSink>getArgument(2).accept(List.of(new JobPosition()));
+            return null;
+        }).when(crawler).crawl(anyString(), any(), any(JobSink.class));
+        repository.markQueued(recurring.getId(), 0);
+        repository.claim(recurring.getId(), "test", 60);
+        new CrawlerService(deduplicator, repository, Map.of("lagouCrawler", crawler))
+                .runCrawler(recurring.getId(), "lagou", recurring.getQuery(), null);
+        repository.markIdle(recurring.getId(), "test");
+
+        CrawlerTask finished = repository.findById(recurring.getId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo("Active");
+        assertThat(finished.getLastStatus()).isEqualTo("Completed");
+        assertThat(finished.getLastInserted()).isEqualTo(1);
+
+        assertThat(scheduler.poll(LocalDateTime.of(2026, 10, 18, 12, 0))).isEqualTo(1);
+        verify(executor, times(2)).enqueue(argThat(t -> t.getId().equals(recurring.getId())));
+    }
+
+    @Test
+    @DisplayName("poll: 停机期间错过多次只补跑一次，只执行一次的任务不再排期")
+    void catch_up_runs_once() {
+        CrawlerTask missed = task("Every 6 Hours", NOW.minusDays(3), "Active");
+        CrawlerTask once = task("Instant", NOW.minusDays(1), "Active");
+
+        assertThat(scheduler.poll(NOW)).isEqualTo(2);
+        assertThat(scheduler.poll(NOW.plusMinutes(1))).isZero();
+
+        assertThat(nextRun(missed)).isEqualTo(LocalDateTime.of(2026, 10, 18, 12, 0));
+        assertThat(nextRun(once)).isNull();
+    }
+
+    @Test
+    @DisplayName("poll: 其他实例已锁定的到期任务被跳过，不会重复执行")
+    void skips_rows_locked_by_another_instance() throws Exception {
+        CrawlerTask first = task("Daily", NOW.minusMinutes(2), "Active");
+        CrawlerTask second = task("Daily", NOW.minusMinutes(1), "Active");
+        CountDownLatch locked = new CountDownLatch(1), release = new CountDownLatch(1);
+
+        // 另一个实例正在处理 first：持有其行锁直到提交。
+        // （H2 对带 LIMIT 的 FOR UPDATE 会锁住所有匹配行，这里按主键只锁一行，以模拟 InnoDB 按索引扫描加锁的效果）
+        CompletableFuture<List<String>> other = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(s -> {
+                    List<String> rows = jdbc.queryForList("SELECT id FROM crawler_tasks WHERE id=:id FOR UPDATE",
+                            Map.of("id", first.getId()), String.class);
+                    locked.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return rows;
+                }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(scheduler.poll(NOW)).isEqualTo(1);
+        release.countDown();
+
+        assertThat(other.get(5, TimeUnit.SECONDS)).containsExactly(first.getId());
+        verify(executor).enqueue(argThat(t -> t.getId().equals(second.getId())));
+        verifyNoMoreInteractions(executor);
+    }
+
+    @Test
+    @DisplayName("poll: 队列已满时停止认领，任务保持到期留待下一轮")
+    void stops_when_queue_full() {
+        CrawlerTask due = task("Daily", NOW.minusMinutes(1), "Active");
+        when(executor.enqueue(any())).thenThrow(new CrawlerQueueFullException(50, 50));
+
+        assertThat(scheduler.poll(NOW)).isZero();
+
+        assertThat(nextRun(due)).isEqualTo(NOW.minusMinutes(1));
+        assertThat(registry.counter("crawler.scheduler.triggered", "result", "rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("scheduleUnscheduled: 为 next_run 为空的周期任务补排时间")
+    void schedules_unscheduled_tasks() {
+        CrawlerTask legacy = task("Every 12 Hours", null, "Active");
+
+        scheduler.scheduleUnscheduled(NOW);
+
+        assertThat(nextRun(legacy)).isEqualTo(LocalDateTime.of(2026, 10, 18, 12, 0));
+    }
+
+    private LocalDateTime nextRun(CrawlerTask t) {
+        return jdbc.queryForObject("SELECT next_run FROM crawler_tasks WHERE id=:id", Map.of("id", t.getId()), LocalDateTime.class);
+    }
+
+    private CrawlerTask task(String frequency, LocalDateTime nextRun, String status) {
+        CrawlerTask t = new CrawlerTask();
+        t.setId(UUID.randomUUID().toString());
+        t.setQuery("q-" + t.getId());
+        t.setSource("lagou");
+        t.setFrequency(frequency);
+        t.setNextRun(nextRun == null ? null : nextRun.toString());
+        t.setStatus(status);
+        repository.create(t);
+        return t;
+    }
+}
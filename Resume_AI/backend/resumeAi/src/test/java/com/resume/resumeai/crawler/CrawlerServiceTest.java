@@ -3,31 +3,32 @@ package com.resume.resumeai.crawler;
 import com.resume.resumeai.domain.CrawlerTask;
 import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.repository.CrawlerTaskRepository;
-import com.resume.resumeai.repository.JobRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class CrawlerServiceTest {
 
     private CrawlerService crawlerService;
-    private JobRepository jobRepository;
+    private JobDeduplicator deduplicator;
     private CrawlerTaskRepository taskRepository;
     private BaseCrawler shixisengCrawler;
     private BaseCrawler lagouCrawler;
 
     @BeforeEach
     void setUp() {
-        jobRepository = mock(JobRepository.class);
+        deduplicator = mock(JobDeduplicator.class);
+        when(deduplicator.ingest(anyList())).thenAnswer(inv -> new IngestResult(inv.<List<?>>getArgument(0).size(), 0, 0));
         taskRepository = mock(CrawlerTaskRepository.class);
         shixisengCrawler = mock(BaseCrawler.class);
         lagouCrawler = mock(BaseCrawler.class);
@@ -36,49 +37,116 @@ class CrawlerServiceTest {
         crawlers.put("shixisengCrawler", shixisengCrawler);
         crawlers.put("lagouCrawler", lagouCrawler);
 
-        crawlerService = new CrawlerService(jobRepository, taskRepository, crawlers);
+        crawlerService = new CrawlerService(deduplicator, taskRepository, crawlers);
+    }
+
+    /**
+     * 让爬虫依次逐条回调给定的职位
+     */
+    private static void emits(BaseCrawler crawler, int count) {
+        doAnswer(inv -> {
+            JobSink sink = inv.getArgument(2);
+            for (int i = 0; i < count; i++) sink.accept(List.of(new JobPosition()));
+            return null;
+        }).when(crawler).crawl(anyString(), anyString(), any(JobSink.class));
     }
 
     @Test
     @DisplayName("runCrawler: 成功调用 shixiseng 爬虫并保存")
     void runCrawler_shixiseng_success() {
-        JobPosition job = new JobPosition();
-        when(shixisengCrawler.crawl("Java", "北京")).thenReturn(List.of(job));
+        emits(shixisengCrawler, 1);
 
         crawlerService.runCrawler("shixiseng", "Java", "北京");
 
-        verify(shixisengCrawler).crawl("Java", "北京");
-        verify(jobRepository).saveAll(anyList());
+        verify(shixisengCrawler).crawl(eq("Java"), eq("北京"), any(JobSink.class));
+        verify(deduplicator).ingest(anyList());
     }
 
     @Test
     @DisplayName("runCrawler: 带 taskId 时成功更新任务状态")
     void runCrawler_with_taskId_success() {
         String taskId = "task-123";
-        when(shixisengCrawler.crawl(anyString(), anyString())).thenReturn(List.of(new JobPosition()));
+        emits(shixisengCrawler, 1);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(new CrawlerTask()));
 
         crawlerService.runCrawler(taskId, "shixiseng", "Java", "北京");
 
-        verify(taskRepository).updateExecutionState(eq(taskId), eq("Completed"), anyString(), anyString());
+        verify(taskRepository).updateExecutionState(eq(taskId), eq("Completed"), anyString(), eq(1), eq(0), eq(0));
     }
 
     @Test
     @DisplayName("runCrawler: 爬虫异常时更新状态为 Failed")
     void runCrawler_failure() {
         String taskId = "task-error";
-        when(lagouCrawler.crawl(anyString(), anyString())).thenThrow(new RuntimeException("Network error"));
+        doThrow(new RuntimeException("Network error")).when(lagouCrawler).crawl(anyString(), anyString(), any(JobSink.class));
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(new CrawlerTask()));
 
         crawlerService.runCrawler(taskId, "lagou", "Java", "北京");
 
-        verify(taskRepository).updateExecutionState(eq(taskId), eq("Failed"), anyString(), anyString());
+        verify(taskRepository).updateExecutionState(eq(taskId), eq("Failed"), anyString(), eq(0), eq(0), eq(0));
     }
 
     @Test
     @DisplayName("runCrawler: 未知来源应直接返回")
     void runCrawler_unknown_source() {
         crawlerService.runCrawler("unknown", "Java", "北京");
-        verifyNoInteractions(jobRepository);
+        verifyNoInteractions(deduplicator);
+    }
+
+    @Test
+    @DisplayName("runCrawler: 逐条回调按 batch-size 分批去重落库，每批后写入进度，任务记录累计的新增/更新/跳过数")
+    void runCrawler_writes_fixed_size_batches_with_progress() {
+        String taskId = "task-stream";
+        emits(shixisengCrawler, 5);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(new CrawlerTask()));
+        when(deduplicator.ingest(anyList())).thenReturn(new IngestResult(2, 0, 0), new IngestResult(0, 1, 1), new IngestResult(1, 0, 0));
+        CrawlerService service = new CrawlerService(deduplicator, taskRepository, Map.of("shixisengCrawler", shixisengCrawler), 2, 0);
+
+        service.runCrawler(taskId, "shixiseng", "Java", "北京");
+
+        verify(deduplicator, times(2)).ingest(argThat(l -> l.size() == 2));
+        verify(deduplicator).ingest(argThat(l -> l.size() == 1));
+        verify(taskRepository).updateProgress(taskId, 0, 0, 0);
+        verify(taskRepository).updateProgress(taskId, 2, 0, 0);
+        verify(taskRepository).updateProgress(taskId, 2, 1, 1);
+        verify(taskRepository).updateProgress(taskId, 3, 1, 1);
+        verify(taskRepository).updateExecutionState(eq(taskId), eq("Completed"), anyString(), eq(3), eq(1), eq(1));
+    }
+
+    @Test
+    @DisplayName("runCrawler: 抓取中途异常时已抓到的部分仍写出，任务按失败记录已保存数")
+    void runCrawler_keeps_partial_progress_on_failure() {
+        String taskId = "task-partial";
+        doAnswer(inv -> {
+            JobSink sink = inv.getArgument(2);
+            sink.accept(List.of(new JobPosition()));
+            sink.accept(List.of(new JobPosition()));
+            throw new IllegalStateException("session lost");
+        }).when(shixisengCrawler).crawl(anyString(), anyString(), any(JobSink.class));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(new CrawlerTask()));
+
+        crawlerService.runCrawler(taskId, "shixiseng", "Java", "北京");
+
+        verify(deduplicator).ingest(argThat(l -> l.size() == 2));
+        verify(taskRepository).updateExecutionState(eq(taskId), eq("Failed"), anyString(), eq(2), eq(0), eq(0));
+    }
+
+    @Test
+    @DisplayName("BatchingJobSink: 距本批第一条超过 maxDelay 时提前写出")
+    void batching_sink_flushes_on_delay() {
+        long[] now = {0};
+        List<Integer> sizes = new ArrayList<>();
+        BatchingJobSink sink = new BatchingJobSink(b -> sizes.add(b.size()), 10, 1000, () -> now[0]);
+
+        sink.accept(List.of(new JobPosition()));
+        now[0] = 500;
+        sink.accept(List.of(new JobPosition()));
+        now[0] = 1000;
+        sink.accept(List.of(new JobPosition()));
+        sink.accept(List.of(new JobPosition()));
+        sink.flush();
+        sink.flush();
+
+        assertThat(sizes).containsExactly(3, 1);
     }
 }
@@ -0,0 +1,70 @@
+package com.resume.resumeai.crawler;
+
+import org.apache.fontbox.ttf.CmapSubtable;
+import org.apache.fontbox.ttf.CmapTable;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 字体样本（src/test/resources/fixtures/fonts）：仿实习僧反爬字体结构，100 个字形，
+ * 98 个私用区码位分布在 14 个 cmap format 4 分段中（idDelta 与 glyphIdArray 两种寻址都有），另含 ASCII 数字分段
+ */
+class FontDecoderTest {
+
+    private static final String GLYPHS = ShixisengCrawler.PLAIN_TEXTS;
+
+    @Test
+    @DisplayName("toSfnt: WOFF 解压结果与原始 TTF 逐字节一致")
+    void woff_to_sfnt_matches_ttf() throws IOException {
+        ByteBuffer sfnt = FontDecoder.toSfnt(fixture("pua-sample.woff"));
+        assertThat(Arrays.copyOf(sfnt.array(), sfnt.limit())).isEqualTo(fixture("pua-sample.ttf"));
+
+        byte[] ttf = fixture("pua-sample.ttf");
+        assertThat(FontDecoder.toSfnt(ttf).array()).isSameAs(ttf);
+    }
+
+    @Test
+    @DisplayName("decode: 直接读取 cmap 的结果与 FontBox 逐码位查询一致")
+    void decode_matches_fontbox() throws IOException {
+        FontMap map = FontDecoder.decode(fixture("pua-sample.woff"), GLYPHS);
+
+        assertThat(map.size()).isEqualTo(98);
+        try (TrueTypeFont font = new TTFParser().parse(new ByteArrayInputStream(fixture("pua-sample.ttf")))) {
+            CmapSubtable cmap = font.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_2_0_BMP);
+            for (int code = FontMap.FIRST; code <= FontMap.LAST; code++) {
+                int glyph = cmap.getGlyphId(code);
+                char expected = glyph > 1 ? GLYPHS.charAt(glyph - 2) : (char) code;
+                assertThat(map.map((char) code)).as("U+%04X", code).isEqualTo(expected);
+            }
+        }
+        assertThat(FontDecoder.decode(fixture("pua-sample.ttf"), GLYPHS).size()).isEqualTo(98);
+    }
+
+    @Test
+    @DisplayName("toSfnt: 截断或越界的 WOFF 抛出 IOException")
+    void rejects_corrupt_woff() throws IOException {
+        byte[] woff = fixture("pua-sample.woff");
+        assertThatThrownBy(() -> FontDecoder.toSfnt(Arrays.copyOf(woff, 100))).isInstanceOf(IOException.class);
+
+        byte[] corrupt = woff.clone();
+        ByteBuffer.wrap(corrupt).putInt(44 + 4, Integer.MAX_VALUE - 4);
+        assertThatThrownBy(() -> FontDecoder.toSfnt(corrupt)).isInstanceOf(IOException.class);
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = FontDecoderTest.class.getResourceAsStream("/fixtures/fonts/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.resume.resumeai.crawler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FontMapCacheTest {
+
+    private final AtomicInteger decodes = new AtomicInteger();
+    private final Map<String, byte[]> fonts = new HashMap<>();
+    private final Function<byte[], FontMap> decoder = data -> {
+        decodes.incrementAndGet();
+        char[] table = new char[FontMap.RANGE];
+        table[0xE001 - FontMap.FIRST] = (char) ('0' + data[data.length - 1] % 10);
+        return FontMap.of(table);
+    };
+
+    @Test
+    @DisplayName("resolve: 随机 URL 不同但 cmap 表相同的字体只解码一次")
+    void same_cmap_different_url_hits_fingerprint() throws IOException {
+        FontMapCache cache = new FontMapCache(new SimpleMeterRegistry(), 8, "");
+        fonts.put("u1", sfnt(new byte[]{1, 2, 3, 4}, new byte[]{9, 9, 9, 1}));
+        fonts.put("u2", sfnt(new byte[]{1, 2, 3, 4}, new byte[]{7, 7, 7, 2}));
+        fonts.put("u3", sfnt(new byte[]{5, 6, 7, 8}, new byte[]{7, 7, 7, 3}));
+
+        FontMap a = cache.resolve("u1", fonts::get, decoder);
+        FontMap b = cache.resolve("u2", fonts::get, decoder);
+        FontMap c = cache.resolve("u3", fonts::get, decoder);
+
+        assertThat(b).isSameAs(a);
+        assertThat(c).isNotSameAs(a);
+        assertThat(decodes).hasValue(2);
+        // 同一 URL 不再下载
+        fonts.clear();
+        assertThat(cache.resolve("u1", fonts::get, decoder)).isSameAs(a);
+    }
+
+    @Test
+    @DisplayName("resolve: 超出容量时淘汰最久未用的映射；下载失败返回空映射且不缓存")
+    void lru_eviction_and_missing_font() throws IOException {
+        FontMapCache cache = new FontMapCache(new SimpleMeterRegistry(), 1, "");
+        fonts.put("u1", sfnt(new byte[]{1}, new byte[]{1}));
+        fonts.put("u2", sfnt(new byte[]{2}, new byte[]{2}));
+        cache.resolve("u1", fonts::get, decoder);
+        cache.resolve("u2", fonts::get, decoder);
+        assertThat(cache.size()).isEqualTo(1);
+
+        assertThat(cache.resolve("missing", fonts::get, decoder)).isSameAs(FontMap.EMPTY);
+        assertThat(cache.resolve(null, fonts::get, decoder)).isSameAs(FontMap.EMPTY);
+    }
+
+    @Test
+    @DisplayName("resolve: 配置目录后映射持久化，重启后无需重新解码")
+    void persists_to_disk(@TempDir Path dir) throws IOException {
+        fonts.put("u1", sfnt(new byte[]{1, 2, 3, 4}, new byte[]{0, 0, 0, 7}));
+        FontMap first = new FontMapCache(new SimpleMeterRegistry(), 8, dir.toString()).resolve("u1", fonts::get, decoder);
+
+        FontMap restored = new FontMapCache(new SimpleMeterRegistry(), 8, dir.toString()).resolve("u1", fonts::get, decoder);
+        assertThat(decodes).hasValue(1);
+        assertThat(restored.size()).isEqualTo(1);
+        assertThat(restored.decode("")).isEqualTo(first.decode("")).isEqualTo("7");
+    }
+
+    @Test
+    @DisplayName("FontMap: 只替换已映射的私用区字符，无替换时返回原串")
+    void font_map_decode() {
+        char[] table = new char[FontMap.RANGE];
+        table[0] = '5';
+        table[FontMap.RANGE - 1] = '师';
+        FontMap map = FontMap.of(table);
+
+        assertThat(map.decode("k-")).isEqualTo("5k-师");
+        String plain = "无需替换";
+        assertThat(map.decode(plain)).isSameAs(plain);
+        assertThat(map.size()).isEqualTo(2);
+        assertThatThrownBy(() -> FontMap.of(new char[10])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 构造只有 cmap 与 glyf 两张表的最小 sfnt 文件
+     */
+    private static byte[] sfnt(byte[] cmap, byte[] glyf) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x00010000);
+        out.writeShort(2);
+        out.writeShort(32);
+        out.writeShort(1);
+        out.writeShort(0);
+        int offset = 12 + 2 * 16;
+        out.writeInt(0x636D6170); // cmap
+        out.writeInt(0);
+        out.writeInt(offset);
+        out.writeInt(cmap.length);
+        out.writeInt(0x676C7966); // glyf
+        out.writeInt(0);
+        out.writeInt(offset + cmap.length);
+        out.writeInt(glyf.length);
+        out.write(cmap);
+        out.write(glyf);
+        return bytes.toByteArray();
+    }
+}
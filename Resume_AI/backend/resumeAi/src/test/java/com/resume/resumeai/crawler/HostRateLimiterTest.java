@@ -0,0 +1,53 @@
+package com.resume.resumeai.crawler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HostRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    /** 睡眠即推进时钟 */
+    private final HostRateLimiter limiter = new HostRateLimiter(registry, 2.0, 2, now::get, now::addAndGet);
+
+    @Test
+    @DisplayName("acquire: 允许 burst 次突发，之后按速率排队")
+    void burst_then_paced() throws InterruptedException {
+        assertThat(limiter.acquire("https://www.shixiseng.com/a")).isZero();
+        assertThat(limiter.acquire("https://www.shixiseng.com/b")).isZero();
+        assertThat(limiter.acquire("https://www.shixiseng.com/c")).isEqualTo(SECOND / 2);
+        assertThat(limiter.acquire("https://www.shixiseng.com/d")).isEqualTo(SECOND / 2);
+        // 10 次请求在 2 次/秒的预算下约需 4 秒
+        for (int i = 0; i < 6; i++) limiter.acquire("https://www.shixiseng.com/x" + i);
+        assertThat(now.get()).isEqualTo(4 * SECOND);
+    }
+
+    @Test
+    @DisplayName("acquire: 不同站点各自计数，空闲后令牌回补；按站点记录页面数")
+    void per_host_buckets_refill() throws InterruptedException {
+        limiter.acquire("https://www.shixiseng.com/a");
+        limiter.acquire("https://www.shixiseng.com/b");
+        assertThat(limiter.acquire("https://www.lagou.com/a")).isZero();
+
+        now.addAndGet(SECOND);
+        assertThat(limiter.acquire("https://www.shixiseng.com/c")).isZero();
+        assertThat(limiter.acquire("https://www.shixiseng.com/d")).isZero();
+        assertThat(registry.get("crawler.pages").tag("host", "www.shixiseng.com").counter().count()).isEqualTo(4);
+        assertThat(registry.get("crawler.pages").tag("host", "www.lagou.com").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("acquire: 速率 <= 0 时不限速")
+    void unlimited() throws InterruptedException {
+        HostRateLimiter unlimited = new HostRateLimiter(registry, 0, 1, now::get, nanos -> { throw new AssertionError(); });
+        for (int i = 0; i < 5; i++) assertThat(unlimited.acquire("https://www.shixiseng.com")).isZero();
+        assertThat(HostRateLimiter.hostOf("https://WWW.Shixiseng.com/interns?k=1")).isEqualTo("www.shixiseng.com");
+    }
+}
@@ -0,0 +1,151 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.JobFingerprint;
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.repository.JobRepository.StoredFingerprint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JobDeduplicatorTest {
+
+    private JobRepository jobRepository;
+    private SimpleMeterRegistry registry;
+    private JobDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(JobRepository.class);
+        registry = new SimpleMeterRegistry();
+        deduplicator = new JobDeduplicator(jobRepository, registry, 1000, 0.01);
+    }
+
+    @Test
+    @DisplayName("normalizeUrl: 忽略大小写、默认端口、片段、末尾斜杠、跟踪参数与参数顺序")
+    void normalize_url() {
+        assertThat(JobFingerprint.normalizeUrl("HTTPS://WWW.Shixiseng.com:443/intern/inn_001/?pcm=pc_Search&b=2&a=1#top"))
+                .isEqualTo("https://www.shixiseng.com/intern/inn_001?a=1&b=2");
+        assertThat(JobFingerprint.normalizeUrl("https://www.shixiseng.com/intern/inn_001?utm_source=x"))
+                .isEqualTo("https://www.shixiseng.com/intern/inn_001");
+        assertThat(JobFingerprint.normalizeUrl("  ")).isNull();
+        assertThat(JobFingerprint.of(job("https://a.com/j/1", "desc")).urlHash())
+                .isEqualTo(JobFingerprint.of(job("https://A.com/j/1/#x", "other")).urlHash());
+    }
+
+    @Test
+    @DisplayName("ingest: 未预热时全部查库，按内容指纹区分新增、更新与跳过，批内重复计为跳过")
+    void classifies_insert_update_skip() {
+        JobPosition unchanged = job("https://a.com/j/1", "same");
+        JobPosition changed = job("https://a.com/j/2", "new text");
+        JobPosition fresh = job("https://a.com/j/3", "fresh");
+        JobPosition freshDup = job("https://a.com/j/3?pcm=1", "fresh");
+        when(jobRepository.findFingerprints(anyCollection())).thenReturn(Map.of(
+                hash(unchanged), new StoredFingerprint(11, hash(unchanged), JobFingerprint.of(unchanged).contentHash()),
+                hash(changed), new StoredFingerprint(12, hash(changed), JobFingerprint.of(job("https://a.com/j/2", "old text")).contentHash())));
+
+        IngestResult r = deduplicator.ingest(List.of(unchanged, changed, fresh, freshDup));
+
+        assertThat(r).isEqualTo(new IngestResult(1, 1, 2));
+        ArgumentCaptor<List<JobPosition>> written = ArgumentCaptor.forClass(List.class);
+        verify(jobRepository).upsertAll(written.capture(), anyList(), eq(1));
+        assertThat(written.getValue()).containsExactly(changed, freshDup);
+        assertThat(unchanged.getId()).isEqualTo(11L);
+        assertThat(registry.counter("crawler.dedup.jobs", "result", "skipped").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("ingest: 预热后布隆过滤器判定不存在的职位不再查库")
+    void warm_filter_skips_lookup_for_new_urls() {
+        JobPosition stored = job("https://a.com/j/1", "same");
+        when(jobRepository.countAll()).thenReturn(1L);
+        when(jobRepository.findFingerprintsAfterId(eq(0L), anyInt())).thenReturn(
+                List.of(new StoredFingerprint(1, hash(stored), JobFingerprint.of(stored).contentHash())));
+        deduplicator.warmUp();
+        assertThat(deduplicator.isWarm()).isTrue();
+
+        ArgumentCaptor<Collection<String>> lookedUp = ArgumentCaptor.forClass(Collection.class);
+        when(jobRepository.findFingerprints(lookedUp.capture())).thenReturn(Map.of());
+        IngestResult r = deduplicator.ingest(List.of(job("https://a.com/j/1", "same"), job("https://a.com/j/9", "x")));
+
+        assertThat(lookedUp.getValue()).containsExactly(hash(stored));
+        assertThat(r.inserted()).isEqualTo(2);
+        assertThat(registry.counter("crawler.dedup.bloom", "result", "negative").count()).isEqualTo(1.0);
+
+        // 新写入的 URL 被记入过滤器，下一批会查库
+        deduplicator.ingest(List.of(job("https://a.com/j/9", "x")));
+        assertThat(lookedUp.getValue()).containsExactly(hash(job("https://a.com/j/9", "x")));
+    }
+
+    @Test
+    @DisplayName("ingest: 过滤器超出容量时在后台重建，入库不等待全表加载")
+    void filter_rebuild_runs_off_ingest_path() throws Exception {
+        JobDeduplicator small = new JobDeduplicator(jobRepository, registry, 1, 0.01);
+        when(jobRepository.countAll()).thenReturn(0L, 2L);
+        when(jobRepository.findFingerprintsAfterId(eq(0L), anyInt())).thenReturn(List.of());
+        small.warmUp();
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jobRepository.findFingerprintsAfterId(eq(0L), anyInt())).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(jobRepository.findFingerprints(anyCollection())).thenReturn(Map.of());
+        try {
+            IngestResult r = CompletableFuture.supplyAsync(() -> small.ingest(
+                    List.of(job("https://a.com/j/1", "x"), job("https://a.com/j/2", "y")))).get(1, TimeUnit.SECONDS);
+            assertThat(r.inserted()).isEqualTo(2);
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+        }
+        verify(jobRepository, timeout(5000).times(2)).countAll();
+        small.destroy();
+    }
+
+    @Test
+    @DisplayName("backfill: 为历史职位补写指纹，URL 重复的旧记录被删除")
+    void backfill_removes_duplicates() {
+        JobPosition newer = job("https://a.com/j/1", "v2");
+        newer.setId(2L);
+        JobPosition older = job("https://a.com/j/1", "v1");
+        older.setId(1L);
+        when(jobRepository.findWithoutFingerprint(anyInt())).thenReturn(List.of(newer, older), List.of());
+        doThrow(new DuplicateKeyException("uk_url_hash")).when(jobRepository).updateFingerprint(eq(1L), any());
+
+        deduplicator.backfill();
+
+        verify(jobRepository).updateFingerprint(eq(2L), any());
+        verify(jobRepository).deleteById(1L);
+    }
+
+    private static String hash(JobPosition job) {
+        return JobFingerprint.of(job).urlHash();
+    }
+
+    private static JobPosition job(String url, String description) {
+        JobPosition j = new JobPosition();
+        j.setJobTitle("后端实习生");
+        j.setCompanyName("优雅科技");
+        j.setJobDescription(description);
+        j.setLocation("北京");
+        j.setSourceUrl(url);
+        return j;
+    }
+}
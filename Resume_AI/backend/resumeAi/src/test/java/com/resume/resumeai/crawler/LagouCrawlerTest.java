@@ -24,7 +24,7 @@ class LagouCrawlerTest {
     void setUp() {
         driverProvider = mock(WebDriverProvider.class);
         driver = mock(WebDriver.class);
-        when(driverProvider.createDriver()).thenReturn(driver);
+        when(driverProvider.acquire()).thenReturn(driver);
         lagouCrawler = new LagouCrawler(driverProvider);
     }
 
@@ -57,6 +57,6 @@ class LagouCrawlerTest {
         JobPosition job = results.get(0);
         assertThat(job.getJobTitle()).isEqualTo("Java Engineer");
         assertThat(job.getCompanyName()).isEqualTo("Cool Tech");
-        verify(driver).quit();
+        verify(driverProvider).release(driver);
     }
 }
@@ -0,0 +1,124 @@
+package com.resume.resumeai.crawler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PooledWebDriverProviderTest {
+
+    private WebDriverProvider factory;
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() {
+        factory = mock(WebDriverProvider.class);
+        when(factory.createDriver()).thenAnswer(inv -> newDriver());
+        now = new AtomicLong(1_000);
+    }
+
+    private PooledWebDriverProvider pool(int maxSize, int maxLeases) {
+        return new PooledWebDriverProvider(factory, new SimpleMeterRegistry(), maxSize, 60_000, 50, maxLeases, now::get);
+    }
+
+    private static WebDriver newDriver() {
+        return mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class).defaultAnswer(RETURNS_DEEP_STUBS));
+    }
+
+    @Test
+    @DisplayName("acquire/release: 归还后复用同一会话，并清理 Cookie、Storage 回到空白页")
+    void reuses_and_resets_session() {
+        PooledWebDriverProvider pool = pool(2, 50);
+        WebDriver first = pool.acquire();
+        pool.release(first);
+        WebDriver second = pool.acquire();
+
+        assertThat(second).isSameAs(first);
+        verify(factory, times(1)).createDriver();
+        verify((JavascriptExecutor) first).executeScript(anyString());
+        verify(first.manage()).deleteAllCookies();
+        verify(first).get("about:blank");
+        verify(first, never()).quit();
+    }
+
+    @Test
+    @DisplayName("acquire: 池满时等待超时抛出异常，归还后可再借出")
+    void blocks_when_exhausted() {
+        PooledWebDriverProvider pool = pool(1, 50);
+        WebDriver d = pool.acquire();
+        assertThatThrownBy(pool::acquire).isInstanceOf(IllegalStateException.class);
+
+        pool.release(d);
+        assertThat(pool.acquire()).isSameAs(d);
+    }
+
+    @Test
+    @DisplayName("evictIdle: 空闲超时的会话被关闭")
+    void evicts_idle_sessions() {
+        PooledWebDriverProvider pool = pool(2, 50);
+        WebDriver d = pool.acquire();
+        pool.release(d);
+
+        now.addAndGet(30_000);
+        assertThat(pool.evictIdle()).isZero();
+        now.addAndGet(30_000);
+        assertThat(pool.evictIdle()).isEqualTo(1);
+        assertThat(pool.idleCount()).isZero();
+        verify(d).quit();
+    }
+
+    @Test
+    @DisplayName("acquire: 健康检查失败的会话被丢弃并新建")
+    void replaces_unhealthy_session() {
+        PooledWebDriverProvider pool = pool(2, 50);
+        WebDriver broken = pool.acquire();
+        pool.release(broken);
+        when(broken.getWindowHandle()).thenThrow(new NoSuchSessionException("gone"));
+
+        WebDriver fresh = pool.acquire();
+        assertThat(fresh).isNotSameAs(broken);
+        verify(broken).quit();
+        verify(factory, times(2)).createDriver();
+    }
+
+    @Test
+    @DisplayName("release: 借出次数达到上限或池关闭后会话被关闭")
+    void retires_sessions() {
+        PooledWebDriverProvider pool = pool(2, 1);
+        WebDriver d = pool.acquire();
+        pool.release(d);
+        verify(d).quit();
+        assertThat(pool.idleCount()).isZero();
+
+        pool = pool(2, 50);
+        WebDriver idle = pool.acquire();
+        WebDriver busy = pool.acquire();
+        pool.release(idle);
+        pool.destroy();
+        verify(idle).quit();
+        pool.release(busy);
+        verify(busy).quit();
+        assertThatThrownBy(pool::acquire).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("max-size=0: 不池化，每次新建、归还即关闭")
+    void disabled_pool_passes_through() {
+        PooledWebDriverProvider pool = pool(0, 50);
+        WebDriver a = pool.acquire();
+        pool.release(a);
+        WebDriver b = pool.acquire();
+        assertThat(b).isNotSameAs(a);
+        verify(a).quit();
+    }
+}
@@ -0,0 +1,171 @@
+package com.resume.resumeai.crawler;
+
+import com.resume.resumeai.domain.JobPosition;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * HTTP 模式：本地桩服务器返回保存的页面（src/test/resources/fixtures/shixiseng），gzip 压缩传输
+ */
+class ShixisengCrawlerHttpModeTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private WebDriverProvider driverProvider;
+    private FontLoader fontLoader;
+    private ShixisengCrawler crawler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::serveFixture);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        driverProvider = mock(WebDriverProvider.class);
+        fontLoader = mock(FontLoader.class);
+        crawler = new ShixisengCrawler(driverProvider, fontLoader, new FontMapCache(new SimpleMeterRegistry(), 8, ""),
+                new HostRateLimiter(new SimpleMeterRegistry(), 0, 1), new HtmlFetcher(2, 5), 2, "http", baseUrl, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void serveFixture(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        String fixture = null;
+        if (path.equals("/interns")) {
+            fixture = query != null && query.contains("keyword=spa") ? "spa.html"
+                    : query != null && query.contains("keyword=none") ? "empty.html" : "list.html";
+        } else if (path.startsWith("/intern/")) {
+            fixture = "detail-" + path.substring("/intern/".length()) + ".html";
+        }
+        byte[] body = fixture == null ? null : readFixture(fixture);
+        if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept != null && accept.contains("gzip")) {
+            ByteArrayOutputStream gz = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+                out.write(body);
+            }
+            body = gz.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] readFixture(String name) throws IOException {
+        try (InputStream in = ShixisengCrawlerHttpModeTest.class.getResourceAsStream("/fixtures/shixiseng/" + name)) {
+            return in == null ? null : in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("http 模式: 流式解析列表与详情页，字体 URL 补全为绝对地址，只有 JS 渲染的详情页借用浏览器")
+    void crawl_over_http_with_per_page_fallback() {
+        WebDriver driver = mock(WebDriver.class);
+        WebElement desc = mock(WebElement.class);
+        when(driverProvider.acquire()).thenReturn(driver);
+        when(driver.findElement(By.cssSelector(".job_part"))).thenReturn(desc);
+        when(desc.getText()).thenReturn("浏览器渲染的描述");
+
+        List<List<JobPosition>> batches = new CopyOnWriteArrayList<>();
+        crawler.crawl("Java", "北京", batches::add);
+        // 详情页并发抓取，回调顺序不固定，按标题取出各职位
+        Map<String, JobPosition> jobs = batches.stream().flatMap(List::stream)
+                .collect(Collectors.toMap(JobPosition::getJobTitle, j -> j));
+
+        assertThat(jobs).containsOnlyKeys("Java后端实习生", "数据开发实习生", "前端实习生");
+        JobPosition java = jobs.get("Java后端实习生");
+        assertThat(java.getCompanyName()).isEqualTo("优雅科技");
+        assertThat(jobs.get("数据开发实习生").getCompanyName()).isEqualTo("稳健软件");
+        assertThat(jobs.get("前端实习生").getCompanyName()).isEqualTo("智能未来");
+        assertThat(java.getSalary()).isEqualTo("150-200/天");
+        assertThat(java.getSourceUrl()).isEqualTo(baseUrl + "/intern/inn_001");
+        assertThat(java.getLocation()).isEqualTo("北京");
+        assertThat(java.getJobDescription())
+                .isEqualTo("岗位职责：参与 Spring Boot 后端服务开发。 任职要求：熟悉 Java 与 MySQL。");
+        assertThat(jobs.get("数据开发实习生").getJobDescription()).isEqualTo("负责数据仓库建设，熟悉 SQL 与 Python。");
+        assertThat(jobs.get("前端实习生").getJobDescription()).isEqualTo("浏览器渲染的描述");
+        assertThat(batches).hasSize(3);
+
+        verify(fontLoader, atLeastOnce()).downloadFont(baseUrl + "/interns/iconfonts/file?rand=0.42");
+        verify(driver).get(baseUrl + "/intern/inn_js");
+        verify(driverProvider, times(1)).acquire();
+        verify(driverProvider).release(driver);
+        assertThat(hits.get("/interns").get()).isEqualTo(1);
+        assertThat(hits.get("/intern/inn_001").get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("http 模式: 列表页需要 JS 渲染时整体回退到浏览器")
+    void falls_back_to_browser_for_js_listing() {
+        WebDriver driver = mock(WebDriver.class);
+        when(driverProvider.acquire()).thenReturn(driver);
+        when(driver.findElements(any(By.class))).thenReturn(List.of());
+
+        List<JobPosition> jobs = crawler.crawl("spa", "北京");
+
+        assertThat(jobs).isEmpty();
+        verify(driver).get(baseUrl + "/interns?keyword=spa&city=北京");
+        verify(driverProvider).release(driver);
+    }
+
+    @Test
+    @DisplayName("http 模式: 列表容器存在但没有职位时视为空结果，不启动浏览器")
+    void empty_listing_does_not_use_browser() {
+        assertThat(crawler.crawl("none", "北京")).isEmpty();
+        verifyNoInteractions(driverProvider);
+        assertThat(hits.get("/interns").get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("http 模式: 站点不可达时回退到浏览器")
+    void falls_back_to_browser_when_unreachable() {
+        server.stop(0);
+        WebDriver driver = mock(WebDriver.class);
+        when(driverProvider.acquire()).thenReturn(driver);
+        when(driver.findElements(any(By.class))).thenReturn(List.of());
+
+        assertThat(crawler.crawl("Java", "北京")).isEmpty();
+        verify(driverProvider).acquire();
+    }
+}
@@ -1,6 +1,7 @@
 package com.resume.resumeai.crawler;
 
 import com.resume.resumeai.domain.JobPosition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -27,8 +28,8 @@ class ShixisengCrawlerTest {
         driverProvider = mock(WebDriverProvider.class);
         fontLoader = mock(FontLoader.class);
         driver = mock(WebDriver.class);
-        when(driverProvider.createDriver()).thenReturn(driver);
-        shixisengCrawler = new ShixisengCrawler(driverProvider, fontLoader);
+        when(driverProvider.acquire()).thenReturn(driver);
+        shixisengCrawler = new ShixisengCrawler(driverProvider, fontLoader, new FontMapCache(new SimpleMeterRegistry(), 8, ""), new HostRateLimiter(new SimpleMeterRegistry(), 0, 1), null, 1, "browser", "https://www.shixiseng.com", 200);
     }
 
     @Test
@@ -67,7 +68,7 @@ class ShixisengCrawlerTest {
         assertThat(results.get(0).getJobDescription()).isEqualTo("职位详情内容");
         
         verify(driver, atLeastOnce()).get(anyString());
-        verify(driver).quit();
+        verify(driverProvider).release(driver);
     }
     
     @Test
@@ -79,6 +80,50 @@ class ShixisengCrawlerTest {
         List<JobPosition> results = shixisengCrawler.crawl("Java", "北京");
 
         assertThat(results).isEmpty();
-        verify(driver).quit();
+        verify(driverProvider).release(driver);
+    }
+
+    @Test
+    @DisplayName("crawl: 详情页由多个会话并发抓取，每条完成即回调 sink")
+    void crawl_details_in_parallel_with_incremental_sink() {
+        when(driver.getPageSource()).thenReturn("no font here");
+        List<WebElement> items = new java.util.ArrayList<>();
+        for (int i = 0; i < 4; i++) items.add(listItem("职位" + i, "http://shixiseng.com/job/" + i));
+        when(driver.findElements(By.cssSelector(".intern-wrap.intern-item"))).thenReturn(items);
+        stubDetail(driver);
+        WebDriver second = mock(WebDriver.class);
+        stubDetail(second);
+        when(driverProvider.tryAcquire()).thenReturn(second);
+
+        ShixisengCrawler crawler = new ShixisengCrawler(driverProvider, fontLoader, new FontMapCache(new SimpleMeterRegistry(), 8, ""), new HostRateLimiter(new SimpleMeterRegistry(), 0, 1), null, 2, "browser", "https://www.shixiseng.com", 200);
+        List<List<JobPosition>> batches = new java.util.concurrent.CopyOnWriteArrayList<>();
+        crawler.crawl("Java", "北京", batches::add);
+        List<JobPosition> results = batches.stream().flatMap(List::stream).toList();
+
+        assertThat(results).hasSize(4).allMatch(j -> "职位详情内容".equals(j.getJobDescription()));
+        assertThat(batches).hasSize(4).allMatch(b -> b.size() == 1);
+        verify(driverProvider).release(driver);
+        verify(driverProvider).release(second);
+    }
+
+    private static WebElement listItem(String title, String href) {
+        WebElement item = mock(WebElement.class);
+        WebElement titleA = mock(WebElement.class);
+        WebElement compA = mock(WebElement.class);
+        WebElement salaryDay = mock(WebElement.class);
+        when(item.findElement(By.cssSelector(".f-l.intern-detail__job a"))).thenReturn(titleA);
+        when(titleA.getText()).thenReturn(title);
+        when(titleA.getAttribute("href")).thenReturn(href);
+        when(item.findElement(By.cssSelector(".f-r.intern-detail__company a"))).thenReturn(compA);
+        when(compA.getText()).thenReturn("测试公司");
+        when(item.findElement(By.cssSelector(".f-l.intern-detail__job .day"))).thenReturn(salaryDay);
+        when(salaryDay.getText()).thenReturn("100-200/天");
+        return item;
+    }
+
+    private static void stubDetail(WebDriver d) {
+        WebElement descElem = mock(WebElement.class);
+        when(d.findElement(By.cssSelector(".job_part"))).thenReturn(descElem);
+        when(descElem.getText()).thenReturn("职位详情内容");
     }
 }
@@ -0,0 +1,147 @@
+package com.resume.resumeai.integration;
+
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.domain.Resume;
+import com.resume.resumeai.domain.User;
+import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.repository.ResumeRepository;
+import com.resume.resumeai.repository.StatsRepository;
+import com.resume.resumeai.repository.UserRepository;
+import com.resume.resumeai.service.AdminStatsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AdminStatsTest {
+    @Autowired JobRepository jobRepository;
+    @Autowired StatsRepository statsRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired ResumeRepository resumeRepository;
+    @Autowired AdminStatsService adminStatsService;
+
+    @Test
+    @DisplayName("统计聚合: 新增、重复抓取移动日期、删除后增量结果与全量重算一致")
+    void incremental_aggregates_match_rebuild() {
+        LocalDate day1 = LocalDate.of(2025, 6, 1);
+        LocalDate day2 = day1.plusDays(1);
+        List<JobPosition> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) jobs.add(job("https://www.stats-a.test/j/" + i, day1.atTime(9, 0)));
+        jobs.add(job("https://stats-b.test/j/0", day1.atTime(10, 0)));
+        jobRepository.saveAll(jobs);
+
+        // 同一职位再次抓取：从 day1 移到 day2，同一批内重复出现只计一次
+        jobRepository.saveAll(new ArrayList<>(List.of(
+                job("https://www.stats-a.test/j/0", day2.atTime(9, 0)),
+                job("https://www.stats-a.test/j/0", day2.atTime(11, 0)))));
+        jobRepository.deleteById(jobs.get(3).getId());
+
+        assertThat(daily(day1)).isEqualTo(2);
+        assertThat(daily(day2)).isEqualTo(1);
+        assertThat(source("stats-a.test")).isEqualTo(3);
+        assertThat(source("stats-b.test")).isEqualTo(0);
+
+        Map<String, Long> counters = withoutRebuiltAt(statsRepository.counters());
+        List<Map<String, Object>> dailyJobs = statsRepository.dailyJobs(LocalDate.of(2000, 1, 1));
+        List<Map<String, Object>> sources = statsRepository.topSources(100);
+        adminStatsService.rebuild();
+        assertThat(withoutRebuiltAt(statsRepository.counters())).isEqualTo(counters);
+        assertThat(statsRepository.dailyJobs(LocalDate.of(2000, 1, 1))).isEqualTo(dailyJobs);
+        assertThat(statsRepository.topSources(100)).isEqualTo(sources);
+    }
+
+    @Test
+    @DisplayName("统计聚合: 并发重复抓取同一职位，增量结果仍与全量重算一致")
+    void concurrent_upserts_keep_aggregates_consistent() throws Exception {
+        String url = "https://stats-c.test/j/0";
+        LocalDate base = LocalDate.of(2025, 7, 1);
+        jobRepository.saveAll(new ArrayList<>(List.of(job(url, base.atTime(9, 0)))));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                LocalDateTime crawlTime = base.plusDays(i % 5).atTime(9, 0);
+                futures.add(pool.submit(() -> jobRepository.saveAll(new ArrayList<>(List.of(job(url, crawlTime))))));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(source("stats-c.test")).isEqualTo(1);
+        List<Map<String, Object>> dailyJobs = statsRepository.dailyJobs(LocalDate.of(2000, 1, 1));
+        adminStatsService.rebuild();
+        assertThat(statsRepository.dailyJobs(LocalDate.of(2000, 1, 1))).isEqualTo(dailyJobs);
+    }
+
+    @Test
+    @DisplayName("统计聚合: 删除用户时扣减用户数与级联删除的简历数")
+    void deleting_user_subtracts_cascaded_resumes() {
+        User u = new User();
+        u.setEmail("stats-delete@test.com");
+        u.setPasswordHash("x");
+        u.setNickname("统计");
+        userRepository.create(u);
+        for (int i = 0; i < 2; i++) {
+            Resume r = new Resume();
+            r.setUserId(u.getId());
+            r.setTitle("简历" + i);
+            r.setContentJson("{}");
+            r.setStatus("draft");
+            resumeRepository.create(r);
+        }
+        Map<String, Long> before = statsRepository.counters();
+
+        userRepository.deleteById(u.getId());
+        userRepository.deleteById(u.getId());
+
+        Map<String, Long> after = statsRepository.counters();
+        assertThat(after.getOrDefault(StatsRepository.USERS, 0L)).isEqualTo(before.getOrDefault(StatsRepository.USERS, 0L) - 1);
+        assertThat(after.getOrDefault(StatsRepository.RESUMES, 0L)).isEqualTo(before.getOrDefault(StatsRepository.RESUMES, 0L) - 2);
+        adminStatsService.rebuild();
+        Map<String, Long> rebuilt = statsRepository.counters();
+        assertThat(rebuilt.getOrDefault(StatsRepository.USERS, 0L)).isEqualTo(after.getOrDefault(StatsRepository.USERS, 0L));
+        assertThat(rebuilt.getOrDefault(StatsRepository.RESUMES, 0L)).isEqualTo(after.getOrDefault(StatsRepository.RESUMES, 0L));
+    }
+
+    private long daily(LocalDate day) {
+        return statsRepository.dailyJobs(day).stream()
+                .filter(m -> day.equals(m.get("date"))).mapToLong(m -> (Long) m.get("count")).sum();
+    }
+
+    private long source(String source) {
+        return statsRepository.topSources(100).stream()
+                .filter(m -> source.equals(m.get("source"))).mapToLong(m -> (Long) m.get("count")).sum();
+    }
+
+    private static Map<String, Long> withoutRebuiltAt(Map<String, Long> counters) {
+        counters.remove(StatsRepository.REBUILT_AT);
+        return counters;
+    }
+
+    private static JobPosition job(String url, LocalDateTime crawlTime) {
+        JobPosition j = new JobPosition();
+        j.setJobTitle("统计聚合");
+        j.setCompanyName("统计公司");
+        j.setJobDescription("desc");
+        j.setLocation("北京");
+        j.setSourceUrl(url);
+        j.setCrawlTime(crawlTime);
+        return j;
+    }
+}
@@ -0,0 +1,58 @@
+package com.resume.resumeai.integration;
+
+import com.resume.resumeai.crawler.IngestResult;
+import com.resume.resumeai.crawler.JobDeduplicator;
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.repository.JobRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class JobIngestTest {
+    @Autowired JobDeduplicator deduplicator;
+    @Autowired JobRepository jobRepository;
+    @Autowired NamedParameterJdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("重复抓取同一批职位: 首次新增，再次跳过，内容变化时原行更新")
+    void repeated_crawl_upserts_by_source_url() {
+        assertThat(count("SELECT COUNT(*) FROM job_positions WHERE url_hash IS NULL")).isZero();
+
+        List<JobPosition> first = List.of(job("https://ingest.test/j/1", "Java Spring"), job("https://ingest.test/j/2", "Go"));
+        assertThat(deduplicator.ingest(first)).isEqualTo(new IngestResult(2, 0, 0));
+        assertThat(first).allMatch(j -> j.getId() != null);
+
+        List<JobPosition> again = List.of(job("https://ingest.test/j/1/?pcm=x", "Java Spring"), job("https://ingest.test/j/2", "Go Kafka"));
+        assertThat(deduplicator.ingest(again)).isEqualTo(new IngestResult(0, 1, 1));
+        assertThat(again.get(1).getId()).isEqualTo(first.get(1).getId());
+
+        assertThat(count("SELECT COUNT(*) FROM job_positions WHERE source_url LIKE 'https://ingest.test/%'")).isEqualTo(2);
+        assertThat(jobRepository.findByIds(List.of(first.get(1).getId())).get(0).getJobDescription()).isEqualTo("Go Kafka");
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Map.of(), Long.class);
+    }
+
+    private static JobPosition job(String url, String description) {
+        JobPosition j = new JobPosition();
+        j.setJobTitle("后端开发");
+        j.setCompanyName("入库测试");
+        j.setJobDescription(description);
+        j.setLocation("北京");
+        j.setSourceUrl(url);
+        j.setCrawlTime(LocalDateTime.now());
+        return j;
+    }
+}
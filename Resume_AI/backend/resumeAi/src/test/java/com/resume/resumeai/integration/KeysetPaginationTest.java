@@ -0,0 +1,86 @@
+package com.resume.resumeai.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.util.PageCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+public class KeysetPaginationTest {
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired JobRepository jobRepository;
+
+    @Test
+    @DisplayName("数据库键集分页: 抓取时间相同的职位按 id 区分，逐页读取与 offset 分页顺序一致且不重不漏")
+    void repository_keyset_matches_offset_order() {
+        LocalDateTime sameTime = LocalDateTime.of(2026, 1, 1, 8, 0);
+        List<JobPosition> jobs = new ArrayList<>();
+        for (int i = 0; i < 7; i++) jobs.add(job("https://keyset.test/j/" + i, sameTime));
+        jobRepository.saveAll(jobs);
+
+        List<Long> expected = jobRepository.search("键集分页", null, 0, 100).stream().map(JobPosition::getId).toList();
+        List<Long> walked = new ArrayList<>();
+        PageCursor after = null;
+        while (true) {
+            List<JobPosition> rows = jobRepository.searchAfter("键集分页", null, after, 3);
+            rows.forEach(j -> walked.add(j.getId()));
+            if (rows.size() < 3) break;
+            JobPosition last = rows.get(rows.size() - 1);
+            after = PageCursor.of(last.getCrawlTime(), last.getId());
+        }
+        assertThat(expected).hasSize(7);
+        assertThat(walked).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("接口游标模式: 按 next_cursor 翻页直到为空，覆盖全部职位；非法游标返回 400")
+    void api_cursor_walk() throws Exception {
+        int total = objectMapper.readTree(mockMvc.perform(get("/api/jobs/search").param("pageSize", "1"))
+                .andReturn().getResponse().getContentAsString()).get("data").get("total").asInt();
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            JsonNode node = objectMapper.readTree(mockMvc.perform(get("/api/jobs/search")
+                            .param("pageSize", "4").param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertThat(node.get("data").has("total")).isFalse();
+            node.get("data").get("items").forEach(j -> ids.add(j.get("id").asLong()));
+            cursor = node.hasNonNull("next_cursor") ? node.get("next_cursor").asText() : null;
+        } while (cursor != null);
+
+        assertThat(ids).doesNotHaveDuplicates().hasSize(total);
+        mockMvc.perform(get("/api/jobs/search").param("cursor", "bogus")).andExpect(status().isBadRequest());
+    }
+
+    private static JobPosition job(String url, LocalDateTime crawlTime) {
+        JobPosition j = new JobPosition();
+        j.setJobTitle("键集分页");
+        j.setCompanyName("分页测试");
+        j.setJobDescription("keyset");
+        j.setLocation("杭州");
+        j.setSourceUrl(url);
+        j.setCrawlTime(crawlTime);
+        return j;
+    }
+}
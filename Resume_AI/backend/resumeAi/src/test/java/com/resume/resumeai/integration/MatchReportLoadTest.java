@@ -0,0 +1,124 @@
+package com.resume.resumeai.integration;
+
+import com.resume.resumeai.ResumeAiApplication;
+import com.resume.resumeai.security.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /api/ai/match-report 并发容量对比：模型调用以固定延迟模拟并统计同时在途的调用数，Tomcat 平台线程数限制为 16，
+ * 分别以平台线程与虚拟线程启动应用并发起同样数量的并发请求，比较在途调用数的峰值。
+ * 每次运行启动两次完整应用，属于负载测试，默认构建不运行：mvn -Pload test
+ */
+@Tag("load")
+public class MatchReportLoadTest {
+    private static final long MODEL_LATENCY_MS = 1000;
+    private static final int TOMCAT_THREADS = 16;
+    private static final int CONCURRENT_REQUESTS = 64;
+    private static final String REPORT_JSON = "{\"overall_score\":80,\"skill_match\":80,\"experience_relevance\":80,"
+            + "\"culture_fit\":80,\"analysis\":\"ok\",\"suggestions\":[],\"missing_keywords\":[]}";
+
+    @Test
+    @DisplayName("匹配报告并发容量: 虚拟线程不受 Tomcat 线程池大小限制")
+    void virtualThreadsRaiseConcurrentCapacity() throws Exception {
+        // 平台线程：每个请求占用一个 Tomcat 线程等待模型返回，同时在途的调用不超过线程数
+        assertThat(run(false)).isLessThanOrEqualTo(TOMCAT_THREADS);
+        // 虚拟线程：在途调用数超过平台线程池大小
+        assertThat(run(true)).isGreaterThan(TOMCAT_THREADS);
+    }
+
+    /**
+     * @return 压测期间同时在途的模型调用数峰值
+     */
+    private int run(boolean virtualThreads) throws Exception {
+        String db = virtualThreads ? "load_virtual" : "load_platform";
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(ResumeAiApplication.class, SlowChatModelConfig.class)
+                .profiles("test")
+                // 以命令行参数传入，优先级高于 application.properties 与 test profile
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+                        "--spring.datasource.url=jdbc:h2:mem:" + db + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE",
+                        "--ai.cache.enabled=false",
+                        "--search.index.enabled=false",
+                        "--logging.level.com.resume.resumeai=WARN")) {
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            String token = ctx.getBean(JwtUtil.class).issueToken(1L, "load@example.com");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/ai/match-report"))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"resume_text\":\"Java 后端\",\"job_description\":\"Java 开发\"}"))
+                    .build();
+
+            burst(client, request, CONCURRENT_REQUESTS);
+            return ctx.getBean(SlowChatModel.class).peakInFlight();
+        }
+    }
+
+    private static void burst(HttpClient client, HttpRequest request, int n) throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> f : futures) {
+            assertThat(f.get().statusCode()).isEqualTo(200);
+        }
+    }
+
+    /**
+     * 固定延迟的模型桩，记录同时在途的调用数峰值
+     */
+    static class SlowChatModel implements ChatModel {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(MODEL_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(REPORT_JSON))));
+        }
+
+        int peakInFlight() { return peak.get(); }
+    }
+
+    @TestConfiguration
+    static class SlowChatModelConfig {
+        @Bean
+        @Primary
+        SlowChatModel slowChatModel() {
+            return new SlowChatModel();
+        }
+    }
+}
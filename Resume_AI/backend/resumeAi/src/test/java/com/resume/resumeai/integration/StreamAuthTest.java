@@ -0,0 +1,63 @@
+package com.resume.resumeai.integration;
+
+import com.resume.resumeai.domain.dto.ai.AiStreamEvent;
+import com.resume.resumeai.domain.dto.ai.ResumePolishRequest;
+import com.resume.resumeai.domain.dto.ai.ResumePolishResponse;
+import com.resume.resumeai.security.JwtUtil;
+import com.resume.resumeai.service.AiService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SSE 接口经过完整安全过滤链：首次派发校验令牌，ASYNC 派发从请求属性恢复同一身份，不额外放行
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StreamAuthTest {
+    @Autowired MockMvc mockMvc;
+    @Autowired JwtUtil jwtUtil;
+    @MockBean AiService aiService;
+
+    @Test
+    @DisplayName("流式润色: 携带令牌时异步派发仍为已认证，未携带令牌时返回 401")
+    void streamKeepsAuthenticationAcrossAsyncDispatch() throws Exception {
+        ResumePolishResponse resp = new ResumePolishResponse();
+        resp.setPolishedText("优化后的文本");
+        when(aiService.polishStream(any(ResumePolishRequest.class)))
+                .thenReturn(Flux.just(AiStreamEvent.delta("优化"), AiStreamEvent.result(resp)));
+        String body = "{\"text\":\"我有五年Java经验\"}";
+
+        mockMvc.perform(post("/api/ai/polish/stream").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isUnauthorized());
+
+        String token = jwtUtil.issueToken(1L, "stream@example.com");
+        var result = mockMvc.perform(post("/api/ai/polish/stream")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String sse = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(sse).contains("event:result");
+    }
+}
@@ -0,0 +1,110 @@
+package com.resume.resumeai.middleware;
+
+import com.resume.resumeai.repository.RateLimitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseRateLimiterTest {
+
+    private final long[] now = {1_000_000};
+    private NamedParameterJdbcTemplate jdbc;
+    private RateLimitRepository repository;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:rate_limit_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(ds);
+        jdbc = new NamedParameterJdbcTemplate(ds);
+        repository = spy(new RateLimitRepository(jdbc));
+        tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+    }
+
+    private DatabaseRateLimiter replica(String routes) {
+        return new DatabaseRateLimiter(RateLimitRules.parse("50/60", routes), repository, tx, 20, () -> now[0]);
+    }
+
+    @Test
+    @DisplayName("多实例: 两个实例合计放行不超过 limit，按租约批量领取额度，额度用完后本地拒绝不再访问数据库")
+    void replicas_share_limit_with_batched_leases() {
+        DatabaseRateLimiter a = replica("");
+        DatabaseRateLimiter b = replica("");
+
+        int allowed = 0;
+        for (int i = 0; i < 200; i++) {
+            DatabaseRateLimiter r = i % 2 == 0 ? a : b;
+            if (r.tryAcquire("/api/resumes", "user:1").allowed()) allowed++;
+        }
+
+        assertThat(allowed).isEqualTo(50);
+        // 每次领 5 个：10 次成功的租约 + 每个实例一次额度已用完的查询
+        verify(repository, times(12)).lease(anyString(), anyLong(), eq(5), eq(50), anyLong());
+        RateLimitBackend.Decision rejected = a.tryAcquire("/api/resumes", "user:1");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isPositive();
+
+        // 下一个窗口重新计数，其他调用方不受影响
+        assertThat(b.tryAcquire("/api/resumes", "user:2").allowed()).isTrue();
+        now[0] += 60_000;
+        assertThat(a.tryAcquire("/api/resumes", "user:1").allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("租约大小: 额度紧的路由逐次领取；窗口结束后过期的计数行与本地租约被清理")
+    void small_limits_lease_one_and_expired_rows_are_deleted() {
+        DatabaseRateLimiter a = replica("/api/ai/**=3/60");
+        DatabaseRateLimiter b = replica("/api/ai/**=3/60");
+        assertThat(a.tryAcquire("/api/ai/polish", "user:1").allowed()).isTrue();
+        assertThat(a.tryAcquire("/api/ai/polish", "user:1").allowed()).isTrue();
+        assertThat(b.tryAcquire("/api/ai/polish", "user:1").allowed()).isTrue();
+        assertThat(b.tryAcquire("/api/ai/polish", "user:1").allowed()).isFalse();
+        assertThat(a.tryAcquire("/api/ai/polish", "user:1").allowed()).isFalse();
+        verify(repository, times(5)).lease(anyString(), anyLong(), eq(1), eq(3), anyLong());
+
+        now[0] += 3 * 60_000;
+        a.tryAcquire("/api/resumes", "user:9");
+        verify(repository, never()).deleteExpired(anyLong());
+        a.sweep(now[0]);
+        Integer rows = jdbc.queryForObject("SELECT COUNT(*) FROM rate_limit_counters WHERE bucket_key LIKE '/api/ai/%'", Map.of(), Integer.class);
+        assertThat(rows).isZero();
+        assertThat(a.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("清理: 正在预领额度的租约不被移除，释放后下一轮清理移除；被移除后的请求重新建租约")
+    void sweep_skips_leases_in_use() throws Exception {
+        DatabaseRateLimiter a = replica("");
+        doAnswer(inv -> {
+            // 持有租约锁期间，窗口结束并由清理线程执行一轮清理
+            now[0] += 60_000;
+            Thread sweeper = new Thread(() -> a.sweep(now[0]));
+            sweeper.start();
+            sweeper.join();
+            return inv.callRealMethod();
+        }).doCallRealMethod().when(repository).lease(anyString(), anyLong(), anyInt(), anyInt(), anyLong());
+
+        assertThat(a.tryAcquire("/api/resumes", "user:1").allowed()).isTrue();
+        assertThat(a.size()).isEqualTo(1);
+
+        a.sweep(now[0] + 60_000);
+        assertThat(a.size()).isZero();
+        now[0] += 60_000;
+        assertThat(a.tryAcquire("/api/resumes", "user:1").allowed()).isTrue();
+        assertThat(a.size()).isEqualTo(1);
+    }
+}
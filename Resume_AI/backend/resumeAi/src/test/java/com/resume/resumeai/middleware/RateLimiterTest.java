@@ -0,0 +1,101 @@
+package com.resume.resumeai.middleware;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private final long[] now = {0};
+
+    private RateLimiter limiter(String routes, int maxKeys) {
+        return new RateLimiter(RateLimitRules.parse("3/60", routes), maxKeys, () -> now[0]);
+    }
+
+    @Test
+    @DisplayName("令牌桶: 突发 limit 次后拒绝并给出等待时长，按 window/limit 间隔补充")
+    void burst_then_refill() {
+        RateLimiter limiter = limiter("", 100);
+        for (int i = 0; i < 3; i++) assertThat(limiter.tryAcquire("/api/resumes/{id}", "user:1").allowed()).isTrue();
+
+        RateLimitBackend.Decision rejected = limiter.tryAcquire("/api/resumes/{id}", "user:1");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(20));
+
+        now[0] = TimeUnit.SECONDS.toNanos(20);
+        assertThat(limiter.tryAcquire("/api/resumes/{id}", "user:1").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("/api/resumes/{id}", "user:1").allowed()).isFalse();
+        // 其他用户、其他路由各自计数
+        assertThat(limiter.tryAcquire("/api/resumes/{id}", "user:2").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("/api/resumes", "user:1").allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("规则: 按顺序匹配路由模板，未匹配使用默认规则；格式错误抛出 IllegalArgumentException")
+    void route_rules() {
+        RateLimitRules rules = RateLimitRules.parse("3/60", "/api/ai/**=1/10, /api/**=50/60");
+        assertThat(rules.ruleFor("/api/ai/polish")).isEqualTo(new RateLimitBackend.Rule("/api/ai/**", 1, 10));
+        assertThat(rules.ruleFor("/api/resumes/{id}").limit()).isEqualTo(50);
+        assertThat(rules.ruleFor("unmatched").limit()).isEqualTo(3);
+
+        RateLimiter limiter = new RateLimiter(rules, 100, () -> now[0]);
+
+        assertThat(limiter.tryAcquire("/api/ai/polish", "ip:1.2.3.4").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("/api/ai/polish", "ip:1.2.3.4").allowed()).isFalse();
+        assertThatThrownBy(() -> RateLimitRules.parseRules("/api/**=abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRules.parseRules("/api/**=0/60")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("内存上界: 回满的桶被清扫，超过 max-keys 时先清扫，仍超出则拒绝新调用方")
+    void idle_keys_are_evicted() {
+        RateLimiter limiter = limiter("", 2);
+        limiter.tryAcquire("/a", "user:1");
+        limiter.tryAcquire("/a", "user:2");
+        assertThat(limiter.size()).isEqualTo(2);
+
+        // 已满且都未回满：新调用方被拒绝，已有调用方照常计数
+        RateLimitBackend.Decision untracked = limiter.tryAcquire("/a", "user:3");
+        assertThat(untracked.allowed()).isFalse();
+        assertThat(untracked.retryAfterNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(20));
+        assertThat(limiter.tryAcquire("/a", "user:1").allowed()).isTrue();
+        assertThat(limiter.size()).isEqualTo(2);
+
+        now[0] = TimeUnit.SECONDS.toNanos(61);
+        limiter.tryAcquire("/a", "user:4");
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("拦截器: 按路由模板限流，超限返回 429 与 Retry-After，并记录指标")
+    void interceptor_rejects_with_retry_after() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(true,
+                new RateLimiter(RateLimitRules.parse("1/60", ""), 100, () -> now[0]), registry);
+
+        assertThat(interceptor.preHandle(request("/api/resumes/1"), new MockHttpServletResponse(), null)).isTrue();
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("/api/resumes/2"), res, null)).isFalse();
+
+        assertThat(res.getStatus()).isEqualTo(429);
+        assertThat(res.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(res.getContentAsString()).contains("RATE_LIMITED");
+        assertThat(registry.counter("http.ratelimit.requests", "route", "/api/resumes/{id}", "result", "rejected").count()).isEqualTo(1);
+        assertThat(registry.get("http.ratelimit.keys").gauge().value()).isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", uri);
+        req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/resumes/{id}");
+        req.setRemoteAddr("10.0.0.1");
+        return req;
+    }
+}
@@ -0,0 +1,142 @@
+package com.resume.resumeai.middleware;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.resume.resumeai.middleware.RequestLoggingFilter.BodyCapture;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestLoggingFilterTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attach() {
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void detach() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+
+    private static MockHttpServletRequest post(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/resumes");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /** 读完请求体并原样回写，返回指定状态码 */
+    private static FilterChain echo(int status, AtomicReference<String> traceId) {
+        return (req, res) -> {
+            traceId.set(MDC.get("traceId"));
+            byte[] body = req.getInputStream().readAllBytes();
+            ((jakarta.servlet.http.HttpServletResponse) res).setStatus(status);
+            res.setContentType("application/json");
+            res.getOutputStream().write(body);
+        };
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+
+    @Test
+    @DisplayName("成功请求: 响应体直接写出不受影响，抽样率为 0 时不输出任何日志，追踪 ID 写入 MDC 与响应头")
+    void unsampled_success_is_silent_and_passes_body_through() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(true, 0, 1000, BodyCapture.ON_ERROR, 16);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> traceId = new AtomicReference<>();
+        String body = "{\"title\":\"" + "x".repeat(100) + "\"}";
+
+        filter.doFilter(post(body), response, echo(200, traceId));
+
+        assertThat(response.getContentAsString()).isEqualTo(body);
+        assertThat(traceId.get()).hasSize(16).isEqualTo(response.getHeader(RequestLoggingFilter.TRACE_HEADER));
+        assertThat(MDC.get("traceId")).isNull();
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    @DisplayName("错误请求: 总是以 WARN 记录，并输出截断到 max-body-bytes 的请求与响应报文")
+    void error_logs_truncated_bodies() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(true, 0, 1000, BodyCapture.ON_ERROR, 16);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String body = "{\"title\":\"" + "x".repeat(100) + "\"}";
+
+        filter.doFilter(post(body), response, echo(400, new AtomicReference<>()));
+
+        assertThat(response.getContentAsString()).isEqualTo(body);
+        assertThat(appender.list).allMatch(e -> e.getLevel() == Level.WARN);
+        assertThat(messages()).hasSize(3);
+        assertThat(messages().get(0)).startsWith("[REQ END] POST /api/resumes -> 400");
+        assertThat(messages().get(1)).isEqualTo("[BODY REQ] " + body.substring(0, 16) + "...(truncated, " + body.length() + " bytes)");
+        assertThat(messages().get(2)).startsWith("[BODY RESP] {\"title\":");
+    }
+
+    @Test
+    @DisplayName("抽样: 抽中的成功请求只记一行摘要；body-capture=always 时附带报文；getWriter 写出的响应也会被复制")
+    void sampled_success_logs_summary_and_optional_bodies() throws Exception {
+        FilterChain writerChain = (req, res) -> {
+            req.getReader().lines().count();
+            res.setContentType("text/plain");
+            res.getWriter().write("ok");
+        };
+
+        new RequestLoggingFilter(true, 1.0, 1000, BodyCapture.ON_ERROR, 64)
+                .doFilter(post("{}"), new MockHttpServletResponse(), writerChain);
+        assertThat(messages()).singleElement().asString().startsWith("[REQ END] POST /api/resumes -> 200");
+
+        appender.list.clear();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new RequestLoggingFilter(true, 1.0, 1000, BodyCapture.ALWAYS, 64).doFilter(post("{}"), response, writerChain);
+        assertThat(response.getContentAsString()).isEqualTo("ok");
+        assertThat(messages()).containsSubsequence("[BODY REQ] {}", "[BODY RESP] ok");
+        assertThat(appender.list).allMatch(e -> e.getLevel() == Level.INFO);
+    }
+
+    @Test
+    @DisplayName("SSE: 只有登记的流式接口不包装响应，路径恰好以 /stream 结尾的其他接口照常复制报文")
+    void event_stream_routes_are_not_wrapped() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(true, 1.0, 1000, BodyCapture.ALWAYS, 64,
+                List.of("/api/ai/polish/stream"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Object> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> seen.set(res);
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/ai/polish/stream"), response, chain);
+        assertThat(seen.get()).isSameAs(response);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/resumes/stream"), response, chain);
+        assertThat(seen.get()).isNotSameAs(response);
+    }
+
+    @Test
+    @DisplayName("配置: body-capture 接受 none/on-error/always，其他值报错")
+    void parses_body_capture_mode() {
+        assertThat(BodyCapture.parse("on-error")).isEqualTo(BodyCapture.ON_ERROR);
+        assertThat(BodyCapture.parse(" Always ")).isEqualTo(BodyCapture.ALWAYS);
+        assertThatThrownBy(() -> BodyCapture.parse("sometimes")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
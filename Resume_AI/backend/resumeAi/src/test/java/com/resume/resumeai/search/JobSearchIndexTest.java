@@ -0,0 +1,168 @@
+package com.resume.resumeai.search;
+
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.domain.event.JobDeletedEvent;
+import com.resume.resumeai.domain.event.JobsSavedEvent;
+import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.util.PageCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobSearchIndexTest {
+
+    private JobRepository jobRepository;
+    private JobSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(JobRepository.class);
+        when(jobRepository.findBatchAfterId(anyLong(), anyInt())).thenReturn(List.of(
+                job(1L, "前端开发工程师", "优雅科技", "React Vue JavaScript 前端性能优化", "上海", 1),
+                job(2L, "后端开发工程师", "稳健软件", "Java Spring Boot MySQL Redis", "北京", 2),
+                job(3L, "Java 架构师", "智能未来", "Java 分布式 高并发 Java", "北京", 3)
+        ));
+        index = new JobSearchIndex(jobRepository, true);
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("search: 中文关键词按二元组匹配并返回总数")
+    void search_chinese_bigrams() {
+        JobSearchHits hits = index.search("开发工程师", null, 0, 10);
+        assertThat(hits.getTotal()).isEqualTo(2);
+        assertThat(hits.getJobIds()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("search: 关键词与城市同时过滤，按相关度排序")
+    void search_keyword_and_city_ranked() {
+        JobSearchHits hits = index.search("java", "北京", 0, 10);
+        assertThat(hits.getTotal()).isEqualTo(2);
+        // 3 号职位标题与描述中多次出现 Java，相关度更高
+        assertThat(hits.getJobIds()).containsExactly(3L, 2L);
+    }
+
+    @Test
+    @DisplayName("search: 无关键词时按抓取时间倒序分页")
+    void search_without_keywords_paginates() {
+        JobSearchHits page1 = index.search(null, null, 0, 2);
+        JobSearchHits page2 = index.search(null, null, 2, 2);
+        assertThat(page1.getTotal()).isEqualTo(3);
+        assertThat(page1.getJobIds()).containsExactly(3L, 2L);
+        assertThat(page2.getJobIds()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("searchAfter: 按游标逐页读取，结果与 offset 分页一致，最后一页没有游标")
+    void search_after_follows_cursor() {
+        JobSearchHits page1 = index.searchAfter(null, null, null, 2);
+        assertThat(page1.getJobIds()).containsExactly(3L, 2L);
+        assertThat(page1.getNextCursor()).isNotNull();
+
+        JobSearchHits page2 = index.searchAfter(null, null, PageCursor.decode(page1.getNextCursor().encode()), 2);
+        assertThat(page2.getJobIds()).containsExactly(1L);
+        assertThat(page2.getNextCursor()).isNull();
+
+        JobSearchHits ranked = index.searchAfter("java", null, null, 1);
+        assertThat(ranked.getJobIds()).containsExactly(3L);
+        assertThat(index.searchAfter("java", null, ranked.getNextCursor(), 1).getJobIds()).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("事件: 新增与删除职位后索引增量更新")
+    void incremental_updates() {
+        index.onJobsSaved(new JobsSavedEvent(List.of(job(4L, "数据分析师", "洞察数据", "Python SQL", "深圳", 4))));
+        assertThat(index.search("python", null, 0, 10).getJobIds()).containsExactly(4L);
+
+        index.onJobDeleted(new JobDeletedEvent(2L));
+        assertThat(index.search("java", null, 0, 10).getJobIds()).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("事件: 同一职位反复更新时旧槽位被压缩，槽位数与倒排表条目数不随更新次数增长")
+    void repeated_upserts_stay_bounded() {
+        long postingsBefore = index.postingCount();
+        index.onJobsSaved(new JobsSavedEvent(List.of(
+                job(2L, "后端开发工程师", "稳健软件", "Java Spring Boot MySQL Redis", "北京", 2))));
+        long perUpsert = index.postingCount() - postingsBefore;
+        for (int i = 0; i < 5 * JobSearchIndex.COMPACT_MIN_DELETED; i++) {
+            index.onJobsSaved(new JobsSavedEvent(List.of(
+                    job(2L, "后端开发工程师", "稳健软件", "Java Spring Boot MySQL Redis", "北京", 2 + i))));
+        }
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.slotCount()).isLessThanOrEqualTo(3 + JobSearchIndex.COMPACT_MIN_DELETED);
+        assertThat(index.postingCount()).isLessThanOrEqualTo(postingsBefore + perUpsert * JobSearchIndex.COMPACT_MIN_DELETED);
+        assertThat(index.search("java", null, 0, 10).getJobIds()).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("match: 以简历文本对全量职位做余弦打分并返回 Top-K")
+    void match_resume_text() {
+        JobSearchHits hits = index.match("五年 Java 后端开发经验，熟悉 Spring Boot 与 MySQL", 2);
+        assertThat(hits.getJobIds()).hasSize(2);
+        assertThat(hits.getJobIds().get(0)).isEqualTo(2L);
+        assertThat(hits.getScores().get(0)).isBetween(0.0, 1.0).isGreaterThan(hits.getScores().get(1));
+        assertThat(index.match("无关文本 golang", 5).getJobIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search: 未收录的词项返回空结果")
+    void search_unknown_term() {
+        JobSearchHits hits = index.search("golang", null, 0, 10);
+        assertThat(hits.getTotal()).isZero();
+        assertThat(hits.getJobIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("canSearch: 单个汉字的关键词交给数据库子串匹配")
+    void can_search_rejects_single_han() {
+        assertThat(index.canSearch("开发")).isTrue();
+        assertThat(index.canSearch("java")).isTrue();
+        assertThat(index.canSearch(null)).isTrue();
+        assertThat(index.canSearch("京")).isFalse();
+        assertThat(index.canSearch("java 京")).isFalse();
+    }
+
+    @Test
+    @DisplayName("rebuild: 加载期间到达的写入在换入新索引前重放")
+    void rebuild_replays_concurrent_writes() {
+        when(jobRepository.findBatchAfterId(anyLong(), anyInt())).thenAnswer(inv -> {
+            // 加载过程中旧索引仍可查询，并收到新增与删除事件
+            assertThat(index.search("java", null, 0, 10).getTotal()).isEqualTo(2);
+            index.onJobsSaved(new JobsSavedEvent(List.of(job(5L, "Go 开发", "新锐", "Golang", "杭州", 5))));
+            index.onJobDeleted(new JobDeletedEvent(3L));
+            return List.of(
+                    job(2L, "后端开发工程师", "稳健软件", "Java Spring Boot MySQL Redis", "北京", 2),
+                    job(3L, "Java 架构师", "智能未来", "Java 分布式 高并发 Java", "北京", 3));
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("golang", null, 0, 10).getJobIds()).containsExactly(5L);
+        assertThat(index.search("java", null, 0, 10).getJobIds()).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    private static JobPosition job(Long id, String title, String company, String desc, String location, int minutes) {
+        JobPosition j = new JobPosition();
+        j.setId(id);
+        j.setJobTitle(title);
+        j.setCompanyName(company);
+        j.setJobDescription(desc);
+        j.setLocation(location);
+        j.setCrawlTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(minutes));
+        return j;
+    }
+}
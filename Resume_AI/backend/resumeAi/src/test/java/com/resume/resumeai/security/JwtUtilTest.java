@@ -7,6 +7,9 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(SpringExtension.class)
@@ -37,4 +40,63 @@ class JwtUtilTest {
         String tampered = token.substring(0, token.length()-2) + "__";
         assertNull(jwtUtil.verify(tampered));
     }
-}
\ No newline at end of file
+
+    @Test
+    void cached_claims_expire_with_token() {
+        AtomicLong now = new AtomicLong(1_700_000_000_000L);
+        JwtUtil util = new JwtUtil("test_secret", 30, 100, now::get);
+        String token = util.issueToken(7L, "a@b.com");
+
+        JwtUtil.Claims first = util.verify(token);
+        assertNotNull(first);
+        assertSame(first, util.verify(token));
+        assertEquals(now.get() / 1000 + 30 * 60, first.getExpiresAt());
+
+        now.addAndGet(30 * 60 * 1000L);
+        assertNotNull(util.verify(token));
+        now.addAndGet(1000);
+        assertNull(util.verify(token));
+    }
+
+    @Test
+    void cache_is_bounded() {
+        AtomicLong now = new AtomicLong(1_700_000_000_000L);
+        JwtUtil util = new JwtUtil("test_secret", 30, 16, now::get);
+        for (long i = 0; i < 100; i++) {
+            assertNotNull(util.verify(util.issueToken(i, "u" + i + "@b.com")));
+            assertTrue(util.cacheSize() <= 16);
+        }
+        String token = util.issueToken(1000L, "a@b.com");
+        assertSame(util.verify(token), util.verify(token));
+    }
+
+    @Test
+    void rejects_tokens_signed_with_another_secret_or_malformed() {
+        String foreign = new JwtUtil("other_secret", 30).issueToken(1L, "a@b.com");
+        assertNull(jwtUtil.verify(foreign));
+        assertNull(jwtUtil.verify("a.b"));
+        assertNull(jwtUtil.verify("a.b.c.d"));
+        assertNull(jwtUtil.verify(null));
+    }
+
+    @Test
+    void email_with_quotes_round_trips() {
+        JwtUtil.Claims claims = jwtUtil.verify(jwtUtil.issueToken(5L, "we\"ird,:@x.com"));
+        assertNotNull(claims);
+        assertEquals("we\"ird,:@x.com", claims.getEmail());
+    }
+
+    @Test
+    void json_parser_handles_escapes_nesting_and_numbers() {
+        Map<String, Object> map = JwtUtil.Json.parseObject(
+                " {\"sub\":\"1\", \"name\":\"a\\u0041\\n\", \"roles\":[\"x\",{\"y\":1}], \"exp\":-12, \"r\":1.5e2, \"ok\":true, \"n\":null} ");
+        assertEquals("1", map.get("sub"));
+        assertEquals("aA\n", map.get("name"));
+        assertEquals(-12L, map.get("exp"));
+        assertEquals(150.0, map.get("r"));
+        assertEquals(Boolean.TRUE, map.get("ok"));
+        assertTrue(map.containsKey("n"));
+        assertThrows(IllegalArgumentException.class, () -> JwtUtil.Json.parseObject("{\"a\":1,}"));
+        assertThrows(IllegalArgumentException.class, () -> JwtUtil.Json.parseObject("{\"a\":\"x}"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.resume.resumeai.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) hasher.destroy();
+    }
+
+    @Test
+    @DisplayName("calibrate: 取耗时不超过目标的最大工作因子，并受上下限约束")
+    void calibrate_picks_largest_strength_within_target() {
+        // strength 10 实测 40ms：11 -> 80ms，12 -> 160ms，13 -> 320ms
+        long nanos = TimeUnit.MILLISECONDS.toNanos(40);
+        assertThat(PasswordHasher.calibrate(10, 14, 250, s -> nanos)).isEqualTo(12);
+        assertThat(PasswordHasher.calibrate(10, 11, 250, s -> nanos)).isEqualTo(11);
+        assertThat(PasswordHasher.calibrate(10, 14, 10, s -> nanos)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("hash/verify: 往返校验，低于当前工作因子的哈希需要重新哈希")
+    void hash_verify_and_needs_rehash() {
+        hasher = new PasswordHasher(registry, 5, 1, 4, 5000);
+        String hash = hasher.hash("secret");
+
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(hasher.verify("secret", hash)).isTrue();
+        assertThat(hasher.verify("wrong", hash)).isFalse();
+        assertThat(hasher.needsRehash(hash)).isFalse();
+        assertThat(hasher.needsRehash("$2a$04$" + hash.substring(7))).isTrue();
+        assertThat(hasher.needsRehash("$2a$06$" + hash.substring(7))).isFalse();
+        assertThat(hasher.needsRehash("plain")).isFalse();
+        assertThat(registry.get("auth.password.hash").tag("op", "verify").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("队列已满时立即拒绝并计数")
+    void rejects_when_queue_full() throws Exception {
+        hasher = new PasswordHasher(registry, 4, 1, 1, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch drained = new CountDownLatch(1);
+        // 第一个任务占住唯一的线程，第二个占满队列
+        hasher.submit("test", () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return null;
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        hasher.rehashAsync("b", h -> drained.countDown());
+
+        try {
+            assertThatThrownBy(() -> hasher.hash("c")).isInstanceOf(PasswordHasherBusyException.class);
+            assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1.0);
+            assertThat(registry.get("auth.password.queue").gauge().value()).isEqualTo(1.0);
+        } finally {
+            release.countDown();
+        }
+        assertThat(drained.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(hasher.verify("c", hasher.hash("c"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("重新哈希的回调不占用哈希线程")
+    void rehash_callback_runs_off_pool() throws Exception {
+        hasher = new PasswordHasher(registry, 4, 1, 1, 5000);
+        CompletableFuture<String> thread = new CompletableFuture<>();
+        hasher.rehashAsync("a", h -> thread.complete(Thread.currentThread().getName()));
+
+        assertThat(thread.get(5, TimeUnit.SECONDS)).startsWith("password-rehash-");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.resume.resumeai.service;
 
-import com.resume.resumeai.crawler.CrawlerService;
+import com.resume.resumeai.crawler.CrawlerExecutor;
+import com.resume.resumeai.crawler.CrawlerQueueFullException;
+import com.resume.resumeai.crawler.CrawlerScheduler;
 import com.resume.resumeai.domain.CrawlerTask;
 import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.domain.User;
@@ -8,11 +10,15 @@ import com.resume.resumeai.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -24,7 +30,9 @@ class AdminServiceTest {
     private CrawlerTaskRepository crawlerTaskRepository;
     private TemplateRepository templateRepository;
     private JobRepository jobRepository;
-    private CrawlerService crawlerService;
+    private CrawlerExecutor crawlerExecutor;
+    private CrawlerScheduler crawlerScheduler;
+    private StatsRepository statsRepository;
 
     @BeforeEach
     void setUp() {
@@ -33,26 +41,33 @@ class AdminServiceTest {
         crawlerTaskRepository = mock(CrawlerTaskRepository.class);
         templateRepository = mock(TemplateRepository.class);
         jobRepository = mock(JobRepository.class);
-        crawlerService = mock(CrawlerService.class);
+        crawlerExecutor = mock(CrawlerExecutor.class);
+        crawlerScheduler = mock(CrawlerScheduler.class);
+        statsRepository = mock(StatsRepository.class);
 
         adminService = new AdminService(userRepository, resumeRepository, crawlerTaskRepository,
-                templateRepository, jobRepository, crawlerService);
+                templateRepository, jobRepository, crawlerExecutor, crawlerScheduler,
+                new JobCountService(jobRepository, Duration.ofSeconds(30), 100, 50_000, Duration.ofMinutes(10), System::currentTimeMillis),
+                new AdminStatsService(statsRepository, mock(PlatformTransactionManager.class)));
     }
 
     @Test
-    @DisplayName("getStats: 聚合各模块统计数据")
+    @DisplayName("getStats: 从聚合表读取各模块统计数据，不扫描业务表")
     void getStats_logic() {
-        when(userRepository.count()).thenReturn(10);
-        when(resumeRepository.count(null)).thenReturn(20);
+        when(statsRepository.counters()).thenReturn(Map.of(StatsRepository.USERS, 10L, StatsRepository.RESUMES, 20L));
         when(jobRepository.count(null, null)).thenReturn(30);
-        when(jobRepository.getCrawlTrend()).thenReturn(List.of(Map.of("date", "Mon", "count", 5)));
+        when(statsRepository.dailyJobs(any())).thenReturn(List.of(Map.of("date", LocalDate.of(2026, 3, 2), "count", 5L)));
+        when(statsRepository.topSources(5)).thenReturn(List.of(Map.of("source", "shixiseng.com", "count", 5L)));
 
         Map<String, Object> stats = adminService.getStats();
 
-        assertThat(stats.get("userCount")).isEqualTo(10);
-        assertThat(stats.get("resumeCount")).isEqualTo(20);
+        assertThat(stats.get("userCount")).isEqualTo(10L);
+        assertThat(stats.get("resumeCount")).isEqualTo(20L);
         assertThat(stats.get("jobCount")).isEqualTo(30);
-        assertThat(stats.get("crawlTrend")).isInstanceOf(List.class);
+        assertThat(stats.get("crawlTrend")).isEqualTo(List.of(Map.of("date", "Mon", "count", 5L)));
+        assertThat(stats.get("sourceDistribution")).isEqualTo(List.of(Map.of("source", "shixiseng.com", "count", 5L)));
+        verify(userRepository, never()).count();
+        verify(resumeRepository, never()).count(any());
     }
 
     @Test
@@ -68,21 +83,31 @@ class AdminServiceTest {
     }
 
     @Test
-    @DisplayName("createCrawlerTask: 生成 ID 并触发异步爬取")
-    void createCrawlerTask_triggers_crawler() throws InterruptedException {
+    @DisplayName("createCrawlerTask: 生成 ID 并放入执行队列")
+    void createCrawlerTask_enqueues() {
         CrawlerTask task = new CrawlerTask();
         task.setSource("lagou");
         task.setQuery("Java");
+        task.setRunState("Running");
 
         adminService.createCrawlerTask(task);
 
         assertThat(task.getId()).isNotNull();
         assertThat(task.getStatus()).isEqualTo("Active");
+        assertThat(task.getRunState()).isEqualTo("Idle");
         verify(crawlerTaskRepository).create(task);
-        
-        // Wait briefly for the thread to trigger mock
-        Thread.sleep(100);
-        verify(crawlerService).runCrawler(eq(task.getId()), eq("lagou"), eq("Java"), anyString());
+        verify(crawlerExecutor).enqueue(task);
+    }
+
+    @Test
+    @DisplayName("createCrawlerTask: 队列已满时异常向上抛出（由全局异常处理返回 429）")
+    void createCrawlerTask_queue_full() {
+        CrawlerTask task = new CrawlerTask();
+        task.setSource("lagou");
+        task.setQuery("Java");
+        when(crawlerExecutor.enqueue(task)).thenThrow(new CrawlerQueueFullException(50, 50));
+
+        assertThatThrownBy(() -> adminService.createCrawlerTask(task)).isInstanceOf(CrawlerQueueFullException.class);
     }
 
     @Test
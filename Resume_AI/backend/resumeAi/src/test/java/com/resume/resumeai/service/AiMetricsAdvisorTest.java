@@ -0,0 +1,71 @@
+package com.resume.resumeai.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AiMetricsAdvisorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AiMetricsAdvisor advisor = new AiMetricsAdvisor(registry);
+
+    @Test
+    @DisplayName("同步调用: 按上下文中的操作名记录调用耗时与 prompt/completion token 数")
+    void call_tags_operation() {
+        CallAdvisorChain chain = mock(CallAdvisorChain.class);
+        when(chain.nextCall(any())).thenReturn(response("ok", new DefaultUsage(30, 12)));
+
+        advisor.adviseCall(request("polish"), chain);
+
+        assertThat(registry.get("ai.llm.requests").tags("operation", "polish", "mode", "call", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("ai.llm.tokens").tags("operation", "polish", "type", "prompt").summary().totalAmount()).isEqualTo(30);
+        assertThat(registry.get("ai.llm.tokens").tags("operation", "polish", "type", "completion").summary().totalAmount()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("流式调用: 记录首个分片耗时，用量取自最后一个带用量的分片")
+    void stream_records_first_token_and_final_usage() {
+        StreamAdvisorChain chain = mock(StreamAdvisorChain.class);
+        when(chain.nextStream(any())).thenReturn(Flux.just(
+                response("好", null), response("的", null), response("", new DefaultUsage(20, 5))));
+
+        advisor.adviseStream(request("match"), chain).blockLast();
+
+        assertThat(registry.get("ai.llm.first_token").tags("operation", "match").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ai.llm.requests").tags("operation", "match", "mode", "stream", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("ai.llm.tokens").tags("operation", "match", "type", "prompt").summary().totalAmount()).isEqualTo(20);
+        assertThat(registry.get("ai.llm.tokens").tags("operation", "match", "type", "completion").summary().count()).isEqualTo(1);
+    }
+
+    private static ChatClientRequest request(String operation) {
+        return new ChatClientRequest(new Prompt("简历内容"), Map.of(AiMetricsAdvisor.OPERATION, operation));
+    }
+
+    private static ChatClientResponse response(String text, DefaultUsage usage) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+        if (usage != null) metadata.usage(usage);
+        ChatResponse chat = new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build());
+        return new ChatClientResponse(chat, Map.of());
+    }
+}
@@ -0,0 +1,101 @@
+package com.resume.resumeai.service;
+
+import com.resume.resumeai.domain.AiUsage;
+import com.resume.resumeai.repository.AiUsageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AiQuotaServiceTest {
+
+    private AiUsageRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:ai_quota_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(ds);
+        repository = new AiUsageRepository(new NamedParameterJdbcTemplate(ds));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private AiQuotaService quota(long requests, long tokens, Instant at) {
+        return new AiQuotaService(repository, new SimpleMeterRegistry(), true, requests, tokens, Clock.fixed(at, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("配额: 每日请求数或 token 用量达到上限后拒绝，次日重置，用户之间互不影响")
+    void daily_request_and_token_limits() {
+        Instant day1 = Instant.parse("2026-10-18T23:59:00Z");
+        AiQuotaService quota = quota(2, 100, day1);
+
+        assertThat(quota.tryAcquire(1)).isTrue();
+        assertThat(quota.tryAcquire(1)).isTrue();
+        assertThat(quota.tryAcquire(1)).isFalse();
+        assertThat(quota.usage(1)).isEqualTo(new AiUsage(2, 0));
+        assertThat(quota.secondsUntilReset()).isEqualTo(60);
+
+        assertThat(quota.tryAcquire(2)).isTrue();
+        quota.recordTokens(2, 100);
+        assertThat(quota.tryAcquire(2)).isFalse();
+
+        assertThat(quota(2, 100, day1.plusSeconds(120)).tryAcquire(1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("AiUsageAdvisor: 按模型返回的 usage 计入当前用户的 token 用量，没有 usage 时按字符数估算")
+    void advisor_records_tokens_for_current_user() {
+        AiQuotaService quota = quota(0, 0, Instant.parse("2026-10-18T08:00:00Z"));
+        AiUsageAdvisor advisor = new AiUsageAdvisor(quota);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("7", null, List.of()));
+        ChatClientRequest request = new ChatClientRequest(new Prompt("简历内容"), Map.of());
+
+        CallAdvisorChain chain = mock(CallAdvisorChain.class);
+        when(chain.nextCall(any())).thenReturn(response("ok", new DefaultUsage(30, 12)), response("好的", null));
+        advisor.adviseCall(request, chain);
+        assertThat(quota.usage(7).tokens()).isEqualTo(42);
+
+        advisor.adviseCall(request, chain);
+        assertThat(quota.usage(7).tokens()).isEqualTo(42 + AiUsageAdvisor.estimate("简历内容", "好的"));
+    }
+
+    private static ChatClientResponse response(String text, DefaultUsage usage) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+        if (usage != null) metadata.usage(usage);
+        ChatResponse chat = new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build());
+        return new ChatClientResponse(chat, Map.of());
+    }
+}
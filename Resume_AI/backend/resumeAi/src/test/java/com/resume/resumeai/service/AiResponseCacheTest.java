@@ -0,0 +1,122 @@
+package com.resume.resumeai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.resume.resumeai.domain.AiCacheEntry;
+import com.resume.resumeai.domain.dto.ai.ResumePolishResponse;
+import com.resume.resumeai.repository.AiCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AiResponseCacheTest {
+
+    private ObjectMapper mapper;
+    private SimpleMeterRegistry registry;
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ObjectMapper();
+        mapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        mapper.findAndRegisterModules();
+        registry = new SimpleMeterRegistry();
+        now = new AtomicLong(1_700_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("key: 空白差异归一化，操作/模型参数不同则键不同")
+    void key_normalization() {
+        AiResponseCache cache = cache(null, false, "qwen-plus", "0.3");
+        String k = cache.key("polish", "sys", "简历  内容\n\n第二行 ");
+        assertThat(cache.key("polish", " sys", "简历 内容 第二行")).isEqualTo(k);
+        assertThat(cache.key("match_report", "sys", "简历 内容 第二行")).isNotEqualTo(k);
+        assertThat(cache(null, false, "qwen-max", "0.3").key("polish", "sys", "简历 内容 第二行")).isNotEqualTo(k);
+        assertThat(cache(null, false, "qwen-plus", "0.7").key("polish", "sys", "简历 内容 第二行")).isNotEqualTo(k);
+    }
+
+    @Test
+    @DisplayName("get/put: 命中与未命中计数，过期后未命中")
+    void hit_miss_and_ttl() {
+        AiResponseCache cache = cache(null, false, "m", "0.3");
+        String key = cache.key("polish", "sys", "text");
+        assertThat(cache.get("polish", key, ResumePolishResponse.class)).isNull();
+        cache.put("polish", key, polished("done"));
+        assertThat(cache.get("polish", key, ResumePolishResponse.class).getPolishedText()).isEqualTo("done");
+
+        now.addAndGet(61 * 60_000L);
+        assertThat(cache.get("polish", key, ResumePolishResponse.class)).isNull();
+
+        assertThat(registry.counter("ai.cache.requests", "operation", "polish", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(registry.counter("ai.cache.requests", "operation", "polish", "result", "miss").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("get: 每次命中返回新实例，调用方修改结果不影响缓存条目")
+    void hits_are_independent_copies() {
+        AiResponseCache cache = cache(null, false, "m", "0.3");
+        String key = cache.key("polish", "sys", "text");
+        ResumePolishResponse original = polished("done");
+        cache.put("polish", key, original);
+        original.setPolishedText("changed after put");
+
+        ResumePolishResponse first = cache.get("polish", key, ResumePolishResponse.class);
+        first.setPolishedText("changed by caller");
+        ResumePolishResponse second = cache.get("polish", key, ResumePolishResponse.class);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPolishedText()).isEqualTo("done");
+    }
+
+    @Test
+    @DisplayName("persist: 写穿到表，重启后内存未命中时从表恢复")
+    void persist_and_reload() throws Exception {
+        AiCacheRepository repo = mock(AiCacheRepository.class);
+        AiResponseCache first = cache(repo, true, "m", "0.3");
+        String key = first.key("polish", "sys", "text");
+        first.put("polish", key, polished("persisted"));
+
+        ArgumentCaptor<AiCacheEntry> saved = ArgumentCaptor.forClass(AiCacheEntry.class);
+        verify(repo).upsert(saved.capture());
+        assertThat(saved.getValue().getCacheKey()).isEqualTo(key);
+        assertThat(saved.getValue().getExpiresAt()).isAfter(saved.getValue().getCreatedAt());
+
+        when(repo.findValid(eq(key), any(LocalDateTime.class))).thenReturn(saved.getValue());
+        AiResponseCache restarted = cache(repo, true, "m", "0.3");
+        assertThat(restarted.get("polish", key, ResumePolishResponse.class).getPolishedText()).isEqualTo("persisted");
+        // 回源后进入内存层，再次读取不再查表
+        restarted.get("polish", key, ResumePolishResponse.class);
+        verify(repo, times(1)).findValid(eq(key), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("disabled: 关闭后既不读也不写")
+    void disabled_cache_is_noop() {
+        AiCacheRepository repo = mock(AiCacheRepository.class);
+        AiResponseCache cache = new AiResponseCache(repo, mapper, registry, false, 10, 60, true, "m", "0.3", now::get);
+        String key = cache.key("polish", "sys", "text");
+        cache.put("polish", key, polished("x"));
+        assertThat(cache.get("polish", key, ResumePolishResponse.class)).isNull();
+        verifyNoInteractions(repo);
+    }
+
+    private AiResponseCache cache(AiCacheRepository repo, boolean persist, String model, String temperature) {
+        return new AiResponseCache(repo, mapper, registry, true, 10, 60, persist, model, temperature, now::get);
+    }
+
+    private static ResumePolishResponse polished(String text) {
+        ResumePolishResponse r = new ResumePolishResponse();
+        r.setPolishedText(text);
+        return r;
+    }
+}
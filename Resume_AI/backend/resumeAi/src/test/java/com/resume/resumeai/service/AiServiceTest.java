@@ -2,6 +2,7 @@ package com.resume.resumeai.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.resume.resumeai.domain.dto.ai.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,10 +11,14 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.ChatClient.Builder;
 import org.springframework.ai.chat.client.ChatClient.ChatClientRequestSpec;
 import org.springframework.ai.chat.client.ChatClient.CallResponseSpec;
+import org.springframework.ai.chat.client.ChatClient.StreamResponseSpec;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -23,6 +28,7 @@ class AiServiceTest {
     private ChatClient chatClient;
     private Builder chatClientBuilder;
     private ObjectMapper mapper;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -32,7 +38,10 @@ class AiServiceTest {
         
         mapper = new ObjectMapper();
         mapper.setPropertyNamingStrategy(com.fasterxml.jackson.databind.PropertyNamingStrategies.SNAKE_CASE);
-        aiService = new AiService(chatClientBuilder, mapper);
+        AiResponseCache cache = new AiResponseCache(null, mapper, new SimpleMeterRegistry(),
+                true, 100, 60, false, "test-model", "0.3", System::currentTimeMillis);
+        meterRegistry = new SimpleMeterRegistry();
+        aiService = new AiService(chatClientBuilder, mapper, cache, meterRegistry);
     }
 
     @Test
@@ -60,6 +69,7 @@ class AiServiceTest {
         ResumePolishResponse resp = aiService.polish(req);
         
         assertThat(resp.getPolishedText()).isEqualTo("invalid json");
+        assertThat(meterRegistry.get("ai.parse.failures").tag("operation", "polish").counter().count()).isEqualTo(1);
     }
 
     @Test
@@ -91,11 +101,93 @@ class AiServiceTest {
         assertThat(resp.getAnalysis()).isEqualTo("Great match");
     }
 
+    @Test
+    @DisplayName("polish: 相同输入第二次命中缓存，不再调用模型")
+    void polish_second_call_hits_cache() {
+        setupMockChatCall("{\"polished_text\": \"Optimized content\"}");
+
+        ResumePolishRequest req = new ResumePolishRequest();
+        req.setText("Original content");
+        aiService.polish(req);
+        req.setText("  Original   content ");
+        ResumePolishResponse resp = aiService.polish(req);
+
+        assertThat(resp.getPolishedText()).isEqualTo("Optimized content");
+        verify(chatClient, times(1)).prompt();
+    }
+
+    @Test
+    @DisplayName("polish: 解析失败的兜底结果不缓存")
+    void polish_fallback_not_cached() {
+        setupMockChatCall("invalid json");
+
+        ResumePolishRequest req = new ResumePolishRequest();
+        req.setText("Original content");
+        aiService.polish(req);
+        aiService.polish(req);
+
+        verify(chatClient, times(2)).prompt();
+    }
+
+    @Test
+    @DisplayName("recommend: 缓存过滤前结果，不同过滤条件共用一次模型调用")
+    void recommend_cache_shared_across_filters() {
+        setupMockChatCall("{\"items\": [" +
+                "{\"title\":\"Java Guy\", \"score\": 90, \"reason\": \"Good\"}," +
+                "{\"title\":\"Python Guy\", \"score\": 50, \"reason\": \"Bad\"}" +
+                "]}");
+
+        JobRecommendRequest req = new JobRecommendRequest();
+        assertThat(aiService.recommend(req, null, 80.0, null).getItems()).hasSize(1);
+        assertThat(aiService.recommend(req, "score_desc", null, null).getItems()).hasSize(2);
+        verify(chatClient, times(1)).prompt();
+    }
+
+    @Test
+    @DisplayName("polishStream: 先推送增量，再推送解析后的结果，并写入缓存")
+    void polishStream_deltas_then_result() {
+        setupMockChatStream(Flux.just("```json\n{\"polished_", "text\": \"Streamed\"}", "\n```"));
+
+        ResumePolishRequest req = new ResumePolishRequest();
+        req.setText("Original content");
+        List<AiStreamEvent> events = aiService.polishStream(req).collectList().block();
+
+        assertThat(events).extracting(AiStreamEvent::getType)
+                .containsExactly("delta", "delta", "delta", "result");
+        assertThat(((ResumePolishResponse) events.get(3).getResult()).getPolishedText()).isEqualTo("Streamed");
+        // 流式结果进入缓存后，同步接口直接命中
+        assertThat(aiService.polish(req).getPolishedText()).isEqualTo("Streamed");
+        verify(chatClient, times(1)).prompt();
+    }
+
+    @Test
+    @DisplayName("matchReportStream: 模型调用出错时推送 error 事件并正常结束")
+    void matchReportStream_error_event() {
+        setupMockChatStream(Flux.concat(Flux.just("{\"score\""), Flux.error(new IllegalStateException("boom"))));
+
+        List<AiStreamEvent> events = aiService.matchReportStream(new MatchReportRequest()).collectList().block();
+
+        assertThat(events).extracting(AiStreamEvent::getType).containsExactly("delta", "error");
+    }
+
+    private void setupMockChatStream(Flux<String> chunks) {
+        ChatClientRequestSpec requestSpec = mock(ChatClientRequestSpec.class);
+        StreamResponseSpec responseSpec = mock(StreamResponseSpec.class);
+
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.advisors(any(Consumer.class))).thenReturn(requestSpec);
+        when(requestSpec.system(anyString())).thenReturn(requestSpec);
+        when(requestSpec.user(anyString())).thenReturn(requestSpec);
+        when(requestSpec.stream()).thenReturn(responseSpec);
+        when(responseSpec.content()).thenReturn(chunks);
+    }
+
     private void setupMockChatCall(String responseText) {
         ChatClientRequestSpec requestSpec = mock(ChatClientRequestSpec.class);
         CallResponseSpec responseSpec = mock(CallResponseSpec.class);
         
         when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.advisors(any(Consumer.class))).thenReturn(requestSpec);
         when(requestSpec.system(anyString())).thenReturn(requestSpec);
         when(requestSpec.user(anyString())).thenReturn(requestSpec);
         when(requestSpec.call()).thenReturn(responseSpec);
@@ -5,10 +5,13 @@ import com.resume.resumeai.domain.dto.LoginRequest;
 import com.resume.resumeai.domain.dto.RegisterRequest;
 import com.resume.resumeai.repository.UserRepository;
 import com.resume.resumeai.security.JwtUtil;
-import com.resume.resumeai.util.PasswordUtil;
+import com.resume.resumeai.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Map;
 
@@ -16,6 +19,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 class AuthServiceTest {
@@ -23,12 +28,23 @@ class AuthServiceTest {
     private AuthService authService;
     private UserRepository userRepository;
     private JwtUtil jwtUtil;
+    private PasswordHasher passwordHasher;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
         jwtUtil = mock(JwtUtil.class);
-        authService = new AuthService(userRepository, jwtUtil);
+        passwordHasher = new PasswordHasher(new SimpleMeterRegistry(), 5, 1, 16, 5000);
+        authService = new AuthService(userRepository, jwtUtil, passwordHasher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    private static String bcrypt(int strength, String raw) {
+        return new BCryptPasswordEncoder(strength).encode(raw);
     }
 
     @Test
@@ -75,13 +91,14 @@ class AuthServiceTest {
         User u = new User();
         u.setId(1L);
         u.setEmail("user@example.com");
-        u.setPasswordHash(PasswordUtil.hash("password"));
+        u.setPasswordHash(bcrypt(5, "password"));
         
         when(userRepository.findByEmail("user@example.com")).thenReturn(u);
         when(jwtUtil.issueToken(1L, "user@example.com")).thenReturn("mock-token");
 
         Map<String, Object> result = authService.login(req);
         assertThat(result.get("token")).isEqualTo("mock-token");
+        verify(userRepository, never()).updatePassword(any(), any(), any());
     }
 
     @Test
@@ -92,10 +109,30 @@ class AuthServiceTest {
         req.setPassword("wrong");
 
         User u = new User();
-        u.setPasswordHash(PasswordUtil.hash("correct"));
+        u.setPasswordHash(bcrypt(5, "correct"));
         when(userRepository.findByEmail("user@example.com")).thenReturn(u);
 
         assertThatThrownBy(() -> authService.login(req))
                 .isInstanceOf(IllegalArgumentException.class);
     }
+
+    @Test
+    @DisplayName("login: 已存哈希工作因子较低时后台重新哈希并回写")
+    void login_rehashes_weaker_hash() {
+        LoginRequest req = new LoginRequest();
+        req.setEmail("user@example.com");
+        req.setPassword("password");
+
+        User u = new User();
+        u.setId(1L);
+        u.setEmail("user@example.com");
+        String weak = bcrypt(4, "password");
+        u.setPasswordHash(weak);
+        when(userRepository.findByEmail("user@example.com")).thenReturn(u);
+        when(jwtUtil.issueToken(1L, "user@example.com")).thenReturn("mock-token");
+
+        authService.login(req);
+
+        verify(userRepository, timeout(5000)).updatePassword(eq(1L), eq(weak), startsWith("$2a$05$"));
+    }
 }
@@ -0,0 +1,111 @@
+package com.resume.resumeai.service;
+
+import com.resume.resumeai.domain.JobPosition;
+import com.resume.resumeai.domain.event.JobDeletedEvent;
+import com.resume.resumeai.domain.event.JobsSavedEvent;
+import com.resume.resumeai.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JobCountServiceTest {
+
+    private JobRepository jobRepository;
+    private long[] now;
+    private JobCountService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(JobRepository.class);
+        now = new long[]{0};
+        service = new JobCountService(jobRepository, Duration.ofSeconds(30), 100, 1000, Duration.ofMinutes(10), () -> now[0]);
+    }
+
+    @Test
+    @DisplayName("total: 首次 COUNT 后随写入/删除事件增减，到校准间隔才重新 COUNT")
+    void total_is_maintained_by_events() {
+        when(jobRepository.count(null, null)).thenReturn(10, 50);
+
+        assertThat(service.total()).isEqualTo(10);
+        service.onJobsSaved(new JobsSavedEvent(List.of(new JobPosition(), new JobPosition()), 2));
+        service.onJobDeleted(new JobDeletedEvent(1L));
+        assertThat(service.total()).isEqualTo(11);
+        verify(jobRepository, times(1)).count(null, null);
+
+        now[0] = Duration.ofMinutes(10).toMillis();
+        assertThat(service.total()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("total: 新增数未知的写入事件触发下次重新 COUNT")
+    void unknown_inserted_count_triggers_recount() {
+        when(jobRepository.count(null, null)).thenReturn(10, 13);
+
+        service.total();
+        service.onJobsSaved(new JobsSavedEvent(List.of(new JobPosition())));
+
+        assertThat(service.total()).isEqualTo(13);
+        verify(jobRepository, times(2)).count(null, null);
+    }
+
+    @Test
+    @DisplayName("total: COUNT 在锁外执行，并发读取合并为一次，期间的事件不被阻塞且叠加到结果上")
+    void recount_runs_outside_lock() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jobRepository.count(null, null)).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 10;
+        });
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(service::total);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(service::total);
+        CompletableFuture.runAsync(() -> {
+            service.onJobsSaved(new JobsSavedEvent(List.of(new JobPosition(), new JobPosition()), 2));
+            service.onJobDeleted(new JobDeletedEvent(1L));
+        }).get(1, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(11);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(11);
+        assertThat(service.total()).isEqualTo(11);
+        verify(jobRepository, times(1)).count(null, null);
+    }
+
+    @Test
+    @DisplayName("count: 归一化后的条件命中缓存，有写入后失效")
+    void filtered_count_is_cached_until_jobs_saved() {
+        when(jobRepository.count(null, null)).thenReturn(100);
+        when(jobRepository.count("Java", "北京")).thenReturn(7, 8);
+
+        assertThat(service.count("Java", "北京")).isEqualTo(new JobCountService.JobCount(7, false));
+        assertThat(service.count(" java ", "北京").total()).isEqualTo(7);
+        verify(jobRepository, times(1)).count("Java", "北京");
+
+        service.onJobsSaved(new JobsSavedEvent(List.of(new JobPosition()), 1));
+        assertThat(service.count("Java", "北京").total()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("count: 总数超过 exact-scan-limit 时按最新样本估算并标记")
+    void large_table_returns_flagged_estimate() {
+        when(jobRepository.count(null, null)).thenReturn(4000);
+        when(jobRepository.countInLatest("Java", null, 1000)).thenReturn(25);
+
+        JobCountService.JobCount count = service.count("Java", null);
+
+        assertThat(count).isEqualTo(new JobCountService.JobCount(100, true));
+        verify(jobRepository, never()).count("Java", null);
+    }
+}
@@ -2,6 +2,8 @@ package com.resume.resumeai.service;
 
 import com.resume.resumeai.domain.JobPosition;
 import com.resume.resumeai.repository.JobRepository;
+import com.resume.resumeai.search.JobSearchHits;
+import com.resume.resumeai.search.JobSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,17 +15,41 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class MatchServiceTest {
 
     private MatchService matchService;
     private JobRepository jobRepository;
+    private JobSearchIndex searchIndex;
 
     @BeforeEach
     void setUp() {
         jobRepository = mock(JobRepository.class);
-        matchService = new MatchService(jobRepository);
+        searchIndex = mock(JobSearchIndex.class);
+        matchService = new MatchService(jobRepository, searchIndex);
+    }
+
+    @Test
+    @DisplayName("recommend: 索引就绪时对全量职位打分并只回表 Top-K")
+    void recommend_with_index() {
+        JobPosition j1 = new JobPosition();
+        j1.setId(7L);
+        j1.setJobTitle("Java Developer");
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.match(eq("Java Developer"), anyInt()))
+                .thenReturn(new JobSearchHits(List.of(7L), List.of(0.8), 1));
+        when(jobRepository.findByIds(List.of(7L))).thenReturn(List.of(j1));
+
+        Map<String, Object> result = matchService.recommend(Map.of("resumeText", "Java Developer"));
+
+        List<Map<String, Object>> items = (List<Map<String, Object>>) result.get("items");
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0).get("job")).isSameAs(j1);
+        assertThat((Double) items.get(0).get("score")).isEqualTo(0.8);
+        verify(jobRepository, never()).search(anyString(), any(), anyInt(), anyInt());
     }
 
     @Test
@@ -0,0 +1,39 @@
+package com.resume.resumeai.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("加入过的元素一定命中，未加入的误判率接近设定值")
+    void no_false_negatives_and_bounded_false_positives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        SplittableRandom rnd = new SplittableRandom(7);
+        long[][] added = new long[10_000][];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = new long[]{rnd.nextLong(), rnd.nextLong()};
+            filter.put(added[i][0], added[i][1]);
+        }
+        for (long[] h : added) assertThat(filter.mightContain(h[0], h[1])).isTrue();
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(rnd.nextLong(), rnd.nextLong())) falsePositives++;
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("非法参数抛出 IllegalArgumentException")
+    void rejects_invalid_arguments() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.resume.resumeai.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruCacheTest {
+
+    @Test
+    @DisplayName("容量满时淘汰最久未访问的条目")
+    void evicts_least_recently_used() {
+        LruCache<String, Integer> cache = new LruCache<>(2, null);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("超过存活时间的条目不再返回，写入时清理过期条目")
+    void expires_after_ttl() {
+        AtomicLong now = new AtomicLong(0);
+        LruCache<String, Integer> cache = new LruCache<>(10, Duration.ofSeconds(10), now::get);
+        cache.put("a", 1);
+        now.set(5_000);
+        cache.put("b", 2);
+        now.set(10_000);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo(2);
+        now.set(15_000);
+        cache.put("c", 3);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.evictions()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("按绝对过期时间写入")
+    void put_with_explicit_expiry() {
+        AtomicLong now = new AtomicLong(0);
+        LruCache<String, Integer> cache = new LruCache<>(10, Duration.ofMinutes(1), now::get);
+        cache.put("a", 1, 1_000);
+        now.set(999);
+        assertThat(cache.get("a")).isEqualTo(1);
+        now.set(1_000);
+        assertThat(cache.get("a")).isNull();
+    }
+}
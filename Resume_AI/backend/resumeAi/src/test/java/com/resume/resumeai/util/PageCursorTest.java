@@ -0,0 +1,33 @@
+package com.resume.resumeai.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    @DisplayName("编码后可原样解析，空串表示第一页，篡改的游标抛出 IllegalArgumentException")
+    void round_trip_and_validation() {
+        PageCursor c = new PageCursor(1.25, PageCursor.of(LocalDateTime.of(2026, 10, 18, 9, 0), 42).time(), 42);
+        assertThat(PageCursor.decode(c.encode())).isEqualTo(c);
+        assertThat(PageCursor.decode(c.encode()).localDateTime()).isEqualTo(LocalDateTime.of(2026, 10, 18, 9, 0));
+        assertThat(PageCursor.decode("")).isNull();
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(c.encode().substring(2))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("CursorPage: 多取的一条被截去并生成下一页游标，不足一页时没有游标")
+    void cursor_page_from_limit_plus_one() {
+        CursorPage<Long> page = CursorPage.of(List.of(9L, 8L, 7L), 2, id -> new PageCursor(0, 0, id));
+        assertThat(page.items()).containsExactly(9L, 8L);
+        assertThat(PageCursor.decode(page.nextCursor()).id()).isEqualTo(8L);
+        assertThat(CursorPage.of(List.of(9L), 2, id -> new PageCursor(0, 0, id)).nextCursor()).isNull();
+    }
+}
@@ -34,4 +34,32 @@ class TextMatcherTest {
     void score_ignore_case() {
         assertThat(TextMatcher.score("JAVA", "java")).isEqualTo(1.0);
     }
+
+    @Test
+    @DisplayName("hashedScore: 与原实现保持相同的 [0,1] 语义")
+    void hashed_same_contract() {
+        assertThat(TextMatcher.hashedScore("Java Spring", "Java Spring")).isEqualTo(1.0);
+        assertThat(TextMatcher.hashedScore("Java", "Java Spring")).isEqualTo(0.5);
+        assertThat(TextMatcher.hashedScore("JAVA", "java")).isEqualTo(1.0);
+        assertThat(TextMatcher.hashedScore(null, "Java")).isEqualTo(0.0);
+        assertThat(TextMatcher.hashedScore("", "Java")).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("hashedScore: 中文按二元组计算重合度，重复词不超过 1.0")
+    void hashed_chinese_and_duplicates() {
+        // 前端开发 -> 前端/端开/开发；前端工程师 -> 前端/端工/工程/程师
+        assertThat(TextMatcher.hashedScore("前端开发", "前端工程师")).isEqualTo(0.25);
+        assertThat(TextMatcher.hashedScore("java java", "java java")).isEqualTo(1.0);
+        assertThat(TextMatcher.score("前端开发", "前端工程师", TextMatcher.Mode.WHITESPACE)).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("hashedScore: 大量不同词项时哈希表扩容后结果正确")
+    void hashed_many_terms() {
+        StringBuilder a = new StringBuilder();
+        for (int i = 0; i < 2000; i++) a.append("w").append(i).append(' ');
+        assertThat(TextMatcher.hashedScore(a.toString(), a.toString())).isEqualTo(1.0);
+        assertThat(TextMatcher.hashedScore(a.toString(), "w1 w2 w3 x")).isEqualTo(3 / 2000.0);
+    }
 }
@@ -0,0 +1,29 @@
+package com.resume.resumeai.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextTokenizerTest {
+
+    @Test
+    @DisplayName("tokens: 中文按二元组切分，英文转小写")
+    void tokens_mixed_text() {
+        assertThat(TextTokenizer.tokens("Java后端开发, Spring Boot"))
+                .containsExactly("java", "后端", "端开", "开发", "spring", "boot");
+    }
+
+    @Test
+    @DisplayName("tokens: 单个汉字保留为一元词，保留 c++ / c#")
+    void tokens_single_cjk_and_symbols() {
+        assertThat(TextTokenizer.tokens("熟悉C++与C#")).containsExactly("熟悉", "c++", "与", "c#");
+    }
+
+    @Test
+    @DisplayName("tokens: null 与纯标点返回空")
+    void tokens_empty() {
+        assertThat(TextTokenizer.tokens(null)).isEmpty();
+        assertThat(TextTokenizer.tokens("，。!?")).isEmpty();
+    }
+}
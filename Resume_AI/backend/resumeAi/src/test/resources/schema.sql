@@ -12,6 +12,8 @@ CREATE TABLE IF NOT EXISTS users (
   email VARCHAR(100) NOT NULL,
   password VARCHAR(255) NOT NULL,
   username VARCHAR(100) NOT NULL,
+  role VARCHAR(20) NOT NULL DEFAULT 'User',
+  status VARCHAR(20) NOT NULL DEFAULT 'Active',
   type INT NOT NULL DEFAULT 0,
   created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
   updated_at DATETIME NULL DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP,
@@ -27,6 +29,31 @@ CREATE TABLE IF NOT EXISTS templates (
   schema_json TEXT NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- crawler_tasks
+CREATE TABLE IF NOT EXISTS crawler_tasks (
+  id VARCHAR(36) PRIMARY KEY,
+  query VARCHAR(255) NOT NULL,
+  source VARCHAR(100) NOT NULL,
+  frequency VARCHAR(50) NOT NULL,
+  last_run DATETIME NULL,
+  next_run DATETIME NULL,
+  status VARCHAR(20) NOT NULL DEFAULT 'Active',
+  last_status VARCHAR(20) NULL,
+  priority INT NOT NULL DEFAULT 0,
+  run_state VARCHAR(20) NOT NULL DEFAULT 'Idle',
+  queued_at DATETIME(3) NULL,
+  started_at DATETIME NULL,
+  owner VARCHAR(128) NULL,
+  lease_expires_at DATETIME(3) NULL,
+  last_inserted INT NOT NULL DEFAULT 0,
+  last_updated INT NOT NULL DEFAULT 0,
+  last_skipped INT NOT NULL DEFAULT 0,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  KEY idx_run_state_priority (run_state, priority, queued_at),
+  KEY idx_run_state_lease (run_state, lease_expires_at),
+  KEY idx_status_next_run (status, next_run)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- resumes
 CREATE TABLE IF NOT EXISTS resumes (
   id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -37,6 +64,8 @@ CREATE TABLE IF NOT EXISTS resumes (
   created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
   updated_at DATETIME NULL DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP,
   KEY idx_user_id (user_id),
+  KEY idx_user_updated (user_id, updated_at),
+  KEY idx_updated_at (updated_at),
   CONSTRAINT fk_resumes_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -50,9 +79,61 @@ CREATE TABLE IF NOT EXISTS job_positions (
   salary VARCHAR(50) NULL,
   source_url VARCHAR(255) NULL,
   crawl_time DATETIME NOT NULL,
+  url_hash CHAR(64) NULL,
+  content_hash CHAR(64) NULL,
+  UNIQUE KEY uk_url_hash (url_hash),
   KEY idx_crawl_time (crawl_time),
   KEY idx_job_title (job_title),
   KEY idx_company_name (company_name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- ai_response_cache
+CREATE TABLE IF NOT EXISTS ai_response_cache (
+  cache_key CHAR(64) PRIMARY KEY,
+  operation VARCHAR(32) NOT NULL,
+  payload MEDIUMTEXT NOT NULL,
+  created_at DATETIME NOT NULL,
+  expires_at DATETIME NOT NULL,
+  KEY idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- stats_counters
+CREATE TABLE IF NOT EXISTS stats_counters (
+  name VARCHAR(32) PRIMARY KEY,
+  total BIGINT NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- stats_job_daily
+CREATE TABLE IF NOT EXISTS stats_job_daily (
+  stat_date DATE NOT NULL,
+  source VARCHAR(100) NOT NULL,
+  jobs INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (stat_date, source)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- stats_job_source
+CREATE TABLE IF NOT EXISTS stats_job_source (
+  source VARCHAR(100) PRIMARY KEY,
+  jobs INT NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- rate_limit_counters
+CREATE TABLE IF NOT EXISTS rate_limit_counters (
+  bucket_key VARCHAR(255) NOT NULL,
+  window_start BIGINT NOT NULL,
+  hits INT NOT NULL DEFAULT 0,
+  expires_at BIGINT NOT NULL,
+  PRIMARY KEY (bucket_key, window_start),
+  KEY idx_rate_limit_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ai_usage
+CREATE TABLE IF NOT EXISTS ai_usage (
+  user_id BIGINT NOT NULL,
+  usage_date DATE NOT NULL,
+  requests INT NOT NULL DEFAULT 0,
+  tokens BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (user_id, usage_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 SET FOREIGN_KEY_CHECKS = 1;
\ No newline at end of file
@@ -115,6 +115,7 @@ export interface CrawlerTask {
   lastRun: string | null;
   nextRun: string;
   status: 'Active' | 'Paused';
+  lastStatus?: 'Completed' | 'Failed' | null;
 }
 
 export interface AdminTemplate {